@@ -0,0 +1,31 @@
+package org.example.zerotohero;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Leitet {@link System#out} für die Dauer eines Benchmarks in einen Null-Stream um. Gemessen werden so
+ * Formatierung, Allokation und die {@code PrintStream}-Sperre der Konsolenausgaben, nicht das Terminal.
+ * Ein Benchmark bindet den Zustand ein, indem er ihn als Parameter annimmt.
+ */
+@State(Scope.Benchmark)
+public class NullAusgabe {
+    private PrintStream original;
+
+    @Setup(Level.Trial)
+    public void umleiten() {
+        original = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void zuruecksetzen() {
+        System.setOut(original);
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.zerotohero.exceptions;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MassenDivision#dividieren} gegen {@link MassenDivision#dividierenEinzeln} (Division und
+ * {@link ArithmeticException} fangen wie in {@link GrundlegendeExceptionBehandlung}), bei wachsendem
+ * Anteil von Nennern 0.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MassenDivisionBenchmark {
+
+    private static final int ANZAHL = 1 << 16;
+
+    @Param({"0", "1", "10", "50"})
+    int prozentNull;
+
+    private int[] zaehler;
+    private int[] nenner;
+    private int[] ergebnis;
+
+    @Setup
+    public void vorbereiten() {
+        Random zufall = new Random(1);
+        zaehler = new int[ANZAHL];
+        nenner = new int[ANZAHL];
+        ergebnis = new int[ANZAHL];
+        for (int i = 0; i < ANZAHL; i++) {
+            zaehler[i] = zufall.nextInt();
+            nenner[i] = zufall.nextInt(100) < prozentNull ? 0 : zufall.nextInt(1_000) + 1;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ANZAHL)
+    public DivisionsErgebnis einzelnMitAusnahmen() {
+        return MassenDivision.dividierenEinzeln(zaehler, nenner, ergebnis);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ANZAHL)
+    public DivisionsErgebnis vorabGeprueft() {
+        return MassenDivision.dividieren(zaehler, nenner, ergebnis);
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.zerotohero.exceptions.custom_exceptions;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vergleicht abgelehnte Abhebungen: klassische {@link UngenuegendeDeckungException},
+ * leichte Exception ohne Stack Trace und Ergebnis-Modus mit {@link AbhebungsErgebnis}.
+ * Die Stapeltiefe simuliert, wie tief im Aufrufbaum die Abhebung passiert –
+ * die Kosten des Stack Traces wachsen mit ihr. {@code erfolgreicheAbhebung} misst zum Vergleich
+ * den Weg ohne Exception, ohne Ereignisausgabe.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dzerotohero.ereignisse=aus")
+public class AbhebenBenchmark {
+
+    @Param({"0", "50"})
+    int stapelTiefe;
+
+    private BankkontoMitCustomExceptions konto;
+    private BankkontoMitCustomExceptions gedecktesKonto;
+    private final AbhebungsErgebnis ergebnis = new AbhebungsErgebnis();
+
+    @Setup
+    public void vorbereiten() {
+        konto = new BankkontoMitCustomExceptions("Benchmark", 10.0);
+        gedecktesKonto = new BankkontoMitCustomExceptions("Benchmark", 1e15);
+    }
+
+    @Benchmark
+    public double erfolgreicheAbhebung() throws UngenuegendeDeckungException {
+        gedecktesKonto.abheben(0.5);
+        return gedecktesKonto.getKontostand();
+    }
+
+    @Benchmark
+    public double klassischeException() {
+        return klassisch(stapelTiefe);
+    }
+
+    @Benchmark
+    public double exceptionOhneStackTrace() {
+        return ohneStackTrace(stapelTiefe);
+    }
+
+    @Benchmark
+    public double ergebnisModus() {
+        return ergebnis(stapelTiefe);
+    }
+
+    private double klassisch(int tiefe) {
+        if (tiefe > 0) {
+            return klassisch(tiefe - 1);
+        }
+        try {
+            konto.abheben(50.0);
+            return 0;
+        } catch (UngenuegendeDeckungException e) {
+            return e.getFehlenderBetrag();
+        }
+    }
+
+    private double ohneStackTrace(int tiefe) {
+        if (tiefe > 0) {
+            return ohneStackTrace(tiefe - 1);
+        }
+        try {
+            konto.abhebenOhneStackTrace(50.0);
+            return 0;
+        } catch (UngenuegendeDeckungException e) {
+            return e.getFehlenderBetrag();
+        }
+    }
+
+    private double ergebnis(int tiefe) {
+        if (tiefe > 0) {
+            return ergebnis(tiefe - 1);
+        }
+        konto.abheben(50.0, ergebnis);
+        return ergebnis.getFehlenderBetrag();
+    }
+}
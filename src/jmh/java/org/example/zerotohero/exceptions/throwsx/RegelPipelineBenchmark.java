@@ -0,0 +1,99 @@
+package org.example.zerotohero.exceptions.throwsx;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Kosten pro Datensatz in Abhängigkeit von der Regelanzahl: mit {@link Predicate#and} verkettete Lambdas
+ * gegenüber dem {@link KompilierterValidator}, zeilenweise ({@code istGueltig}) und spaltenweise
+ * ({@code validieren}). Die Regeln wechseln reihum zwischen Bereich, Menge und Vergleich.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegelPipelineBenchmark {
+
+    private static final int ANZAHL = 65_536;
+    private static final String[] FELDER = {"alter", "eintrittsalter", "status", "plz"};
+
+    @Param({"2", "8", "32"})
+    int regeln;
+
+    private int[][] datensaetze;
+    private int[][] spalten;
+    private Predicate<int[]> kette;
+    private KompilierterValidator validator;
+
+    @Setup
+    public void vorbereiten() {
+        RegelPipeline pipeline = RegelPipeline.fuer(FELDER);
+        for (int r = 0; r < regeln; r++) {
+            // Weite Grenzen, damit fast alle Datensätze alle Regeln durchlaufen
+            switch (r % 3) {
+                case 0 -> pipeline.bereich("Bereich " + r, FELDER[r % 4], -10 - r, 1_000_000 + r, Schwere.FEHLER);
+                case 1 -> pipeline.menge("Menge " + r, "status", Schwere.FEHLER, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 100 + r);
+                default -> pipeline.vergleich("Vergleich " + r, "eintrittsalter", Vergleich.KLEINER_GLEICH, "plz", Schwere.FEHLER);
+            }
+        }
+        kette = pipeline.alsPraedikatKette();
+        validator = pipeline.kompilieren();
+
+        Random zufall = new Random(13);
+        datensaetze = new int[ANZAHL][];
+        spalten = new int[FELDER.length][ANZAHL];
+        for (int i = 0; i < ANZAHL; i++) {
+            int[] datensatz = {zufall.nextInt(120), zufall.nextInt(100), zufall.nextInt(10), 10_000 + zufall.nextInt(90_000)};
+            datensaetze[i] = datensatz;
+            for (int feld = 0; feld < FELDER.length; feld++) {
+                spalten[feld][i] = datensatz[feld];
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ANZAHL)
+    public int praedikatKette() {
+        int gueltig = 0;
+        for (int[] datensatz : datensaetze) {
+            if (kette.test(datensatz)) {
+                gueltig++;
+            }
+        }
+        return gueltig;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ANZAHL)
+    public int kompiliertZeilenweise() {
+        int gueltig = 0;
+        for (int[] datensatz : datensaetze) {
+            if (validator.istGueltig(datensatz)) {
+                gueltig++;
+            }
+        }
+        return gueltig;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ANZAHL)
+    public ValidierungsErgebnis kompiliertSpaltenweise() {
+        return validator.validieren(spalten, ANZAHL);
+    }
+}
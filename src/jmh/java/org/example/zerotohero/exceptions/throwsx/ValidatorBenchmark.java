@@ -0,0 +1,87 @@
+package org.example.zerotohero.exceptions.throwsx;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kosten von {@link Validator#validiereAlter(int)} auf den drei Wegen gültig, Warnung und Exception,
+ * ohne Ereignisausgabe, sowie pro Wert über eine ganze Spalte: einzeln mit gefangener Exception
+ * gegenüber {@link Validator#validiereAlter(int[])}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dzerotohero.ereignisse=aus")
+public class ValidatorBenchmark {
+
+    private static final int SPALTE = 65_536;
+
+    private final Validator validator = new Validator();
+    private int gueltig = 25;
+    private int hoch = 130;
+    private int negativ = -5;
+    private int[] spalte;
+
+    @Setup
+    public void vorbereiten() {
+        Random zufall = new Random(17);
+        spalte = new int[SPALTE];
+        for (int i = 0; i < SPALTE; i++) {
+            spalte[i] = zufall.nextInt(140) - 5; // etwa 4 % negativ, 14 % über 120
+        }
+    }
+
+    @Benchmark
+    public void gueltig() {
+        validator.validiereAlter(gueltig);
+    }
+
+    @Benchmark
+    public void warnung() {
+        validator.validiereAlter(hoch);
+    }
+
+    @Benchmark
+    public String exception() {
+        try {
+            validator.validiereAlter(negativ);
+            return null;
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SPALTE)
+    public int spalteEinzeln() {
+        int fehler = 0;
+        for (int alter : spalte) {
+            try {
+                validator.validiereAlter(alter);
+            } catch (IllegalArgumentException e) {
+                fehler++;
+            }
+        }
+        return fehler;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SPALTE)
+    public int spalteMassenweise() {
+        return validator.validiereAlter(spalte).anzahlFehler();
+    }
+}
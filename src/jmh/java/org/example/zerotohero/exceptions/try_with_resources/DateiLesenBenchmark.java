@@ -0,0 +1,103 @@
+package org.example.zerotohero.exceptions.try_with_resources;
+
+import org.example.zerotohero.NullAusgabe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durchsatz beim zeilenweisen Lesen einer CSV-artigen Transaktionsdatei:
+ * {@link TryWithResourcesDemo#leseDatei(String)} selbst (mit Ausgabe jeder Zeile in einen Null-Stream),
+ * dieselbe Schleife aus {@code FileReader} + {@code BufferedReader.readLine()} ohne Ausgabe und
+ * {@link StromDateiLeser}. MB/s = Dateigröße in MB × ops/s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DateiLesenBenchmark {
+
+    @Param({"1", "16", "256"})
+    int megabyte;
+
+    Path datei;
+    String dateiname;
+    final TryWithResourcesDemo demo = new TryWithResourcesDemo();
+
+    @Setup(Level.Trial)
+    public void dateiErzeugen() throws IOException {
+        datei = transaktionsDatei(megabyte);
+        dateiname = datei.toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void dateiLoeschen() throws IOException {
+        Files.deleteIfExists(datei);
+    }
+
+    @Benchmark
+    public void tryWithResourcesDemo(NullAusgabe ausgabe) {
+        demo.leseDatei(dateiname);
+    }
+
+    @Benchmark
+    public long bufferedReader() throws IOException {
+        long zeichen = 0;
+        try (FileReader fr = new FileReader(datei.toFile());
+             BufferedReader br = new BufferedReader(fr)) {
+            String zeile;
+            while ((zeile = br.readLine()) != null) {
+                zeichen += zeile.length();
+            }
+        }
+        return zeichen;
+    }
+
+    @Benchmark
+    public long stromDateiLeser() throws IOException {
+        long[] zeichen = {0};
+        new StromDateiLeser().leseDatei(datei, zeile -> zeichen[0] += zeile.length());
+        return zeichen[0];
+    }
+
+    /**
+     * Erzeugt eine Datei mit Zeilen der Form {@code kontoId;betrag;verwendungszweck}.
+     */
+    static Path transaktionsDatei(int megabyte) throws IOException {
+        Path datei = Files.createTempFile("transaktionen", ".csv");
+        Random zufall = new Random(7);
+        long ziel = megabyte * 1024L * 1024L;
+        long geschrieben = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(datei, StandardCharsets.UTF_8)) {
+            while (geschrieben < ziel) {
+                String zeile = zufall.nextInt(1_000_000) + ";" + zufall.nextInt(100_000) / 100.0 + ";Buchung " + zufall.nextInt(10_000);
+                writer.write(zeile);
+                writer.write('\n');
+                geschrieben += zeile.length() + 1;
+            }
+        }
+        return datei;
+    }
+}
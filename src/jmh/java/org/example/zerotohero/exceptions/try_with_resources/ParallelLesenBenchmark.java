@@ -0,0 +1,63 @@
+package org.example.zerotohero.exceptions.try_with_resources;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summe der Einzahlungen pro Konto über eine Transaktionsdatei: ein Durchgang mit {@link StromDateiLeser}
+ * gegenüber {@link ParallelerDateiVerarbeiter} auf dem Common Pool. MB/s = Dateigröße in MB × ops/s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelLesenBenchmark {
+
+    @Param({"256"})
+    int megabyte;
+
+    Path datei;
+    ParallelerDateiVerarbeiter verarbeiter;
+
+    @Setup(Level.Trial)
+    public void dateiErzeugen() throws IOException {
+        datei = DateiLesenBenchmark.transaktionsDatei(megabyte);
+        verarbeiter = new ParallelerDateiVerarbeiter();
+    }
+
+    @TearDown(Level.Trial)
+    public void dateiLoeschen() throws IOException {
+        Files.deleteIfExists(datei);
+    }
+
+    @Benchmark
+    public long sequenziell() throws IOException {
+        return ParallelerDateiVerarbeiter.sequenziell(datei, ParallelerDateiVerarbeiter.EinzahlungsSummen::new,
+                ParallelerDateiVerarbeiter.EinzahlungsSummen::zeile).getZeilen();
+    }
+
+    @Benchmark
+    public long parallel() throws IOException {
+        return verarbeiter.verarbeiten(datei, ParallelerDateiVerarbeiter.EinzahlungsSummen::new,
+                ParallelerDateiVerarbeiter.EinzahlungsSummen::zeile,
+                ParallelerDateiVerarbeiter.EinzahlungsSummen::zusammenfuehren).getZeilen();
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.zerotohero.oop.Polymorphie;
+
+import org.example.zerotohero.NullAusgabe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Die Schleife {@code for (Form f : formen) f.zeichnen();} aus {@link PolymorphieDemo} über ein gemischtes
+ * Array mit einer (monomorph), zwei (bimorph) oder drei (megamorph) Implementierungen von {@link Form}.
+ * Die dritte ist ein Lambda, da {@code Form} ein funktionales Interface ist. Die Ausgabe geht über
+ * {@link NullAusgabe} in einen Null-Stream; {@code addiereUeberladen} zeigt die zur Compile-Zeit
+ * aufgelösten Überladungen von {@link Rechner}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormDispatchBenchmark {
+
+    private static final int ANZAHL = 1024;
+
+    @Param({"1", "2", "3"})
+    int arten;
+
+    private Form[] formen;
+    private final Rechner rechner = new Rechner();
+    private int a = 5;
+    private double x = 2.5;
+
+    @Setup
+    public void vorbereiten() {
+        formen = new Form[ANZAHL];
+        for (int i = 0; i < ANZAHL; i++) {
+            formen[i] = switch (i % arten) {
+                case 0 -> new Kreis("Blau");
+                case 1 -> new Rechteck(3, 7);
+                default -> () -> System.out.println("Zeichne ein Dreieck.");
+            };
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ANZAHL)
+    public void zeichnen(NullAusgabe ausgabe) {
+        for (Form f : formen) {
+            f.zeichnen(); // Polymorpher Aufruf
+        }
+    }
+
+    @Benchmark
+    public double addiereUeberladen(NullAusgabe ausgabe) {
+        return rechner.addiere(a, a) + rechner.addiere(a, a, a) + rechner.addiere(x, x);
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.zerotohero.oop.Polymorphie;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aufbauzeit und Abfragelatenz von {@link FormRaster} bei {@code anzahl} Formen auf einer Fläche von
+ * 10 000 x 10 000. Abgefragt werden zufällige Fenster von 100 x 100; {@code linearerDurchlauf} prüft
+ * dieselben Fenster gegen jede Form.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class FormRasterBenchmark {
+
+    private static final double WELT = 10_000;
+    private static final double FENSTER = 100;
+
+    @Param({"1000000", "10000000"})
+    int anzahl;
+
+    private List<GeometrischeForm> formen;
+    private FormRaster raster;
+    private final Begrenzung[] bereiche = new Begrenzung[1024];
+    private int naechster;
+
+    @Setup
+    public void vorbereiten() {
+        Random zufall = new Random(42);
+        formen = new ArrayList<>(anzahl);
+        for (int i = 0; i < anzahl; i++) {
+            formen.add(zufall.nextBoolean()
+                    ? new Kreis("Rot", zufall.nextDouble() * WELT, zufall.nextDouble() * WELT, zufall.nextDouble() * 5)
+                    : new Rechteck(zufall.nextInt(20), zufall.nextInt(20), zufall.nextDouble() * WELT, zufall.nextDouble() * WELT));
+        }
+        raster = FormRaster.aufbauen(formen);
+        for (int i = 0; i < bereiche.length; i++) {
+            double x = zufall.nextDouble() * (WELT - FENSTER);
+            double y = zufall.nextDouble() * (WELT - FENSTER);
+            bereiche[i] = new Begrenzung(x, y, x + FENSTER, y + FENSTER);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public FormRaster aufbauen() {
+        return FormRaster.aufbauen(formen);
+    }
+
+    @Benchmark
+    public int suchen() {
+        return raster.zaehlen(bereiche[naechster++ & (bereiche.length - 1)]);
+    }
+
+    @Benchmark
+    public int linearerDurchlauf() {
+        Begrenzung bereich = bereiche[naechster++ & (bereiche.length - 1)];
+        int treffer = 0;
+        for (GeometrischeForm form : formen) {
+            if (form.begrenzung().schneidet(bereich)) {
+                treffer++;
+            }
+        }
+        return treffer;
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.zerotohero.oop.Polymorphie;
+
+import org.example.zerotohero.NullAusgabe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Zeichnet dieselben Kreise und Rechtecke einmal als {@code Form[]} mit {@code f.zeichnen()} pro Objekt
+ * (über {@link NullAusgabe} in einen Null-Stream) und einmal spaltenweise über {@link FormSpeicher} in einen
+ * wiederverwendbaren {@link BytePuffer}, der anschließend in einen Null-Stream geschrieben wird.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormSpeicherBenchmark {
+
+    private static final int ANZAHL = 100_000;
+    private static final String[] FARBEN = {"Rot", "Blau", "Grün", "Gelb"};
+
+    @Param({"sortiert", "gemischt"})
+    String reihenfolge;
+
+    private Form[] formen;
+    private FormSpeicher speicher;
+    private final BytePuffer puffer = new BytePuffer(1024);
+    private final OutputStream ziel = OutputStream.nullOutputStream();
+
+    @Setup
+    public void vorbereiten() {
+        formen = new Form[ANZAHL];
+        for (int i = 0; i < ANZAHL; i++) {
+            boolean kreis = reihenfolge.equals("sortiert") ? i < ANZAHL / 2 : i % 2 == 0;
+            formen[i] = kreis ? new Kreis(FARBEN[i % FARBEN.length]) : new Rechteck(i % 100, i % 37);
+        }
+        speicher = FormSpeicher.aus(formen);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ANZAHL)
+    public void formArray(NullAusgabe ausgabe) {
+        for (Form f : formen) {
+            f.zeichnen();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ANZAHL)
+    public int formSpeicher() throws IOException {
+        puffer.zuruecksetzen();
+        speicher.zeichnen(puffer);
+        puffer.schreibenNach(ziel);
+        return puffer.laenge();
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.zerotohero.oop.Polymorphie;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gesamtfläche und Begrenzung über {@code anzahl} gemischte Kreise und Rechtecke: einmal als paralleler
+ * Stream über ein {@code GeometrischeForm[]}, einmal blockweise über die Spalten eines {@link FormSpeicher}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class GeometrieBenchmark {
+
+    @Param({"1000000", "10000000"})
+    int anzahl;
+
+    private GeometrischeForm[] formen;
+    private FormSpeicher speicher;
+
+    @Setup
+    public void vorbereiten() {
+        Random zufall = new Random(42);
+        formen = new GeometrischeForm[anzahl];
+        for (int i = 0; i < anzahl; i++) {
+            formen[i] = zufall.nextBoolean()
+                    ? new Kreis("Rot", zufall.nextDouble() * 1000, zufall.nextDouble() * 1000, zufall.nextDouble() * 5)
+                    : new Rechteck(zufall.nextInt(10), zufall.nextInt(10), zufall.nextDouble() * 1000, zufall.nextDouble() * 1000);
+        }
+        speicher = FormSpeicher.aus(formen);
+    }
+
+    @Benchmark
+    public double formArrayStream() {
+        double flaeche = Arrays.stream(formen).parallel().mapToDouble(GeometrischeForm::flaeche).sum();
+        Begrenzung begrenzung = Arrays.stream(formen).parallel()
+                .map(GeometrischeForm::begrenzung)
+                .reduce(Begrenzung.LEER, Begrenzung::vereinigen);
+        return flaeche + begrenzung.maxX();
+    }
+
+    @Benchmark
+    public double formSpeicher() {
+        GeometrieAuswertung auswertung = speicher.auswerten(ForkJoinPool.commonPool());
+        return auswertung.getGesamtFlaeche() + auswertung.getBegrenzung().maxX();
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.zerotohero.oop.Polymorphie;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Die Array-Überladungen von {@link Rechner} gegen eine skalare Schleife, die pro Element
+ * {@code rechner.addiere(a, b)} aufruft. Der skalare Aufruf meldet jedes Mal ein Ereignis; mit
+ * {@code zerotohero.ereignisse=aus} bleibt nur der Aufruf selbst übrig.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dzerotohero.ereignisse=aus")
+public class RechenKernBenchmark {
+
+    @Param({"1024", "1048576"})
+    int laenge;
+
+    private final Rechner rechner = new Rechner(RechenKern.sequenziell());
+    private final Rechner parallelerRechner = new Rechner(new RechenKern(ForkJoinPool.commonPool(), RechenKern.BLOCK));
+    private int[] a;
+    private int[] b;
+    private int[] summen;
+    private long[] praefix;
+    private double[] x;
+    private double[] y;
+    private double[] z;
+    private double[] ergebnis;
+
+    @Setup
+    public void vorbereiten() {
+        Random zufall = new Random(42);
+        a = zufall.ints(laenge, -1000, 1000).toArray();
+        b = zufall.ints(laenge, -1000, 1000).toArray();
+        summen = new int[laenge];
+        praefix = new long[laenge];
+        x = zufall.doubles(laenge).toArray();
+        y = zufall.doubles(laenge).toArray();
+        z = zufall.doubles(laenge).toArray();
+        ergebnis = new double[laenge];
+    }
+
+    @Benchmark
+    public int[] addiereSkalar() {
+        for (int i = 0; i < laenge; i++) {
+            summen[i] = rechner.addiere(a[i], b[i]);
+        }
+        return summen;
+    }
+
+    @Benchmark
+    public int[] addiereArray() {
+        rechner.addiere(a, b, summen);
+        return summen;
+    }
+
+    @Benchmark
+    public int[] addiereExakt() {
+        rechner.addiereExakt(a, b, summen);
+        return summen;
+    }
+
+    @Benchmark
+    public int[] addiereParallel() {
+        parallelerRechner.addiere(a, b, summen);
+        return summen;
+    }
+
+    @Benchmark
+    public long summeSkalar() {
+        long summe = 0;
+        for (int wert : a) {
+            summe = rechner.addiere((int) summe, wert);
+        }
+        return summe;
+    }
+
+    @Benchmark
+    public long summe() {
+        return rechner.summe(a);
+    }
+
+    @Benchmark
+    public double summeDouble() {
+        return rechner.summe(x);
+    }
+
+    @Benchmark
+    public long[] praefixSummen() {
+        rechner.praefixSummen(a, praefix);
+        return praefix;
+    }
+
+    @Benchmark
+    public double[] fma() {
+        rechner.fma(x, y, z, ergebnis);
+        return ergebnis;
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.zerotohero.oop.abstraktion;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latenz eines Ticks der {@link FlugSimulation}, im aufrufenden Thread und verteilt auf den Common Pool.
+ * Jedes vierte Objekt ist im Landeanflug, die übrigen steigen oder sind im Reiseflug.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlugSimulationBenchmark {
+
+    @Param({"1000000"})
+    int anzahl;
+
+    private FlugSimulation simulation;
+
+    @Setup
+    public void vorbereiten() {
+        // Ein sehr langsamer Sinkflug, damit die Objekte während der Messung nicht landen
+        simulation = new FlugSimulation(anzahl, 0.1, 2.0, 42);
+        for (int i = 0; i < anzahl; i++) {
+            simulation.hinzufuegen(i % 1000, i / 1000, 200 + i % 50, 10 - i % 20, 5 + i % 30);
+        }
+        for (int t = 0; t < 200; t++) {
+            simulation.tick();
+        }
+        for (int i = 0; i < anzahl; i += 4) {
+            simulation.landeVorgangStarten(i, 0.001);
+        }
+    }
+
+    @Benchmark
+    public long tick() {
+        simulation.tick();
+        return simulation.getTick();
+    }
+
+    @Benchmark
+    public long tickParallel() {
+        simulation.tick(ForkJoinPool.commonPool());
+        return simulation.getTick();
+    }
+}
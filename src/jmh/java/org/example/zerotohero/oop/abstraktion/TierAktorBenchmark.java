@@ -0,0 +1,74 @@
+package org.example.zerotohero.oop.abstraktion;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nachrichten pro Sekunde durch ein {@link TierAktorSystem} in Abhängigkeit von der Anzahl der Aktoren.
+ * Pro Aufruf gehen {@value #NACHRICHTEN} Nachrichten reihum an alle Aktoren, danach wird gewartet, bis
+ * alle verarbeitet sind. Wenige Aktoren sammeln viele Nachrichten pro Lauf, viele Aktoren brauchen
+ * fast einen Lauf pro Nachricht.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class TierAktorBenchmark {
+
+    private static final int NACHRICHTEN = 1 << 20;
+
+    @Param({"1", "100", "10000", "1000000"})
+    int aktoren;
+
+    @Param({"forkjoin", "virtuell"})
+    String ausfuehrer;
+
+    private TierAktorSystem system;
+    private TierAktorSystem.Aktor[] postfaecher;
+
+    @Setup(Level.Trial)
+    public void vorbereiten() {
+        Verhalten nichts = (tier, befehl) -> { };
+        system = ausfuehrer.equals("virtuell")
+                ? TierAktorSystem.mitVirtuellenThreads(nichts)
+                : TierAktorSystem.mitForkJoinPool(nichts);
+        postfaecher = new TierAktorSystem.Aktor[aktoren];
+        for (int i = 0; i < aktoren; i++) {
+            postfaecher[i] = system.erzeugen(new Hund("Hund" + i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void beenden() {
+        system.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NACHRICHTEN)
+    public long nachrichten() {
+        for (int i = 0, aktor = 0; i < NACHRICHTEN; i++) {
+            postfaecher[aktor].sendenMitGegendruck(Befehl.LAUT_GEBEN);
+            if (++aktor == aktoren) {
+                aktor = 0;
+            }
+        }
+        system.leeren();
+        return system.getVerarbeitet();
+    }
+}
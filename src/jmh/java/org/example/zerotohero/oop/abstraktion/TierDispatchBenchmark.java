@@ -0,0 +1,69 @@
+package org.example.zerotohero.oop.abstraktion;
+
+import org.example.zerotohero.NullAusgabe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Die Schleifen aus {@link AbstraktionDemo}: {@code tier.lautGeben()} über den abstrakten Typ {@link Tier}
+ * mit einer, zwei oder drei Unterklassen (Hund, Katze, Vogel) und {@code obj.fliegen()} über das
+ * Interface {@link Fliegfaehig}. Die Ausgabe geht über {@link NullAusgabe} in einen Null-Stream.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TierDispatchBenchmark {
+
+    private static final int ANZAHL = 1024;
+
+    @Param({"1", "2", "3"})
+    int arten;
+
+    private Tier[] tiere;
+    private Fliegfaehig[] flugobjekte;
+
+    @Setup
+    public void vorbereiten() {
+        tiere = new Tier[ANZAHL];
+        flugobjekte = new Fliegfaehig[ANZAHL];
+        for (int i = 0; i < ANZAHL; i++) {
+            tiere[i] = switch (i % arten) {
+                case 0 -> new Hund("Bello");
+                case 1 -> new Katze("Minzi");
+                default -> new Vogel("Tweety");
+            };
+            flugobjekte[i] = new Vogel("Tweety");
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ANZAHL)
+    public void lautGeben(NullAusgabe ausgabe) {
+        for (Tier tier : tiere) {
+            tier.lautGeben(); // Polymorpher Aufruf der spezifischen Implementierung
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ANZAHL)
+    public void fliegen(NullAusgabe ausgabe) {
+        for (Fliegfaehig obj : flugobjekte) {
+            obj.fliegen();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.zerotohero.oop.kapselung;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kosten der Kontooperationen von {@link BankKonto} auf einem Thread, ohne Ereignisausgabe – die Ausgabe
+ * misst {@link EinzahlenBenchmark}. Das Abhebungskonto startet mit so viel Guthaben, dass es während
+ * der Messung nicht leer wird.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dzerotohero.ereignisse=aus")
+public class BankKontoBenchmark {
+
+    private BankKonto einzahlungsKonto;
+    private BankKonto abhebungsKonto;
+    private BankKonto leeresKonto;
+    private double betrag = 1.5;
+
+    @Setup
+    public void vorbereiten() {
+        einzahlungsKonto = new BankKonto(0);
+        abhebungsKonto = new BankKonto(1e15);
+        leeresKonto = new BankKonto(0);
+    }
+
+    @Benchmark
+    public double einzahlen() {
+        einzahlungsKonto.einzahlen(betrag);
+        return einzahlungsKonto.getKontostand();
+    }
+
+    @Benchmark
+    public double abheben() {
+        abhebungsKonto.abheben(betrag);
+        return abhebungsKonto.getKontostand();
+    }
+
+    @Benchmark
+    public double abhebenOhneDeckung() {
+        leeresKonto.abheben(betrag);
+        return leeresKonto.getKontostand();
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.zerotohero.oop.kapselung;
+
+import org.example.zerotohero.NullAusgabe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durchsatz von {@link BankKonto#einzahlen(double)} mit 16 Threads, jeder auf seinem eigenen Konto.
+ * {@code vorherPrintln} bildet den früheren Aufruf mit String-Verkettung und {@code System.out.println} nach,
+ * die übrigen laufen je in einem eigenen Fork mit dem jeweiligen Modus von
+ * {@link org.example.zerotohero.ereignis.Ereignisse}. {@code System.out} schreibt über {@link NullAusgabe}
+ * in einen Null-Stream.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(16)
+public class EinzahlenBenchmark {
+
+    @State(Scope.Thread)
+    public static class Konto {
+        BankKonto konto = new BankKonto(0);
+        double kontostand;
+        double betrag = 1.5; // Feld statt Konstante, damit der JIT den Betrag nicht in den Text faltet
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dzerotohero.ereignisse=aus")
+    public double vorherPrintln(NullAusgabe ausgabe, Konto k) {
+        k.kontostand += k.betrag;
+        System.out.println(k.betrag + " EUR eingezahlt. Neuer Kontostand: " + k.kontostand + " EUR");
+        return k.kontostand;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dzerotohero.ereignisse=synchron")
+    public double synchron(NullAusgabe ausgabe, Konto k) {
+        k.konto.einzahlen(k.betrag);
+        return k.konto.getKontostand();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dzerotohero.ereignisse=asynchron")
+    public double asynchron(NullAusgabe ausgabe, Konto k) {
+        k.konto.einzahlen(k.betrag);
+        return k.konto.getKontostand();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dzerotohero.ereignisse=aus")
+    public double aus(NullAusgabe ausgabe, Konto k) {
+        k.konto.einzahlen(k.betrag);
+        return k.konto.getKontostand();
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.zerotohero.oop.vererbung;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * "Anzahl Autos pro Marke und Baujahr mit mindestens vier Türen": als Stream über {@code Fahrzeug}-Objekte
+ * und als Abfrage über die Spalten einer {@link FlottenTabelle}. Die Objekte werden gemischt, damit sie wie
+ * in einer gewachsenen Anwendung verstreut im Heap liegen.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class FlottenTabelleBenchmark {
+
+    private static final String[] MARKEN = {"BMW", "Audi", "VW", "Mercedes", "Opel", "Ford", "Toyota", "Skoda"};
+
+    @Param({"1000000", "10000000"})
+    int anzahl;
+
+    private List<Fahrzeug> flotte;
+    private FlottenTabelle.Abfrage abfrage;
+
+    @Setup
+    public void vorbereiten() {
+        Random zufall = new Random(42);
+        flotte = new ArrayList<>(anzahl);
+        for (int i = 0; i < anzahl; i++) {
+            String marke = MARKEN[zufall.nextInt(MARKEN.length)];
+            int baujahr = 2000 + zufall.nextInt(25);
+            flotte.add(zufall.nextInt(4) == 0 ? new Fahrzeug(marke, baujahr) : new Auto(marke, baujahr, 2 + zufall.nextInt(4)));
+        }
+        FlottenTabelle tabelle = FlottenTabelle.aus(flotte);
+        Collections.shuffle(flotte, zufall);
+        abfrage = tabelle.abfrage()
+                .woMindestens(FlottenSpalte.TUEREN, 4)
+                .gruppieren(FlottenSpalte.MARKE, FlottenSpalte.BAUJAHR);
+    }
+
+    @Benchmark
+    public Map<List<Object>, Long> streamUeberObjekte() {
+        return flotte.stream()
+                .filter(f -> f instanceof Auto auto && auto.getAnzahlTueren() >= 4)
+                .collect(Collectors.groupingBy(f -> List.of(f.getMarke(), f.getBaujahr()), Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<List<Object>, Long> parallelerStreamUeberObjekte() {
+        return flotte.parallelStream()
+                .filter(f -> f instanceof Auto auto && auto.getAnzahlTueren() >= 4)
+                .collect(Collectors.groupingByConcurrent(f -> List.of(f.getMarke(), f.getBaujahr()), Collectors.counting()));
+    }
+
+    @Benchmark
+    public List<FlottenGruppe> tabelle() {
+        return abfrage.ausfuehren();
+    }
+
+    @Benchmark
+    public List<FlottenGruppe> tabelleParallel() {
+        return abfrage.ausfuehren(ForkJoinPool.commonPool());
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.zerotohero.persistenz;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Gesicherte Buchungen pro Sekunde mit Gruppen-Commit gegenüber einem fsync pro Buchung,
+ * bei 16 gleichzeitig buchenden Threads. Das Journal liegt im temporären Verzeichnis
+ * ({@code -Djava.io.tmpdir} auf das zu messende Dateisystem setzen).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class JournalBenchmark {
+
+    @Param({"GRUPPEN_COMMIT", "FSYNC_PRO_OPERATION"})
+    KontoJournal.Modus modus;
+
+    private Path verzeichnis;
+    private JournalisierterKontoSpeicher konten;
+
+    @State(Scope.Thread)
+    public static class Konto {
+        int kontoId;
+
+        @Setup(Level.Trial)
+        public void anlegen(JournalBenchmark benchmark) throws IOException {
+            kontoId = benchmark.konten.anlegen(0);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void oeffnen() throws IOException {
+        verzeichnis = Files.createTempDirectory("journal-benchmark");
+        konten = JournalisierterKontoSpeicher.oeffnen(verzeichnis, modus);
+    }
+
+    @TearDown(Level.Trial)
+    public void schliessen() throws IOException {
+        konten.close();
+        try (Stream<Path> dateien = Files.walk(verzeichnis)) {
+            dateien.sorted(Comparator.reverseOrder()).forEach(pfad -> pfad.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public boolean einzahlen(Konto konto) throws IOException {
+        return konten.einzahlen(konto.kontoId, 1.0);
+    }
+}
@@ -1,13 +1,27 @@
 package org.example.zerotohero;
 
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.zerotohero.metriken.KontoMetriken;
+import org.example.zerotohero.metriken.KontoMetrikenBinder;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ZeroToHeroApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(ZeroToHeroApplication.class, args);
     }
 
+    /**
+     * Macht die Zähler und Latenzen der Kontooperationen über Micrometer und den Actuator sichtbar.
+     */
+    @Bean
+    public MeterBinder kontoMetriken() {
+        return new KontoMetrikenBinder(KontoMetriken.standard());
+    }
+
 }
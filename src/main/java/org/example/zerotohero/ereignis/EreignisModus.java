@@ -0,0 +1,13 @@
+package org.example.zerotohero.ereignis;
+
+/**
+ * Wie Ereignisse ausgegeben werden; eingestellt über die System-Property {@code zerotohero.ereignisse}.
+ */
+public enum EreignisModus {
+    /** Keine Ausgabe. Die Meldungsaufrufe werden vom JIT vollständig entfernt. */
+    AUS,
+    /** Formatieren und Schreiben auf dem aufrufenden Thread – das Verhalten der früheren {@code println}-Aufrufe. */
+    SYNCHRON,
+    /** Der aufrufende Thread legt nur die Argumente in einen Ringpuffer; ein Hintergrund-Thread formatiert und schreibt. */
+    ASYNCHRON
+}
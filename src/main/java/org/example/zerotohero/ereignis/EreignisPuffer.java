@@ -0,0 +1,169 @@
+package org.example.zerotohero.ereignis;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ein begrenzter Ringpuffer für Ereignisse mit beliebig vielen Erzeugern und einem Hintergrund-Thread,
+ * der formatiert und in eine {@link EreignisSenke} schreibt.
+ *
+ * Die Plätze werden einmal angelegt und wiederverwendet; ein Erzeuger kopiert nur Vorlage und Argumente
+ * (primitive Argumente ohne Boxing) hinein, es gibt keine Allokation pro Ereignis. Nur ein Objekt-Argument,
+ * das kein {@code String} ist, wandelt der Erzeuger sofort in Text um: Formatiert wird erst später im
+ * Hintergrund-Thread, und ein veränderliches Objekt erschiene sonst in seinem späteren Zustand. Ein Erzeuger reserviert
+ * eine Sequenznummer per CAS und veröffentlicht den Platz danach mit einem Release-Schreibzugriff auf
+ * dessen Sequenz. Ist der Puffer voll, wird das Ereignis verworfen und gezählt, statt den Erzeuger zu
+ * blockieren.
+ */
+public final class EreignisPuffer implements AutoCloseable {
+
+    static final byte KEIN_ARGUMENT = 0;
+    static final byte OBJEKT = 1;
+    static final byte GANZZAHL = 2;
+    static final byte KOMMAZAHL = 3;
+    static final byte ZWEI_KOMMAZAHLEN = 4;
+
+    private static final int MAX_STAPEL = 1024;
+    private static final VarHandle SEQUENZ;
+
+    static {
+        try {
+            SEQUENZ = MethodHandles.lookup().findVarHandle(Platz.class, "sequenz", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    static final class Platz {
+        @SuppressWarnings("unused") // über SEQUENZ
+        private volatile long sequenz = -1;
+        EreignisStufe stufe;
+        String vorlage;
+        byte argumentArt;
+        Object objekt;
+        long ganzzahl;
+        double erste;
+        double zweite;
+    }
+
+    private final Platz[] plaetze;
+    private final int maske;
+    private final AtomicLong naechste = new AtomicLong();
+    private final AtomicLong gelesen = new AtomicLong();
+    private volatile long geschrieben;
+    private final LongAdder verworfen = new LongAdder();
+    private final EreignisSenke senke;
+    private final Thread leerer;
+    private final StringBuilder zeile = new StringBuilder(256);
+    private volatile boolean geschlossen;
+
+    /**
+     * @param kapazitaet Anzahl der Plätze, wird auf eine Zweierpotenz aufgerundet.
+     * @param senke Das Ziel der formatierten Ereignisse.
+     */
+    public EreignisPuffer(int kapazitaet, EreignisSenke senke) {
+        int groesse = Integer.highestOneBit(Math.max(2, kapazitaet - 1)) << 1;
+        this.plaetze = new Platz[groesse];
+        for (int i = 0; i < groesse; i++) {
+            plaetze[i] = new Platz();
+        }
+        this.maske = groesse - 1;
+        this.senke = senke;
+        this.leerer = Thread.ofPlatform().name("ereignis-leerer").daemon(true).unstarted(this::abarbeiten);
+        this.leerer.start();
+    }
+
+    /**
+     * Legt ein Ereignis in den Puffer.
+     *
+     * @return {@code false}, wenn der Puffer voll war und das Ereignis verworfen wurde.
+     */
+    boolean veroeffentlichen(EreignisStufe stufe, String vorlage, byte argumentArt, Object objekt,
+                             long ganzzahl, double erste, double zweite) {
+        Object argument = argumentArt != OBJEKT || objekt == null || objekt instanceof String ? objekt : String.valueOf(objekt);
+        long sequenz;
+        do {
+            sequenz = naechste.get();
+            if (sequenz - gelesen.get() >= plaetze.length) {
+                verworfen.increment();
+                return false;
+            }
+        } while (!naechste.weakCompareAndSetVolatile(sequenz, sequenz + 1));
+
+        Platz platz = plaetze[(int) sequenz & maske];
+        platz.stufe = stufe;
+        platz.vorlage = vorlage;
+        platz.argumentArt = argumentArt;
+        platz.objekt = argument;
+        platz.ganzzahl = ganzzahl;
+        platz.erste = erste;
+        platz.zweite = zweite;
+        SEQUENZ.setRelease(platz, sequenz);
+        return true;
+    }
+
+    /**
+     * Wartet, bis alle bisher veröffentlichten Ereignisse geschrieben wurden.
+     */
+    public void leeren() {
+        long ziel = naechste.get();
+        while (geschrieben < ziel && leerer.isAlive()) {
+            LockSupport.unpark(leerer);
+            LockSupport.parkNanos(100_000);
+        }
+    }
+
+    /**
+     * @return Wie viele Ereignisse wegen eines vollen Puffers verworfen wurden.
+     */
+    public long getVerworfen() {
+        return verworfen.sum();
+    }
+
+    /**
+     * Schreibt alle veröffentlichten Ereignisse und beendet den Hintergrund-Thread.
+     */
+    @Override
+    public void close() {
+        leeren();
+        geschlossen = true;
+        LockSupport.unpark(leerer);
+        try {
+            leerer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void abarbeiten() {
+        long sequenz = gelesen.get();
+        int stapel = 0;
+        while (true) {
+            Platz platz = plaetze[(int) sequenz & maske];
+            if ((long) SEQUENZ.getAcquire(platz) != sequenz || stapel == MAX_STAPEL) {
+                senke.leeren();
+                geschrieben = sequenz;
+                boolean stapelVoll = stapel == MAX_STAPEL;
+                stapel = 0;
+                if (stapelVoll) {
+                    continue;
+                }
+                if (geschlossen && naechste.get() == sequenz) {
+                    return;
+                }
+                LockSupport.parkNanos(500_000);
+                continue;
+            }
+            zeile.setLength(0);
+            Ereignisse.formatieren(zeile, platz.vorlage, platz.argumentArt, platz.objekt, platz.ganzzahl, platz.erste, platz.zweite);
+            EreignisStufe stufe = platz.stufe;
+            platz.objekt = null; // keine Referenz länger als nötig halten
+            gelesen.lazySet(++sequenz);
+            senke.schreiben(stufe, zeile);
+            stapel++;
+        }
+    }
+}
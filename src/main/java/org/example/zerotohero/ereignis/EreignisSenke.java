@@ -0,0 +1,29 @@
+package org.example.zerotohero.ereignis;
+
+/**
+ * Das Ziel formatierter Ereignisse. Im asynchronen Modus ruft nur der Hintergrund-Thread die Senke auf,
+ * im synchronen Modus jeder meldende Thread selbst und ohne zusätzliche Sperre – dann muss die Senke
+ * threadsicher sein.
+ */
+public interface EreignisSenke {
+
+    /**
+     * Nimmt eine formatierte Zeile entgegen. Der Text ist nur während des Aufrufs gültig.
+     */
+    void schreiben(EreignisStufe stufe, CharSequence zeile);
+
+    /**
+     * Wird nach einem Stapel von Zeilen aufgerufen; gepufferte Senken geben dann aus.
+     */
+    default void leeren() {
+    }
+
+    /**
+     * Sammelt die Zeilen eines Stapels pro Thread als Bytes und gibt sie mit einem einzigen {@code write} auf
+     * dem aktuellen {@link System#out} aus, ohne {@code String} und ohne den Zeichen-Encoder des
+     * {@code PrintStream}; siehe {@link KonsolenSenke}.
+     */
+    static EreignisSenke konsole() {
+        return new KonsolenSenke();
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.zerotohero.ereignis;
+
+/**
+ * Die Stufe eines Ereignisses. Gemeldet wird alles bis einschließlich der eingestellten Schwelle,
+ * bei der Schwelle {@link #INFO} also Fehler, Warnungen und Infos.
+ */
+public enum EreignisStufe {
+    FEHLER,
+    WARNUNG,
+    INFO,
+    DEBUG
+}
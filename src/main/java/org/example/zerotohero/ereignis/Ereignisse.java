@@ -0,0 +1,193 @@
+package org.example.zerotohero.ereignis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Meldet Ereignisse aus Geschäftsmethoden, ohne sie mit {@code System.out.println} und String-Verkettung
+ * zu belasten. Vorlagen enthalten {@code {}} als Platzhalter und werden erst formatiert, wenn das Ereignis
+ * tatsächlich ausgegeben wird; für {@code long} und {@code double} gibt es Überladungen ohne Boxing.
+ *
+ * Modus und Schwelle werden beim Laden der Klasse aus den System-Properties {@code zerotohero.ereignisse}
+ * ({@code aus}, {@code synchron} oder {@code asynchron}, Standard {@code synchron}) und
+ * {@code zerotohero.ereignisse.stufe} (Standard {@code info}) gelesen. Beide liegen in
+ * {@code static final}-Feldern, die der JIT als Konstanten behandelt: Im Modus {@code aus} oder unterhalb
+ * der Schwelle bleibt von einem Meldungsaufruf nach dem Inlining nichts übrig.
+ */
+public final class Ereignisse {
+
+    public static final EreignisModus MODUS = EreignisModus.valueOf(
+            System.getProperty("zerotohero.ereignisse", "synchron").toUpperCase(Locale.ROOT));
+    private static final int SCHWELLE = EreignisStufe.valueOf(
+            System.getProperty("zerotohero.ereignisse.stufe", "info").toUpperCase(Locale.ROOT)).ordinal();
+    private static final int KAPAZITAET = Integer.getInteger("zerotohero.ereignisse.kapazitaet", 1 << 16);
+
+    /** Zerlegte Vorlagen; Vorlagen sind String-Konstanten, die Anzahl bleibt also klein. */
+    private static final ConcurrentHashMap<String, String[]> VORLAGEN = new ConcurrentHashMap<>();
+    private static volatile EreignisSenke senke = EreignisSenke.konsole();
+    private static final EreignisPuffer PUFFER = MODUS == EreignisModus.ASYNCHRON ? asynchronStarten() : null;
+    private static final ThreadLocal<StringBuilder> ZEILE = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private Ereignisse() {
+    }
+
+    private static EreignisPuffer asynchronStarten() {
+        EreignisPuffer puffer = new EreignisPuffer(KAPAZITAET, new EreignisSenke() {
+            @Override
+            public void schreiben(EreignisStufe stufe, CharSequence zeile) {
+                senke.schreiben(stufe, zeile);
+            }
+
+            @Override
+            public void leeren() {
+                senke.leeren();
+            }
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(puffer::close, "ereignis-abschluss"));
+        return puffer;
+    }
+
+    /**
+     * @return {@code true}, wenn Ereignisse dieser Stufe ausgegeben werden. Nur nötig, wenn schon das
+     * Berechnen der Argumente teuer ist.
+     */
+    public static boolean aktiv(EreignisStufe stufe) {
+        return MODUS != EreignisModus.AUS && stufe.ordinal() <= SCHWELLE;
+    }
+
+    /**
+     * Ersetzt die Senke, z.B. für Tests oder eine strukturierte Ausgabe. Im synchronen Modus muss sie
+     * threadsicher sein, im asynchronen ruft sie nur der Hintergrund-Thread auf.
+     */
+    public static void setSenke(EreignisSenke neueSenke) {
+        leeren();
+        senke = neueSenke;
+    }
+
+    /**
+     * Wartet im asynchronen Modus, bis alle bisher gemeldeten Ereignisse geschrieben wurden.
+     */
+    public static void leeren() {
+        if (PUFFER != null) {
+            PUFFER.leeren();
+        }
+    }
+
+    /**
+     * @return Wie viele Ereignisse im asynchronen Modus wegen eines vollen Puffers verworfen wurden.
+     */
+    public static long getVerworfen() {
+        return PUFFER == null ? 0 : PUFFER.getVerworfen();
+    }
+
+    public static void info(String vorlage) {
+        if (aktiv(EreignisStufe.INFO)) {
+            melden(EreignisStufe.INFO, vorlage, EreignisPuffer.KEIN_ARGUMENT, null, 0, 0, 0);
+        }
+    }
+
+    public static void info(String vorlage, Object argument) {
+        if (aktiv(EreignisStufe.INFO)) {
+            melden(EreignisStufe.INFO, vorlage, EreignisPuffer.OBJEKT, argument, 0, 0, 0);
+        }
+    }
+
+    public static void info(String vorlage, long argument) {
+        if (aktiv(EreignisStufe.INFO)) {
+            melden(EreignisStufe.INFO, vorlage, EreignisPuffer.GANZZAHL, null, argument, 0, 0);
+        }
+    }
+
+    public static void info(String vorlage, double argument) {
+        if (aktiv(EreignisStufe.INFO)) {
+            melden(EreignisStufe.INFO, vorlage, EreignisPuffer.KOMMAZAHL, null, 0, argument, 0);
+        }
+    }
+
+    public static void info(String vorlage, double erstes, double zweites) {
+        if (aktiv(EreignisStufe.INFO)) {
+            melden(EreignisStufe.INFO, vorlage, EreignisPuffer.ZWEI_KOMMAZAHLEN, null, 0, erstes, zweites);
+        }
+    }
+
+    public static void warnung(String vorlage) {
+        if (aktiv(EreignisStufe.WARNUNG)) {
+            melden(EreignisStufe.WARNUNG, vorlage, EreignisPuffer.KEIN_ARGUMENT, null, 0, 0, 0);
+        }
+    }
+
+    public static void warnung(String vorlage, Object argument) {
+        if (aktiv(EreignisStufe.WARNUNG)) {
+            melden(EreignisStufe.WARNUNG, vorlage, EreignisPuffer.OBJEKT, argument, 0, 0, 0);
+        }
+    }
+
+    public static void warnung(String vorlage, long argument) {
+        if (aktiv(EreignisStufe.WARNUNG)) {
+            melden(EreignisStufe.WARNUNG, vorlage, EreignisPuffer.GANZZAHL, null, argument, 0, 0);
+        }
+    }
+
+    public static void warnung(String vorlage, double argument) {
+        if (aktiv(EreignisStufe.WARNUNG)) {
+            melden(EreignisStufe.WARNUNG, vorlage, EreignisPuffer.KOMMAZAHL, null, 0, argument, 0);
+        }
+    }
+
+    private static void melden(EreignisStufe stufe, String vorlage, byte argumentArt, Object objekt,
+                               long ganzzahl, double erste, double zweite) {
+        if (PUFFER != null) {
+            PUFFER.veroeffentlichen(stufe, vorlage, argumentArt, objekt, ganzzahl, erste, zweite);
+            return;
+        }
+        StringBuilder zeile = ZEILE.get();
+        zeile.setLength(0);
+        formatieren(zeile, vorlage, argumentArt, objekt, ganzzahl, erste, zweite);
+        EreignisSenke ziel = senke;
+        ziel.schreiben(stufe, zeile);
+        ziel.leeren();
+    }
+
+    /**
+     * Ersetzt die Platzhalter {@code {}} der Reihe nach durch die Argumente. Zahlen werden wie bei
+     * String-Verkettung dargestellt; überzählige Platzhalter bleiben stehen. Jede Vorlage wird nur beim
+     * ersten Mal an den Platzhaltern zerlegt, danach werden nur noch fertige Teilstücke angehängt.
+     */
+    static void formatieren(StringBuilder ziel, String vorlage, byte argumentArt, Object objekt,
+                            long ganzzahl, double erste, double zweite) {
+        String[] teile = VORLAGEN.computeIfAbsent(vorlage, Ereignisse::zerlegen);
+        int anzahlArgumente = switch (argumentArt) {
+            case EreignisPuffer.KEIN_ARGUMENT -> 0;
+            case EreignisPuffer.ZWEI_KOMMAZAHLEN -> 2;
+            default -> 1;
+        };
+        ziel.append(teile[0]);
+        for (int i = 1; i < teile.length; i++) {
+            int argument = i - 1;
+            if (argument >= anzahlArgumente) {
+                ziel.append("{}");
+            } else {
+                switch (argumentArt) {
+                    case EreignisPuffer.OBJEKT -> ziel.append(objekt);
+                    case EreignisPuffer.GANZZAHL -> ziel.append(ganzzahl);
+                    default -> ziel.append(argument == 0 ? erste : zweite);
+                }
+            }
+            ziel.append(teile[i]);
+        }
+    }
+
+    private static String[] zerlegen(String vorlage) {
+        List<String> teile = new ArrayList<>();
+        int start = 0;
+        int platzhalter;
+        while ((platzhalter = vorlage.indexOf("{}", start)) >= 0) {
+            teile.add(vorlage.substring(start, platzhalter));
+            start = platzhalter + 2;
+        }
+        teile.add(vorlage.substring(start));
+        return teile.toArray(String[]::new);
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.zerotohero.ereignis;
+
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Die Senke hinter {@link EreignisSenke#konsole()}. Sammelt die Zeilen eines Stapels pro Thread als Bytes
+ * im Zeichensatz von {@link System#out} und gibt sie mit einem einzigen {@link PrintStream#write(byte[], int, int)}
+ * aus. Anders als {@code println} nimmt das die {@code PrintStream}-Sperre einmal pro Stapel, erzeugt keinen
+ * {@code String} und umgeht den Zeichen-Encoder des {@code PrintStream}.
+ *
+ * UTF-8 kodiert die Senke selbst, bei ISO-8859-1 und US-ASCII die ASCII-Zeichen und den Rest über
+ * {@link String#getBytes(Charset)}. Andere Zeichensätze, etwa UTF-16 mit seiner Byte-Order-Markierung,
+ * überlässt sie zeilenweise dem {@code PrintStream}.
+ */
+final class KonsolenSenke implements EreignisSenke {
+    private static final byte[] ZEILENENDE = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+
+    private final ThreadLocal<Stapel> stapel = ThreadLocal.withInitial(Stapel::new);
+
+    @Override
+    public void schreiben(EreignisStufe stufe, CharSequence zeile) {
+        Charset zeichensatz = System.out.charset();
+        if (zeichensatz == StandardCharsets.UTF_8 || zeichensatz.equals(StandardCharsets.UTF_8)
+                || zeichensatz.equals(StandardCharsets.ISO_8859_1) || zeichensatz.equals(StandardCharsets.US_ASCII)) {
+            stapel.get().anhaengen(zeile, zeichensatz);
+        } else {
+            leeren(); // Reihenfolge wahren
+            System.out.println(zeile);
+        }
+    }
+
+    @Override
+    public void leeren() {
+        Stapel zeilen = stapel.get();
+        if (zeilen.laenge > 0) {
+            System.out.write(zeilen.bytes, 0, zeilen.laenge);
+            zeilen.laenge = 0;
+        }
+    }
+
+    private static final class Stapel {
+        byte[] bytes = new byte[256];
+        char[] zeichen = new char[128];
+        int laenge;
+
+        void anhaengen(CharSequence zeile, Charset zeichensatz) {
+            boolean utf8 = zeichensatz == StandardCharsets.UTF_8 || zeichensatz.equals(StandardCharsets.UTF_8);
+            int n = zeile.length();
+            int i = 0;
+            platz(n);
+            if (zeile instanceof StringBuilder text) {
+                // Ein Block-Kopieren ist schneller als charAt mit Grenz- und Kodierungsprüfung pro Zeichen
+                if (zeichen.length < n) {
+                    zeichen = new char[Math.max(zeichen.length * 2, n)];
+                }
+                text.getChars(0, n, zeichen, 0);
+                char[] z = zeichen;
+                byte[] b = bytes;
+                int l = laenge;
+                for (; i < n && z[i] < 0x80; i++) {
+                    b[l++] = (byte) z[i];
+                }
+                laenge = l;
+            }
+            for (; i < n; i++) {
+                char c = zeile.charAt(i);
+                if (c >= 0x80) {
+                    break;
+                }
+                bytes[laenge++] = (byte) c;
+            }
+            if (i < n) {
+                if (utf8) {
+                    utf8Anhaengen(zeile, i, n);
+                } else {
+                    byte[] rest = zeile.subSequence(i, n).toString().getBytes(zeichensatz);
+                    platz(rest.length);
+                    System.arraycopy(rest, 0, bytes, laenge, rest.length);
+                    laenge += rest.length;
+                }
+            }
+            platz(ZEILENENDE.length);
+            for (byte b : ZEILENENDE) {
+                bytes[laenge++] = b;
+            }
+        }
+
+        private void utf8Anhaengen(CharSequence zeile, int von, int bis) {
+            platz(3 * (bis - von)); // Höchstens drei Bytes pro char, auch bei Ersatzpaaren
+            for (int i = von; i < bis; i++) {
+                char c = zeile.charAt(i);
+                if (c < 0x80) {
+                    bytes[laenge++] = (byte) c;
+                } else if (c < 0x800) {
+                    bytes[laenge++] = (byte) (0xC0 | c >> 6);
+                    bytes[laenge++] = (byte) (0x80 | c & 0x3F);
+                } else if (Character.isHighSurrogate(c) && i + 1 < bis && Character.isLowSurrogate(zeile.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, zeile.charAt(++i));
+                    bytes[laenge++] = (byte) (0xF0 | cp >> 18);
+                    bytes[laenge++] = (byte) (0x80 | cp >> 12 & 0x3F);
+                    bytes[laenge++] = (byte) (0x80 | cp >> 6 & 0x3F);
+                    bytes[laenge++] = (byte) (0x80 | cp & 0x3F);
+                } else if (Character.isSurrogate(c)) {
+                    bytes[laenge++] = '?'; // Einzelnes Ersatzzeichen, wie beim Encoder des PrintStream
+                } else {
+                    bytes[laenge++] = (byte) (0xE0 | c >> 12);
+                    bytes[laenge++] = (byte) (0x80 | c >> 6 & 0x3F);
+                    bytes[laenge++] = (byte) (0x80 | c & 0x3F);
+                }
+            }
+        }
+
+        private void platz(int zusaetzlich) {
+            if (laenge + zusaetzlich > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, laenge + zusaetzlich));
+            }
+        }
+    }
+}
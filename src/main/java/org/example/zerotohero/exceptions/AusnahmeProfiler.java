@@ -0,0 +1,161 @@
+package org.example.zerotohero.exceptions;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Zählt gefangene Exceptions pro {@link Aufrufstelle} (dem catch-Block) und pro Wurfstelle (dem obersten
+ * Stack-Frame der Exception) und misst, was der fehlgeschlagene Versuch gekostet hat: die Zeit vom Beginn
+ * des try-Blocks bis in den catch-Block, also Arbeit, Wurf und Abwicklung des Stacks zusammen.
+ *
+ * Eingeschaltet wird das mit der System-Property {@code zerotohero.ausnahmen.profil=an}. Dann gibt die JVM
+ * beim Beenden den {@link #toString() Bericht} auf {@code System.err} aus, teuerste Aufrufstelle zuerst.
+ * Ausgeschaltet kostet eine Aufrufstelle nur einen Feldzugriff und einen Sprung.
+ *
+ * Wirft der JIT eine implizite Exception (Division durch Null, {@code null}-Zugriff) oft genug an derselben
+ * Stelle, ersetzt er sie durch eine vorab erzeugte Instanz ohne Stacktrace ({@code -XX:+OmitStackTraceInFastThrow}).
+ * Solche Würfe erscheinen als Wurfstelle {@value #OHNE_STACKTRACE}; gerade sie sind die heißen Pfade.
+ */
+public final class AusnahmeProfiler {
+    public static final boolean AKTIV = "an".equalsIgnoreCase(System.getProperty("zerotohero.ausnahmen.profil"));
+    static final String OHNE_STACKTRACE = "ohne Stacktrace";
+
+    private static final AusnahmeProfiler STANDARD = new AusnahmeProfiler(AKTIV);
+
+    static {
+        if (AKTIV) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> System.err.println(STANDARD)));
+        }
+    }
+
+    private final boolean aktiv;
+    private final Map<String, Aufrufstelle> stellen = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> wurfstellen = new ConcurrentHashMap<>();
+
+    public AusnahmeProfiler(boolean aktiv) {
+        this.aktiv = aktiv;
+    }
+
+    /**
+     * @return Die prozessweite Instanz, eingeschaltet über {@code zerotohero.ausnahmen.profil}.
+     */
+    public static AusnahmeProfiler standard() {
+        return STANDARD;
+    }
+
+    public boolean istAktiv() {
+        return aktiv;
+    }
+
+    /**
+     * Liefert die Aufrufstelle mit diesem Namen und legt sie beim ersten Mal an. Gedacht für ein
+     * {@code static final}-Feld neben dem catch-Block, damit der Wurf selbst keine Map-Suche kostet.
+     */
+    public Aufrufstelle stelle(String name) {
+        return stellen.computeIfAbsent(name, Aufrufstelle::new);
+    }
+
+    /**
+     * @return Alle Aufrufstellen mit mindestens einer gefangenen Exception, teuerste zuerst.
+     */
+    public List<Eintrag> bericht() {
+        List<Eintrag> eintraege = new ArrayList<>();
+        for (Aufrufstelle stelle : stellen.values()) {
+            long gefangen = stelle.gefangen.sum();
+            if (gefangen > 0) {
+                eintraege.add(new Eintrag(stelle.name, gefangen, stelle.nanos.sum()));
+            }
+        }
+        eintraege.sort(Comparator.comparingLong(Eintrag::nanos).reversed().thenComparing(Eintrag::stelle));
+        return eintraege;
+    }
+
+    /**
+     * @return Anzahl der Würfe pro Wurfstelle, als {@code "Typ bei Klasse.methode(Datei:Zeile)"}.
+     */
+    public Map<String, Long> wurfstellen() {
+        Map<String, Long> kopie = new TreeMap<>();
+        wurfstellen.forEach((stelle, anzahl) -> kopie.put(stelle, anzahl.sum()));
+        return kopie;
+    }
+
+    public void zuruecksetzen() {
+        for (Aufrufstelle stelle : stellen.values()) {
+            stelle.gefangen.reset();
+            stelle.nanos.reset();
+        }
+        wurfstellen.clear();
+    }
+
+    /**
+     * @return Der Startzeitpunkt für {@link Aufrufstelle#gefangen}, oder 0, wenn der Profiler aus ist.
+     */
+    public long start() {
+        return aktiv ? System.nanoTime() : 0;
+    }
+
+    private void wurfErfassen(Throwable ausnahme) {
+        // getStackTrace() kopiert das Array; das kostet nur, solange der Profiler an ist
+        StackTraceElement[] frames = ausnahme.getStackTrace();
+        String wurfstelle = ausnahme.getClass().getSimpleName() + " bei "
+                + (frames.length == 0 ? OHNE_STACKTRACE : frames[0].toString());
+        wurfstellen.computeIfAbsent(wurfstelle, s -> new LongAdder()).increment();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("Ausnahmeprofil");
+        for (Eintrag eintrag : bericht()) {
+            text.append(String.format("%n  %-60s %10d gefangen %12.3f ms %10.0f ns/Wurf",
+                    eintrag.stelle(), eintrag.gefangen(), eintrag.nanos() / 1e6, eintrag.nanosProWurf()));
+        }
+        wurfstellen().forEach((stelle, anzahl) -> text.append(String.format("%n  geworfen: %s: %d", stelle, anzahl)));
+        return text.toString();
+    }
+
+    /**
+     * Ein catch-Block, der seine Exceptions beim {@link AusnahmeProfiler} meldet.
+     */
+    public final class Aufrufstelle {
+        private final String name;
+        private final LongAdder gefangen = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        private Aufrufstelle(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Zählt die gefangene Exception und ihre Wurfstelle und zeichnet die Dauer seit {@code start} auf,
+         * sofern {@code start} nicht 0 ist.
+         */
+        public void gefangen(Throwable ausnahme, long start) {
+            if (!aktiv) {
+                return;
+            }
+            gefangen.increment();
+            if (start != 0) {
+                nanos.add(System.nanoTime() - start);
+            }
+            wurfErfassen(ausnahme);
+        }
+    }
+
+    /**
+     * Eine Zeile des Berichts.
+     */
+    public record Eintrag(String stelle, long gefangen, long nanos) {
+        public double nanosProWurf() {
+            return gefangen == 0 ? 0 : (double) nanos / gefangen;
+        }
+    }
+}
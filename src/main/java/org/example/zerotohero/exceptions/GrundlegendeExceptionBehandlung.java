@@ -1,20 +1,29 @@
 package org.example.zerotohero.exceptions;
 
+import java.util.Arrays;
+
 /**
  * Diese Klasse demonstriert die grundlegende Verwendung von try-catch-finally Blöcken
  * zur Ausnahmebehandlung bei einer einfachen Division.
  */
 class GrundlegendeExceptionBehandlung {
+    private static final AusnahmeProfiler.Aufrufstelle DIVISION =
+            AusnahmeProfiler.standard().stelle("GrundlegendeExceptionBehandlung.fuehreDivisionAus: ArithmeticException");
+    private static final AusnahmeProfiler.Aufrufstelle UNERWARTET =
+            AusnahmeProfiler.standard().stelle("GrundlegendeExceptionBehandlung.fuehreDivisionAus: Exception");
 
     public void fuehreDivisionAus(int zeahler, int nenner) {
+        long start = AusnahmeProfiler.standard().start(); // 0, außer mit -Dzerotohero.ausnahmen.profil=an
         try {
             System.out.println("Versuche Division: " + zeahler + " / " + nenner);
             int ergebnis = zeahler / nenner; // Kann ArithmeticException auslösen
             System.out.println("Ergebnis: " + ergebnis);
         } catch (ArithmeticException e) {
+            DIVISION.gefangen(e, start);
             System.err.println("Fehler: Division durch Null ist nicht erlaubt!");
             // e.printStackTrace(); // Gibt den Stack Trace aus, nützlich für Debugging
         } catch (Exception e) { // Ein allgemeinerer Catch-Block
+            UNERWARTET.gefangen(e, start);
             System.err.println("Ein unerwarteter Fehler ist aufgetreten: " + e.getMessage());
         }
 
@@ -37,5 +46,15 @@ class GrundlegendeExceptionBehandlung {
 
         System.out.println("\n--- Fall 3: Anderer Fehler (hier nicht simuliert, aber der Catch-Block ist da) ---");
         // Um den allgemeinen Exception-Block zu testen, müsste man eine andere Exception provozieren.
+
+        System.out.println("\n--- Fall 4: Viele Divisionen, Nenner vorab geprüft statt Exceptions gefangen ---");
+        int[] zaehler = {10, 5, 9, 7};
+        int[] nenner = {2, 0, 3, 0};
+        int[] ergebnis = new int[zaehler.length];
+        DivisionsErgebnis pruefung = MassenDivision.dividieren(zaehler, nenner, ergebnis);
+        System.out.println(pruefung + ": " + Arrays.toString(ergebnis));
+        for (int i = pruefung.naechsterFehler(0); i >= 0; i = pruefung.naechsterFehler(i + 1)) {
+            System.err.println("Fehler: Division durch Null an Index " + i + " ist nicht erlaubt!");
+        }
     }
 }
\ No newline at end of file
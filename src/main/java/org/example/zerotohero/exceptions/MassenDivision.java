@@ -0,0 +1,210 @@
+package org.example.zerotohero.exceptions;
+
+import java.util.Random;
+
+/**
+ * Das Ergebnis einer {@link MassenDivision}: welche Divisionen gescheitert sind, als Bitset mit einem Bit
+ * pro Index.
+ */
+final class DivisionsErgebnis {
+    private final int anzahlWerte;
+    private final long[] fehler;
+
+    DivisionsErgebnis(int anzahlWerte, long[] fehler) {
+        this.anzahlWerte = anzahlWerte;
+        this.fehler = fehler;
+    }
+
+    int getAnzahlWerte() {
+        return anzahlWerte;
+    }
+
+    int anzahlFehler() {
+        int anzahl = 0;
+        for (long wort : fehler) {
+            anzahl += Long.bitCount(wort);
+        }
+        return anzahl;
+    }
+
+    boolean istFehlgeschlagen(int index) {
+        return (fehler[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * @return Der erste gescheiterte Index ab {@code ab} oder -1.
+     */
+    int naechsterFehler(int ab) {
+        int wort = ab >>> 6;
+        if (ab < 0 || wort >= fehler.length) {
+            return -1;
+        }
+        long rest = fehler[wort] & (-1L << ab);
+        while (true) {
+            if (rest != 0) {
+                return (wort << 6) + Long.numberOfTrailingZeros(rest);
+            }
+            if (++wort == fehler.length) {
+                return -1;
+            }
+            rest = fehler[wort];
+        }
+    }
+
+    /**
+     * @return Das Bitset der gescheiterten Indizes (nicht kopiert).
+     */
+    long[] fehler() {
+        return fehler;
+    }
+
+    @Override
+    public String toString() {
+        return anzahlWerte + " Divisionen, " + anzahlFehler() + " durch Null";
+    }
+}
+
+/**
+ * Dividiert ganze Spalten von {@code int}-Werten, ohne für jeden Nenner 0 eine {@link ArithmeticException}
+ * zu werfen und zu fangen wie {@link GrundlegendeExceptionBehandlung#fuehreDivisionAus}.
+ *
+ * {@link #dividieren} prüft die Nenner in Blöcken zu 64 ohne Verzweigungen: Aus jedem Nenner entsteht ein
+ * Fehlerbit, und dividiert wird durch {@code nenner | bit}, also nie durch 0. Das Ergebnis an einem
+ * gescheiterten Index ist 0. {@link #dividierenOderAbbrechen} prüft erst alle Nenner und wirft höchstens
+ * eine Exception für die ganze Spalte, bevor etwas geschrieben wird.
+ *
+ * Wie der {@code /}-Operator liefert {@code Integer.MIN_VALUE / -1} wieder {@code Integer.MIN_VALUE}; das
+ * zählt nicht als Fehler.
+ *
+ * Was der Umweg über die Exception kostet, hängt vom JIT ab: Fängt dieselbe kompilierte Methode die
+ * Exception, wird sie oft zu einem einfachen Sprung. Muss sie aber mit Stacktrace erzeugt werden (etwa mit
+ * {@code -XX:-OmitStackTraceInFastThrow} oder bevor der JIT übernimmt), kostet jeder Wurf Mikrosekunden.
+ * Der {@link AusnahmeProfiler} zeigt, welcher Fall vorliegt.
+ */
+final class MassenDivision {
+    private static final AusnahmeProfiler.Aufrufstelle EINZELN =
+            AusnahmeProfiler.standard().stelle("MassenDivision.dividierenEinzeln");
+
+    private MassenDivision() {
+    }
+
+    /**
+     * Schreibt {@code zaehler[i] / nenner[i]} nach {@code ergebnis[i]}, bei Nenner 0 stattdessen 0.
+     *
+     * @return Welche Indizes einen Nenner 0 hatten.
+     */
+    static DivisionsErgebnis dividieren(int[] zaehler, int[] nenner, int[] ergebnis) {
+        int anzahl = laengenPruefen(zaehler, nenner, ergebnis);
+        long[] fehler = new long[(anzahl + 63) >>> 6];
+        for (int wortIndex = 0, start = 0; start < anzahl; wortIndex++, start += 64) {
+            fehler[wortIndex] = blockDividieren(zaehler, nenner, ergebnis, start, Math.min(64, anzahl - start));
+        }
+        return new DivisionsErgebnis(anzahl, fehler);
+    }
+
+    /**
+     * {@code (n | -n) >>> 31} ist genau dann 0, wenn {@code n} 0 ist; {@code bit - 1} ist dann 0 und
+     * löscht den Quotienten, sonst -1.
+     */
+    private static long blockDividieren(int[] zaehler, int[] nenner, int[] ergebnis, int start, int laenge) {
+        long wort = 0;
+        for (int j = 0; j < laenge; j++) {
+            int n = nenner[start + j];
+            int bit = ((n | -n) >>> 31) ^ 1;
+            ergebnis[start + j] = (zaehler[start + j] / (n | bit)) & (bit - 1);
+            wort |= (long) bit << j;
+        }
+        return wort;
+    }
+
+    /**
+     * Wie {@link #dividieren}, aber ganz oder gar nicht: Ist irgendein Nenner 0, bleibt {@code ergebnis}
+     * unverändert.
+     *
+     * @throws ArithmeticException Einmal für die ganze Spalte, mit dem ersten Index und der Anzahl.
+     */
+    static void dividierenOderAbbrechen(int[] zaehler, int[] nenner, int[] ergebnis) {
+        int anzahl = laengenPruefen(zaehler, nenner, ergebnis);
+        int nullen = 0;
+        for (int i = 0; i < anzahl; i++) {
+            nullen += ((nenner[i] | -nenner[i]) >>> 31) ^ 1;
+        }
+        if (nullen > 0) {
+            int erster = 0;
+            while (nenner[erster] != 0) {
+                erster++;
+            }
+            throw new ArithmeticException("Division durch Null an Index " + erster + " (" + nullen + " von "
+                    + anzahl + " Nennern sind 0)");
+        }
+        for (int i = 0; i < anzahl; i++) {
+            ergebnis[i] = zaehler[i] / nenner[i];
+        }
+    }
+
+    /**
+     * Der Stil aus {@link GrundlegendeExceptionBehandlung}: dividieren und die {@link ArithmeticException}
+     * fangen. Dasselbe Ergebnis wie {@link #dividieren}, als Vergleich und für den {@link AusnahmeProfiler}.
+     */
+    static DivisionsErgebnis dividierenEinzeln(int[] zaehler, int[] nenner, int[] ergebnis) {
+        int anzahl = laengenPruefen(zaehler, nenner, ergebnis);
+        AusnahmeProfiler profiler = AusnahmeProfiler.standard();
+        long[] fehler = new long[(anzahl + 63) >>> 6];
+        for (int i = 0; i < anzahl; i++) {
+            long start = profiler.start();
+            try {
+                ergebnis[i] = zaehler[i] / nenner[i];
+            } catch (ArithmeticException e) {
+                EINZELN.gefangen(e, start);
+                ergebnis[i] = 0;
+                fehler[i >>> 6] |= 1L << i;
+            }
+        }
+        return new DivisionsErgebnis(anzahl, fehler);
+    }
+
+    private static int laengenPruefen(int[] zaehler, int[] nenner, int[] ergebnis) {
+        if (nenner.length != zaehler.length || ergebnis.length < zaehler.length) {
+            throw new IllegalArgumentException("Längen passen nicht: " + zaehler.length + " Zähler, "
+                    + nenner.length + " Nenner, " + ergebnis.length + " Ergebnisse");
+        }
+        return zaehler.length;
+    }
+
+    public static void main(String[] args) {
+        int anzahl = 10_000_000;
+        Random zufall = new Random(1);
+        int[] zaehler = new int[anzahl];
+        int[] nenner = new int[anzahl];
+        int[] ergebnis = new int[anzahl];
+        for (int i = 0; i < anzahl; i++) {
+            zaehler[i] = zufall.nextInt();
+        }
+
+        for (int prozent : new int[]{0, 1, 10, 50}) {
+            for (int i = 0; i < anzahl; i++) {
+                nenner[i] = zufall.nextInt(100) < prozent ? 0 : zufall.nextInt(1_000) + 1;
+            }
+            for (int runde = 0; runde < 3; runde++) {
+                long start = System.nanoTime();
+                DivisionsErgebnis einzeln = dividierenEinzeln(zaehler, nenner, ergebnis);
+                long mitte = System.nanoTime();
+                DivisionsErgebnis geprueft = dividieren(zaehler, nenner, ergebnis);
+                long ende = System.nanoTime();
+                if (runde == 2) {
+                    System.out.printf("%2d %% Nenner 0 (%s): try/catch %.0f ms, vorab geprüft %.0f ms%n",
+                            prozent, geprueft, (mitte - start) / 1e6, (ende - mitte) / 1e6);
+                    if (einzeln.anzahlFehler() != geprueft.anzahlFehler()) {
+                        throw new AssertionError(einzeln + " / " + geprueft);
+                    }
+                }
+            }
+        }
+
+        try {
+            dividierenOderAbbrechen(zaehler, nenner, ergebnis);
+        } catch (ArithmeticException e) {
+            System.out.println("Abgebrochen: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.zerotohero.exceptions.custom_exceptions;
+
+/**
+ * Status einer Abhebung im Ergebnis-Modus.
+ */
+enum AbhebungsStatus {
+    ABGEHOBEN,
+    UNGUELTIGER_BETRAG,
+    UNGENUEGENDE_DECKUNG
+}
+
+/**
+ * Wiederverwendbares Ergebnis einer Abhebung: Status plus fehlender Betrag.
+ *
+ * Ersetzt auf heißen Pfaden die {@link UngenuegendeDeckungException}. Ein Aufrufer legt
+ * ein Objekt einmal an und übergibt es bei jeder Abhebung erneut, dadurch entsteht pro
+ * abgelehnter Abhebung weder ein Objekt noch ein Stack Trace noch ein String.
+ * Nicht thread-sicher – jeder Thread verwendet sein eigenes Ergebnis-Objekt.
+ */
+class AbhebungsErgebnis {
+    private AbhebungsStatus status = AbhebungsStatus.ABGEHOBEN;
+    private double fehlenderBetrag;
+
+    AbhebungsStatus setzen(AbhebungsStatus status, double fehlenderBetrag) {
+        this.status = status;
+        this.fehlenderBetrag = fehlenderBetrag;
+        return status;
+    }
+
+    public AbhebungsStatus getStatus() {
+        return status;
+    }
+
+    public boolean istErfolgreich() {
+        return status == AbhebungsStatus.ABGEHOBEN;
+    }
+
+    /**
+     * @return Der fehlende Betrag bei {@link AbhebungsStatus#UNGENUEGENDE_DECKUNG}, sonst 0.
+     */
+    public double getFehlenderBetrag() {
+        return fehlenderBetrag;
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.zerotohero.exceptions.custom_exceptions;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Eine einzelne Überweisung innerhalb eines Stapels.
+ *
+ * @param von Das belastete Konto.
+ * @param nach Das begünstigte Konto.
+ * @param betrag Der Betrag in EUR.
+ */
+record Ueberweisung(BankkontoMitCustomExceptions von, BankkontoMitCustomExceptions nach, double betrag) {
+}
+
+/**
+ * Ergebnis einer einzelnen Überweisung. Statt einer Exception pro Fehler
+ * liefert der Stapel für jede Überweisung einen dieser Werte zurück.
+ */
+enum UeberweisungsStatus {
+    AUSGEFUEHRT,
+    UNGUELTIGER_BETRAG,
+    UNGENUEGENDE_DECKUNG,
+    GLEICHES_KONTO
+}
+
+/**
+ * Führt viele Überweisungen zwischen {@link BankkontoMitCustomExceptions}-Konten in einem Aufruf aus.
+ *
+ * Alle beteiligten Konten werden einmal pro Stapel gesperrt – immer in aufsteigender Kontonummer,
+ * dadurch können sich gleichzeitig laufende Stapel und Einzelbuchungen nicht gegenseitig blockieren
+ * (kein Deadlock). Danach werden die Überweisungen in der gegebenen Reihenfolge angewendet, jede für
+ * sich atomar. Fehler werden nicht geworfen, sondern im Ergebnis-Array an derselben Position gemeldet.
+ */
+class UeberweisungsStapel {
+
+    private static final Comparator<BankkontoMitCustomExceptions> NACH_KONTONUMMER =
+            Comparator.comparingLong(BankkontoMitCustomExceptions::getKontoNummer);
+
+    /**
+     * Führt einen Stapel von Überweisungen aus.
+     * @param ueberweisungen Die Überweisungen in Ausführungsreihenfolge.
+     * @return Der Status jeder Überweisung, gleiche Position wie in der Eingabe.
+     */
+    public UeberweisungsStatus[] ausfuehren(List<Ueberweisung> ueberweisungen) {
+        UeberweisungsStatus[] ergebnis = new UeberweisungsStatus[ueberweisungen.size()];
+        BankkontoMitCustomExceptions[] konten = beteiligteKonten(ueberweisungen);
+
+        int gesperrt = 0;
+        try {
+            for (BankkontoMitCustomExceptions konto : konten) {
+                konto.getSperre().lock();
+                gesperrt++;
+            }
+            for (int i = 0; i < ergebnis.length; i++) {
+                ergebnis[i] = buchen(ueberweisungen.get(i));
+            }
+        } finally {
+            while (gesperrt > 0) {
+                konten[--gesperrt].getSperre().unlock();
+            }
+        }
+        return ergebnis;
+    }
+
+    private static UeberweisungsStatus buchen(Ueberweisung ueberweisung) {
+        double betrag = ueberweisung.betrag();
+        if (!(betrag > 0) || Double.isInfinite(betrag)) { // Fängt auch NaN ab
+            return UeberweisungsStatus.UNGUELTIGER_BETRAG;
+        }
+        if (ueberweisung.von() == ueberweisung.nach()) {
+            return UeberweisungsStatus.GLEICHES_KONTO;
+        }
+        if (!ueberweisung.von().abbuchenUnterSperre(betrag)) {
+            return UeberweisungsStatus.UNGENUEGENDE_DECKUNG;
+        }
+        ueberweisung.nach().gutschreibenUnterSperre(betrag);
+        return UeberweisungsStatus.AUSGEFUEHRT;
+    }
+
+    /**
+     * Sammelt alle beteiligten Konten ohne Duplikate, sortiert nach Kontonummer.
+     */
+    private static BankkontoMitCustomExceptions[] beteiligteKonten(List<Ueberweisung> ueberweisungen) {
+        BankkontoMitCustomExceptions[] alle = new BankkontoMitCustomExceptions[ueberweisungen.size() * 2];
+        int n = 0;
+        for (Ueberweisung ueberweisung : ueberweisungen) {
+            alle[n++] = ueberweisung.von();
+            alle[n++] = ueberweisung.nach();
+        }
+        Arrays.sort(alle, NACH_KONTONUMMER);
+
+        int eindeutig = 0;
+        for (int i = 0; i < n; i++) {
+            if (eindeutig == 0 || alle[eindeutig - 1] != alle[i]) {
+                alle[eindeutig++] = alle[i];
+            }
+        }
+        return Arrays.copyOf(alle, eindeutig);
+    }
+
+    public static void main(String[] args) {
+        BankkontoMitCustomExceptions anna = new BankkontoMitCustomExceptions("Anna", 100.0);
+        BankkontoMitCustomExceptions ben = new BankkontoMitCustomExceptions("Ben", 20.0);
+
+        UeberweisungsStatus[] status = new UeberweisungsStapel().ausfuehren(List.of(
+                new Ueberweisung(anna, ben, 30.0),
+                new Ueberweisung(ben, anna, 80.0),   // Scheitert: Ben hat nur 50 EUR
+                new Ueberweisung(ben, anna, -5.0),   // Ungültiger Betrag
+                new Ueberweisung(ben, anna, 50.0)
+        ));
+
+        System.out.println("Ergebnisse: " + Arrays.toString(status));
+        System.out.println(anna.getKontoinhaber() + ": " + anna.getKontostand() + " EUR");
+        System.out.println(ben.getKontoinhaber() + ": " + ben.getKontostand() + " EUR");
+    }
+}
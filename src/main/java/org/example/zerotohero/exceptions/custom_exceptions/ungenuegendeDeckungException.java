@@ -1,15 +1,59 @@
 package org.example.zerotohero.exceptions.custom_exceptions;
 
+import org.example.zerotohero.ereignis.Ereignisse;
+import org.example.zerotohero.metriken.KontoMetriken;
+import org.example.zerotohero.metriken.KontoMetriken.Ergebnis;
+import org.example.zerotohero.metriken.KontoMetriken.Operation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
 /**
  * Eine benutzerdefinierte checked Exception, die ausgelöst wird,
  * wenn ein Bankkonto nicht genügend Guthaben für eine Transaktion hat.
  */
 class UngenuegendeDeckungException extends Exception { // Erbt von Exception -> checked
     private double fehlenderBetrag;
+    private final double betrag;
+    private String nachricht; // Wird bei der leichten Variante erst in getMessage() gebaut
 
     public UngenuegendeDeckungException(String message, double fehlenderBetrag) {
         super(message); // Ruft den Konstruktor der Superklasse (Exception) auf
         this.fehlenderBetrag = fehlenderBetrag;
+        this.betrag = Double.NaN;
+    }
+
+    /**
+     * Konstruktor für die leichte Variante: kein Stack Trace, keine Unterdrückung,
+     * die Nachricht wird erst beim ersten Aufruf von {@link #getMessage()} erzeugt.
+     */
+    private UngenuegendeDeckungException(double betrag, double fehlenderBetrag) {
+        super(null, null, false, false); // enableSuppression = false, writableStackTrace = false
+        this.fehlenderBetrag = fehlenderBetrag;
+        this.betrag = betrag;
+    }
+
+    /**
+     * Erzeugt eine Exception ohne Stack Trace und mit verzögert gebauter Nachricht.
+     * Gedacht für Pfade, auf denen abgelehnte Abhebungen häufig sind.
+     * @param betrag Der angefragte Betrag.
+     * @param fehlenderBetrag Der fehlende Betrag.
+     * @return Die leichte Exception.
+     */
+    static UngenuegendeDeckungException ohneStackTrace(double betrag, double fehlenderBetrag) {
+        return new UngenuegendeDeckungException(betrag, fehlenderBetrag);
+    }
+
+    @Override
+    public String getMessage() {
+        String message = super.getMessage();
+        if (message != null) {
+            return message;
+        }
+        if (nachricht == null) {
+            nachricht = "Nicht genügend Guthaben für Abhebung von " + betrag + " EUR. Es fehlen " + fehlenderBetrag + " EUR.";
+        }
+        return nachricht;
     }
 
     public double getFehlenderBetrag() {
@@ -28,8 +72,15 @@ class UngueltigerBetragRuntimeException extends RuntimeException { // Erbt von R
 
 /**
  * Ein einfaches Bankkonto, das benutzerdefinierte Exceptions verwenden kann.
+ * Jede Buchung läuft unter der Sperre des Kontos, damit Einzelbuchungen und
+ * {@link UeberweisungsStapel Sammelüberweisungen} sicher nebeneinander laufen können.
  */
 class BankkontoMitCustomExceptions {
+    private static final AtomicLong NAECHSTE_KONTONUMMER = new AtomicLong();
+    private static final KontoMetriken METRIKEN = KontoMetriken.standard();
+
+    private final long kontoNummer = NAECHSTE_KONTONUMMER.getAndIncrement(); // Feste Sperrreihenfolge
+    private final ReentrantLock sperre = new ReentrantLock();
     private double kontostand;
     private String kontoinhaber;
 
@@ -42,11 +93,21 @@ class BankkontoMitCustomExceptions {
     }
 
     public void einzahlen(double betrag) {
-        if (betrag <= 0) {
+        long start = KontoMetriken.start();
+        if (!(betrag > 0) || Double.isInfinite(betrag)) { // Fängt auch NaN ab
+            METRIKEN.erfassen(Operation.EINZAHLUNG, Ergebnis.UNGUELTIGER_BETRAG, start);
             throw new UngueltigerBetragRuntimeException("Einzahlungsbetrag muss positiv sein: " + betrag);
         }
-        this.kontostand += betrag;
-        System.out.println(betrag + " EUR eingezahlt. Neuer Kontostand: " + this.kontostand + " EUR");
+        double neuerKontostand;
+        sperre.lock();
+        try {
+            this.kontostand += betrag;
+            neuerKontostand = this.kontostand;
+        } finally {
+            sperre.unlock();
+        }
+        METRIKEN.erfassen(Operation.EINZAHLUNG, Ergebnis.ERFOLG, start);
+        Ereignisse.info("{} EUR eingezahlt. Neuer Kontostand: {} EUR", betrag, neuerKontostand);
     }
 
     /**
@@ -55,28 +116,145 @@ class BankkontoMitCustomExceptions {
      * @throws UngenuegendeDeckungException wenn der Kontostand nicht ausreicht.
      */
     public void abheben(double betrag) throws UngenuegendeDeckungException {
-        if (betrag <= 0) {
+        long start = KontoMetriken.start();
+        if (!(betrag > 0) || Double.isInfinite(betrag)) { // Fängt auch NaN ab
+            METRIKEN.erfassen(Operation.ABHEBUNG, Ergebnis.UNGUELTIGER_BETRAG, start);
             throw new UngueltigerBetragRuntimeException("Abhebungsbetrag muss positiv sein: " + betrag);
         }
-        if (this.kontostand < betrag) {
-            double fehlt = betrag - this.kontostand;
+        double neuerKontostand;
+        double fehlt = 0;
+        sperre.lock();
+        try {
+            if (this.kontostand < betrag) {
+                fehlt = betrag - this.kontostand;
+            } else {
+                this.kontostand -= betrag;
+            }
+            neuerKontostand = this.kontostand;
+        } finally {
+            sperre.unlock();
+        }
+        if (fehlt > 0) { // Messen und Exception bauen außerhalb der Sperre
+            METRIKEN.erfassen(Operation.ABHEBUNG, Ergebnis.UNGENUEGENDE_DECKUNG, start);
             throw new UngenuegendeDeckungException(
                     "Nicht genügend Guthaben für Abhebung von " + betrag + " EUR. Es fehlen " + fehlt + " EUR.",
                     fehlt
             );
         }
-        this.kontostand -= betrag;
-        System.out.println(betrag + " EUR abgehoben. Neuer Kontostand: " + this.kontostand + " EUR");
+        METRIKEN.erfassen(Operation.ABHEBUNG, Ergebnis.ERFOLG, start);
+        Ereignisse.info("{} EUR abgehoben. Neuer Kontostand: {} EUR", betrag, neuerKontostand);
+    }
+
+    /**
+     * Hebt einen Betrag ab, ohne bei fehlender Deckung eine Exception zu erzeugen.
+     * Das Ergebnis (Status und fehlender Betrag) wird in das übergebene, wiederverwendbare
+     * Objekt geschrieben. Es gibt keine Konsolenausgabe und keine Allokation.
+     * @param betrag Der abzuhebende Betrag.
+     * @param ergebnis Das Objekt, in das das Ergebnis geschrieben wird.
+     * @return Der Status der Abhebung (auch in {@code ergebnis} abgelegt).
+     */
+    public AbhebungsStatus abheben(double betrag, AbhebungsErgebnis ergebnis) {
+        long start = KontoMetriken.start();
+        if (!(betrag > 0) || Double.isInfinite(betrag)) { // Fängt auch NaN ab
+            METRIKEN.erfassen(Operation.ABHEBUNG, Ergebnis.UNGUELTIGER_BETRAG, start);
+            return ergebnis.setzen(AbhebungsStatus.UNGUELTIGER_BETRAG, 0);
+        }
+        double fehlt = 0;
+        sperre.lock();
+        try {
+            if (this.kontostand < betrag) {
+                fehlt = betrag - this.kontostand;
+            } else {
+                this.kontostand -= betrag;
+            }
+        } finally {
+            sperre.unlock();
+        }
+        if (fehlt > 0) {
+            METRIKEN.erfassen(Operation.ABHEBUNG, Ergebnis.UNGENUEGENDE_DECKUNG, start);
+            return ergebnis.setzen(AbhebungsStatus.UNGENUEGENDE_DECKUNG, fehlt);
+        }
+        METRIKEN.erfassen(Operation.ABHEBUNG, Ergebnis.ERFOLG, start);
+        return ergebnis.setzen(AbhebungsStatus.ABGEHOBEN, 0);
+    }
+
+    /**
+     * Wie {@link #abheben(double)}, wirft bei fehlender Deckung aber die leichte
+     * {@link UngenuegendeDeckungException} ohne Stack Trace. Keine Konsolenausgabe.
+     * @param betrag Der abzuhebende Betrag.
+     * @throws UngenuegendeDeckungException wenn der Kontostand nicht ausreicht.
+     */
+    public void abhebenOhneStackTrace(double betrag) throws UngenuegendeDeckungException {
+        long start = KontoMetriken.start();
+        if (!(betrag > 0) || Double.isInfinite(betrag)) { // Fängt auch NaN ab
+            METRIKEN.erfassen(Operation.ABHEBUNG, Ergebnis.UNGUELTIGER_BETRAG, start);
+            throw new UngueltigerBetragRuntimeException("Abhebungsbetrag muss positiv sein: " + betrag);
+        }
+        double fehlt = 0;
+        sperre.lock();
+        try {
+            if (this.kontostand < betrag) {
+                fehlt = betrag - this.kontostand;
+            } else {
+                this.kontostand -= betrag;
+            }
+        } finally {
+            sperre.unlock();
+        }
+        if (fehlt > 0) {
+            METRIKEN.erfassen(Operation.ABHEBUNG, Ergebnis.UNGENUEGENDE_DECKUNG, start);
+            throw UngenuegendeDeckungException.ohneStackTrace(betrag, fehlt);
+        }
+        METRIKEN.erfassen(Operation.ABHEBUNG, Ergebnis.ERFOLG, start);
     }
 
     public double getKontostand() {
-        return kontostand;
+        sperre.lock();
+        try {
+            return kontostand;
+        } finally {
+            sperre.unlock();
+        }
     }
 
     public String getKontoinhaber() {
         return kontoinhaber;
     }
 
+    /**
+     * Eindeutige, aufsteigend vergebene Kontonummer. Legt die Reihenfolge fest,
+     * in der mehrere Konten gesperrt werden, und verhindert so Deadlocks.
+     * @return Die Kontonummer.
+     */
+    long getKontoNummer() {
+        return kontoNummer;
+    }
+
+    ReentrantLock getSperre() {
+        return sperre;
+    }
+
+    /**
+     * Bucht ohne Ausgabe und ohne Exception ab. Der Aufrufer muss die Sperre halten.
+     * @param betrag Der positive Betrag.
+     * @return {@code true}, wenn die Deckung gereicht hat.
+     */
+    boolean abbuchenUnterSperre(double betrag) {
+        if (this.kontostand < betrag) {
+            return false;
+        }
+        this.kontostand -= betrag;
+        return true;
+    }
+
+    /**
+     * Schreibt ohne Ausgabe gut. Der Aufrufer muss die Sperre halten.
+     * @param betrag Der positive Betrag.
+     */
+    void gutschreibenUnterSperre(double betrag) {
+        this.kontostand += betrag;
+    }
+
     public static void main(String[] args) {
         BankkontoMitCustomExceptions konto = null;
         try {
@@ -0,0 +1,273 @@
+package org.example.zerotohero.exceptions.throwsx;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Liest die ersten Bytes einer Datei, z.B. um ihr Format zu erkennen. Im Gegensatz zu
+ * {@link DateiLeserMitThrows#leseErstesZeichen(String)} wird pro Datei nur ein positionsbasierter
+ * {@link FileChannel#read(ByteBuffer, long)} in einen Puffer aus einem gemeinsamen Vorrat ausgeführt,
+ * und das Ergebnis landet in einem begrenzten Cache. Ein Cache-Eintrag gilt nur, solange
+ * Änderungszeit und Größe der Datei unverändert sind.
+ *
+ * Der Cache ist eine {@link ConcurrentHashMap}, Treffer nehmen also keine gemeinsame Sperre. Jeder Eintrag
+ * merkt sich, wann er zuletzt benutzt wurde; läuft der Cache über, entfernt ein einzelner Thread ungefähr
+ * das am längsten unbenutzte Achtel auf einmal, statt bei jedem Einfügen den ältesten Eintrag zu suchen.
+ */
+class DateiKopfSonde {
+
+    /**
+     * Der Kopf einer Datei zum Zeitpunkt der Probe.
+     *
+     * @param pfad Die Datei.
+     * @param geaendert Änderungszeit in Millisekunden.
+     * @param groesse Dateigröße in Bytes.
+     * @param kopf Die ersten Bytes, höchstens so viele wie die Sonde liest.
+     */
+    record DateiKopf(Path pfad, long geaendert, long groesse, byte[] kopf) {
+
+        DateiKopf {
+            kopf = kopf.clone();
+        }
+
+        /**
+         * @return Eine Kopie der gelesenen Bytes.
+         */
+        @Override
+        public byte[] kopf() {
+            return kopf.clone();
+        }
+
+        /**
+         * @return Das erste Byte der Datei oder -1, wenn sie leer ist.
+         */
+        int erstesByte() {
+            return kopf.length == 0 ? -1 : kopf[0] & 0xFF;
+        }
+
+        boolean beginntMit(byte[] signatur) {
+            return kopf.length >= signatur.length
+                    && Arrays.equals(kopf, 0, signatur.length, signatur, 0, signatur.length);
+        }
+    }
+
+    /**
+     * Ergebnis einer Probe über einen Verzeichnisbaum.
+     */
+    record BaumErgebnis(List<DateiKopf> koepfe, List<Path> fehlgeschlagen) {
+    }
+
+    static final int STANDARD_KOPF_LAENGE = 64;
+    static final int STANDARD_CACHE_GROESSE = 100_000;
+    private static final int STAPEL_GROESSE = 512;
+
+    private final int kopfLaenge;
+    private final int cacheGroesse;
+    // Direkte Puffer pro Thread wären bei virtuellen Threads pro Probe neu; der Vorrat hält nur so viele
+    // Puffer, wie gleichzeitig gelesen wird
+    private final ConcurrentLinkedQueue<ByteBuffer> puffer = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<Path, Eintrag> cache = new ConcurrentHashMap<>();
+    private final AtomicLong uhr = new AtomicLong();
+    private final AtomicBoolean raeumt = new AtomicBoolean();
+
+    private static final class Eintrag {
+        final DateiKopf kopf;
+        volatile long benutzt;
+
+        Eintrag(DateiKopf kopf, long benutzt) {
+            this.kopf = kopf;
+            this.benutzt = benutzt;
+        }
+    }
+
+    DateiKopfSonde() {
+        this(STANDARD_KOPF_LAENGE, STANDARD_CACHE_GROESSE);
+    }
+
+    /**
+     * @param kopfLaenge Wie viele Bytes pro Datei gelesen werden.
+     * @param cacheGroesse Wie viele Köpfe höchstens im Cache bleiben.
+     */
+    DateiKopfSonde(int kopfLaenge, int cacheGroesse) {
+        if (kopfLaenge <= 0 || cacheGroesse < 0) {
+            throw new IllegalArgumentException("Kopflänge muss positiv und Cachegröße nicht negativ sein.");
+        }
+        this.kopfLaenge = kopfLaenge;
+        this.cacheGroesse = cacheGroesse;
+    }
+
+    /**
+     * Liest den Kopf einer Datei oder liefert ihn aus dem Cache.
+     *
+     * @param datei Die Datei.
+     * @return Der Kopf der Datei.
+     * @throws java.nio.file.NoSuchFileException wenn die Datei nicht existiert.
+     * @throws IOException wenn ein anderer E/A-Fehler auftritt.
+     */
+    public DateiKopf proben(Path datei) throws IOException {
+        BasicFileAttributes attribute = Files.readAttributes(datei, BasicFileAttributes.class);
+        long geaendert = attribute.lastModifiedTime().toMillis();
+        long groesse = attribute.size();
+
+        Eintrag gecacht = cache.get(datei);
+        if (gecacht != null && gecacht.kopf.geaendert() == geaendert && gecacht.kopf.groesse() == groesse) {
+            long jetzt = uhr.get();
+            if (gecacht.benutzt != jetzt) { // Nur schreiben, wenn sich etwas ändert
+                gecacht.benutzt = jetzt;
+            }
+            return gecacht.kopf;
+        }
+
+        ByteBuffer kopfPuffer = puffer.poll();
+        if (kopfPuffer == null) {
+            kopfPuffer = ByteBuffer.allocateDirect(kopfLaenge);
+        }
+        byte[] kopf;
+        try {
+            kopfPuffer.clear();
+            try (FileChannel kanal = FileChannel.open(datei, StandardOpenOption.READ)) {
+                // Ein einzelner Read genügt für reguläre Dateien; nur bei kurzen Reads wird nachgelesen
+                while (kopfPuffer.hasRemaining() && kanal.read(kopfPuffer, kopfPuffer.position()) > 0) {
+                }
+            }
+            kopfPuffer.flip();
+            kopf = new byte[kopfPuffer.remaining()];
+            kopfPuffer.get(kopf);
+        } finally {
+            puffer.offer(kopfPuffer);
+        }
+
+        DateiKopf neu = new DateiKopf(datei, geaendert, groesse, kopf);
+        if (cacheGroesse > 0) {
+            cache.put(datei, new Eintrag(neu, uhr.incrementAndGet()));
+            while (cache.size() > cacheGroesse && raeumt.compareAndSet(false, true)) {
+                try {
+                    verdraengen();
+                } finally {
+                    raeumt.set(false);
+                }
+            }
+        }
+        return neu;
+    }
+
+    /**
+     * Entfernt die am längsten unbenutzten Einträge, bis der Cache ein Achtel unter seiner Grenze liegt.
+     * Läuft nur in einem Thread gleichzeitig; Einträge, die währenddessen benutzt oder eingefügt werden,
+     * machen das Ergebnis ungenau, aber nicht falsch.
+     */
+    private void verdraengen() {
+        long[] zeiten = cache.values().stream().mapToLong(eintrag -> eintrag.benutzt).toArray();
+        int zuEntfernen = zeiten.length - (cacheGroesse - cacheGroesse / 8);
+        if (zuEntfernen <= 0) {
+            return;
+        }
+        Arrays.sort(zeiten);
+        long grenze = zeiten[zuEntfernen - 1];
+        Iterator<Eintrag> eintraege = cache.values().iterator();
+        while (zuEntfernen > 0 && eintraege.hasNext()) {
+            if (eintraege.next().benutzt <= grenze) {
+                eintraege.remove();
+                zuEntfernen--;
+            }
+        }
+    }
+
+    /**
+     * Probt alle regulären Dateien unter {@code wurzel} in Stapeln auf dem angegebenen Executor.
+     * Dateien, die nicht gelesen werden können (z.B. weil sie inzwischen gelöscht wurden), landen
+     * in {@link BaumErgebnis#fehlgeschlagen()} statt die ganze Probe abzubrechen.
+     *
+     * @param wurzel Das Wurzelverzeichnis.
+     * @param executor Der Executor für die Stapel.
+     * @return Ein Future mit den Köpfen aller lesbaren Dateien.
+     * @throws IOException wenn der Verzeichnisbaum nicht durchlaufen werden kann.
+     */
+    public CompletableFuture<BaumErgebnis> baumProben(Path wurzel, Executor executor) throws IOException {
+        List<Path> dateien;
+        try (Stream<Path> pfade = Files.walk(wurzel)) {
+            dateien = pfade.filter(Files::isRegularFile).toList();
+        }
+
+        ConcurrentLinkedQueue<Path> fehlgeschlagen = new ConcurrentLinkedQueue<>();
+        List<CompletableFuture<List<DateiKopf>>> stapel = new ArrayList<>();
+        for (int von = 0; von < dateien.size(); von += STAPEL_GROESSE) {
+            List<Path> teil = dateien.subList(von, Math.min(von + STAPEL_GROESSE, dateien.size()));
+            stapel.add(CompletableFuture.supplyAsync(() -> stapelProben(teil, fehlgeschlagen), executor));
+        }
+
+        return CompletableFuture.allOf(stapel.toArray(CompletableFuture[]::new)).thenApply(ignoriert -> {
+            List<DateiKopf> koepfe = new ArrayList<>(dateien.size());
+            for (CompletableFuture<List<DateiKopf>> teil : stapel) {
+                koepfe.addAll(teil.join());
+            }
+            return new BaumErgebnis(koepfe, List.copyOf(fehlgeschlagen));
+        });
+    }
+
+    private List<DateiKopf> stapelProben(List<Path> dateien, ConcurrentLinkedQueue<Path> fehlgeschlagen) {
+        List<DateiKopf> koepfe = new ArrayList<>(dateien.size());
+        for (Path datei : dateien) {
+            try {
+                koepfe.add(proben(datei));
+            } catch (IOException e) {
+                fehlgeschlagen.add(datei);
+            }
+        }
+        return koepfe;
+    }
+
+    int getCacheGroesse() {
+        return cache.size();
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path wurzel = Files.createTempDirectory("sonde");
+        int anzahl = 20_000;
+        byte[] pdf = "%PDF-1.7\n".getBytes(StandardCharsets.US_ASCII);
+        byte[] csv = "kontoId;betrag\n1;10.00\n".getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < anzahl; i++) {
+            Path ordner = wurzel.resolve("ordner-" + (i % 100));
+            Files.createDirectories(ordner);
+            Files.write(ordner.resolve("datei-" + i), i % 3 == 0 ? pdf : csv);
+        }
+
+        DateiKopfSonde sonde = new DateiKopfSonde();
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            for (String lauf : new String[]{"kalt", "warm"}) {
+                long start = System.nanoTime();
+                BaumErgebnis ergebnis = sonde.baumProben(wurzel, executor).join();
+                long dauer = System.nanoTime() - start;
+                long pdfs = ergebnis.koepfe().stream().filter(kopf -> kopf.beginntMit("%PDF".getBytes(StandardCharsets.US_ASCII))).count();
+                System.out.printf("%s: %d Dateien (%d PDF) in %d ms, %.0f Dateien/s%n",
+                        lauf, ergebnis.koepfe().size(), pdfs, dauer / 1_000_000, ergebnis.koepfe().size() * 1e9 / dauer);
+            }
+        } finally {
+            executor.shutdown();
+            try (Stream<Path> pfade = Files.walk(wurzel)) {
+                pfade.sorted(Collections.reverseOrder()).forEach(pfad -> pfad.toFile().delete());
+            }
+        }
+    }
+}
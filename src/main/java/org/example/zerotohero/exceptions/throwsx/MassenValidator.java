@@ -0,0 +1,279 @@
+package org.example.zerotohero.exceptions.throwsx;
+
+import java.nio.IntBuffer;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Wie schwer ein Regelverstoß wiegt.
+ */
+enum Schwere {
+    /** Der Wert ist ungültig (wie {@code alter < 0} in {@link Validator#validiereAlter(int)}). */
+    FEHLER,
+    /** Der Wert ist gültig, aber auffällig (wie {@code alter > 120}). */
+    WARNUNG
+}
+
+/**
+ * Eine Regel, die einen Wert im geschlossenen Bereich {@code [min, max]} erwartet.
+ */
+record Bereichsregel(String name, int min, int max, Schwere schwere) {
+
+    Bereichsregel {
+        if (min > max) {
+            throw new IllegalArgumentException("Leerer Bereich für Regel '" + name + "': " + min + " > " + max);
+        }
+    }
+
+    static Bereichsregel mindestens(String name, int min, Schwere schwere) {
+        return new Bereichsregel(name, min, Integer.MAX_VALUE, schwere);
+    }
+
+    static Bereichsregel hoechstens(String name, int max, Schwere schwere) {
+        return new Bereichsregel(name, Integer.MIN_VALUE, max, schwere);
+    }
+
+    boolean verletzt(int wert) {
+        return wert < min || wert > max;
+    }
+}
+
+/**
+ * Das Ergebnis einer Massenvalidierung: pro Regel ein Bitset der verletzenden Indizes, dazu je ein Bitset
+ * aller Indizes mit mindestens einem Fehler bzw. mindestens einer Warnung. Bit {@code i} steht in
+ * Wort {@code i >>> 6}, Bit {@code i & 63}.
+ */
+final class ValidierungsErgebnis {
+    private final int anzahlWerte;
+    private final List<String> regelNamen;
+    private final long[][] verstoesse;
+    private final long[] fehler;
+    private final long[] warnungen;
+
+    ValidierungsErgebnis(int anzahlWerte, List<String> regelNamen, long[][] verstoesse, long[] fehler, long[] warnungen) {
+        this.anzahlWerte = anzahlWerte;
+        this.regelNamen = regelNamen;
+        this.verstoesse = verstoesse;
+        this.fehler = fehler;
+        this.warnungen = warnungen;
+    }
+
+    int anzahlWerte() {
+        return anzahlWerte;
+    }
+
+    int anzahlRegeln() {
+        return verstoesse.length;
+    }
+
+    String regelName(int regel) {
+        return regelNamen.get(regel);
+    }
+
+    /**
+     * @return Wie viele Werte die Regel verletzen.
+     */
+    int anzahlVerstoesse(int regel) {
+        return kardinalitaet(verstoesse[regel]);
+    }
+
+    /**
+     * @return Wie viele Werte mindestens eine Regel der Schwere {@link Schwere#FEHLER} verletzen.
+     */
+    int anzahlFehler() {
+        return kardinalitaet(fehler);
+    }
+
+    /**
+     * @return Wie viele Werte mindestens eine Regel der Schwere {@link Schwere#WARNUNG} verletzen.
+     */
+    int anzahlWarnungen() {
+        return kardinalitaet(warnungen);
+    }
+
+    boolean istGueltig(int index) {
+        return (fehler[index >>> 6] & (1L << index)) == 0;
+    }
+
+    boolean verletzt(int index, int regel) {
+        return (verstoesse[regel][index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * @return Der erste fehlerhafte Index ab {@code ab} oder -1.
+     */
+    int naechsterFehler(int ab) {
+        return naechstesBit(fehler, ab);
+    }
+
+    /**
+     * @return Das Bitset der Verstöße gegen eine Regel (nicht kopiert).
+     */
+    long[] verstoesse(int regel) {
+        return verstoesse[regel];
+    }
+
+    long[] fehler() {
+        return fehler;
+    }
+
+    long[] warnungen() {
+        return warnungen;
+    }
+
+    static int naechstesBit(long[] bits, int ab) {
+        int wort = ab >>> 6;
+        if (ab < 0 || wort >= bits.length) {
+            return -1;
+        }
+        long rest = bits[wort] & (-1L << ab);
+        while (true) {
+            if (rest != 0) {
+                return (wort << 6) + Long.numberOfTrailingZeros(rest);
+            }
+            if (++wort == bits.length) {
+                return -1;
+            }
+            rest = bits[wort];
+        }
+    }
+
+    private static int kardinalitaet(long[] bits) {
+        int anzahl = 0;
+        for (long wort : bits) {
+            anzahl += Long.bitCount(wort);
+        }
+        return anzahl;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(anzahlWerte + " Werte, " + anzahlFehler() + " fehlerhaft, "
+                + anzahlWarnungen() + " mit Warnung");
+        for (int regel = 0; regel < verstoesse.length; regel++) {
+            text.append("\n  ").append(regelNamen.get(regel)).append(": ").append(anzahlVerstoesse(regel));
+        }
+        return text.toString();
+    }
+}
+
+/**
+ * Prüft ganze Spalten von {@code int}-Werten gegen deklarierte {@link Bereichsregel}n in einem Durchgang,
+ * ohne Exceptions und ohne Konsolenausgabe. Die Werte werden in Blöcken zu 64 verarbeitet; pro Block und
+ * Regel entsteht ein Bitset-Wort ohne Verzweigungen, der Block liegt dabei noch im L1-Cache.
+ */
+class MassenValidator {
+    private static final int PUFFER_GROESSE = 4096;
+
+    private final List<Bereichsregel> regeln;
+    private final List<String> regelNamen;
+    private final int[] minima;
+    private final int[] spannen;
+    private final boolean[] istFehler;
+
+    MassenValidator(List<Bereichsregel> regeln) {
+        if (regeln.isEmpty()) {
+            throw new IllegalArgumentException("Mindestens eine Regel ist nötig.");
+        }
+        this.regeln = List.copyOf(regeln);
+        this.regelNamen = this.regeln.stream().map(Bereichsregel::name).toList();
+        this.minima = new int[regeln.size()];
+        this.spannen = new int[regeln.size()];
+        this.istFehler = new boolean[regeln.size()];
+        for (int r = 0; r < regeln.size(); r++) {
+            Bereichsregel regel = regeln.get(r);
+            minima[r] = regel.min();
+            spannen[r] = regel.max() - regel.min(); // als vorzeichenlose Zahl gelesen
+            istFehler[r] = regel.schwere() == Schwere.FEHLER;
+        }
+    }
+
+    static MassenValidator mit(Bereichsregel... regeln) {
+        return new MassenValidator(List.of(regeln));
+    }
+
+    List<Bereichsregel> getRegeln() {
+        return regeln;
+    }
+
+    public ValidierungsErgebnis validieren(int[] werte) {
+        return validieren(werte, 0, werte.length);
+    }
+
+    public ValidierungsErgebnis validieren(int[] werte, int von, int bis) {
+        Objects.checkFromToIndex(von, bis, werte.length);
+        ValidierungsErgebnis ergebnis = leeresErgebnis(bis - von);
+        pruefen(werte, von, bis - von, 0, ergebnis);
+        return ergebnis;
+    }
+
+    /**
+     * Validiert die verbleibenden Werte eines Puffers (auch direkt/off-heap), ohne seine Position zu ändern.
+     */
+    public ValidierungsErgebnis validieren(IntBuffer werte) {
+        int anzahl = werte.remaining();
+        if (werte.hasArray()) {
+            int von = werte.arrayOffset() + werte.position();
+            ValidierungsErgebnis ergebnis = leeresErgebnis(anzahl);
+            pruefen(werte.array(), von, anzahl, 0, ergebnis);
+            return ergebnis;
+        }
+        ValidierungsErgebnis ergebnis = leeresErgebnis(anzahl);
+        int[] puffer = new int[Math.min(PUFFER_GROESSE, anzahl)];
+        for (int erledigt = 0; erledigt < anzahl; erledigt += puffer.length) {
+            int stueck = Math.min(puffer.length, anzahl - erledigt);
+            werte.get(werte.position() + erledigt, puffer, 0, stueck);
+            pruefen(puffer, 0, stueck, erledigt, ergebnis);
+        }
+        return ergebnis;
+    }
+
+    private ValidierungsErgebnis leeresErgebnis(int anzahl) {
+        int woerter = (anzahl + 63) >>> 6;
+        return new ValidierungsErgebnis(anzahl, regelNamen, new long[minima.length][woerter], new long[woerter], new long[woerter]);
+    }
+
+    /**
+     * Prüft {@code anzahl} Werte ab {@code von} und schreibt die Bits ab Ergebnisindex {@code ziel},
+     * der ein Vielfaches von 64 sein muss.
+     */
+    private void pruefen(int[] werte, int von, int anzahl, int ziel, ValidierungsErgebnis ergebnis) {
+        long[] fehler = ergebnis.fehler();
+        long[] warnungen = ergebnis.warnungen();
+        for (int block = 0; block < anzahl; block += 64) {
+            int laenge = Math.min(64, anzahl - block);
+            int start = von + block;
+            int wortIndex = (ziel + block) >>> 6;
+            long fehlerWort = 0;
+            long warnWort = 0;
+            for (int r = 0; r < minima.length; r++) {
+                long wort = VorzeichenloserBereich.blockAusserhalb(werte, start, laenge, minima[r], spannen[r] & 0xFFFFFFFFL);
+                ergebnis.verstoesse(r)[wortIndex] = wort;
+                if (istFehler[r]) {
+                    fehlerWort |= wort;
+                } else {
+                    warnWort |= wort;
+                }
+            }
+            fehler[wortIndex] = fehlerWort;
+            warnungen[wortIndex] = warnWort;
+        }
+    }
+
+    public static void main(String[] args) {
+        int[] alter = new int[10_000_000];
+        Random zufall = new Random(1);
+        for (int i = 0; i < alter.length; i++) {
+            alter[i] = zufall.nextInt(140) - 5;
+        }
+
+        long start = System.nanoTime();
+        ValidierungsErgebnis ergebnis = new Validator().validiereAlter(alter);
+        long dauer = System.nanoTime() - start;
+
+        System.out.println(ergebnis);
+        System.out.println("Erster Fehler bei Index " + ergebnis.naechsterFehler(0) + ": " + alter[ergebnis.naechsterFehler(0)]);
+        System.out.printf("%.1f Mio. Werte/s%n", alter.length * 1e3 / dauer);
+    }
+}
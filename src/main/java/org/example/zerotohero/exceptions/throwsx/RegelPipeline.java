@@ -0,0 +1,384 @@
+package org.example.zerotohero.exceptions.throwsx;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+/**
+ * Vergleichsoperator für feldübergreifende Regeln. Die drei Bits geben an, ob {@code links < rechts},
+ * {@code links == rechts} bzw. {@code links > rechts} die Regel erfüllt.
+ */
+enum Vergleich {
+    KLEINER(0b100), KLEINER_GLEICH(0b110), GLEICH(0b010), UNGLEICH(0b101), GROESSER_GLEICH(0b011), GROESSER(0b001);
+
+    final int erlaubt;
+
+    Vergleich(int erlaubt) {
+        this.erlaubt = erlaubt;
+    }
+
+    boolean gilt(int links, int rechts) {
+        int ergebnis = links < rechts ? 0b100 : links == rechts ? 0b010 : 0b001;
+        return (erlaubt & ergebnis) != 0;
+    }
+}
+
+/**
+ * Eine benutzerdefinierte Validierungspipeline über Datensätze aus {@code int}-Feldern, z.B. Personen mit
+ * Alter und Eintrittsalter. Regeln werden deklariert und mit {@link #kompilieren()} einmalig in einen
+ * {@link KompilierterValidator} übersetzt.
+ *
+ * Zum Vergleich liefert {@link #alsPraedikatKette()} dieselben Regeln als mit {@link Predicate#and}
+ * verkettete Lambdas – so, wie man eine solche Pipeline naiv zusammensetzen würde.
+ */
+final class RegelPipeline {
+
+    sealed interface Regel permits BereichsRegel, MengenRegel, VergleichsRegel {
+        String name();
+
+        Schwere schwere();
+
+        boolean verletzt(int[] datensatz);
+    }
+
+    record BereichsRegel(String name, int feld, int min, int max, Schwere schwere) implements Regel {
+        @Override
+        public boolean verletzt(int[] datensatz) {
+            return datensatz[feld] < min || datensatz[feld] > max;
+        }
+    }
+
+    record MengenRegel(String name, int feld, int[] erlaubt, Schwere schwere) implements Regel {
+        @Override
+        public boolean verletzt(int[] datensatz) {
+            return Arrays.binarySearch(erlaubt, datensatz[feld]) < 0;
+        }
+    }
+
+    record VergleichsRegel(String name, int links, Vergleich vergleich, int rechts, Schwere schwere) implements Regel {
+        @Override
+        public boolean verletzt(int[] datensatz) {
+            return !vergleich.gilt(datensatz[links], datensatz[rechts]);
+        }
+    }
+
+    private final List<String> felder;
+    private final List<Regel> regeln = new ArrayList<>();
+
+    private RegelPipeline(List<String> felder) {
+        this.felder = felder;
+    }
+
+    /**
+     * @param felder Die Feldnamen; ihre Reihenfolge bestimmt den Index im Datensatz bzw. die Spalte.
+     */
+    static RegelPipeline fuer(String... felder) {
+        return new RegelPipeline(List.of(felder));
+    }
+
+    RegelPipeline bereich(String name, String feld, int min, int max, Schwere schwere) {
+        if (min > max) {
+            throw new IllegalArgumentException("Leerer Bereich für Regel '" + name + "': " + min + " > " + max);
+        }
+        regeln.add(new BereichsRegel(name, feldIndex(feld), min, max, schwere));
+        return this;
+    }
+
+    RegelPipeline menge(String name, String feld, Schwere schwere, int... erlaubt) {
+        if (erlaubt.length == 0) {
+            throw new IllegalArgumentException("Leere Menge für Regel '" + name + "'.");
+        }
+        int[] sortiert = Arrays.stream(erlaubt).sorted().distinct().toArray();
+        regeln.add(new MengenRegel(name, feldIndex(feld), sortiert, schwere));
+        return this;
+    }
+
+    RegelPipeline vergleich(String name, String links, Vergleich vergleich, String rechts, Schwere schwere) {
+        regeln.add(new VergleichsRegel(name, feldIndex(links), vergleich, feldIndex(rechts), schwere));
+        return this;
+    }
+
+    List<Regel> getRegeln() {
+        return List.copyOf(regeln);
+    }
+
+    int anzahlFelder() {
+        return felder.size();
+    }
+
+    private int feldIndex(String feld) {
+        int index = felder.indexOf(feld);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unbekanntes Feld: " + feld);
+        }
+        return index;
+    }
+
+    public KompilierterValidator kompilieren() {
+        if (regeln.isEmpty()) {
+            throw new IllegalArgumentException("Mindestens eine Regel ist nötig.");
+        }
+        return new KompilierterValidator(felder.size(), List.copyOf(regeln));
+    }
+
+    /**
+     * @return Ein Prädikat, das {@code true} liefert, wenn der Datensatz keine Regel der Schwere
+     * {@link Schwere#FEHLER} verletzt.
+     */
+    public Predicate<int[]> alsPraedikatKette() {
+        Predicate<int[]> kette = datensatz -> true;
+        for (Regel regel : regeln) {
+            if (regel.schwere() != Schwere.FEHLER) {
+                continue;
+            }
+            Predicate<int[]> einzeln = switch (regel) {
+                case BereichsRegel b -> datensatz -> datensatz[b.feld()] >= b.min() && datensatz[b.feld()] <= b.max();
+                case MengenRegel m -> datensatz -> Arrays.binarySearch(m.erlaubt(), datensatz[m.feld()]) >= 0;
+                case VergleichsRegel v -> datensatz -> v.vergleich().gilt(datensatz[v.links()], datensatz[v.rechts()]);
+            };
+            kette = kette.and(einzeln);
+        }
+        return kette;
+    }
+
+    public static void main(String[] args) {
+        RegelPipeline pipeline = RegelPipeline.fuer("alter", "eintrittsalter", "status")
+                .bereich("Alter negativ", "alter", 0, Integer.MAX_VALUE, Schwere.FEHLER)
+                .bereich("Alter sehr hoch", "alter", Integer.MIN_VALUE, 120, Schwere.WARNUNG)
+                .menge("Status unbekannt", "status", Schwere.FEHLER, 1, 2, 3, 9)
+                .vergleich("Eintritt nach heute", "eintrittsalter", Vergleich.KLEINER_GLEICH, "alter", Schwere.FEHLER);
+        KompilierterValidator validator = pipeline.kompilieren();
+
+        int anzahl = 5_000_000;
+        int[][] spalten = new int[3][anzahl];
+        Random zufall = new Random(5);
+        for (int i = 0; i < anzahl; i++) {
+            spalten[0][i] = zufall.nextInt(140) - 5;
+            spalten[1][i] = zufall.nextInt(100);
+            spalten[2][i] = zufall.nextInt(10);
+        }
+
+        long start = System.nanoTime();
+        ValidierungsErgebnis ergebnis = validator.validieren(spalten, anzahl);
+        long dauer = System.nanoTime() - start;
+        System.out.println(ergebnis);
+        System.out.printf("%.1f Mio. Datensätze/s%n", anzahl * 1e3 / dauer);
+    }
+}
+
+/**
+ * Die kompilierte Form einer {@link RegelPipeline}. Die Regeln sind nach Art in primitive Pläne
+ * (parallele Arrays) zerlegt; ausgewertet wird in festen Schleifen pro Art, ohne Aufruf über ein
+ * Interface oder Lambda pro Regel. Damit bleiben alle Aufrufstellen monomorph, und der JIT sieht
+ * nur Array-Zugriffe und Arithmetik.
+ *
+ * Mengen mit kleinem Wertebereich werden zu einer Bitmap über {@code [min, max]}, größere zu einem
+ * sortierten Array mit binärer Suche.
+ */
+final class KompilierterValidator {
+    private static final int MAX_BITMAP_SPANNE = 1 << 16;
+
+    private final int anzahlFelder;
+    private final List<String> regelNamen;
+    private final boolean[] istFehler;
+
+    // Bereiche: wert - min (vorzeichenlos) <= spanne
+    private final int[] bereichRegel;
+    private final int[] bereichFeld;
+    private final int[] bereichMin;
+    private final long[] bereichSpanne;
+
+    // Mengen
+    private final int[] mengeRegel;
+    private final int[] mengeFeld;
+    private final int[] mengeMin;
+    private final long[] mengeSpanne;
+    private final long[][] mengeBitmap; // null, wenn sortiert gesucht wird
+    private final int[][] mengeSortiert;
+
+    // Vergleiche
+    private final int[] vergleichRegel;
+    private final int[] vergleichLinks;
+    private final int[] vergleichRechts;
+    private final int[] vergleichErlaubt;
+
+    KompilierterValidator(int anzahlFelder, List<RegelPipeline.Regel> regeln) {
+        this.anzahlFelder = anzahlFelder;
+        this.regelNamen = regeln.stream().map(RegelPipeline.Regel::name).toList();
+        this.istFehler = new boolean[regeln.size()];
+
+        List<Integer> bereiche = new ArrayList<>();
+        List<Integer> mengen = new ArrayList<>();
+        List<Integer> vergleiche = new ArrayList<>();
+        for (int r = 0; r < regeln.size(); r++) {
+            istFehler[r] = regeln.get(r).schwere() == Schwere.FEHLER;
+            switch (regeln.get(r)) {
+                case RegelPipeline.BereichsRegel b -> bereiche.add(r);
+                case RegelPipeline.MengenRegel m -> mengen.add(r);
+                case RegelPipeline.VergleichsRegel v -> vergleiche.add(r);
+            }
+        }
+
+        bereichRegel = bereiche.stream().mapToInt(Integer::intValue).toArray();
+        bereichFeld = new int[bereichRegel.length];
+        bereichMin = new int[bereichRegel.length];
+        bereichSpanne = new long[bereichRegel.length];
+        for (int i = 0; i < bereichRegel.length; i++) {
+            RegelPipeline.BereichsRegel b = (RegelPipeline.BereichsRegel) regeln.get(bereichRegel[i]);
+            bereichFeld[i] = b.feld();
+            bereichMin[i] = b.min();
+            bereichSpanne[i] = (b.max() - b.min()) & 0xFFFFFFFFL;
+        }
+
+        mengeRegel = mengen.stream().mapToInt(Integer::intValue).toArray();
+        mengeFeld = new int[mengeRegel.length];
+        mengeMin = new int[mengeRegel.length];
+        mengeSpanne = new long[mengeRegel.length];
+        mengeBitmap = new long[mengeRegel.length][];
+        mengeSortiert = new int[mengeRegel.length][];
+        for (int i = 0; i < mengeRegel.length; i++) {
+            RegelPipeline.MengenRegel m = (RegelPipeline.MengenRegel) regeln.get(mengeRegel[i]);
+            int[] erlaubt = m.erlaubt();
+            mengeFeld[i] = m.feld();
+            mengeMin[i] = erlaubt[0];
+            mengeSpanne[i] = (erlaubt[erlaubt.length - 1] - erlaubt[0]) & 0xFFFFFFFFL;
+            mengeSortiert[i] = erlaubt;
+            if (mengeSpanne[i] < MAX_BITMAP_SPANNE) {
+                long[] bitmap = new long[(int) (mengeSpanne[i] >>> 6) + 1];
+                for (int wert : erlaubt) {
+                    int bit = wert - erlaubt[0];
+                    bitmap[bit >>> 6] |= 1L << bit;
+                }
+                mengeBitmap[i] = bitmap;
+            }
+        }
+
+        vergleichRegel = vergleiche.stream().mapToInt(Integer::intValue).toArray();
+        vergleichLinks = new int[vergleichRegel.length];
+        vergleichRechts = new int[vergleichRegel.length];
+        vergleichErlaubt = new int[vergleichRegel.length];
+        for (int i = 0; i < vergleichRegel.length; i++) {
+            RegelPipeline.VergleichsRegel v = (RegelPipeline.VergleichsRegel) regeln.get(vergleichRegel[i]);
+            vergleichLinks[i] = v.links();
+            vergleichRechts[i] = v.rechts();
+            vergleichErlaubt[i] = v.vergleich().erlaubt;
+        }
+    }
+
+    /**
+     * Prüft einen einzelnen Datensatz.
+     *
+     * @return {@code true}, wenn keine Regel der Schwere {@link Schwere#FEHLER} verletzt ist.
+     */
+    public boolean istGueltig(int[] datensatz) {
+        for (int i = 0; i < bereichRegel.length; i++) {
+            if (istFehler[bereichRegel[i]] && VorzeichenloserBereich.ausserhalb(datensatz[bereichFeld[i]], bereichMin[i], bereichSpanne[i]) != 0) {
+                return false;
+            }
+        }
+        for (int i = 0; i < mengeRegel.length; i++) {
+            if (istFehler[mengeRegel[i]] && nichtInMenge(i, datensatz[mengeFeld[i]]) != 0) {
+                return false;
+            }
+        }
+        for (int i = 0; i < vergleichRegel.length; i++) {
+            if (istFehler[vergleichRegel[i]]
+                    && vergleichVerletzt(datensatz[vergleichLinks[i]], datensatz[vergleichRechts[i]], vergleichErlaubt[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Prüft spaltenweise gespeicherte Datensätze: {@code spalten[feld][datensatz]}.
+     *
+     * @param spalten Eine Spalte pro Feld der Pipeline.
+     * @param anzahl Wie viele Datensätze ab Index 0 geprüft werden.
+     * @return Bitsets der Verstöße pro Regel in Deklarationsreihenfolge.
+     */
+    public ValidierungsErgebnis validieren(int[][] spalten, int anzahl) {
+        if (spalten.length != anzahlFelder) {
+            throw new IllegalArgumentException("Erwartet " + anzahlFelder + " Spalten, erhalten " + spalten.length);
+        }
+        for (int[] spalte : spalten) {
+            if (spalte.length < anzahl) {
+                throw new IllegalArgumentException("Spalte kürzer als " + anzahl + " Datensätze.");
+            }
+        }
+
+        int woerter = (anzahl + 63) >>> 6;
+        long[][] verstoesse = new long[regelNamen.size()][woerter];
+        long[] fehler = new long[woerter];
+        long[] warnungen = new long[woerter];
+
+        for (int block = 0; block < anzahl; block += 64) {
+            int laenge = Math.min(64, anzahl - block);
+            int wortIndex = block >>> 6;
+            long fehlerWort = 0;
+            long warnWort = 0;
+
+            for (int i = 0; i < bereichRegel.length; i++) {
+                int[] spalte = spalten[bereichFeld[i]];
+                int min = bereichMin[i];
+                long spanne = bereichSpanne[i];
+                long wort = VorzeichenloserBereich.blockAusserhalb(spalte, block, laenge, min, spanne);
+                verstoesse[bereichRegel[i]][wortIndex] = wort;
+                if (istFehler[bereichRegel[i]]) fehlerWort |= wort; else warnWort |= wort;
+            }
+
+            for (int i = 0; i < mengeRegel.length; i++) {
+                int[] spalte = spalten[mengeFeld[i]];
+                long wort = 0;
+                for (int j = 0; j < laenge; j++) {
+                    wort |= nichtInMenge(i, spalte[block + j]) << j;
+                }
+                verstoesse[mengeRegel[i]][wortIndex] = wort;
+                if (istFehler[mengeRegel[i]]) fehlerWort |= wort; else warnWort |= wort;
+            }
+
+            for (int i = 0; i < vergleichRegel.length; i++) {
+                int[] links = spalten[vergleichLinks[i]];
+                int[] rechts = spalten[vergleichRechts[i]];
+                int erlaubt = vergleichErlaubt[i];
+                long wort = 0;
+                for (int j = 0; j < laenge; j++) {
+                    wort |= vergleichVerletzt(links[block + j], rechts[block + j], erlaubt) << j;
+                }
+                verstoesse[vergleichRegel[i]][wortIndex] = wort;
+                if (istFehler[vergleichRegel[i]]) fehlerWort |= wort; else warnWort |= wort;
+            }
+
+            fehler[wortIndex] = fehlerWort;
+            warnungen[wortIndex] = warnWort;
+        }
+        return new ValidierungsErgebnis(anzahl, regelNamen, verstoesse, fehler, warnungen);
+    }
+
+    private long nichtInMenge(int menge, int wert) {
+        long abstand = (wert - mengeMin[menge]) & 0xFFFFFFFFL;
+        if (abstand > mengeSpanne[menge]) {
+            return 1;
+        }
+        long[] bitmap = mengeBitmap[menge];
+        if (bitmap != null) {
+            return ~(bitmap[(int) (abstand >>> 6)] >>> abstand) & 1L;
+        }
+        return Arrays.binarySearch(mengeSortiert[menge], wert) < 0 ? 1 : 0;
+    }
+
+    /**
+     * Ermittelt ohne Verzweigung, ob {@code links} kleiner, gleich oder größer als {@code rechts} ist,
+     * und prüft das Ergebnis gegen die erlaubten Bits des Operators.
+     */
+    private static long vergleichVerletzt(int links, int rechts, int erlaubt) {
+        long differenz = (long) links - rechts;
+        long kleiner = differenz >>> 63;
+        long groesser = -differenz >>> 63;
+        long gleich = 1 - kleiner - groesser;
+        long ergebnis = (kleiner << 2) | (gleich << 1) | groesser;
+        return (ergebnis & erlaubt) == 0 ? 1 : 0;
+    }
+}
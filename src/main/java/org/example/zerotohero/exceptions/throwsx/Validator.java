@@ -1,11 +1,20 @@
 package org.example.zerotohero.exceptions.throwsx;
 
+import org.example.zerotohero.ereignis.Ereignisse;
+
 /**
  * Diese Klasse demonstriert, wie man mit 'throw' explizit Exceptions auslöst,
  * oft basierend auf Validierungsprüfungen.
  */
 class Validator {
 
+    /**
+     * Die Regeln aus {@link #validiereAlter(int)} für die Massenvalidierung.
+     */
+    static final MassenValidator ALTERS_VALIDATOR = MassenValidator.mit(
+            Bereichsregel.mindestens("Alter negativ", 0, Schwere.FEHLER),
+            Bereichsregel.hoechstens("Alter sehr hoch", 120, Schwere.WARNUNG));
+
     /**
      * Validiert das Alter einer Person.
      * @param alter Das zu validierende Alter.
@@ -19,9 +28,19 @@ class Validator {
         if (alter > 120) {
             // Beispiel für das Auslösen einer anderen Art von Exception oder einer benutzerdefinierten.
             // Hier bleiben wir bei IllegalArgumentException zur Vereinfachung.
-            System.out.println("Warnung: Das Alter ist sehr hoch: " + alter);
+            Ereignisse.warnung("Warnung: Das Alter ist sehr hoch: {}", alter);
         }
-        System.out.println("Alter " + alter + " ist gültig.");
+        Ereignisse.info("Alter {} ist gültig.", alter);
+    }
+
+    /**
+     * Validiert eine ganze Spalte von Altersangaben nach denselben Regeln wie {@link #validiereAlter(int)},
+     * aber ohne Exception und ohne Ausgabe.
+     * @param alter Die zu validierenden Altersangaben.
+     * @return Bitsets und Anzahlen der negativen (Fehler) und sehr hohen (Warnung) Angaben.
+     */
+    public ValidierungsErgebnis validiereAlter(int[] alter) {
+        return ALTERS_VALIDATOR.validieren(alter);
     }
 
     public static void main(String[] args) {
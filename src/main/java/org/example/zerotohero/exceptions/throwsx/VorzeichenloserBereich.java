@@ -0,0 +1,35 @@
+package org.example.zerotohero.exceptions.throwsx;
+
+/**
+ * Bereichsprüfung ohne Verzweigung, gemeinsam für {@link MassenValidator}, {@link RegelPipeline} und die
+ * Filter der {@code FlottenTabelle}.
+ *
+ * Ein Wert liegt genau dann außerhalb von {@code [min, min + spanne]}, wenn {@code wert - min} als
+ * vorzeichenlose Zahl größer als {@code spanne} ist; dann ist {@code spanne - (wert - min)} negativ
+ * und Bit 63 gesetzt. {@code spanne} ist die vorzeichenlose Breite {@code (max - min) & 0xFFFFFFFFL},
+ * so deckt eine einzige Prüfung auch Bereiche über ganz {@code int} ab.
+ */
+public final class VorzeichenloserBereich {
+
+    private VorzeichenloserBereich() {
+    }
+
+    /**
+     * @return 1, wenn {@code wert} außerhalb von {@code [min, min + spanne]} liegt, sonst 0.
+     */
+    public static long ausserhalb(int wert, int min, long spanne) {
+        return (spanne - ((wert - min) & 0xFFFFFFFFL)) >>> 63;
+    }
+
+    /**
+     * Prüft bis zu 64 aufeinanderfolgende Werte und setzt Bit {@code j}, wenn {@code werte[start + j]}
+     * außerhalb des Bereichs liegt. Bits ab {@code laenge} bleiben 0.
+     */
+    public static long blockAusserhalb(int[] werte, int start, int laenge, int min, long spanne) {
+        long wort = 0;
+        for (int j = 0; j < laenge; j++) {
+            wort |= ausserhalb(werte[start + j], min, spanne) << j;
+        }
+        return wort;
+    }
+}
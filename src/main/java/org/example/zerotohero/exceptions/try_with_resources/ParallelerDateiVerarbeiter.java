@@ -0,0 +1,282 @@
+package org.example.zerotohero.exceptions.try_with_resources;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Verarbeitet große Dateien parallel: Die Datei wird in Byte-Bereiche fester Größe zerlegt, deren Grenzen
+ * auf den nächsten Zeilenanfang verschoben werden. Jeder Bereich wird auf einem {@link ForkJoinPool} mit
+ * einem eigenen {@link StromDateiLeser} in ein eigenes Teilergebnis gelesen, die Teilergebnisse werden in
+ * Dateireihenfolge zusammengeführt.
+ *
+ * Die Bereichsgrenzen hängen nur von Dateigröße und Blockgröße ab, nicht von der Anzahl der Threads.
+ * Mit einer assoziativen Zusammenführung ist das Ergebnis deshalb bei jedem Lauf gleich und entspricht
+ * dem von {@link #sequenziell(Path, Supplier, ZeilenAkkumulator)}.
+ */
+class ParallelerDateiVerarbeiter {
+
+    /**
+     * Nimmt eine Zeile in ein Teilergebnis auf.
+     */
+    @FunctionalInterface
+    interface ZeilenAkkumulator<A> {
+        void zeile(A teilergebnis, CharSequence zeile);
+    }
+
+    static final long STANDARD_BLOCK = 16L * 1024 * 1024;
+
+    private final ForkJoinPool pool;
+    private final long blockGroesse;
+
+    ParallelerDateiVerarbeiter() {
+        this(ForkJoinPool.commonPool(), STANDARD_BLOCK);
+    }
+
+    /**
+     * @param pool Der Pool, auf dem die Bereiche verarbeitet werden.
+     * @param blockGroesse Die ungefähre Größe eines Bereichs in Bytes. Muss positiv sein.
+     */
+    ParallelerDateiVerarbeiter(ForkJoinPool pool, long blockGroesse) {
+        if (blockGroesse <= 0) {
+            throw new IllegalArgumentException("Blockgröße muss positiv sein: " + blockGroesse);
+        }
+        this.pool = pool;
+        this.blockGroesse = blockGroesse;
+    }
+
+    /**
+     * Verarbeitet eine Datei parallel.
+     *
+     * @param datei Die Datei.
+     * @param neu Erzeugt ein leeres Teilergebnis pro Bereich.
+     * @param akkumulator Nimmt eine Zeile in ein Teilergebnis auf.
+     * @param zusammenfuehren Führt zwei Teilergebnisse zusammen (linkes zuerst in Dateireihenfolge).
+     * @return Das Gesamtergebnis.
+     * @throws IOException wenn die Datei nicht gelesen werden kann.
+     */
+    public <A> A verarbeiten(Path datei, Supplier<A> neu, ZeilenAkkumulator<A> akkumulator,
+                             BinaryOperator<A> zusammenfuehren) throws IOException {
+        try (FileChannel kanal = FileChannel.open(datei, StandardOpenOption.READ)) {
+            long[] grenzen = bereichsgrenzen(kanal);
+            try {
+                return pool.invoke(new BereichsAufgabe<>(kanal, grenzen, 0, grenzen.length - 1, neu, akkumulator, zusammenfuehren));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Verarbeitet eine Datei in einem Durchgang auf dem aufrufenden Thread – die Referenz für den parallelen Weg.
+     */
+    public static <A> A sequenziell(Path datei, Supplier<A> neu, ZeilenAkkumulator<A> akkumulator) throws IOException {
+        A ergebnis = neu.get();
+        new StromDateiLeser().leseDatei(datei, zeile -> akkumulator.zeile(ergebnis, zeile));
+        return ergebnis;
+    }
+
+    /**
+     * Bereichsgrenzen: 0, dann jeweils der erste Zeilenanfang ab jedem Vielfachen der Blockgröße, zuletzt die Dateigröße.
+     */
+    long[] bereichsgrenzen(FileChannel kanal) throws IOException {
+        long groesse = kanal.size();
+        List<Long> grenzen = new ArrayList<>();
+        grenzen.add(0L);
+        ByteBuffer puffer = ByteBuffer.allocate(64 * 1024);
+        for (long ziel = blockGroesse; ziel < groesse; ziel += blockGroesse) {
+            long grenze = naechsterZeilenanfang(kanal, Math.max(ziel, grenzen.get(grenzen.size() - 1)), puffer);
+            if (grenze > grenzen.get(grenzen.size() - 1) && grenze < groesse) {
+                grenzen.add(grenze);
+            }
+        }
+        grenzen.add(groesse);
+        return grenzen.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long naechsterZeilenanfang(FileChannel kanal, long position, ByteBuffer puffer) throws IOException {
+        long suche = position - 1; // Liegt die Grenze direkt hinter einem Umbruch, bleibt sie, wo sie ist
+        while (true) {
+            puffer.clear();
+            int gelesen = kanal.read(puffer, suche);
+            if (gelesen <= 0) {
+                return kanal.size();
+            }
+            for (int i = 0; i < gelesen; i++) {
+                if (puffer.get(i) == '\n') {
+                    return suche + i + 1;
+                }
+            }
+            suche += gelesen;
+        }
+    }
+
+    private static final class BereichsAufgabe<A> extends RecursiveTask<A> {
+        private final FileChannel kanal;
+        private final long[] grenzen;
+        private final int von;
+        private final int bis;
+        private final Supplier<A> neu;
+        private final ZeilenAkkumulator<A> akkumulator;
+        private final BinaryOperator<A> zusammenfuehren;
+
+        BereichsAufgabe(FileChannel kanal, long[] grenzen, int von, int bis, Supplier<A> neu,
+                        ZeilenAkkumulator<A> akkumulator, BinaryOperator<A> zusammenfuehren) {
+            this.kanal = kanal;
+            this.grenzen = grenzen;
+            this.von = von;
+            this.bis = bis;
+            this.neu = neu;
+            this.akkumulator = akkumulator;
+            this.zusammenfuehren = zusammenfuehren;
+        }
+
+        @Override
+        protected A compute() {
+            if (bis - von == 1) {
+                A ergebnis = neu.get();
+                try {
+                    new StromDateiLeser().verarbeiteBereich(kanal, grenzen[von], grenzen[bis], zeile -> akkumulator.zeile(ergebnis, zeile));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return ergebnis;
+            }
+            int mitte = (von + bis) >>> 1;
+            BereichsAufgabe<A> links = new BereichsAufgabe<>(kanal, grenzen, von, mitte, neu, akkumulator, zusammenfuehren);
+            BereichsAufgabe<A> rechts = new BereichsAufgabe<>(kanal, grenzen, mitte, bis, neu, akkumulator, zusammenfuehren);
+            links.fork();
+            A rechtsErgebnis = rechts.compute();
+            return zusammenfuehren.apply(links.join(), rechtsErgebnis);
+        }
+    }
+
+    /**
+     * Beispiel-Teilergebnis: Summe der Einzahlungen in Cent pro Kontonummer,
+     * aus Zeilen der Form {@code kontoId;betrag[;...]}. Die Summen liegen dicht nach Kontonummer, daher
+     * sind nur Kontonummern bis {@value #MAX_KONTO_ID} erlaubt.
+     */
+    static final class EinzahlungsSummen {
+        static final int MAX_KONTO_ID = (1 << 20) - 1;
+
+        private long[] cent = new long[1024];
+        private long zeilen;
+
+        void zeile(CharSequence zeile) {
+            int trenner = indexOf(zeile, ';', 0);
+            if (trenner <= 0 || zeile.charAt(0) < '0' || zeile.charAt(0) > '9') {
+                return; // Kopf- oder Leerzeile
+            }
+            int ende = indexOf(zeile, ';', trenner + 1);
+            // Mehr als 18 Ziffern könnten beim Lesen überlaufen und wieder im erlaubten Bereich landen
+            long kontoId = trenner > 18 ? Long.MAX_VALUE : parseCent(zeile, 0, trenner, false);
+            if (kontoId > MAX_KONTO_ID) {
+                throw new NumberFormatException("Kontonummer außerhalb des Bereichs: " + zeile.subSequence(0, trenner));
+            }
+            addieren((int) kontoId, parseCent(zeile, trenner + 1, ende < 0 ? zeile.length() : ende, true));
+            zeilen++;
+        }
+
+        private void addieren(int kontoId, long betrag) {
+            if (kontoId >= cent.length) {
+                cent = Arrays.copyOf(cent, Math.max(kontoId + 1, cent.length * 2));
+            }
+            cent[kontoId] += betrag;
+        }
+
+        EinzahlungsSummen zusammenfuehren(EinzahlungsSummen andere) {
+            for (int kontoId = andere.cent.length - 1; kontoId >= 0; kontoId--) {
+                if (andere.cent[kontoId] != 0) {
+                    addieren(kontoId, andere.cent[kontoId]);
+                }
+            }
+            zeilen += andere.zeilen;
+            return this;
+        }
+
+        long getCent(int kontoId) {
+            return kontoId < cent.length ? cent[kontoId] : 0;
+        }
+
+        long getZeilen() {
+            return zeilen;
+        }
+
+        long[] alsArray() {
+            return cent.clone();
+        }
+
+        /**
+         * Liest eine nicht negative Dezimalzahl ohne Zwischen-String. Mit {@code inCent} wird sie mit
+         * 100 multipliziert, Nachkommastellen über der zweiten werden abgeschnitten.
+         */
+        private static long parseCent(CharSequence text, int von, int bis, boolean inCent) {
+            long wert = 0;
+            int nachkomma = -1;
+            for (int i = von; i < bis; i++) {
+                char c = text.charAt(i);
+                if (c == '.') {
+                    nachkomma = 0;
+                } else if (c >= '0' && c <= '9' && nachkomma < 2) {
+                    wert = wert * 10 + (c - '0');
+                    if (nachkomma >= 0) {
+                        nachkomma++;
+                    }
+                } else if (c < '0' || c > '9') {
+                    throw new NumberFormatException("Ungültige Zahl: " + text.subSequence(von, bis));
+                }
+            }
+            if (!inCent) {
+                return wert;
+            }
+            for (int stellen = Math.max(nachkomma, 0); stellen < 2; stellen++) {
+                wert *= 10;
+            }
+            return wert;
+        }
+
+        private static int indexOf(CharSequence text, char zeichen, int ab) {
+            for (int i = ab; i < text.length(); i++) {
+                if (text.charAt(i) == zeichen) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path datei = Files.createTempFile("einzahlungen", ".csv");
+        try {
+            StringBuilder inhalt = new StringBuilder("kontoId;betrag\n");
+            for (int i = 0; i < 100_000; i++) {
+                inhalt.append(i % 10).append(';').append(i % 500).append(".25\n");
+            }
+            Files.writeString(datei, inhalt, StandardCharsets.UTF_8);
+
+            ParallelerDateiVerarbeiter verarbeiter = new ParallelerDateiVerarbeiter(ForkJoinPool.commonPool(), 64 * 1024);
+            EinzahlungsSummen parallel = verarbeiter.verarbeiten(datei, EinzahlungsSummen::new,
+                    EinzahlungsSummen::zeile, EinzahlungsSummen::zusammenfuehren);
+            EinzahlungsSummen sequenziell = sequenziell(datei, EinzahlungsSummen::new, EinzahlungsSummen::zeile);
+
+            for (int kontoId = 0; kontoId < 3; kontoId++) {
+                System.out.println("Konto " + kontoId + ": " + parallel.getCent(kontoId) / 100.0 + " EUR");
+            }
+            System.out.println("Gleich wie sequenziell: " + Arrays.equals(parallel.alsArray(), sequenziell.alsArray()));
+        } finally {
+            Files.deleteIfExists(datei);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package org.example.zerotohero.exceptions.try_with_resources;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Empfängt die Zeilen einer Datei.
+ * Die übergebene Zeile ist nur während des Aufrufs gültig – wer sie behalten will, ruft {@code toString()} auf.
+ */
+@FunctionalInterface
+interface ZeilenVerbraucher {
+    void zeile(CharSequence zeile);
+}
+
+/**
+ * Liest große Dateien zeilenweise über speichereingeblendete ({@code mmap}) Bereiche eines {@link FileChannel}.
+ *
+ * Anders als {@link TryWithResourcesDemo#leseDatei(String)} wird kein {@code String} pro Zeile erzeugt:
+ * Reine ASCII-Zeilen werden als {@link CharSequence}-Ansicht direkt auf den eingeblendeten Bytes übergeben,
+ * alle anderen Zeilen explizit als UTF-8 in einen wiederverwendeten {@link CharBuffer} dekodiert.
+ * Zeilenenden werden acht Bytes auf einmal gesucht. {@code \r\n} wird wie {@code \n} behandelt.
+ *
+ * Ein Leser hält Puffer und Decoder und ist deshalb nicht thread-sicher; pro Thread einen eigenen verwenden.
+ */
+class StromDateiLeser {
+
+    static final int STANDARD_FENSTER = 64 * 1024 * 1024;
+
+    private static final long ZEILENUMBRUCH = 0x0A0A0A0A0A0A0A0AL;
+    private static final long NIEDRIGE_BITS = 0x0101010101010101L;
+    private static final long HOHE_BITS = 0x8080808080808080L;
+
+    private final int fenster;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final AsciiZeile asciiZeile = new AsciiZeile();
+    private CharBuffer zeichen = CharBuffer.allocate(256);
+    private boolean zeileIstAscii; // Ergebnis der letzten Zeilenende-Suche
+
+    StromDateiLeser() {
+        this(STANDARD_FENSTER);
+    }
+
+    /**
+     * @param fenster Wie viele Bytes höchstens auf einmal eingeblendet werden.
+     */
+    StromDateiLeser(int fenster) {
+        this.fenster = fenster;
+    }
+
+    /**
+     * Liest eine Datei und übergibt jede Zeile dem Verbraucher.
+     *
+     * @param pfad Der Pfad zur Datei.
+     * @param verbraucher Empfängt die Zeilen.
+     * @return Die Anzahl der Zeilen.
+     * @throws IOException wenn die Datei nicht gelesen werden kann.
+     */
+    public long leseDatei(Path pfad, ZeilenVerbraucher verbraucher) throws IOException {
+        try (FileChannel kanal = FileChannel.open(pfad, StandardOpenOption.READ)) {
+            return verarbeiteBereich(kanal, 0, kanal.size(), verbraucher);
+        }
+    }
+
+    /**
+     * Liest die Zeilen eines Byte-Bereichs. {@code start} muss auf einem Zeilenanfang liegen,
+     * {@code ende} direkt hinter einem Zeilenumbruch oder am Dateiende.
+     *
+     * @return Die Anzahl der Zeilen im Bereich.
+     */
+    long verarbeiteBereich(FileChannel kanal, long start, long ende, ZeilenVerbraucher verbraucher) throws IOException {
+        long zeilen = 0;
+        long position = start;
+        int groesse = fenster;
+        while (position < ende) {
+            int laenge = (int) Math.min(groesse, ende - position);
+            boolean letztesFenster = position + laenge == ende;
+            MappedByteBuffer puffer = kanal.map(FileChannel.MapMode.READ_ONLY, position, laenge);
+            puffer.order(ByteOrder.LITTLE_ENDIAN);
+            ByteBuffer ansicht = puffer.duplicate();
+
+            int zeilenAnfang = 0;
+            int zeilenEnde;
+            while ((zeilenEnde = findeZeilenende(puffer, zeilenAnfang, laenge)) >= 0) {
+                uebergeben(puffer, ansicht, zeilenAnfang, zeilenEnde, verbraucher);
+                zeilen++;
+                zeilenAnfang = zeilenEnde + 1;
+            }
+            if (letztesFenster && zeilenAnfang < laenge) {
+                zeileIstAscii = istAscii(puffer, zeilenAnfang, laenge);
+                uebergeben(puffer, ansicht, zeilenAnfang, laenge, verbraucher); // Letzte Zeile ohne Umbruch
+                zeilen++;
+                zeilenAnfang = laenge;
+            }
+
+            if (zeilenAnfang == 0 && !letztesFenster) {
+                if (groesse == Integer.MAX_VALUE) {
+                    throw new IOException("Zeile ab Byte " + position + " ist länger als 2 GiB.");
+                }
+                groesse = (int) Math.min(2L * groesse, Integer.MAX_VALUE); // Zeile passt nicht ins Fenster
+            } else {
+                position += zeilenAnfang;
+                groesse = fenster;
+            }
+        }
+        return zeilen;
+    }
+
+    private void uebergeben(ByteBuffer puffer, ByteBuffer ansicht, int von, int bis, ZeilenVerbraucher verbraucher) {
+        if (bis > von && puffer.get(bis - 1) == '\r') {
+            bis--;
+        }
+        if (zeileIstAscii) {
+            asciiZeile.setzen(puffer, von, bis - von);
+            verbraucher.zeile(asciiZeile);
+            return;
+        }
+        ansicht.limit(bis).position(von);
+        verbraucher.zeile(dekodieren(ansicht));
+    }
+
+    private CharBuffer dekodieren(ByteBuffer bytes) {
+        int anfang = bytes.position();
+        while (true) {
+            zeichen.clear();
+            decoder.reset();
+            CoderResult ergebnis = decoder.decode(bytes, zeichen, true);
+            if (!ergebnis.isOverflow()) {
+                decoder.flush(zeichen);
+                return zeichen.flip();
+            }
+            zeichen = CharBuffer.allocate(zeichen.capacity() * 2);
+            bytes.position(anfang);
+        }
+    }
+
+    /**
+     * Sucht das nächste {@code '\n'} ab {@code von}, acht Bytes pro Schritt.
+     * Merkt sich nebenbei, ob die Zeile bis dorthin nur aus ASCII-Zeichen besteht.
+     *
+     * @return Die Position des Zeilenumbruchs oder -1.
+     */
+    int findeZeilenende(ByteBuffer puffer, int von, int bis) {
+        long oder = 0;
+        int i = von;
+        for (; i + Long.BYTES <= bis; i += Long.BYTES) {
+            long wort = puffer.getLong(i);
+            long x = wort ^ ZEILENUMBRUCH;
+            long treffer = (x - NIEDRIGE_BITS) & ~x & HOHE_BITS;
+            if (treffer != 0) {
+                int bytesDavor = Long.numberOfTrailingZeros(treffer) >>> 3;
+                oder |= bytesDavor == 0 ? 0 : wort & (-1L >>> (Long.SIZE - 8 * bytesDavor));
+                zeileIstAscii = (oder & HOHE_BITS) == 0;
+                return i + bytesDavor;
+            }
+            oder |= wort;
+        }
+        for (; i < bis; i++) {
+            byte b = puffer.get(i);
+            if (b == '\n') {
+                zeileIstAscii = (oder & HOHE_BITS) == 0;
+                return i;
+            }
+            oder |= b & 0xFF;
+        }
+        return -1;
+    }
+
+    private static boolean istAscii(ByteBuffer puffer, int von, int bis) {
+        for (int i = von; i < bis; i++) {
+            if (puffer.get(i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@link CharSequence}-Ansicht auf eine reine ASCII-Zeile im Puffer – jedes Byte ist ein Zeichen.
+     */
+    private static final class AsciiZeile implements CharSequence {
+        private ByteBuffer puffer;
+        private int start;
+        private int laenge;
+
+        void setzen(ByteBuffer puffer, int start, int laenge) {
+            this.puffer = puffer;
+            this.start = start;
+            this.laenge = laenge;
+        }
+
+        @Override
+        public int length() {
+            return laenge;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= laenge) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return (char) puffer.get(start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int von, int bis) {
+            return toString().substring(von, bis);
+        }
+
+        @Override
+        public String toString() {
+            byte[] bytes = new byte[laenge];
+            puffer.get(start, bytes);
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path datei = Files.createTempFile("strom", ".txt");
+        Files.writeString(datei, "Hallo Welt!\r\nZweite Zeile.\nDritte Zeile mit Ümlaut", StandardCharsets.UTF_8);
+        try {
+            long zeilen = new StromDateiLeser().leseDatei(datei, zeile -> System.out.println("> " + zeile));
+            System.out.println(zeilen + " Zeilen gelesen.");
+        } finally {
+            Files.deleteIfExists(datei);
+        }
+    }
+}
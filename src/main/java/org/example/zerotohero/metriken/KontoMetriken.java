@@ -0,0 +1,100 @@
+package org.example.zerotohero.metriken;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Zählt Kontooperationen nach Art und Ergebnis und misst ihre Dauer. Die Zähler sind {@link LongAdder},
+ * die Latenzen {@link LatenzHistogramm}e; beide verteilen gleichzeitige Aufzeichnungen auf Streifen, damit
+ * die Metriken selbst nicht zum Engpass werden.
+ *
+ * Die Domänenklassen zeichnen in {@link #standard()} auf; über {@link KontoMetrikenBinder} landet diese
+ * Instanz in Micrometer und damit im Actuator-Endpunkt {@code /actuator/metrics}. Mit der System-Property
+ * {@code zerotohero.metriken=aus} liefert {@link #start()} immer 0 und {@link #erfassen} kehrt sofort
+ * zurück; da der Schalter {@code static final} ist, entfernt der JIT die Aufrufe dann ganz.
+ *
+ * Den größten Teil der Kosten machen die beiden {@link System#nanoTime()}-Aufrufe aus. Deshalb wird die
+ * Dauer nur für etwa jede N-te Operation gemessen, N = {@code zerotohero.metriken.stichprobe} (Standard
+ * {@value #STANDARD_STICHPROBE}, aufgerundet auf eine Zweierpotenz). Die Zähler bleiben exakt, die
+ * Latenz-Histogramme enthalten eine zufällige Stichprobe. Mit {@code stichprobe=1} wird jede Operation gemessen.
+ */
+public final class KontoMetriken {
+
+    public enum Operation {
+        EINZAHLUNG, ABHEBUNG, UEBERWEISUNG
+    }
+
+    public enum Ergebnis {
+        ERFOLG, UNGUELTIGER_BETRAG, UNGENUEGENDE_DECKUNG
+    }
+
+    public static final boolean AKTIV = !"aus".equalsIgnoreCase(System.getProperty("zerotohero.metriken"));
+    static final int STANDARD_STICHPROBE = 64;
+    private static final int STICHPROBE_MASKE = Math.max(1, Integer.highestOneBit(
+            Math.min(Math.max(1, Integer.getInteger("zerotohero.metriken.stichprobe", STANDARD_STICHPROBE)), 1 << 30) * 2 - 1)) - 1;
+
+    private static final KontoMetriken STANDARD = new KontoMetriken();
+
+    private final LongAdder[][] zaehler = new LongAdder[Operation.values().length][Ergebnis.values().length];
+    private final LatenzHistogramm[] latenzen = new LatenzHistogramm[Operation.values().length];
+
+    public KontoMetriken() {
+        for (Operation operation : Operation.values()) {
+            for (Ergebnis ergebnis : Ergebnis.values()) {
+                zaehler[operation.ordinal()][ergebnis.ordinal()] = new LongAdder();
+            }
+            latenzen[operation.ordinal()] = new LatenzHistogramm();
+        }
+    }
+
+    /**
+     * @return Die prozessweite Instanz, in die die Domänenklassen aufzeichnen.
+     */
+    public static KontoMetriken standard() {
+        return STANDARD;
+    }
+
+    /**
+     * @return Der Startzeitpunkt für {@link #erfassen}, oder 0, wenn Metriken abgeschaltet sind oder diese
+     * Operation nicht zur Stichprobe gehört.
+     */
+    public static long start() {
+        if (!AKTIV || (STICHPROBE_MASKE != 0 && (ThreadLocalRandom.current().nextInt() & STICHPROBE_MASKE) != 0)) {
+            return 0;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Zählt eine abgeschlossene Operation und zeichnet ihre Dauer seit {@code start} auf,
+     * sofern {@code start} nicht 0 ist.
+     */
+    public void erfassen(Operation operation, Ergebnis ergebnis, long start) {
+        if (!AKTIV) {
+            return;
+        }
+        zaehler[operation.ordinal()][ergebnis.ordinal()].increment();
+        if (start != 0) {
+            latenzen[operation.ordinal()].aufzeichnen(System.nanoTime() - start);
+        }
+    }
+
+    public long anzahl(Operation operation, Ergebnis ergebnis) {
+        return zaehler[operation.ordinal()][ergebnis.ordinal()].sum();
+    }
+
+    /**
+     * @return Alle gezählten Operationen dieser Art, über alle Ergebnisse.
+     */
+    public long anzahl(Operation operation) {
+        long summe = 0;
+        for (LongAdder z : zaehler[operation.ordinal()]) {
+            summe += z.sum();
+        }
+        return summe;
+    }
+
+    public LatenzHistogramm latenz(Operation operation) {
+        return latenzen[operation.ordinal()];
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.zerotohero.metriken;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meldet {@link KontoMetriken} bei Micrometer an. Micrometer liest die Werte erst beim Abfragen
+ * (z.B. über {@code /actuator/metrics}) aus den Zählern; auf dem Hot Path kommt Micrometer nicht vor.
+ *
+ * <ul>
+ *     <li>{@code zerotohero.konto.operationen} – Zähler mit den Tags {@code operation} und {@code ergebnis}</li>
+ *     <li>{@code zerotohero.konto.latenz} – Anzahl und Gesamtdauer pro {@code operation}</li>
+ *     <li>{@code zerotohero.konto.latenz.perzentil} – Perzentile seit dem Start in Sekunden, Tag {@code quantil}</li>
+ *     <li>{@code zerotohero.konto.latenz.max} – längste Dauer seit dem Start in Sekunden</li>
+ * </ul>
+ *
+ * Die Histogramme enthalten nur eine Stichprobe der Operationen. Der Timer meldet deshalb als Anzahl die
+ * exakten Zähler und als Gesamtdauer die mittlere Dauer der Stichprobe mal dieser Anzahl; so passt er zu
+ * {@code zerotohero.konto.operationen}. Alle Meter einer Operation lesen aus einer gemeinsamen
+ * {@link LatenzHistogramm.Momentaufnahme}, die eine Abfrage lang ({@value #GUELTIG_MS} ms) wiederverwendet wird.
+ */
+public class KontoMetrikenBinder implements MeterBinder {
+
+    static final double[] QUANTILE = {0.5, 0.9, 0.99, 0.999};
+    static final long GUELTIG_MS = 500;
+
+    private final KontoMetriken metriken;
+
+    public KontoMetrikenBinder(KontoMetriken metriken) {
+        this.metriken = metriken;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (KontoMetriken.Operation operation : KontoMetriken.Operation.values()) {
+            String op = operation.name().toLowerCase(Locale.ROOT);
+            for (KontoMetriken.Ergebnis ergebnis : KontoMetriken.Ergebnis.values()) {
+                FunctionCounter.builder("zerotohero.konto.operationen", metriken, m -> m.anzahl(operation, ergebnis))
+                        .description("Kontooperationen nach Ergebnis")
+                        .tag("operation", op)
+                        .tag("ergebnis", ergebnis.name().toLowerCase(Locale.ROOT))
+                        .register(registry);
+            }
+
+            Abfrage latenz = new Abfrage(metriken.latenz(operation));
+            FunctionTimer.builder("zerotohero.konto.latenz", metriken,
+                            m -> m.anzahl(operation),
+                            m -> hochgerechnet(latenz.aktuell(), m.anzahl(operation)), TimeUnit.NANOSECONDS)
+                    .description("Dauer der Kontooperationen, Gesamtdauer aus der Stichprobe hochgerechnet")
+                    .tag("operation", op)
+                    .register(registry);
+            for (double quantil : QUANTILE) {
+                Gauge.builder("zerotohero.konto.latenz.perzentil", latenz, a -> a.aktuell().perzentilNanos(quantil) / 1e9)
+                        .description("Perzentil der Dauer seit dem Start")
+                        .tag("operation", op)
+                        .tag("quantil", Double.toString(quantil))
+                        .baseUnit("seconds")
+                        .register(registry);
+            }
+            Gauge.builder("zerotohero.konto.latenz.max", latenz, a -> a.aktuell().getMaxNanos() / 1e9)
+                    .description("Längste Dauer seit dem Start")
+                    .tag("operation", op)
+                    .baseUnit("seconds")
+                    .register(registry);
+        }
+    }
+
+    private static double hochgerechnet(LatenzHistogramm.Momentaufnahme stichprobe, long anzahl) {
+        return stichprobe.getAnzahl() == 0 ? 0 : (double) stichprobe.getSummeNanos() / stichprobe.getAnzahl() * anzahl;
+    }
+
+    /**
+     * Hält die letzte Momentaufnahme eines Histogramms, damit eine Abfrage die Streifen nur einmal liest
+     * statt einmal pro Meter.
+     */
+    private static final class Abfrage {
+        private final LatenzHistogramm histogramm;
+        private volatile LatenzHistogramm.Momentaufnahme letzte;
+        private volatile long zeitpunkt;
+
+        Abfrage(LatenzHistogramm histogramm) {
+            this.histogramm = histogramm;
+        }
+
+        LatenzHistogramm.Momentaufnahme aktuell() {
+            LatenzHistogramm.Momentaufnahme aufnahme = letzte;
+            long jetzt = System.nanoTime();
+            if (aufnahme == null || jetzt - zeitpunkt > TimeUnit.MILLISECONDS.toNanos(GUELTIG_MS)) {
+                aufnahme = histogramm.momentaufnahme();
+                zeitpunkt = jetzt;
+                letzte = aufnahme;
+            }
+            return aufnahme;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.example.zerotohero.metriken;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ein Latenz-Histogramm mit logarithmisch-linearen Buckets nach dem Vorbild von HdrHistogram: Jede
+ * Zweierpotenz ist in {@value #UNTER_BUCKETS} gleich breite Unter-Buckets geteilt, der relative Fehler eines
+ * Perzentils liegt also unter 1/{@value #UNTER_BUCKETS}. Werte bis {@value #UNTER_BUCKETS} ns sind exakt,
+ * Werte ab 2^{@value #MAX_EXPONENT} ns landen im letzten Bucket.
+ *
+ * Aufgezeichnet wird in mehrere Streifen, jeder mit eigenen Zählern. Ein Thread wählt seinen Streifen
+ * über einen festen Hash, sodass sich Threads auf verschiedenen Kernen kaum eine Cache-Zeile teilen.
+ * Ausgewertet wird über eine {@link #momentaufnahme()}, die alle Streifen summiert.
+ */
+public final class LatenzHistogramm {
+
+    static final int UNTER_BUCKET_BITS = 4;
+    static final int UNTER_BUCKETS = 1 << UNTER_BUCKET_BITS;
+    static final int MAX_EXPONENT = 40; // etwa 18 Minuten in Nanosekunden
+    static final int BUCKETS = (MAX_EXPONENT - UNTER_BUCKET_BITS + 2) * UNTER_BUCKETS;
+
+    // Summe und Maximum liegen mit in jedem Streifen, hinter den Buckets
+    private static final int SUMME = BUCKETS;
+    private static final int MAXIMUM = BUCKETS + 1;
+
+    private final AtomicLongArray[] streifen;
+    private final int maske;
+
+    public LatenzHistogramm() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    LatenzHistogramm(int anzahlStreifen) {
+        int anzahl = Integer.highestOneBit(Math.max(1, anzahlStreifen - 1)) << 1;
+        streifen = new AtomicLongArray[anzahl];
+        for (int i = 0; i < anzahl; i++) {
+            streifen[i] = new AtomicLongArray(BUCKETS + 2);
+        }
+        maske = anzahl - 1;
+    }
+
+    /**
+     * Zeichnet eine Dauer in Nanosekunden auf. Negative Werte werden als 0 gezählt.
+     */
+    public void aufzeichnen(long nanos) {
+        long wert = Math.max(0, nanos);
+        AtomicLongArray zaehler = streifen[streifenIndex()];
+        zaehler.getAndIncrement(bucket(wert));
+        zaehler.getAndAdd(SUMME, wert);
+        long max = zaehler.getPlain(MAXIMUM);
+        while (wert > max && !zaehler.weakCompareAndSetVolatile(MAXIMUM, max, wert)) {
+            max = zaehler.get(MAXIMUM);
+        }
+    }
+
+    private int streifenIndex() {
+        // Ein fester Hash der Thread-ID; bei virtuellen Threads zusätzlich gestreut, da deren IDs dicht liegen
+        long id = Thread.currentThread().threadId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 40) & maske;
+    }
+
+    /**
+     * Bucket eines Werts: Werte unter {@code UNTER_BUCKETS} direkt, sonst Exponent und die
+     * {@code UNTER_BUCKET_BITS} Bits unterhalb des höchsten gesetzten Bits.
+     */
+    static int bucket(long wert) {
+        if (wert < UNTER_BUCKETS) {
+            return (int) wert;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(wert);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int unter = (int) (wert >>> (exponent - UNTER_BUCKET_BITS)) & (UNTER_BUCKETS - 1);
+        return (exponent - UNTER_BUCKET_BITS + 1) * UNTER_BUCKETS + unter;
+    }
+
+    /**
+     * @return Die obere Grenze (inklusive) der Werte im Bucket.
+     */
+    static long obereGrenze(int bucket) {
+        if (bucket < UNTER_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / UNTER_BUCKETS + UNTER_BUCKET_BITS - 1;
+        long unter = bucket % UNTER_BUCKETS;
+        long breite = 1L << (exponent - UNTER_BUCKET_BITS);
+        return (1L << exponent) + (unter + 1) * breite - 1;
+    }
+
+    public Momentaufnahme momentaufnahme() {
+        long[] zaehler = new long[BUCKETS];
+        long summe = 0;
+        long max = 0;
+        for (AtomicLongArray s : streifen) {
+            for (int b = 0; b < BUCKETS; b++) {
+                zaehler[b] += s.get(b);
+            }
+            summe += s.get(SUMME);
+            max = Math.max(max, s.get(MAXIMUM));
+        }
+        return new Momentaufnahme(zaehler, summe, max);
+    }
+
+    /**
+     * Der summierte Stand aller Streifen zu einem Zeitpunkt.
+     */
+    public static final class Momentaufnahme {
+        private final long[] zaehler;
+        private final long anzahl;
+        private final long summe;
+        private final long max;
+
+        Momentaufnahme(long[] zaehler, long summe, long max) {
+            long n = 0;
+            for (long z : zaehler) {
+                n += z;
+            }
+            this.zaehler = zaehler;
+            this.anzahl = n;
+            this.summe = summe;
+            this.max = max;
+        }
+
+        public long getAnzahl() {
+            return anzahl;
+        }
+
+        public long getSummeNanos() {
+            return summe;
+        }
+
+        public long getMaxNanos() {
+            return max;
+        }
+
+        /**
+         * @param quantil Zwischen 0 und 1, z.B. 0.99.
+         * @return Die obere Bucketgrenze des Quantils in Nanosekunden, höchstens das Maximum; 0 ohne Werte.
+         */
+        public long perzentilNanos(double quantil) {
+            if (anzahl == 0) {
+                return 0;
+            }
+            long rang = Math.max(1, (long) Math.ceil(quantil * anzahl));
+            long kumuliert = 0;
+            for (int b = 0; b < zaehler.length; b++) {
+                kumuliert += zaehler[b];
+                if (kumuliert >= rang) {
+                    return Math.min(obereGrenze(b), max);
+                }
+            }
+            return max;
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package org.example.zerotohero.oop.Polymorphie;
 
+import org.example.zerotohero.ereignis.Ereignisse;
+
+import java.util.Arrays;
+
 
     /**
      * Polymorphie ("Vielgestaltigkeit") bedeutet, dass Objekte unterschiedlicher Klassen auf dieselbe Nachricht (Methodenaufruf)
@@ -19,18 +23,119 @@ package org.example.zerotohero.oop.Polymorphie;
         void zeichnen(); // Abstrakte Methode (implizit public abstract)
     }
 
+    /**
+     * Eine Form mit Lage und Ausdehnung in der Ebene.
+     * Bleibt getrennt von {@link Form}, damit {@code Form} ein funktionales Interface bleibt.
+     */
+    interface GeometrischeForm extends Form {
+        /**
+         * @return Der Flächeninhalt.
+         */
+        double flaeche();
+
+        /**
+         * @return Der Umfang.
+         */
+        double umfang();
+
+        /**
+         * @return Das kleinste achsenparallele Rechteck, das die Form enthält.
+         */
+        Begrenzung begrenzung();
+    }
+
+    /**
+     * Ein achsenparalleles Begrenzungsrechteck.
+     * {@link #LEER} ist das neutrale Element von {@link #vereinigen(Begrenzung)}.
+     */
+    record Begrenzung(double minX, double minY, double maxX, double maxY) {
+        static final Begrenzung LEER = new Begrenzung(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY);
+
+        boolean istLeer() {
+            return minX > maxX || minY > maxY;
+        }
+
+        /**
+         * @return {@code true}, wenn sich beide Rechtecke schneiden oder berühren.
+         */
+        boolean schneidet(Begrenzung andere) {
+            return minX <= andere.maxX && andere.minX <= maxX && minY <= andere.maxY && andere.minY <= maxY;
+        }
+
+        Begrenzung vereinigen(Begrenzung andere) {
+            return new Begrenzung(Math.min(minX, andere.minX), Math.min(minY, andere.minY),
+                    Math.max(maxX, andere.maxX), Math.max(maxY, andere.maxY));
+        }
+    }
+
     /**
      * Klasse Kreis, die das Interface Form implementiert.
      */
-    class Kreis implements Form {
+    class Kreis implements GeometrischeForm {
         private String farbe;
+        private double x;
+        private double y;
+        private double radius;
 
         /**
-         * Konstruktor für einen Kreis.
+         * Konstruktor für einen Kreis mit Radius 1 im Ursprung.
          * @param farbe Die Farbe des Kreises.
          */
         public Kreis(String farbe) {
+            this(farbe, 0, 0, 1);
+        }
+
+        /**
+         * Konstruktor für einen Kreis.
+         * @param farbe Die Farbe des Kreises.
+         * @param x Die x-Koordinate des Mittelpunkts.
+         * @param y Die y-Koordinate des Mittelpunkts.
+         * @param radius Der Radius, nicht negativ.
+         */
+        public Kreis(String farbe, double x, double y, double radius) {
+            if (!(radius >= 0)) {
+                throw new IllegalArgumentException("Radius darf nicht negativ sein: " + radius);
+            }
             this.farbe = farbe;
+            this.x = x;
+            this.y = y;
+            this.radius = radius;
+        }
+
+        /**
+         * Gibt die Farbe des Kreises zurück.
+         * @return Die Farbe.
+         */
+        String getFarbe() {
+            return farbe;
+        }
+
+        double getX() {
+            return x;
+        }
+
+        double getY() {
+            return y;
+        }
+
+        double getRadius() {
+            return radius;
+        }
+
+        @Override
+        public double flaeche() {
+            return Math.PI * radius * radius;
+        }
+
+        @Override
+        public double umfang() {
+            return 2 * Math.PI * radius;
+        }
+
+        @Override
+        public Begrenzung begrenzung() {
+            return new Begrenzung(x - radius, y - radius, x + radius, y + radius);
         }
 
         /**
@@ -45,18 +150,76 @@ package org.example.zerotohero.oop.Polymorphie;
     /**
      * Klasse Rechteck, die das Interface Form implementiert.
      */
-    class Rechteck implements Form {
+    class Rechteck implements GeometrischeForm {
         private int breite;
         private int hoehe;
+        private double x;
+        private double y;
 
         /**
-         * Konstruktor für ein Rechteck.
+         * Konstruktor für ein Rechteck mit der linken unteren Ecke im Ursprung.
          * @param breite Die Breite des Rechtecks.
          * @param hoehe Die Höhe des Rechtecks.
          */
         public Rechteck(int breite, int hoehe) {
+            this(breite, hoehe, 0, 0);
+        }
+
+        /**
+         * Konstruktor für ein Rechteck.
+         * @param breite Die Breite des Rechtecks.
+         * @param hoehe Die Höhe des Rechtecks.
+         * @param x Die x-Koordinate der linken unteren Ecke.
+         * @param y Die y-Koordinate der linken unteren Ecke.
+         */
+        public Rechteck(int breite, int hoehe, double x, double y) {
             this.breite = breite;
             this.hoehe = hoehe;
+            this.x = x;
+            this.y = y;
+        }
+
+        /**
+         * Gibt die Breite des Rechtecks zurück.
+         * @return Die Breite.
+         */
+        int getBreite() {
+            return breite;
+        }
+
+        /**
+         * Gibt die Höhe des Rechtecks zurück.
+         * @return Die Höhe.
+         */
+        int getHoehe() {
+            return hoehe;
+        }
+
+        double getX() {
+            return x;
+        }
+
+        double getY() {
+            return y;
+        }
+
+        /**
+         * Negative Breiten und Höhen, wie sie der bisherige Konstruktor zulässt, zählen mit ihrem Betrag.
+         */
+        @Override
+        public double flaeche() {
+            return Math.abs((double) breite * hoehe);
+        }
+
+        @Override
+        public double umfang() {
+            return 2 * (Math.abs((double) breite) + Math.abs((double) hoehe));
+        }
+
+        @Override
+        public Begrenzung begrenzung() {
+            return new Begrenzung(Math.min(x, x + breite), Math.min(y, y + hoehe),
+                    Math.max(x, x + breite), Math.max(y, y + hoehe));
         }
 
         /**
@@ -70,8 +233,25 @@ package org.example.zerotohero.oop.Polymorphie;
 
     /**
      * Klasse, die Methodenüberladung (Compile-Zeit-Polymorphie) demonstriert.
+     * Die Überladungen für Arrays rechnen über einen {@link RechenKern}.
      */
     class Rechner {
+        private final RechenKern kern;
+
+        /**
+         * Konstruktor für einen Rechner, der große Arrays parallel bearbeitet.
+         */
+        public Rechner() {
+            this(RechenKern.standard());
+        }
+
+        /**
+         * Konstruktor für einen Rechner mit eigenem Rechenkern.
+         * @param kern Der Rechenkern für die Array-Überladungen.
+         */
+        public Rechner(RechenKern kern) {
+            this.kern = kern;
+        }
 
         /**
          * Addiert zwei Ganzzahlen.
@@ -80,7 +260,7 @@ package org.example.zerotohero.oop.Polymorphie;
          * @return Die Summe der beiden Zahlen.
          */
         public int addiere(int a, int b) {
-            System.out.println("Addiere (int, int) aufgerufen");
+            Ereignisse.info("Addiere (int, int) aufgerufen");
             return a + b;
         }
 
@@ -92,7 +272,7 @@ package org.example.zerotohero.oop.Polymorphie;
          * @return Die Summe der drei Zahlen.
          */
         public int addiere(int a, int b, int c) {
-            System.out.println("Addiere (int, int, int) aufgerufen");
+            Ereignisse.info("Addiere (int, int, int) aufgerufen");
             return a + b + c;
         }
 
@@ -103,9 +283,78 @@ package org.example.zerotohero.oop.Polymorphie;
          * @return Die Summe der beiden Zahlen.
          */
         public double addiere(double a, double b) {
-            System.out.println("Addiere (double, double) aufgerufen");
+            Ereignisse.info("Addiere (double, double) aufgerufen");
             return a + b;
         }
+
+        /**
+         * Addiert zwei Arrays elementweise, Überläufe wie beim Operator {@code +}. (Überladung)
+         * @param a Das erste Array.
+         * @param b Das zweite Array.
+         * @param ergebnis Das Array für die Summen, gleich lang wie {@code a} und {@code b}.
+         */
+        public void addiere(int[] a, int[] b, int[] ergebnis) {
+            kern.addiere(a, b, ergebnis);
+        }
+
+        /**
+         * Addiert zwei Arrays elementweise. (Überladung)
+         * @param a Das erste Array.
+         * @param b Das zweite Array.
+         * @param ergebnis Das Array für die Summen, gleich lang wie {@code a} und {@code b}.
+         */
+        public void addiere(double[] a, double[] b, double[] ergebnis) {
+            kern.addiere(a, b, ergebnis);
+        }
+
+        /**
+         * Addiert zwei Arrays elementweise und wirft bei einem Überlauf.
+         * @param a Das erste Array.
+         * @param b Das zweite Array.
+         * @param ergebnis Das Array für die Summen, gleich lang wie {@code a} und {@code b}.
+         * @throws ArithmeticException Wenn eine Summe nicht in einen {@code int} passt.
+         */
+        public void addiereExakt(int[] a, int[] b, int[] ergebnis) {
+            kern.addiereExakt(a, b, ergebnis);
+        }
+
+        /**
+         * Summiert alle Werte. (Überladung)
+         * @param werte Die Werte.
+         * @return Die Summe als {@code long}.
+         */
+        public long summe(int[] werte) {
+            return kern.summe(werte);
+        }
+
+        /**
+         * Summiert alle Werte. (Überladung)
+         * @param werte Die Werte.
+         * @return Die Summe.
+         */
+        public double summe(double[] werte) {
+            return kern.summe(werte);
+        }
+
+        /**
+         * Berechnet die laufenden Summen.
+         * @param werte Die Werte.
+         * @param ergebnis Das Array für die Summen, {@code ergebnis[i]} ist die Summe von {@code werte[0..i]}.
+         */
+        public void praefixSummen(int[] werte, long[] ergebnis) {
+            kern.praefixSummen(werte, ergebnis);
+        }
+
+        /**
+         * Berechnet {@code a[i] * b[i] + c[i]} mit nur einer Rundung.
+         * @param a Die Faktoren.
+         * @param b Die zweiten Faktoren.
+         * @param c Die Summanden.
+         * @param ergebnis Das Array für die Ergebnisse.
+         */
+        public void fma(double[] a, double[] b, double[] c, double[] ergebnis) {
+            kern.fma(a, b, c, ergebnis);
+        }
     }
 
 
@@ -129,5 +378,10 @@ package org.example.zerotohero.oop.Polymorphie;
             System.out.println("Summe 1: " + rechner.addiere(5, 10));
             System.out.println("Summe 2: " + rechner.addiere(5, 10, 15));
             System.out.println("Summe 3: " + rechner.addiere(2.5, 3.7));
+
+            int[] zahlen = {1, 2, 3, 4};
+            int[] summen = new int[zahlen.length];
+            rechner.addiere(zahlen, zahlen, summen); // Überladung für Arrays, kein Aufruf pro Element
+            System.out.println("Summe 4: " + Arrays.toString(summen) + ", gesamt " + rechner.summe(summen));
         }
     }
@@ -0,0 +1,326 @@
+package org.example.zerotohero.oop.Polymorphie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Ein räumlicher Index über {@link GeometrischeForm}en als gleichmäßiges Raster. Jede Form wird in alle
+ * Zellen eingetragen, die ihre {@link Begrenzung} berührt; eine Bereichsabfrage prüft nur die Formen der
+ * Zellen, die der Bereich überdeckt. Formen außerhalb der Welt landen in den Randzellen.
+ *
+ * Die Begrenzungen werden beim Einfügen in eigene {@code double}-Spalten kopiert, damit die Abfrage nicht
+ * über die Objekte springen muss. Kreis und Rechteck sind unveränderlich, die Kopien bleiben also gültig.
+ * Eine Form, die mehrere Zellen berührt, wird nur in der Zelle gemeldet, in der der Referenzpunkt
+ * liegt: die linke untere Ecke der Schnittmenge aus Form und Bereich. So braucht die Abfrage kein Set.
+ *
+ * Abfragen laufen parallel unter der Lesesperre eines {@link StampedLock}, {@link #einfuegen} und
+ * {@link #entfernen} unter der Schreibsperre.
+ */
+class FormRaster {
+    /** Angestrebte Anzahl Formen pro Zelle beim Aufbau über {@link #aufbauen(Collection)}. */
+    static final int FORMEN_PRO_ZELLE = 4;
+    private static final int MAX_ZELLEN = 1 << 22;
+
+    private final double minX;
+    private final double minY;
+    private final double kehrwertBreite; // 1 / Zellbreite, spart die Division pro Koordinate
+    private final double kehrwertHoehe;
+    private final int spalten;
+    private final int zeilen;
+
+    private final int[][] zellInhalt;
+    private final int[] zellAnzahl;
+
+    // Formen nach Nummer; freie Nummern werden wiederverwendet
+    private GeometrischeForm[] formen;
+    private double[] formMinX;
+    private double[] formMinY;
+    private double[] formMaxX;
+    private double[] formMaxY;
+    private int belegt;
+    private int[] freieNummern = new int[16];
+    private int anzahlFrei;
+
+    private final StampedLock sperre = new StampedLock();
+
+    /**
+     * @param welt Der Bereich, den das Raster abdeckt.
+     * @param spalten Die Anzahl der Zellen in x-Richtung.
+     * @param zeilen Die Anzahl der Zellen in y-Richtung.
+     */
+    FormRaster(Begrenzung welt, int spalten, int zeilen) {
+        if (welt.istLeer() || spalten < 1 || zeilen < 1 || (long) spalten * zeilen > MAX_ZELLEN) {
+            throw new IllegalArgumentException("Ungültiges Raster: " + welt + ", " + spalten + "x" + zeilen);
+        }
+        this.minX = welt.minX();
+        this.minY = welt.minY();
+        this.spalten = spalten;
+        this.zeilen = zeilen;
+        this.kehrwertBreite = spalten / Math.max(welt.maxX() - welt.minX(), Double.MIN_NORMAL);
+        this.kehrwertHoehe = zeilen / Math.max(welt.maxY() - welt.minY(), Double.MIN_NORMAL);
+        this.zellInhalt = new int[spalten * zeilen][];
+        this.zellAnzahl = new int[spalten * zeilen];
+        kapazitaetSetzen(16);
+    }
+
+    /**
+     * Baut ein Raster in einem Durchgang auf: Die Welt ist die Begrenzung aller Formen, die Zellgröße ergibt
+     * etwa {@value #FORMEN_PRO_ZELLE} Formen pro Zelle, und jede Zelle wird genau einmal in passender Größe
+     * angelegt.
+     */
+    static FormRaster aufbauen(Collection<? extends GeometrischeForm> formen) {
+        int anzahl = formen.size();
+        GeometrischeForm[] liste = formen.toArray(new GeometrischeForm[0]);
+        double[] minXs = new double[Math.max(anzahl, 16)];
+        double[] minYs = new double[minXs.length];
+        double[] maxXs = new double[minXs.length];
+        double[] maxYs = new double[minXs.length];
+        Begrenzung welt = Begrenzung.LEER;
+        double weltMinX = welt.minX(), weltMinY = welt.minY(), weltMaxX = welt.maxX(), weltMaxY = welt.maxY();
+        for (int i = 0; i < anzahl; i++) {
+            Begrenzung b = liste[i].begrenzung();
+            minXs[i] = b.minX();
+            minYs[i] = b.minY();
+            maxXs[i] = b.maxX();
+            maxYs[i] = b.maxY();
+            weltMinX = Math.min(weltMinX, b.minX());
+            weltMinY = Math.min(weltMinY, b.minY());
+            weltMaxX = Math.max(weltMaxX, b.maxX());
+            weltMaxY = Math.max(weltMaxY, b.maxY());
+        }
+        welt = anzahl == 0 ? new Begrenzung(0, 0, 1, 1) : new Begrenzung(weltMinX, weltMinY, weltMaxX, weltMaxY);
+
+        // Seitenverhältnis der Zellen an das der Welt anpassen
+        long zellen = Math.max(1, Math.min(MAX_ZELLEN, anzahl / FORMEN_PRO_ZELLE));
+        double breite = Math.max(welt.maxX() - welt.minX(), 1e-9);
+        double hoehe = Math.max(welt.maxY() - welt.minY(), 1e-9);
+        int spalten = (int) Math.max(1, Math.min(zellen, Math.round(Math.sqrt(zellen * breite / hoehe))));
+        int zeilen = (int) Math.max(1, Math.min(MAX_ZELLEN / spalten, zellen / spalten));
+        FormRaster raster = new FormRaster(welt, spalten, zeilen);
+
+        raster.formen = Arrays.copyOf(liste, minXs.length);
+        raster.formMinX = minXs;
+        raster.formMinY = minYs;
+        raster.formMaxX = maxXs;
+        raster.formMaxY = maxYs;
+        raster.belegt = anzahl;
+
+        // Erst zählen, dann jede Zelle in exakter Größe füllen
+        int[] anzahlen = raster.zellAnzahl;
+        for (int i = 0; i < anzahl; i++) {
+            for (int y = raster.zeile(minYs[i]), yBis = raster.zeile(maxYs[i]); y <= yBis; y++) {
+                for (int x = raster.spalte(minXs[i]), xBis = raster.spalte(maxXs[i]); x <= xBis; x++) {
+                    anzahlen[y * spalten + x]++;
+                }
+            }
+        }
+        for (int zelle = 0; zelle < anzahlen.length; zelle++) {
+            raster.zellInhalt[zelle] = new int[Math.max(anzahlen[zelle], 1)];
+            anzahlen[zelle] = 0;
+        }
+        for (int i = 0; i < anzahl; i++) {
+            raster.eintragen(i);
+        }
+        return raster;
+    }
+
+    int spalte(double x) {
+        int spalte = (int) ((x - minX) * kehrwertBreite);
+        return Math.min(Math.max(spalte, 0), spalten - 1);
+    }
+
+    int zeile(double y) {
+        int zeile = (int) ((y - minY) * kehrwertHoehe);
+        return Math.min(Math.max(zeile, 0), zeilen - 1);
+    }
+
+    /**
+     * Fügt eine Form hinzu. Dieselbe Instanz kann mehrfach enthalten sein.
+     */
+    void einfuegen(GeometrischeForm form) {
+        Begrenzung b = form.begrenzung();
+        long stempel = sperre.writeLock();
+        try {
+            int nummer;
+            if (anzahlFrei > 0) {
+                nummer = freieNummern[--anzahlFrei];
+            } else {
+                if (belegt == formen.length) {
+                    kapazitaetSetzen(belegt * 2);
+                }
+                nummer = belegt++;
+            }
+            formen[nummer] = form;
+            formMinX[nummer] = b.minX();
+            formMinY[nummer] = b.minY();
+            formMaxX[nummer] = b.maxX();
+            formMaxY[nummer] = b.maxY();
+            eintragen(nummer);
+        } finally {
+            sperre.unlockWrite(stempel);
+        }
+    }
+
+    /**
+     * Entfernt ein Vorkommen der Form. Gesucht wird über ihre Begrenzung, nicht über eine zusätzliche Map.
+     *
+     * @return {@code true}, wenn die Form enthalten war.
+     */
+    boolean entfernen(GeometrischeForm form) {
+        Begrenzung b = form.begrenzung();
+        long stempel = sperre.writeLock();
+        try {
+            int ersteZelle = zeile(b.minY()) * spalten + spalte(b.minX());
+            int[] inhalt = zellInhalt[ersteZelle];
+            for (int k = 0, n = zellAnzahl[ersteZelle]; k < n; k++) {
+                int nummer = inhalt[k];
+                if (formen[nummer] == form) {
+                    austragen(nummer);
+                    formen[nummer] = null;
+                    if (anzahlFrei == freieNummern.length) {
+                        freieNummern = Arrays.copyOf(freieNummern, anzahlFrei * 2);
+                    }
+                    freieNummern[anzahlFrei++] = nummer;
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            sperre.unlockWrite(stempel);
+        }
+    }
+
+    int anzahl() {
+        long stempel = sperre.readLock();
+        try {
+            return belegt - anzahlFrei;
+        } finally {
+            sperre.unlockRead(stempel);
+        }
+    }
+
+    /**
+     * @return Alle Formen, deren Begrenzung den Bereich schneidet oder berührt, jede genau einmal.
+     */
+    List<GeometrischeForm> suchen(Begrenzung bereich) {
+        List<GeometrischeForm> treffer = new ArrayList<>();
+        suchen(bereich, treffer::add);
+        return treffer;
+    }
+
+    /**
+     * Zählt die Treffer von {@link #suchen(Begrenzung)}, ohne eine Liste anzulegen.
+     */
+    int zaehlen(Begrenzung bereich) {
+        int[] anzahl = new int[1];
+        suchen(bereich, form -> anzahl[0]++);
+        return anzahl[0];
+    }
+
+    /**
+     * Übergibt jeden Treffer einmal an den Empfänger. Der Empfänger läuft unter der Lesesperre und darf
+     * den Index nicht ändern.
+     */
+    void suchen(Begrenzung bereich, Consumer<? super GeometrischeForm> empfaenger) {
+        if (bereich.istLeer()) {
+            return;
+        }
+        double qMinX = bereich.minX(), qMinY = bereich.minY(), qMaxX = bereich.maxX(), qMaxY = bereich.maxY();
+        long stempel = sperre.readLock();
+        try {
+            int xVon = spalte(qMinX), xBis = spalte(qMaxX);
+            int yVon = zeile(qMinY), yBis = zeile(qMaxY);
+            for (int y = yVon; y <= yBis; y++) {
+                for (int x = xVon; x <= xBis; x++) {
+                    int zelle = y * spalten + x;
+                    int[] inhalt = zellInhalt[zelle];
+                    for (int k = 0, n = zellAnzahl[zelle]; k < n; k++) {
+                        int nummer = inhalt[k];
+                        double fMinX = formMinX[nummer], fMinY = formMinY[nummer];
+                        if (fMinX <= qMaxX && qMinX <= formMaxX[nummer] && fMinY <= qMaxY && qMinY <= formMaxY[nummer]
+                                && spalte(Math.max(fMinX, qMinX)) == x && zeile(Math.max(fMinY, qMinY)) == y) {
+                            empfaenger.accept(formen[nummer]);
+                        }
+                    }
+                }
+            }
+        } finally {
+            sperre.unlockRead(stempel);
+        }
+    }
+
+    private void eintragen(int nummer) {
+        for (int y = zeile(formMinY[nummer]), yBis = zeile(formMaxY[nummer]); y <= yBis; y++) {
+            for (int x = spalte(formMinX[nummer]), xBis = spalte(formMaxX[nummer]); x <= xBis; x++) {
+                int zelle = y * spalten + x;
+                int[] inhalt = zellInhalt[zelle];
+                int n = zellAnzahl[zelle];
+                if (inhalt == null) {
+                    inhalt = zellInhalt[zelle] = new int[FORMEN_PRO_ZELLE];
+                } else if (n == inhalt.length) {
+                    inhalt = zellInhalt[zelle] = Arrays.copyOf(inhalt, n * 2);
+                }
+                inhalt[n] = nummer;
+                zellAnzahl[zelle] = n + 1;
+            }
+        }
+    }
+
+    private void austragen(int nummer) {
+        for (int y = zeile(formMinY[nummer]), yBis = zeile(formMaxY[nummer]); y <= yBis; y++) {
+            for (int x = spalte(formMinX[nummer]), xBis = spalte(formMaxX[nummer]); x <= xBis; x++) {
+                int zelle = y * spalten + x;
+                int[] inhalt = zellInhalt[zelle];
+                int n = zellAnzahl[zelle];
+                for (int k = 0; k < n; k++) {
+                    if (inhalt[k] == nummer) {
+                        inhalt[k] = inhalt[n - 1]; // Reihenfolge innerhalb der Zelle ist egal
+                        zellAnzahl[zelle] = n - 1;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private void kapazitaetSetzen(int kapazitaet) {
+        formen = formen == null ? new GeometrischeForm[kapazitaet] : Arrays.copyOf(formen, kapazitaet);
+        formMinX = formMinX == null ? new double[kapazitaet] : Arrays.copyOf(formMinX, kapazitaet);
+        formMinY = formMinY == null ? new double[kapazitaet] : Arrays.copyOf(formMinY, kapazitaet);
+        formMaxX = formMaxX == null ? new double[kapazitaet] : Arrays.copyOf(formMaxX, kapazitaet);
+        formMaxY = formMaxY == null ? new double[kapazitaet] : Arrays.copyOf(formMaxY, kapazitaet);
+    }
+
+    public static void main(String[] args) {
+        Random zufall = new Random(42);
+        int anzahl = 1_000_000;
+        List<GeometrischeForm> formen = new ArrayList<>(anzahl);
+        for (int i = 0; i < anzahl; i++) {
+            formen.add(zufall.nextBoolean()
+                    ? new Kreis("Rot", zufall.nextDouble() * 10_000, zufall.nextDouble() * 10_000, zufall.nextDouble() * 5)
+                    : new Rechteck(zufall.nextInt(20), zufall.nextInt(20), zufall.nextDouble() * 10_000, zufall.nextDouble() * 10_000));
+        }
+
+        long start = System.nanoTime();
+        FormRaster raster = aufbauen(formen);
+        System.out.printf("Aufbau: %d Formen in %.1f ms, %dx%d Zellen%n", anzahl, (System.nanoTime() - start) / 1e6,
+                raster.spalten, raster.zeilen);
+
+        int abfragen = 100_000;
+        long treffer = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < abfragen; i++) {
+            double x = zufall.nextDouble() * 10_000;
+            double y = zufall.nextDouble() * 10_000;
+            treffer += raster.zaehlen(new Begrenzung(x, y, x + 100, y + 100));
+        }
+        long dauer = System.nanoTime() - start;
+        System.out.printf("%d Abfragen (100x100) in %.1f ms: %.2f µs pro Abfrage, im Mittel %.1f Treffer%n",
+                abfragen, dauer / 1e6, dauer / 1e3 / abfragen, (double) treffer / abfragen);
+    }
+}
@@ -0,0 +1,632 @@
+package org.example.zerotohero.oop.Polymorphie;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Vergibt für jede Farbe eine kleine, fortlaufende Nummer, damit Formen statt eines {@code String} pro
+ * Objekt nur einen {@code int} speichern.
+ */
+class Farbpalette {
+    private final Map<String, Integer> nummern = new HashMap<>();
+    private final List<String> farben = new ArrayList<>();
+
+    /**
+     * @return Die Nummer der Farbe; beim ersten Auftreten wird eine neue vergeben.
+     */
+    int nummer(String farbe) {
+        Integer nummer = nummern.get(farbe);
+        if (nummer == null) {
+            nummer = farben.size();
+            nummern.put(farbe, nummer);
+            farben.add(farbe);
+        }
+        return nummer;
+    }
+
+    String farbe(int nummer) {
+        return farben.get(nummer);
+    }
+
+    int anzahl() {
+        return farben.size();
+    }
+}
+
+/**
+ * Ein wiederverwendbarer, wachsender Byte-Puffer für die Ausgabe von {@link FormSpeicher#zeichnen(BytePuffer)}.
+ */
+class BytePuffer {
+    private byte[] daten;
+    private int laenge;
+
+    BytePuffer(int kapazitaet) {
+        daten = new byte[kapazitaet];
+    }
+
+    /** Stellt sicher, dass noch {@code zusaetzlich} Bytes ohne weitere Prüfung hineinpassen. */
+    void reservieren(long zusaetzlich) {
+        long benoetigt = laenge + zusaetzlich;
+        if (benoetigt > daten.length) {
+            if (benoetigt > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Ausgabe größer als 2 GiB.");
+            }
+            daten = Arrays.copyOf(daten, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(benoetigt, 2L * daten.length)));
+        }
+    }
+
+    void zuruecksetzen() {
+        laenge = 0;
+    }
+
+    int laenge() {
+        return laenge;
+    }
+
+    byte[] daten() {
+        return daten;
+    }
+
+    void schreibenNach(OutputStream ziel) throws IOException {
+        ziel.write(daten, 0, laenge);
+    }
+
+    @Override
+    public String toString() {
+        return new String(daten, 0, laenge, StandardCharsets.UTF_8);
+    }
+
+    // Schreibzugriffe ohne Kapazitätsprüfung; der Aufrufer hat vorher reserviert
+
+    void anhaengen(byte[] bytes) {
+        System.arraycopy(bytes, 0, daten, laenge, bytes.length);
+        laenge += bytes.length;
+    }
+
+    void anhaengen(int zahl) {
+        if (zahl < 0) {
+            if (zahl == Integer.MIN_VALUE) {
+                anhaengen(Integer.toString(zahl).getBytes(StandardCharsets.US_ASCII));
+                return;
+            }
+            daten[laenge++] = '-';
+            zahl = -zahl;
+        }
+        int stellen = stellen(zahl);
+        int position = laenge + stellen;
+        do {
+            daten[--position] = (byte) ('0' + zahl % 10);
+            zahl /= 10;
+        } while (zahl != 0);
+        laenge += stellen;
+    }
+
+    private static int stellen(int zahl) {
+        int stellen = 1;
+        for (long grenze = 10; grenze <= zahl; grenze *= 10) {
+            stellen++;
+        }
+        return stellen;
+    }
+}
+
+/**
+ * Die Formtypen, die ein {@link FormSpeicher} als eigene Spalten führt.
+ */
+enum FormTyp {
+    KREIS, RECHTECK
+}
+
+/**
+ * Aggregate über alle Formen eines {@link FormSpeicher}: Anzahl, Fläche und Umfang pro {@link FormTyp} sowie
+ * die gemeinsame {@link Begrenzung}.
+ */
+final class GeometrieAuswertung {
+    private final long[] anzahl;
+    private final double[] flaeche;
+    private final double[] umfang;
+    private final Begrenzung begrenzung;
+
+    GeometrieAuswertung(long[] anzahl, double[] flaeche, double[] umfang, Begrenzung begrenzung) {
+        this.anzahl = anzahl;
+        this.flaeche = flaeche;
+        this.umfang = umfang;
+        this.begrenzung = begrenzung;
+    }
+
+    long getAnzahl(FormTyp typ) {
+        return anzahl[typ.ordinal()];
+    }
+
+    double getFlaeche(FormTyp typ) {
+        return flaeche[typ.ordinal()];
+    }
+
+    double getUmfang(FormTyp typ) {
+        return umfang[typ.ordinal()];
+    }
+
+    double getGesamtFlaeche() {
+        double summe = 0;
+        for (double wert : flaeche) {
+            summe += wert;
+        }
+        return summe;
+    }
+
+    /**
+     * @return Die Begrenzung aller Formen, {@link Begrenzung#LEER} für einen leeren Speicher.
+     */
+    Begrenzung getBegrenzung() {
+        return begrenzung;
+    }
+
+    /**
+     * @return Die Anzahl der Formen pro Typ.
+     */
+    Map<FormTyp, Long> histogramm() {
+        Map<FormTyp, Long> histogramm = new EnumMap<>(FormTyp.class);
+        for (FormTyp typ : FormTyp.values()) {
+            histogramm.put(typ, anzahl[typ.ordinal()]);
+        }
+        return histogramm;
+    }
+
+    @Override
+    public String toString() {
+        return "GeometrieAuswertung" + histogramm() + ", Fläche=" + getGesamtFlaeche() + ", " + begrenzung;
+    }
+}
+
+/**
+ * Formen als Structure of Arrays: pro Formtyp eigene, primitive Spalten statt eines {@code Form[]} mit einem
+ * Objekt pro Form. Ein Kreis kostet so 28 Bytes (die Nummer seiner Farbe aus der {@link Farbpalette} sowie
+ * Lage und Radius als {@code double}), ein Rechteck 24 Bytes (Breite und Höhe als {@code int}, Lage als
+ * {@code double}).
+ *
+ * {@link #zeichnen(BytePuffer)} läuft typweise über die Spalten – ohne virtuellen Aufruf pro Form – und
+ * schreibt dieselben Zeilen wie {@link Form#zeichnen()} als UTF-8 in einen wiederverwendbaren Puffer statt
+ * nach {@code System.out}, zuerst alle Kreise, dann alle Rechtecke. Da die Zeile eines Kreises nur von
+ * seiner Farbe abhängt, wird sie pro Farbe einmal vorberechnet.
+ *
+ * {@link #auswerten(ForkJoinPool)} bildet aus den Spalten Fläche, Umfang, Begrenzung und Anzahl pro Typ
+ * in festen Blöcken von {@value #AUSWERTUNGS_BLOCK} Formen.
+ */
+class FormSpeicher {
+    private static final byte[] KREIS_VOR = "Zeichne einen ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] KREIS_NACH = "en Kreis.".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] RECHTECK_VOR = "Zeichne ein Rechteck mit Breite ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] RECHTECK_MITTE = " und Höhe ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] RECHTECK_NACH = ".".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ZEILENENDE = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+    private static final int MAX_ZAHL = 11; // "-2147483648"
+
+    /** Formen pro Block der Auswertung; die Blockgrenzen hängen nicht von der Zahl der Threads ab. */
+    static final int AUSWERTUNGS_BLOCK = 1 << 16;
+
+    private final Farbpalette palette;
+    private byte[][] kreisZeilen = new byte[0][];
+
+    private int[] kreisFarbe = new int[16];
+    private double[] kreisX = new double[16];
+    private double[] kreisY = new double[16];
+    private double[] kreisRadius = new double[16];
+    private int anzahlKreise;
+
+    private int[] rechteckBreite = new int[16];
+    private int[] rechteckHoehe = new int[16];
+    private double[] rechteckX = new double[16];
+    private double[] rechteckY = new double[16];
+    private int anzahlRechtecke;
+
+    FormSpeicher() {
+        this(new Farbpalette());
+    }
+
+    FormSpeicher(Farbpalette palette) {
+        this.palette = palette;
+    }
+
+    /**
+     * Übernimmt Kreise und Rechtecke aus einem {@code Form[]}.
+     *
+     * @throws IllegalArgumentException bei anderen Implementierungen von {@link Form}.
+     */
+    static FormSpeicher aus(Form[] formen) {
+        FormSpeicher speicher = new FormSpeicher();
+        for (Form form : formen) {
+            speicher.hinzufuegen(form);
+        }
+        return speicher;
+    }
+
+    void hinzufuegen(Form form) {
+        if (form instanceof Kreis kreis) {
+            kreisHinzufuegen(kreis.getFarbe(), kreis.getX(), kreis.getY(), kreis.getRadius());
+        } else if (form instanceof Rechteck rechteck) {
+            rechteckHinzufuegen(rechteck.getBreite(), rechteck.getHoehe(), rechteck.getX(), rechteck.getY());
+        } else {
+            throw new IllegalArgumentException("Unbekannte Form: " + form.getClass().getName());
+        }
+    }
+
+    /**
+     * @return Der Index des Kreises in seiner Spalte.
+     */
+    int kreisHinzufuegen(String farbe) {
+        return kreisHinzufuegen(farbe, 0, 0, 1);
+    }
+
+    /**
+     * @return Der Index des Kreises in seiner Spalte.
+     */
+    int kreisHinzufuegen(String farbe, double x, double y, double radius) {
+        if (!(radius >= 0)) {
+            throw new IllegalArgumentException("Radius darf nicht negativ sein: " + radius);
+        }
+        if (anzahlKreise == kreisFarbe.length) {
+            int kapazitaet = anzahlKreise * 2;
+            kreisFarbe = Arrays.copyOf(kreisFarbe, kapazitaet);
+            kreisX = Arrays.copyOf(kreisX, kapazitaet);
+            kreisY = Arrays.copyOf(kreisY, kapazitaet);
+            kreisRadius = Arrays.copyOf(kreisRadius, kapazitaet);
+        }
+        kreisFarbe[anzahlKreise] = palette.nummer(farbe);
+        kreisX[anzahlKreise] = x;
+        kreisY[anzahlKreise] = y;
+        kreisRadius[anzahlKreise] = radius;
+        return anzahlKreise++;
+    }
+
+    /**
+     * @return Der Index des Rechtecks in seiner Spalte.
+     */
+    int rechteckHinzufuegen(int breite, int hoehe) {
+        return rechteckHinzufuegen(breite, hoehe, 0, 0);
+    }
+
+    /**
+     * @return Der Index des Rechtecks in seiner Spalte.
+     */
+    int rechteckHinzufuegen(int breite, int hoehe, double x, double y) {
+        if (anzahlRechtecke == rechteckBreite.length) {
+            int kapazitaet = anzahlRechtecke * 2;
+            rechteckBreite = Arrays.copyOf(rechteckBreite, kapazitaet);
+            rechteckHoehe = Arrays.copyOf(rechteckHoehe, kapazitaet);
+            rechteckX = Arrays.copyOf(rechteckX, kapazitaet);
+            rechteckY = Arrays.copyOf(rechteckY, kapazitaet);
+        }
+        rechteckBreite[anzahlRechtecke] = breite;
+        rechteckHoehe[anzahlRechtecke] = hoehe;
+        rechteckX[anzahlRechtecke] = x;
+        rechteckY[anzahlRechtecke] = y;
+        return anzahlRechtecke++;
+    }
+
+    int anzahlKreise() {
+        return anzahlKreise;
+    }
+
+    int anzahlRechtecke() {
+        return anzahlRechtecke;
+    }
+
+    Farbpalette getPalette() {
+        return palette;
+    }
+
+    /**
+     * Wertet alle Formen im aufrufenden Thread aus.
+     */
+    GeometrieAuswertung auswerten() {
+        Teil[] teile = new Teil[kreisBloecke() + rechteckBloecke()];
+        for (int block = 0; block < teile.length; block++) {
+            teile[block] = blockAuswerten(block);
+        }
+        return zusammenfuehren(teile);
+    }
+
+    /**
+     * Wertet die Blöcke parallel auf dem Pool aus. Die Teilergebnisse werden wie bei {@link #auswerten()} in
+     * fester Blockreihenfolge zusammengeführt, daher sind beide Ergebnisse bitgleich.
+     */
+    GeometrieAuswertung auswerten(ForkJoinPool pool) {
+        Teil[] teile = new Teil[kreisBloecke() + rechteckBloecke()];
+        pool.invoke(new BlockAufgabe(teile, 0, teile.length));
+        return zusammenfuehren(teile);
+    }
+
+    private int kreisBloecke() {
+        return (anzahlKreise + AUSWERTUNGS_BLOCK - 1) / AUSWERTUNGS_BLOCK;
+    }
+
+    private int rechteckBloecke() {
+        return (anzahlRechtecke + AUSWERTUNGS_BLOCK - 1) / AUSWERTUNGS_BLOCK;
+    }
+
+    /**
+     * Teilsummen eines Blocks; Kreise nutzen die {@code double}-, Rechtecke die {@code long}-Summen. Könnte die
+     * Flächensumme eines Blocks einen {@code long} überlaufen lassen, steht sie stattdessen in
+     * {@link #summeFlaecheUngenau}.
+     */
+    private static final class Teil {
+        double summeRadius;
+        double summeRadiusQuadrat;
+        long summeFlaeche;
+        double summeFlaecheUngenau;
+        long summeKanten;
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+    }
+
+    private Teil blockAuswerten(int block) {
+        int kreisBloecke = kreisBloecke();
+        return block < kreisBloecke
+                ? kreiseAuswerten(block * AUSWERTUNGS_BLOCK, Math.min(anzahlKreise, (block + 1) * AUSWERTUNGS_BLOCK))
+                : rechteckeAuswerten((block - kreisBloecke) * AUSWERTUNGS_BLOCK,
+                        Math.min(anzahlRechtecke, (block - kreisBloecke + 1) * AUSWERTUNGS_BLOCK));
+    }
+
+    // Schlichte Zählschleifen über je eine Spalte ohne Verzweigung, damit C2 sie abrollen und
+    // die long-Summen vektorisieren kann
+
+    private Teil kreiseAuswerten(int von, int bis) {
+        double[] xs = kreisX;
+        double[] ys = kreisY;
+        double[] radien = kreisRadius;
+        Teil teil = new Teil();
+        double summe = 0;
+        double quadrate = 0;
+        for (int i = von; i < bis; i++) {
+            double r = radien[i];
+            summe += r;
+            quadrate += r * r;
+        }
+        double minX = teil.minX;
+        double maxX = teil.maxX;
+        for (int i = von; i < bis; i++) {
+            minX = Math.min(minX, xs[i] - radien[i]);
+            maxX = Math.max(maxX, xs[i] + radien[i]);
+        }
+        double minY = teil.minY;
+        double maxY = teil.maxY;
+        for (int i = von; i < bis; i++) {
+            minY = Math.min(minY, ys[i] - radien[i]);
+            maxY = Math.max(maxY, ys[i] + radien[i]);
+        }
+        teil.summeRadius = summe;
+        teil.summeRadiusQuadrat = quadrate;
+        teil.minX = minX;
+        teil.maxX = maxX;
+        teil.minY = minY;
+        teil.maxY = maxY;
+        return teil;
+    }
+
+    private Teil rechteckeAuswerten(int von, int bis) {
+        int[] breiten = rechteckBreite;
+        int[] hoehen = rechteckHoehe;
+        double[] xs = rechteckX;
+        double[] ys = rechteckY;
+        Teil teil = new Teil();
+        long kanten = 0; // Höchstens 2^16 * 2^32, auch über alle Blöcke kleiner als 2^63
+        long maxBreite = 0;
+        long maxHoehe = 0;
+        for (int i = von; i < bis; i++) {
+            long b = Math.abs((long) breiten[i]);
+            long h = Math.abs((long) hoehen[i]);
+            kanten += b + h;
+            maxBreite = Math.max(maxBreite, b);
+            maxHoehe = Math.max(maxHoehe, h);
+        }
+        // Ein einzelnes Produkt passt immer in einen long, die Summe des Blocks nur, wenn diese Schranke hält
+        if (maxBreite * maxHoehe <= Long.MAX_VALUE / Math.max(1, bis - von)) {
+            long flaeche = 0;
+            for (int i = von; i < bis; i++) {
+                flaeche += Math.abs((long) breiten[i]) * Math.abs((long) hoehen[i]);
+            }
+            teil.summeFlaeche = flaeche;
+        } else {
+            double flaeche = 0;
+            for (int i = von; i < bis; i++) {
+                flaeche += (double) (Math.abs((long) breiten[i]) * Math.abs((long) hoehen[i]));
+            }
+            teil.summeFlaecheUngenau = flaeche;
+        }
+        double minX = teil.minX;
+        double maxX = teil.maxX;
+        for (int i = von; i < bis; i++) {
+            double x = xs[i];
+            double xb = x + breiten[i];
+            minX = Math.min(minX, Math.min(x, xb));
+            maxX = Math.max(maxX, Math.max(x, xb));
+        }
+        double minY = teil.minY;
+        double maxY = teil.maxY;
+        for (int i = von; i < bis; i++) {
+            double y = ys[i];
+            double yh = y + hoehen[i];
+            minY = Math.min(minY, Math.min(y, yh));
+            maxY = Math.max(maxY, Math.max(y, yh));
+        }
+        teil.summeKanten = kanten;
+        teil.minX = minX;
+        teil.maxX = maxX;
+        teil.minY = minY;
+        teil.maxY = maxY;
+        return teil;
+    }
+
+    private GeometrieAuswertung zusammenfuehren(Teil[] teile) {
+        int kreisBloecke = kreisBloecke();
+        double summeRadius = 0;
+        double summeRadiusQuadrat = 0;
+        long summeFlaeche = 0;
+        double summeFlaecheUngenau = 0; // Blöcke, deren Fläche nicht mehr exakt in summeFlaeche passt
+        long summeKanten = 0;
+        Begrenzung begrenzung = Begrenzung.LEER;
+        for (int block = 0; block < teile.length; block++) {
+            Teil teil = teile[block];
+            if (block < kreisBloecke) {
+                summeRadius += teil.summeRadius;
+                summeRadiusQuadrat += teil.summeRadiusQuadrat;
+            } else {
+                long flaeche = summeFlaeche + teil.summeFlaeche;
+                if (flaeche < 0) { // Beide Summanden sind nicht negativ, ein negatives Ergebnis ist ein Überlauf
+                    summeFlaecheUngenau += teil.summeFlaeche;
+                } else {
+                    summeFlaeche = flaeche;
+                }
+                summeFlaecheUngenau += teil.summeFlaecheUngenau;
+                summeKanten += teil.summeKanten;
+            }
+            begrenzung = begrenzung.vereinigen(new Begrenzung(teil.minX, teil.minY, teil.maxX, teil.maxY));
+        }
+        long[] anzahl = new long[FormTyp.values().length];
+        double[] flaeche = new double[anzahl.length];
+        double[] umfang = new double[anzahl.length];
+        anzahl[FormTyp.KREIS.ordinal()] = anzahlKreise;
+        flaeche[FormTyp.KREIS.ordinal()] = Math.PI * summeRadiusQuadrat;
+        umfang[FormTyp.KREIS.ordinal()] = 2 * Math.PI * summeRadius;
+        anzahl[FormTyp.RECHTECK.ordinal()] = anzahlRechtecke;
+        flaeche[FormTyp.RECHTECK.ordinal()] = summeFlaeche + summeFlaecheUngenau;
+        umfang[FormTyp.RECHTECK.ordinal()] = 2.0 * summeKanten;
+        return new GeometrieAuswertung(anzahl, flaeche, umfang, begrenzung);
+    }
+
+    private final class BlockAufgabe extends RecursiveAction {
+        private final Teil[] teile;
+        private final int von;
+        private final int bis;
+
+        BlockAufgabe(Teil[] teile, int von, int bis) {
+            this.teile = teile;
+            this.von = von;
+            this.bis = bis;
+        }
+
+        @Override
+        protected void compute() {
+            if (bis - von <= 1) {
+                if (bis > von) {
+                    teile[von] = blockAuswerten(von);
+                }
+                return;
+            }
+            int mitte = (von + bis) >>> 1;
+            invokeAll(new BlockAufgabe(teile, von, mitte), new BlockAufgabe(teile, mitte, bis));
+        }
+    }
+
+    /**
+     * Hängt die Zeilen aller Formen an den Puffer an.
+     */
+    void zeichnen(BytePuffer puffer) {
+        kreiseZeichnen(puffer);
+        rechteckeZeichnen(puffer);
+    }
+
+    private void kreiseZeichnen(BytePuffer puffer) {
+        byte[][] zeilen = kreisZeilen();
+        int laengste = 0;
+        for (byte[] zeile : zeilen) {
+            laengste = Math.max(laengste, zeile.length);
+        }
+        puffer.reservieren((long) laengste * anzahlKreise);
+        int[] farben = kreisFarbe;
+        for (int i = 0; i < anzahlKreise; i++) {
+            puffer.anhaengen(zeilen[farben[i]]);
+        }
+    }
+
+    private void rechteckeZeichnen(BytePuffer puffer) {
+        int zeile = RECHTECK_VOR.length + MAX_ZAHL + RECHTECK_MITTE.length + MAX_ZAHL + RECHTECK_NACH.length + ZEILENENDE.length;
+        puffer.reservieren((long) zeile * anzahlRechtecke);
+        int[] breiten = rechteckBreite;
+        int[] hoehen = rechteckHoehe;
+        for (int i = 0; i < anzahlRechtecke; i++) {
+            puffer.anhaengen(RECHTECK_VOR);
+            puffer.anhaengen(breiten[i]);
+            puffer.anhaengen(RECHTECK_MITTE);
+            puffer.anhaengen(hoehen[i]);
+            puffer.anhaengen(RECHTECK_NACH);
+            puffer.anhaengen(ZEILENENDE);
+        }
+    }
+
+    /** Die fertigen Zeilen pro Farbnummer; neue Farben werden beim nächsten Zeichnen ergänzt. */
+    private byte[][] kreisZeilen() {
+        int bekannt = kreisZeilen.length;
+        if (bekannt < palette.anzahl()) {
+            kreisZeilen = Arrays.copyOf(kreisZeilen, palette.anzahl());
+            for (int nummer = bekannt; nummer < kreisZeilen.length; nummer++) {
+                byte[] farbe = palette.farbe(nummer).getBytes(StandardCharsets.UTF_8);
+                byte[] zeile = new byte[KREIS_VOR.length + farbe.length + KREIS_NACH.length + ZEILENENDE.length];
+                int position = 0;
+                for (byte[] teil : new byte[][]{KREIS_VOR, farbe, KREIS_NACH, ZEILENENDE}) {
+                    System.arraycopy(teil, 0, zeile, position, teil.length);
+                    position += teil.length;
+                }
+                kreisZeilen[nummer] = zeile;
+            }
+        }
+        return kreisZeilen;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String[] farben = {"Rot", "Blau", "Grün", "Gelb"};
+        int anzahl = 1_000_000;
+        FormSpeicher speicher = new FormSpeicher();
+        for (int i = 0; i < anzahl; i++) {
+            if (i % 2 == 0) {
+                speicher.kreisHinzufuegen(farben[i % farben.length]);
+            } else {
+                speicher.rechteckHinzufuegen(i % 100, i % 37);
+            }
+        }
+
+        BytePuffer puffer = new BytePuffer(64 * 1024 * 1024);
+        for (int durchlauf = 1; durchlauf <= 5; durchlauf++) {
+            puffer.zuruecksetzen();
+            long start = System.nanoTime();
+            speicher.zeichnen(puffer);
+            long dauer = System.nanoTime() - start;
+            System.out.printf("Durchlauf %d: %d Formen, %d Bytes in %.1f ms%n", durchlauf, anzahl, puffer.laenge(), dauer / 1e6);
+        }
+        String ausgabe = puffer.toString();
+        System.out.print(ausgabe.substring(0, ausgabe.indexOf('\n', ausgabe.indexOf('\n') + 1) + 1));
+
+        FormSpeicher geometrie = new FormSpeicher();
+        Random zufall = new Random(42);
+        int viele = 10_000_000;
+        for (int i = 0; i < viele; i++) {
+            if (zufall.nextBoolean()) {
+                geometrie.kreisHinzufuegen(farben[i & 3], zufall.nextDouble() * 1000, zufall.nextDouble() * 1000, zufall.nextDouble() * 5);
+            } else {
+                geometrie.rechteckHinzufuegen(zufall.nextInt(10), zufall.nextInt(10), zufall.nextDouble() * 1000, zufall.nextDouble() * 1000);
+            }
+        }
+        for (int durchlauf = 1; durchlauf <= 5; durchlauf++) {
+            long start = System.nanoTime();
+            GeometrieAuswertung parallel = geometrie.auswerten(ForkJoinPool.commonPool());
+            long dauer = System.nanoTime() - start;
+            System.out.printf("Auswertung %d: %d Formen in %.1f ms (%.0f Mio. Formen/s, %d Threads)%n", durchlauf, viele,
+                    dauer / 1e6, viele * 1e3 / dauer, ForkJoinPool.commonPool().getParallelism());
+            if (durchlauf == 5) {
+                System.out.println(parallel);
+            }
+        }
+    }
+}
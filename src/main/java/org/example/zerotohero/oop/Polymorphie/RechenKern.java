@@ -0,0 +1,264 @@
+package org.example.zerotohero.oop.Polymorphie;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Rechenoperationen über ganze Arrays, wie sie {@link Rechner} als Überladungen von {@code addiere} anbietet.
+ *
+ * Die Schleifen sind schlichte Zählschleifen ohne Verzweigung, die C2 abrollen und vektorisieren kann.
+ * Das gilt für Addition, {@link Math#fma} und die {@code long}-Summen. Summen über {@code double} nutzen
+ * vier unabhängige Teilsummen pro Block, damit sich die Additionen nicht gegenseitig ausbremsen.
+ *
+ * Arrays ab {@link #getSchwelle()} Elementen werden auf dem Pool in Blöcken von {@value #BLOCK} Elementen
+ * bearbeitet. Summen werden immer in Blöcken gebildet und in Blockreihenfolge zusammengeführt, daher
+ * liefern parallele und sequenzielle Ausführung dasselbe Ergebnis, auch bei {@code double}.
+ */
+final class RechenKern {
+    static final int BLOCK = 1 << 16;
+    static final int STANDARD_SCHWELLE = 1 << 20;
+
+    private static final RechenKern STANDARD = new RechenKern(ForkJoinPool.commonPool(), STANDARD_SCHWELLE);
+    private static final RechenKern SEQUENZIELL = new RechenKern(null, Integer.MAX_VALUE);
+
+    private final ForkJoinPool pool;
+    private final int schwelle;
+
+    /**
+     * @param pool Der Pool für große Arrays, {@code null} für rein sequenzielle Ausführung.
+     * @param schwelle Ab dieser Länge wird parallel gerechnet.
+     */
+    RechenKern(ForkJoinPool pool, int schwelle) {
+        this.pool = pool;
+        this.schwelle = schwelle;
+    }
+
+    /** Parallel auf dem Common Pool ab {@value #STANDARD_SCHWELLE} Elementen. */
+    static RechenKern standard() {
+        return STANDARD;
+    }
+
+    static RechenKern sequenziell() {
+        return SEQUENZIELL;
+    }
+
+    int getSchwelle() {
+        return schwelle;
+    }
+
+    /** Ein Abschnitt {@code [von, bis)} eines Arrays. */
+    @FunctionalInterface
+    private interface Abschnitt {
+        void bearbeiten(int von, int bis);
+    }
+
+    /**
+     * {@code ergebnis[i] = a[i] + b[i]} mit Überlauf modulo 2^32 wie beim Operator {@code +}.
+     */
+    void addiere(int[] a, int[] b, int[] ergebnis) {
+        int laenge = gleicheLaenge(a.length, b.length, ergebnis.length);
+        ausfuehren(laenge, (von, bis) -> {
+            for (int i = von; i < bis; i++) {
+                ergebnis[i] = a[i] + b[i];
+            }
+        });
+    }
+
+    /**
+     * Wie {@link #addiere(int[], int[], int[])}, wirft aber bei einem Überlauf.
+     * Der Überlauf wird ohne Verzweigung in der Schleife gesammelt und pro Block einmal geprüft. Jeder Block
+     * merkt sich seinen ersten Überlauf; geworfen wird erst, wenn alle Blöcke fertig sind, für den niedrigsten
+     * Block. Der gemeldete Index ist daher auch parallel immer derselbe, und {@code ergebnis} enthält bei
+     * einer Ausnahme alle Summen modulo 2^32.
+     *
+     * @throws ArithmeticException mit dem Index der ersten Summe, die überläuft.
+     */
+    void addiereExakt(int[] a, int[] b, int[] ergebnis) {
+        int laenge = gleicheLaenge(a.length, b.length, ergebnis.length);
+        int[] ersterUeberlauf = new int[bloecke(laenge)]; // Index + 1, 0 ohne Überlauf
+        ausfuehren(laenge, (von, bis) -> {
+            int ueberlauf = 0;
+            for (int i = von; i < bis; i++) {
+                int x = a[i], y = b[i], summe = x + y;
+                ergebnis[i] = summe;
+                ueberlauf |= (x ^ summe) & (y ^ summe); // Vorzeichenbit gesetzt, wenn die Summe übergelaufen ist
+            }
+            if (ueberlauf < 0) {
+                int i = von;
+                while (((a[i] ^ ergebnis[i]) & (b[i] ^ ergebnis[i])) >= 0) {
+                    i++;
+                }
+                ersterUeberlauf[von / BLOCK] = i + 1;
+            }
+        });
+        for (int index : ersterUeberlauf) {
+            if (index != 0) {
+                int i = index - 1;
+                throw new ArithmeticException("Überlauf bei Index " + i + ": " + a[i] + " + " + b[i]);
+            }
+        }
+    }
+
+    /**
+     * {@code ergebnis[i] = a[i] + b[i]}.
+     */
+    void addiere(double[] a, double[] b, double[] ergebnis) {
+        int laenge = gleicheLaenge(a.length, b.length, ergebnis.length);
+        ausfuehren(laenge, (von, bis) -> {
+            for (int i = von; i < bis; i++) {
+                ergebnis[i] = a[i] + b[i];
+            }
+        });
+    }
+
+    /**
+     * {@code ergebnis[i] = a[i] * b[i] + c[i]} mit einer einzigen Rundung ({@link Math#fma}).
+     */
+    void fma(double[] a, double[] b, double[] c, double[] ergebnis) {
+        int laenge = gleicheLaenge(a.length, b.length, c.length, ergebnis.length);
+        ausfuehren(laenge, (von, bis) -> {
+            for (int i = von; i < bis; i++) {
+                ergebnis[i] = Math.fma(a[i], b[i], c[i]);
+            }
+        });
+    }
+
+    /**
+     * @return Die Summe als {@code long}; sie kann bei Arrays bis 2^31 Elementen nicht überlaufen.
+     */
+    long summe(int[] werte) {
+        long[] teile = new long[bloecke(werte.length)];
+        ausfuehren(werte.length, (von, bis) -> {
+            // Ganzzahlige Addition ist assoziativ, C2 rollt und vektorisiert die Schleife selbst
+            long summe = 0;
+            for (int i = von; i < bis; i++) {
+                summe += werte[i];
+            }
+            teile[von / BLOCK] = summe;
+        });
+        long summe = 0;
+        for (long teil : teile) {
+            summe += teil;
+        }
+        return summe;
+    }
+
+    /**
+     * @return Die Summe; die Reihenfolge der Additionen hängt nur von der Länge des Arrays ab.
+     */
+    double summe(double[] werte) {
+        double[] teile = new double[bloecke(werte.length)];
+        ausfuehren(werte.length, (von, bis) -> {
+            double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+            int i = von;
+            for (; i + 3 < bis; i += 4) {
+                s0 += werte[i];
+                s1 += werte[i + 1];
+                s2 += werte[i + 2];
+                s3 += werte[i + 3];
+            }
+            for (; i < bis; i++) {
+                s0 += werte[i];
+            }
+            teile[von / BLOCK] = (s0 + s1) + (s2 + s3);
+        });
+        double summe = 0;
+        for (double teil : teile) {
+            summe += teil;
+        }
+        return summe;
+    }
+
+    /**
+     * Inklusive Präfixsummen: {@code ergebnis[i] = werte[0] + ... + werte[i]}.
+     * Parallel in zwei Durchgängen: erst die Blocksummen, dann jeder Block mit dem Versatz seiner Vorgänger.
+     */
+    void praefixSummen(int[] werte, long[] ergebnis) {
+        int laenge = gleicheLaenge(werte.length, ergebnis.length);
+        if (pool == null || laenge < schwelle) {
+            praefixSummen(werte, ergebnis, 0, laenge, 0);
+            return;
+        }
+        long[] versatz = new long[bloecke(laenge)];
+        ausfuehren(laenge, (von, bis) -> {
+            long summe = 0;
+            for (int i = von; i < bis; i++) {
+                summe += werte[i];
+            }
+            versatz[von / BLOCK] = summe;
+        });
+        long laufend = 0;
+        for (int block = 0; block < versatz.length; block++) {
+            long blockSumme = versatz[block];
+            versatz[block] = laufend;
+            laufend += blockSumme;
+        }
+        ausfuehren(laenge, (von, bis) -> praefixSummen(werte, ergebnis, von, bis, versatz[von / BLOCK]));
+    }
+
+    private static void praefixSummen(int[] werte, long[] ergebnis, int von, int bis, long start) {
+        long summe = start;
+        for (int i = von; i < bis; i++) {
+            summe += werte[i];
+            ergebnis[i] = summe;
+        }
+    }
+
+    /**
+     * Bearbeitet {@code [0, laenge)} in Blöcken von {@value #BLOCK} Elementen, ab der Schwelle auf dem Pool.
+     * Jeder Aufruf von {@code abschnitt} umfasst genau einen Block, damit sich Teilergebnisse über
+     * {@code von / BLOCK} zuordnen lassen. Fehler meldet ein Abschnitt über sein Teilergebnis, nicht mit
+     * einer Exception: Welcher Block parallel zuerst wirft, ist nicht festgelegt.
+     */
+    private void ausfuehren(int laenge, Abschnitt abschnitt) {
+        if (pool == null || laenge < schwelle) {
+            for (int von = 0; von < laenge; von += BLOCK) {
+                abschnitt.bearbeiten(von, Math.min(laenge, von + BLOCK));
+            }
+        } else {
+            pool.invoke(new BlockAufgabe(abschnitt, laenge, 0, bloecke(laenge)));
+        }
+    }
+
+    private static int bloecke(int laenge) {
+        return (laenge + BLOCK - 1) / BLOCK;
+    }
+
+    private static int gleicheLaenge(int... laengen) {
+        for (int laenge : laengen) {
+            if (laenge != laengen[0]) {
+                throw new IllegalArgumentException("Arrays unterschiedlicher Länge: " + Arrays.toString(laengen));
+            }
+        }
+        return laengen[0];
+    }
+
+    private static final class BlockAufgabe extends RecursiveAction {
+        private final Abschnitt abschnitt;
+        private final int laenge;
+        private final int vonBlock;
+        private final int bisBlock;
+
+        BlockAufgabe(Abschnitt abschnitt, int laenge, int vonBlock, int bisBlock) {
+            this.abschnitt = Objects.requireNonNull(abschnitt);
+            this.laenge = laenge;
+            this.vonBlock = vonBlock;
+            this.bisBlock = bisBlock;
+        }
+
+        @Override
+        protected void compute() {
+            if (bisBlock - vonBlock <= 1) {
+                if (bisBlock > vonBlock) {
+                    int von = vonBlock * BLOCK;
+                    abschnitt.bearbeiten(von, Math.min(laenge, von + BLOCK));
+                }
+                return;
+            }
+            int mitte = (vonBlock + bisBlock) >>> 1;
+            invokeAll(new BlockAufgabe(abschnitt, laenge, vonBlock, mitte), new BlockAufgabe(abschnitt, laenge, mitte, bisBlock));
+        }
+    }
+}
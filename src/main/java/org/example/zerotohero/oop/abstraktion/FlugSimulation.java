@@ -0,0 +1,272 @@
+package org.example.zerotohero.oop.abstraktion;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Die Flugphase eines Objekts in der {@link FlugSimulation}, gespeichert als {@code byte}.
+ */
+enum FlugPhase {
+    STEIGEN, REISEFLUG, LANDEANFLUG, GELANDET
+}
+
+/**
+ * Simuliert sehr viele {@link Fliegfaehig}e Objekte mit festem Zeitschritt. Die Zustände liegen als
+ * Structure of Arrays vor: Position, Geschwindigkeit, Höhe und Steigrate in {@code double}-Spalten,
+ * die Phase als {@code byte}. Die Höhe wird auf {@code [0, Fliegfaehig.getMaxFlughoehe()]} begrenzt.
+ *
+ * Ein Tick wird in festen Blöcken von {@value #BLOCK} Objekten auf einem {@link ForkJoinPool} gerechnet.
+ * Das Ergebnis ist bitgleich, egal wie viele Threads mitrechnen:
+ * <ul>
+ *     <li>Jedes Objekt hängt nur von seinem eigenen Zustand ab.</li>
+ *     <li>Die Turbulenz kommt aus einem Hash über (Startwert, Tick, Index) statt aus einem geteilten
+ *     Zufallsgenerator.</li>
+ *     <li>Summen in der {@link #statistik()} werden pro Block gebildet und in Blockreihenfolge addiert.</li>
+ * </ul>
+ * Seit Java 17 ist Gleitkommaarithmetik immer {@code strictfp}, daher gilt das auch über Maschinen hinweg.
+ */
+final class FlugSimulation {
+    static final int BLOCK = 1 << 14;
+    private static final byte STEIGEN = (byte) FlugPhase.STEIGEN.ordinal();
+    private static final byte REISEFLUG = (byte) FlugPhase.REISEFLUG.ordinal();
+    private static final byte LANDEANFLUG = (byte) FlugPhase.LANDEANFLUG.ordinal();
+    private static final byte GELANDET = (byte) FlugPhase.GELANDET.ordinal();
+
+    private final double dt;
+    private final double maxHoehe = Fliegfaehig.getMaxFlughoehe();
+    private final double turbulenz;
+    private final long startwert;
+
+    private final double[] x;
+    private final double[] y;
+    private final double[] vx;
+    private final double[] vy;
+    private final double[] hoehe;
+    private final double[] steigrate;
+    private final byte[] phase;
+    private int anzahl;
+    private long tick;
+
+    /**
+     * @param kapazitaet Die Anzahl der Objekte höchstens.
+     * @param dt Der feste Zeitschritt in Sekunden.
+     * @param turbulenz Die größte Höhenänderung im Reiseflug pro Tick in Metern.
+     * @param startwert Der Startwert für die Turbulenz.
+     */
+    FlugSimulation(int kapazitaet, double dt, double turbulenz, long startwert) {
+        this.dt = dt;
+        this.turbulenz = turbulenz;
+        this.startwert = startwert;
+        this.x = new double[kapazitaet];
+        this.y = new double[kapazitaet];
+        this.vx = new double[kapazitaet];
+        this.vy = new double[kapazitaet];
+        this.hoehe = new double[kapazitaet];
+        this.steigrate = new double[kapazitaet];
+        this.phase = new byte[kapazitaet];
+    }
+
+    /**
+     * Fügt ein Objekt am Boden hinzu, das mit der Steigrate startet.
+     *
+     * @return Der Index des Objekts.
+     */
+    int hinzufuegen(double x, double y, double vx, double vy, double steigrate) {
+        if (anzahl == phase.length) {
+            throw new IllegalStateException("Simulation voll: " + anzahl + " Objekte.");
+        }
+        if (!(steigrate > 0)) {
+            throw new IllegalArgumentException("Steigrate muss positiv sein: " + steigrate);
+        }
+        int i = anzahl++;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.vx[i] = vx;
+        this.vy[i] = vy;
+        this.steigrate[i] = steigrate;
+        this.phase[i] = STEIGEN;
+        return i;
+    }
+
+    /**
+     * Wie {@link Fliegfaehig#landeVorgangStarten()}: Das Objekt sinkt mit der Sinkrate, bis es gelandet ist.
+     */
+    void landeVorgangStarten(int i, double sinkrate) {
+        if (phase[i] != GELANDET) {
+            phase[i] = LANDEANFLUG;
+            steigrate[i] = -Math.abs(sinkrate);
+        }
+    }
+
+    /** Ein Tick im aufrufenden Thread. */
+    void tick() {
+        for (int von = 0; von < anzahl; von += BLOCK) {
+            blockRechnen(von, Math.min(anzahl, von + BLOCK));
+        }
+        tick++;
+    }
+
+    /** Ein Tick, die Blöcke verteilt auf den Pool. */
+    void tick(ForkJoinPool pool) {
+        pool.invoke(new BlockAufgabe(0, (anzahl + BLOCK - 1) / BLOCK));
+        tick++;
+    }
+
+    private void blockRechnen(int von, int bis) {
+        double[] x = this.x, y = this.y, vx = this.vx, vy = this.vy, hoehe = this.hoehe, steigrate = this.steigrate;
+        byte[] phase = this.phase;
+        long tickHash = mischen(startwert ^ tick * 0x9E3779B97F4A7C15L);
+        for (int i = von; i < bis; i++) {
+            byte p = phase[i];
+            if (p == GELANDET) {
+                continue;
+            }
+            x[i] += vx[i] * dt;
+            y[i] += vy[i] * dt;
+            double h = hoehe[i] + steigrate[i] * dt;
+            if (p == REISEFLUG) {
+                // Gleichverteilt in [-turbulenz, turbulenz), nur abhängig von Tick und Index
+                h += turbulenz * ((mischen(tickHash + i) >>> 11) * 0x1.0p-52 - 1.0);
+            }
+            if (h >= maxHoehe) {
+                h = maxHoehe;
+                if (p == STEIGEN) {
+                    phase[i] = REISEFLUG;
+                    steigrate[i] = 0;
+                }
+            } else if (h <= 0) {
+                h = 0;
+                if (p == LANDEANFLUG) {
+                    phase[i] = GELANDET;
+                    vx[i] = 0;
+                    vy[i] = 0;
+                    steigrate[i] = 0;
+                }
+            }
+            hoehe[i] = h;
+        }
+    }
+
+    /** Der Finalisierer von SplitMix64. */
+    private static long mischen(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    int anzahl() {
+        return anzahl;
+    }
+
+    long getTick() {
+        return tick;
+    }
+
+    double getX(int i) {
+        return x[i];
+    }
+
+    double getY(int i) {
+        return y[i];
+    }
+
+    double getHoehe(int i) {
+        return hoehe[i];
+    }
+
+    FlugPhase getPhase(int i) {
+        return FlugPhase.values()[phase[i]];
+    }
+
+    /**
+     * @return Anzahl pro Phase und mittlere Höhe, in fester Blockreihenfolge summiert.
+     */
+    Statistik statistik() {
+        long[] proPhase = new long[FlugPhase.values().length];
+        double summe = 0;
+        for (int von = 0; von < anzahl; von += BLOCK) {
+            double block = 0;
+            for (int i = von, bis = Math.min(anzahl, von + BLOCK); i < bis; i++) {
+                proPhase[phase[i]]++;
+                block += hoehe[i];
+            }
+            summe += block;
+        }
+        return new Statistik(proPhase, anzahl == 0 ? 0 : summe / anzahl);
+    }
+
+    /**
+     * @return Ein Hash über alle Spalten, um Läufe bitgenau zu vergleichen.
+     */
+    long pruefsumme() {
+        long hash = 17;
+        for (double[] spalte : new double[][]{x, y, vx, vy, hoehe, steigrate}) {
+            hash = hash * 31 + Arrays.hashCode(Arrays.copyOf(spalte, anzahl));
+        }
+        return hash * 31 + Arrays.hashCode(Arrays.copyOf(phase, anzahl));
+    }
+
+    record Statistik(long[] proPhase, double mittlereHoehe) {
+        long anzahl(FlugPhase phase) {
+            return proPhase[phase.ordinal()];
+        }
+
+        @Override
+        public String toString() {
+            return "Statistik[" + Arrays.toString(FlugPhase.values()) + "=" + Arrays.toString(proPhase)
+                    + ", mittlereHoehe=" + mittlereHoehe + "]";
+        }
+    }
+
+    private final class BlockAufgabe extends RecursiveAction {
+        private final int vonBlock;
+        private final int bisBlock;
+
+        BlockAufgabe(int vonBlock, int bisBlock) {
+            this.vonBlock = vonBlock;
+            this.bisBlock = bisBlock;
+        }
+
+        @Override
+        protected void compute() {
+            if (bisBlock - vonBlock <= 1) {
+                if (bisBlock > vonBlock) {
+                    int von = vonBlock * BLOCK;
+                    blockRechnen(von, Math.min(anzahl, von + BLOCK));
+                }
+                return;
+            }
+            int mitte = (vonBlock + bisBlock) >>> 1;
+            invokeAll(new BlockAufgabe(vonBlock, mitte), new BlockAufgabe(mitte, bisBlock));
+        }
+    }
+
+    public static void main(String[] args) {
+        int anzahl = 1_000_000;
+        FlugSimulation simulation = new FlugSimulation(anzahl, 0.1, 2.0, 42);
+        for (int i = 0; i < anzahl; i++) {
+            simulation.hinzufuegen(i % 1000, i / 1000, 200 + i % 50, 10 - i % 20, 5 + i % 30);
+        }
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int ticks = 3000;
+        long langsamster = 0;
+        long start = System.nanoTime();
+        for (int t = 0; t < ticks; t++) {
+            if (t == 2000) {
+                for (int i = 0; i < anzahl; i += 2) {
+                    simulation.landeVorgangStarten(i, 20);
+                }
+            }
+            long tickStart = System.nanoTime();
+            simulation.tick(pool);
+            langsamster = Math.max(langsamster, System.nanoTime() - tickStart);
+        }
+        long dauer = System.nanoTime() - start;
+        System.out.printf("%d Ticks mit %d Objekten: %.2f ms pro Tick im Mittel, %.2f ms höchstens (%d Threads)%n",
+                ticks, anzahl, dauer / 1e6 / ticks, langsamster / 1e6, pool.getParallelism());
+        System.out.println(simulation.statistik());
+        System.out.println("Prüfsumme: " + Long.toHexString(simulation.pruefsumme()));
+    }
+}
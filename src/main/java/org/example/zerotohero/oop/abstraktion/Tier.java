@@ -1,5 +1,7 @@
 package org.example.zerotohero.oop.abstraktion;
 
+import org.example.zerotohero.ereignis.Ereignisse;
+
 /**
  * Abstraktion bedeutet, komplexe Realität zu vereinfachen, indem man sich auf die wesentlichen Aspekte konzentriert und irrelevante Details ausblendet.
  * In Java wird dies oft durch abstrakte Klassen und Interfaces erreicht.
@@ -31,7 +33,7 @@ public abstract class Tier {
      * Konkrete Methode, die von allen Subklassen geerbt wird.
      */
     public void schlafen() {
-        System.out.println(name + " schläft.");
+        Ereignisse.info("{} schläft.", name);
     }
 
     /**
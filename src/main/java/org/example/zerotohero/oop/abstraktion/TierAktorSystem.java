@@ -0,0 +1,317 @@
+package org.example.zerotohero.oop.abstraktion;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Die Nachrichten, die ein {@link TierAktorSystem.Aktor} versteht.
+ */
+enum Befehl {
+    LAUT_GEBEN, SCHLAFEN, FLIEGEN
+}
+
+/**
+ * Was ein Aktor mit einer Nachricht tut. Läuft für einen Aktor nie gleichzeitig in zwei Threads.
+ */
+@FunctionalInterface
+interface Verhalten {
+    /**
+     * Ruft die passende Methode des Tiers auf; {@code FLIEGEN} nur bei {@link Fliegfaehig}en Tieren.
+     */
+    Verhalten STANDARD = (tier, befehl) -> {
+        switch (befehl) {
+            case LAUT_GEBEN -> tier.lautGeben();
+            case SCHLAFEN -> tier.schlafen();
+            case FLIEGEN -> {
+                if (tier instanceof Fliegfaehig flieger) {
+                    flieger.fliegen();
+                }
+            }
+        }
+    };
+
+    void empfangen(Tier tier, Befehl befehl);
+}
+
+/**
+ * Jedes {@link Tier} als leichtgewichtiger Aktor: ein begrenztes Postfach und keine eigenen Threads.
+ *
+ * Das Postfach ist ein Ring aus {@code int}s (Befehlsnummer + 1, 0 heißt leer) für beliebig viele Sender
+ * und genau einen Leser, wie in der {@code FlottenTelemetrie}. Ein Sender reserviert seinen Platz per CAS
+ * und veröffentlicht ihn mit einem Release-Schreibzugriff. Hat der Aktor danach noch keinen Lauf geplant,
+ * übergibt er ihn dem {@link java.util.concurrent.Executor}. Das kann ein Work-Stealing-{@link ForkJoinPool}
+ * sein oder ein Executor mit einem virtuellen Thread pro Lauf.
+ *
+ * Ein Lauf arbeitet höchstens {@code stapel} Nachrichten ab und gibt den Thread dann frei, damit kein
+ * Aktor andere aushungert. Bleiben Nachrichten übrig, plant er sich neu. Ein volles Postfach lehnt
+ * {@link Aktor#senden} ab; {@link Aktor#sendenMitGegendruck} wartet stattdessen, bis wieder Platz ist.
+ *
+ * Eine Nachricht gilt als verarbeitet, sobald der Aktor sie aus dem Postfach nimmt, auch wenn das
+ * {@link Verhalten} scheitert. Ein {@link Error} wird nach dem Freigeben des Aktors weitergeworfen.
+ */
+final class TierAktorSystem implements AutoCloseable {
+    static final int STANDARD_POSTFACH = 16;
+    static final int STANDARD_STAPEL = 64;
+
+    private static final Befehl[] BEFEHLE = Befehl.values();
+    private static final VarHandle PLATZ = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle NAECHSTE;
+    private static final VarHandle GELESEN;
+    private static final VarHandle GEPLANT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            NAECHSTE = lookup.findVarHandle(Aktor.class, "naechste", long.class);
+            GELESEN = lookup.findVarHandle(Aktor.class, "gelesen", long.class);
+            GEPLANT = lookup.findVarHandle(Aktor.class, "geplant", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final ExecutorService ausfuehrer;
+    private final Verhalten verhalten;
+    private final int postfachGroesse;
+    private final int stapel;
+    private final LongAdder gesendet = new LongAdder();
+    private final LongAdder verarbeitet = new LongAdder();
+    private final LongAdder abgewiesen = new LongAdder();
+    private final LongAdder fehler = new LongAdder();
+    private volatile boolean geschlossen;
+
+    /**
+     * @param ausfuehrer Führt die Läufe der Aktoren aus und wird von {@link #close()} beendet.
+     * @param verhalten Was die Aktoren mit ihren Nachrichten tun.
+     * @param postfachGroesse Plätze pro Postfach, wird auf eine Zweierpotenz aufgerundet.
+     * @param stapel Nachrichten pro Lauf höchstens.
+     */
+    TierAktorSystem(ExecutorService ausfuehrer, Verhalten verhalten, int postfachGroesse, int stapel) {
+        this.ausfuehrer = ausfuehrer;
+        this.verhalten = verhalten;
+        this.postfachGroesse = postfachGroesse <= 1 ? 1 : Integer.highestOneBit(postfachGroesse - 1) << 1;
+        this.stapel = stapel;
+    }
+
+    /** Läufe auf einem eigenen Work-Stealing-Pool im FIFO-Modus. */
+    static TierAktorSystem mitForkJoinPool(Verhalten verhalten) {
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        return new TierAktorSystem(pool, verhalten, STANDARD_POSTFACH, STANDARD_STAPEL);
+    }
+
+    /** Jeder Lauf in einem eigenen virtuellen Thread. */
+    static TierAktorSystem mitVirtuellenThreads(Verhalten verhalten) {
+        return new TierAktorSystem(Executors.newVirtualThreadPerTaskExecutor(), verhalten, STANDARD_POSTFACH, STANDARD_STAPEL);
+    }
+
+    Aktor erzeugen(Tier tier) {
+        return new Aktor(tier, new int[postfachGroesse]);
+    }
+
+    /**
+     * Wartet, bis alle angenommenen Nachrichten verarbeitet sind. Darf nicht aus einem Aktor heraus
+     * aufgerufen werden.
+     */
+    void leeren() {
+        int runden = 0;
+        while (verarbeitet.sum() < gesendet.sum()) {
+            if (++runden < 100) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    long getVerarbeitet() {
+        return verarbeitet.sum();
+    }
+
+    /**
+     * @return Wie oft {@link Aktor#senden} an einem vollen Postfach gescheitert ist.
+     */
+    long getAbgewiesen() {
+        return abgewiesen.sum();
+    }
+
+    /**
+     * @return Nachrichten, bei denen das {@link Verhalten} eine Ausnahme geworfen hat.
+     */
+    long getFehler() {
+        return fehler.sum();
+    }
+
+    /**
+     * Nimmt keine Nachrichten mehr an und wartet, bis der Ausführer die laufenden Aktoren beendet hat.
+     */
+    @Override
+    public void close() {
+        geschlossen = true;
+        ausfuehrer.shutdown();
+        try {
+            ausfuehrer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Ein Tier mit Postfach. Etwa 48 Bytes plus {@code 4 * postfachGroesse} Bytes für den Ring.
+     */
+    final class Aktor implements Runnable {
+        private final Tier tier;
+        private final int[] postfach;
+        @SuppressWarnings("unused") // über NAECHSTE
+        private volatile long naechste;
+        @SuppressWarnings("unused") // über GELESEN
+        private volatile long gelesen;
+        @SuppressWarnings("unused") // über GEPLANT
+        private volatile int geplant;
+
+        private Aktor(Tier tier, int[] postfach) {
+            this.tier = tier;
+            this.postfach = postfach;
+        }
+
+        Tier getTier() {
+            return tier;
+        }
+
+        /**
+         * Legt die Nachricht ins Postfach.
+         *
+         * @return {@code false}, wenn das Postfach voll war.
+         * @throws IllegalStateException Wenn das System geschlossen ist.
+         */
+        boolean senden(Befehl befehl) {
+            if (geschlossen) {
+                throw new IllegalStateException("Aktorsystem ist geschlossen.");
+            }
+            long sequenz;
+            do {
+                sequenz = (long) NAECHSTE.getVolatile(this);
+                if (sequenz - (long) GELESEN.getAcquire(this) >= postfach.length) {
+                    abgewiesen.increment();
+                    return false;
+                }
+            } while (!NAECHSTE.compareAndSet(this, sequenz, sequenz + 1));
+            PLATZ.setRelease(postfach, (int) (sequenz & (postfach.length - 1)), befehl.ordinal() + 1);
+            gesendet.increment();
+            planen();
+            return true;
+        }
+
+        /**
+         * Wie {@link #senden}, wartet bei vollem Postfach aber, bis der Aktor Platz geschaffen hat. Nicht
+         * aus einem Aktor heraus aufrufen, der auf einen einzigen Plattform-Thread angewiesen ist.
+         */
+        void sendenMitGegendruck(Befehl befehl) {
+            int runden = 0;
+            while (!senden(befehl)) {
+                if (++runden < 50) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield(); // gibt bei virtuellen Threads den Träger-Thread frei
+                }
+            }
+        }
+
+        /**
+         * Übergibt den Aktor dem Ausführer, falls er noch nicht geplant ist. Lehnt der Ausführer ab, weil er
+         * gerade beendet wird, läuft der Aktor im aufrufenden Thread, damit keine angenommene Nachricht liegen
+         * bleibt.
+         */
+        private void planen() {
+            if ((int) GEPLANT.getVolatile(this) == 0 && GEPLANT.compareAndSet(this, 0, 1)) {
+                try {
+                    ausfuehrer.execute(this);
+                } catch (RejectedExecutionException e) {
+                    run();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int[] ring = postfach;
+            int maske = ring.length - 1;
+            long kopf = (long) GELESEN.getOpaque(this);
+            int anzahl = 0;
+            try {
+                while (anzahl < stapel) {
+                    int index = (int) (kopf & maske);
+                    int code = (int) PLATZ.getAcquire(ring, index);
+                    if (code == 0) {
+                        break; // noch nicht veröffentlicht
+                    }
+                    ring[index] = 0;
+                    kopf++;
+                    anzahl++;
+                    try {
+                        verhalten.empfangen(tier, BEFEHLE[code - 1]);
+                    } catch (RuntimeException e) {
+                        fehler.increment();
+                    } catch (Error e) {
+                        fehler.increment();
+                        throw e;
+                    }
+                }
+            } finally {
+                // Auch bei einem Error: sonst bliebe geplant == 1 und der Aktor nähme nie wieder Nachrichten an
+                if (anzahl > 0) {
+                    GELESEN.setRelease(this, kopf);
+                    verarbeitet.add(anzahl);
+                }
+                // Erst freigeben, dann nachsehen: ein Sender, der danach kommt, sieht geplant == 0 und plant selbst
+                GEPLANT.setVolatile(this, 0);
+                if ((long) NAECHSTE.getVolatile(this) != kopf) {
+                    planen();
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        int tiere = 1_000_000;
+        int nachrichten = 10_000_000;
+        LongAdder laute = new LongAdder();
+        Verhalten zaehlen = (tier, befehl) -> laute.increment();
+
+        for (String art : new String[]{"ForkJoinPool", "virtuelle Threads"}) {
+            try (TierAktorSystem system = art.equals("ForkJoinPool") ? mitForkJoinPool(zaehlen) : mitVirtuellenThreads(zaehlen)) {
+                Runtime laufzeit = Runtime.getRuntime();
+                System.gc();
+                long vorher = laufzeit.totalMemory() - laufzeit.freeMemory();
+                List<Aktor> aktoren = new ArrayList<>(tiere);
+                for (int i = 0; i < tiere; i++) {
+                    Tier tier = switch (i % 3) {
+                        case 0 -> new Hund("Hund" + i);
+                        case 1 -> new Katze("Katze" + i);
+                        default -> new Vogel("Vogel" + i);
+                    };
+                    aktoren.add(system.erzeugen(tier));
+                }
+                System.gc();
+                long nachher = laufzeit.totalMemory() - laufzeit.freeMemory();
+
+                long start = System.nanoTime();
+                for (int i = 0; i < nachrichten; i++) {
+                    aktoren.get(i % tiere).sendenMitGegendruck(Befehl.LAUT_GEBEN);
+                }
+                system.leeren();
+                long dauer = System.nanoTime() - start;
+                System.out.printf("%s: %d Aktoren (%.0f Bytes pro Tier mit Aktor), %d Nachrichten in %.0f ms: %.1f Mio. Nachrichten/s%n",
+                        art, tiere, (double) (nachher - vorher) / tiere, nachrichten, dauer / 1e6, nachrichten * 1e3 / dauer);
+            }
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package org.example.zerotohero.oop.kapselung;
 // Kapselung
 
+import org.example.zerotohero.ereignis.Ereignisse;
+import org.example.zerotohero.metriken.KontoMetriken;
+import org.example.zerotohero.metriken.KontoMetriken.Ergebnis;
+import org.example.zerotohero.metriken.KontoMetriken.Operation;
+
 /**
  * Kapselung bedeutet, die Daten (Attribute) eines Objekts vor direktem Zugriff von außen zu schützen und
  * den Zugriff nur über definierte Schnittstellen (Methoden) zu erlauben. Dies erhöht die Sicherheit und
@@ -8,6 +13,8 @@ package org.example.zerotohero.oop.kapselung;
  */
 public class BankKonto {
 
+        private static final KontoMetriken METRIKEN = KontoMetriken.standard();
+
         private double kontostand; // Gekapseltes Attribut
 
         /**
@@ -39,11 +46,14 @@ public class BankKonto {
          * @param betrag Der einzuzahlende Betrag. Muss positiv sein.
          */
         public void einzahlen(double betrag) {
+            long start = KontoMetriken.start();
             if (betrag > 0) {
                 this.kontostand += betrag;
-                System.out.println(betrag + " EUR eingezahlt. Neuer Kontostand: " + this.kontostand + " EUR");
+                METRIKEN.erfassen(Operation.EINZAHLUNG, Ergebnis.ERFOLG, start);
+                Ereignisse.info("{} EUR eingezahlt. Neuer Kontostand: {} EUR", betrag, this.kontostand);
             } else {
-                System.out.println("Der Einzahlungsbetrag muss positiv sein.");
+                METRIKEN.erfassen(Operation.EINZAHLUNG, Ergebnis.UNGUELTIGER_BETRAG, start);
+                Ereignisse.warnung("Der Einzahlungsbetrag muss positiv sein.");
             }
         }
 
@@ -53,13 +63,17 @@ public class BankKonto {
          * @param betrag Der abzuhebende Betrag. Muss positiv sein.
          */
         public void abheben(double betrag) {
+            long start = KontoMetriken.start();
             if (betrag <= 0) {
-                System.out.println("Der Abhebungsbetrag muss positiv sein.");
+                METRIKEN.erfassen(Operation.ABHEBUNG, Ergebnis.UNGUELTIGER_BETRAG, start);
+                Ereignisse.warnung("Der Abhebungsbetrag muss positiv sein.");
             } else if (this.kontostand >= betrag) {
                 this.kontostand -= betrag;
-                System.out.println(betrag + " EUR abgehoben. Neuer Kontostand: " + this.kontostand + " EUR");
+                METRIKEN.erfassen(Operation.ABHEBUNG, Ergebnis.ERFOLG, start);
+                Ereignisse.info("{} EUR abgehoben. Neuer Kontostand: {} EUR", betrag, this.kontostand);
             } else {
-                System.out.println("Nicht genügend Guthaben vorhanden. Abhebung von " + betrag + " EUR nicht möglich.");
+                METRIKEN.erfassen(Operation.ABHEBUNG, Ergebnis.UNGENUEGENDE_DECKUNG, start);
+                Ereignisse.warnung("Nicht genügend Guthaben vorhanden. Abhebung von {} EUR nicht möglich.", betrag);
             }
         }
 
@@ -0,0 +1,57 @@
+package org.example.zerotohero.oop.kapselung;
+
+/**
+ * Leichtgewichtige Ansicht (Flyweight) auf ein Konto in einem {@link KontoSpeicher}.
+ *
+ * Bietet dieselbe Schnittstelle wie {@link BankKonto}, hält selbst aber keinen Kontostand,
+ * sondern nur den Speicher und die Kontonummer. Ansichten können jederzeit neu erzeugt und
+ * wieder verworfen werden.
+ */
+public final class BankKontoAnsicht {
+
+    private final KontoSpeicher speicher;
+    private final int kontoId;
+
+    BankKontoAnsicht(KontoSpeicher speicher, int kontoId) {
+        this.speicher = speicher;
+        this.kontoId = kontoId;
+    }
+
+    /**
+     * Gibt die Kontonummer zurück.
+     *
+     * @return Die Kontonummer im Speicher.
+     */
+    public int getKontoId() {
+        return kontoId;
+    }
+
+    /**
+     * Gibt den aktuellen Kontostand zurück.
+     *
+     * @return Der aktuelle Kontostand in EUR.
+     */
+    public double getKontostand() {
+        return speicher.getKontostand(kontoId);
+    }
+
+    /**
+     * Zahlt einen Betrag auf das Konto ein.
+     *
+     * @param betrag Der einzuzahlende Betrag in EUR. Muss positiv sein.
+     * @return {@code true}, wenn die Einzahlung verbucht wurde.
+     */
+    public boolean einzahlen(double betrag) {
+        return speicher.einzahlen(kontoId, betrag);
+    }
+
+    /**
+     * Hebt einen Betrag ab, falls ausreichend Deckung vorhanden ist.
+     *
+     * @param betrag Der abzuhebende Betrag in EUR. Muss positiv sein.
+     * @return {@code true}, wenn die Abhebung verbucht wurde.
+     */
+    public boolean abheben(double betrag) {
+        return speicher.abheben(kontoId, betrag);
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.zerotohero.oop.kapselung;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-sichere Variante von {@link BankKonto} mit derselben Schnittstelle
+ * ({@code einzahlen}, {@code abheben}, {@code getKontostand}).
+ *
+ * Der Kontostand wird als Festkommazahl in Cent ({@code long}) gehalten und nur über
+ * atomare Operationen (Compare-and-Set) verändert. Es gibt keine Sperre: Threads, die auf
+ * verschiedene Konten zugreifen, behindern sich nicht, und eine Abhebung wird nur verbucht,
+ * wenn die Deckung im Moment des CAS ausreicht. Das Konto kann also auch unter Konkurrenz
+ * nie ins Minus geraten.
+ */
+public class KonkurrentesBankKonto {
+
+    private static final VarHandle KONTOSTAND_CENT;
+
+    static {
+        try {
+            KONTOSTAND_CENT = MethodHandles.lookup()
+                    .findVarHandle(KonkurrentesBankKonto.class, "kontostandCent", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long kontostandCent; // Gekapseltes Attribut, nur per VarHandle verändert
+
+    /**
+     * Konstruktor für ein thread-sicheres Bankkonto.
+     * Ein negativer Anfangsbetrag wird wie bei {@link BankKonto} auf 0 gesetzt.
+     *
+     * @param initialerKontostand Der anfängliche Kontostand in EUR.
+     */
+    public KonkurrentesBankKonto(double initialerKontostand) {
+        long cent = inCent(initialerKontostand);
+        this.kontostandCent = Math.max(cent, 0);
+    }
+
+    /**
+     * Gibt den aktuellen Kontostand zurück.
+     *
+     * @return Der aktuelle Kontostand in EUR.
+     */
+    public double getKontostand() {
+        return kontostandCent / 100.0;
+    }
+
+    /**
+     * Gibt den aktuellen Kontostand in Cent zurück.
+     *
+     * @return Der aktuelle Kontostand in Cent.
+     */
+    public long getKontostandCent() {
+        return kontostandCent;
+    }
+
+    /**
+     * Zahlt einen Betrag atomar auf das Konto ein. Eine Einzahlung, nach der der Kontostand nicht mehr
+     * in einen {@code long} passen würde, wird abgelehnt, statt ins Negative überzulaufen.
+     *
+     * @param betrag Der einzuzahlende Betrag in EUR. Muss positiv sein.
+     * @return {@code true}, wenn die Einzahlung verbucht wurde.
+     */
+    public boolean einzahlen(double betrag) {
+        long cent = inCent(betrag);
+        if (cent <= 0) {
+            return false;
+        }
+        long stand;
+        do {
+            stand = kontostandCent;
+            if (stand > Long.MAX_VALUE - cent) {
+                return false; // Kontostand würde überlaufen
+            }
+        } while (!KONTOSTAND_CENT.weakCompareAndSet(this, stand, stand + cent));
+        return true;
+    }
+
+    /**
+     * Hebt einen Betrag ab, falls ausreichend Deckung vorhanden ist.
+     * Die Prüfung und das Abbuchen erfolgen in einem einzigen CAS, bei Konkurrenz wird wiederholt.
+     *
+     * @param betrag Der abzuhebende Betrag in EUR. Muss positiv sein.
+     * @return {@code true}, wenn die Abhebung verbucht wurde.
+     */
+    public boolean abheben(double betrag) {
+        long cent = inCent(betrag);
+        if (cent <= 0) {
+            return false;
+        }
+        long stand;
+        do {
+            stand = kontostandCent;
+            if (stand < cent) {
+                return false; // Nicht genügend Guthaben
+            }
+        } while (!KONTOSTAND_CENT.weakCompareAndSet(this, stand, stand - cent));
+        return true;
+    }
+
+    /**
+     * Rechnet einen Betrag in EUR in ganze Cent um (kaufmännisch gerundet).
+     * Nicht endliche Beträge ergeben 0 und werden damit von allen Operationen abgelehnt.
+     *
+     * @param betrag Der Betrag in EUR.
+     * @return Der Betrag in Cent.
+     */
+    public static long inCent(double betrag) {
+        if (!Double.isFinite(betrag)) {
+            return 0;
+        }
+        return Math.round(betrag * 100.0);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        KonkurrentesBankKonto konto = new KonkurrentesBankKonto(100.0);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+
+        // 4 Threads versuchen gleichzeitig je 50 x 1 EUR abzuheben – nur 100 Abhebungen dürfen gelingen
+        for (int t = 0; t < 4; t++) {
+            pool.submit(() -> {
+                for (int i = 0; i < 50; i++) {
+                    konto.abheben(1.0);
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+
+        System.out.println("Kontostand nach konkurrierenden Abhebungen: " + konto.getKontostand() + " EUR");
+    }
+}
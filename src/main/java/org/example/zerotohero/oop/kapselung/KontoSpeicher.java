@@ -0,0 +1,348 @@
+package org.example.zerotohero.oop.kapselung;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.ref.Reference;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Speicher für sehr viele Konten in einer JVM.
+ *
+ * Statt eines {@link BankKonto}-Objekts pro Konto liegen alle Kontostände als Cent-Beträge in
+ * primitiven {@code long[]}-Shards mit je {@value #SHARD_GROESSE} Einträgen. Die Kontonummer ist
+ * ein {@code int} und bestimmt Shard und Position direkt, es gibt also weder Objekt-Header pro Konto
+ * noch geboxte Map-Einträge. Buchungen erfolgen wie bei {@link KonkurrentesBankKonto} per CAS auf
+ * dem einzelnen Array-Element, sodass parallele Zugriffe auf verschiedene Konten sich nicht sperren.
+ *
+ * Über {@link #konto(int)} erhält man eine leichtgewichtige {@link BankKontoAnsicht} mit der
+ * gewohnten Schnittstelle {@code einzahlen}/{@code abheben}/{@code getKontostand}.
+ *
+ * {@link #anlegen} legt bei Bedarf den Shard an, reserviert erst dann eine Kontonummer, schreibt den
+ * Anfangsstand und veröffentlicht das Konto danach über {@link #anzahlKonten()}. Wer bis {@code anzahlKonten()} liest,
+ * sieht daher nur fertig angelegte Konten. Veröffentlicht wird in Nummernfolge: Ein Thread wartet kurz, bis
+ * alle kleineren, schon reservierten Nummern angelegt sind.
+ */
+public class KontoSpeicher {
+
+    static final int SHARD_BITS = 20;
+    static final int SHARD_GROESSE = 1 << SHARD_BITS; // 1.048.576 Konten = 8 MiB pro Shard
+    private static final int SHARD_MASKE = SHARD_GROESSE - 1;
+
+    private static final VarHandle ELEMENT = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private volatile long[][] shards = new long[0][];
+    private final AtomicInteger reserviert = new AtomicInteger();
+    private final AtomicInteger anzahlKonten = new AtomicInteger(); // Veröffentlicht: Konten 0 .. anzahlKonten - 1
+    private final Object wachstumsSperre = new Object();
+
+    /**
+     * Legt ein neues Konto an.
+     *
+     * @param initialerKontostand Der anfängliche Kontostand in EUR. Negative Werte werden auf 0 gesetzt.
+     * @return Die Kontonummer des neuen Kontos.
+     */
+    public int anlegen(double initialerKontostand) {
+        long cent = Math.max(KonkurrentesBankKonto.inCent(initialerKontostand), 0);
+        int kontoId;
+        long[] shard;
+        do {
+            kontoId = reserviert.get();
+            if (kontoId == Integer.MAX_VALUE) {
+                throw new IllegalStateException("Maximale Anzahl an Konten erreicht.");
+            }
+            // Vor dem Reservieren: Scheitert das Anlegen des Shards (OutOfMemoryError), ist noch keine Nummer
+            // vergeben, auf deren Veröffentlichung alle späteren Konten warten müssten
+            shard = shardFuer(kontoId);
+        } while (!reserviert.compareAndSet(kontoId, kontoId + 1));
+        ELEMENT.setVolatile(shard, kontoId & SHARD_MASKE, cent);
+        veroeffentlichen(kontoId);
+        return kontoId;
+    }
+
+    /**
+     * Hebt {@code anzahlKonten} auf {@code kontoId + 1}, sobald alle kleineren Nummern veröffentlicht sind.
+     * Hat {@link #setzenCent} oder {@link #ladenCent} die Nummer schon veröffentlicht, ist nichts zu tun.
+     */
+    private void veroeffentlichen(int kontoId) {
+        int runden = 0;
+        while (true) {
+            int veroeffentlicht = anzahlKonten.get();
+            if (veroeffentlicht > kontoId
+                    || (veroeffentlicht == kontoId && anzahlKonten.compareAndSet(kontoId, kontoId + 1))) {
+                return;
+            }
+            if (++runden < 100) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Setzt den Kontostand eines Kontos direkt, z. B. beim Laden aus einer Sicherung.
+     * Existiert das Konto noch nicht, wird der Speicher bis zu dieser Kontonummer erweitert. Nicht für
+     * Konten gedacht, die gleichzeitig über {@link #anlegen} entstehen.
+     *
+     * @param kontoId Die Kontonummer.
+     * @param cent Der Kontostand in Cent.
+     */
+    public void setzenCent(int kontoId, long cent) {
+        if (kontoId < 0) {
+            throw new IllegalArgumentException("Ungültige Kontonummer: " + kontoId);
+        }
+        reserviert.accumulateAndGet(kontoId + 1, Math::max);
+        ELEMENT.setVolatile(shardFuer(kontoId), kontoId & SHARD_MASKE, cent);
+        anzahlKonten.accumulateAndGet(kontoId + 1, Math::max);
+    }
+
+    /**
+     * Lädt Kontostände blockweise, z. B. aus einem Snapshot. Das erste Konto erhält die Nummer
+     * {@code abKontoId}, die folgenden fortlaufende Nummern. Nicht für Konten gedacht,
+     * auf die gleichzeitig gebucht wird.
+     *
+     * @param abKontoId Die Kontonummer des ersten Eintrags.
+     * @param cent Die Kontostände in Cent; wird bis zum Ende gelesen.
+     */
+    public void ladenCent(int abKontoId, LongBuffer cent) {
+        int anzahl = cent.remaining();
+        if (anzahl == 0) {
+            return;
+        }
+        int letzte = Math.addExact(abKontoId, anzahl - 1);
+        reserviert.accumulateAndGet(letzte + 1, Math::max);
+        shardFuer(letzte); // Legt alle Shards bis zur letzten Kontonummer an
+        long[][] aktuell = shards;
+        int kontoId = abKontoId;
+        while (cent.hasRemaining()) {
+            int index = kontoId & SHARD_MASKE;
+            int laenge = Math.min(SHARD_GROESSE - index, cent.remaining());
+            cent.get(aktuell[kontoId >>> SHARD_BITS], index, laenge);
+            kontoId += laenge;
+        }
+        anzahlKonten.accumulateAndGet(letzte + 1, Math::max); // Volatiles Schreiben veröffentlicht die Werte
+    }
+
+    /**
+     * Kopiert Kontostände blockweise, z. B. für einen Snapshot. Die Werte einzelner Konten sind
+     * aktuell, die Kopie als Ganzes ist aber nur dann konsistent, wenn nicht gleichzeitig gebucht wird.
+     *
+     * @param abKontoId Die Kontonummer des ersten zu kopierenden Kontos.
+     * @param ziel Nimmt so viele Kontostände in Cent auf, wie Platz ist.
+     */
+    public void kopierenCent(int abKontoId, LongBuffer ziel) {
+        if (abKontoId < 0 || (long) abKontoId + ziel.remaining() > anzahlKonten.get()) {
+            throw new IllegalArgumentException("Bereich ab Konto " + abKontoId + " ist größer als der Speicher.");
+        }
+        long[][] aktuell = shards;
+        int kontoId = abKontoId;
+        while (ziel.hasRemaining()) {
+            int index = kontoId & SHARD_MASKE;
+            int laenge = Math.min(SHARD_GROESSE - index, ziel.remaining());
+            ziel.put(aktuell[kontoId >>> SHARD_BITS], index, laenge);
+            kontoId += laenge;
+        }
+    }
+
+    /**
+     * Gibt die Anzahl der angelegten Konten zurück. Kontonummern laufen von 0 bis {@code anzahlKonten() - 1}.
+     *
+     * @return Die Anzahl der Konten.
+     */
+    public int anzahlKonten() {
+        return anzahlKonten.get();
+    }
+
+    /**
+     * Gibt den Kontostand eines Kontos zurück.
+     *
+     * @param kontoId Die Kontonummer.
+     * @return Der Kontostand in EUR.
+     */
+    public double getKontostand(int kontoId) {
+        return getKontostandCent(kontoId) / 100.0;
+    }
+
+    /**
+     * Gibt den Kontostand eines Kontos in Cent zurück.
+     *
+     * @param kontoId Die Kontonummer.
+     * @return Der Kontostand in Cent.
+     */
+    public long getKontostandCent(int kontoId) {
+        return (long) ELEMENT.getVolatile(shard(kontoId), kontoId & SHARD_MASKE);
+    }
+
+    /**
+     * Zahlt einen Betrag auf ein Konto ein.
+     *
+     * @param kontoId Die Kontonummer.
+     * @param betrag Der einzuzahlende Betrag in EUR. Muss positiv sein.
+     * @return {@code true}, wenn die Einzahlung verbucht wurde.
+     */
+    public boolean einzahlen(int kontoId, double betrag) {
+        return einzahlenCent(kontoId, KonkurrentesBankKonto.inCent(betrag));
+    }
+
+    /**
+     * Zahlt einen Betrag in Cent auf ein Konto ein.
+     *
+     * @param kontoId Die Kontonummer.
+     * @param cent Der einzuzahlende Betrag in Cent. Muss positiv sein.
+     * @return {@code true}, wenn die Einzahlung verbucht wurde; {@code false} auch, wenn der Kontostand
+     * überlaufen würde.
+     */
+    public boolean einzahlenCent(int kontoId, long cent) {
+        long[] shard = shard(kontoId);
+        if (cent <= 0) {
+            return false;
+        }
+        int index = kontoId & SHARD_MASKE;
+        long stand;
+        do {
+            stand = (long) ELEMENT.getVolatile(shard, index);
+            if (stand > Long.MAX_VALUE - cent) {
+                return false; // Kontostand würde überlaufen
+            }
+        } while (!ELEMENT.weakCompareAndSet(shard, index, stand, stand + cent));
+        return true;
+    }
+
+    /**
+     * Hebt einen Betrag von einem Konto ab, falls ausreichend Deckung vorhanden ist.
+     *
+     * @param kontoId Die Kontonummer.
+     * @param betrag Der abzuhebende Betrag in EUR. Muss positiv sein.
+     * @return {@code true}, wenn die Abhebung verbucht wurde.
+     */
+    public boolean abheben(int kontoId, double betrag) {
+        return abhebenCent(kontoId, KonkurrentesBankKonto.inCent(betrag));
+    }
+
+    /**
+     * Hebt einen Betrag in Cent ab, falls ausreichend Deckung vorhanden ist.
+     * Prüfung und Abbuchung erfolgen in einem CAS, das Konto wird nie überzogen.
+     *
+     * @param kontoId Die Kontonummer.
+     * @param cent Der abzuhebende Betrag in Cent. Muss positiv sein.
+     * @return {@code true}, wenn die Abhebung verbucht wurde.
+     */
+    public boolean abhebenCent(int kontoId, long cent) {
+        long[] shard = shard(kontoId);
+        if (cent <= 0) {
+            return false;
+        }
+        int index = kontoId & SHARD_MASKE;
+        long stand;
+        do {
+            stand = (long) ELEMENT.getVolatile(shard, index);
+            if (stand < cent) {
+                return false; // Nicht genügend Guthaben
+            }
+        } while (!ELEMENT.weakCompareAndSet(shard, index, stand, stand - cent));
+        return true;
+    }
+
+    /**
+     * Bucht einen Betrag in Cent ohne Deckungsprüfung, z. B. beim Nachspielen eines Journals
+     * oder zum Rückgängigmachen einer Buchung. Negative Beträge sind erlaubt.
+     *
+     * @param kontoId Die Kontonummer.
+     * @param deltaCent Die Änderung des Kontostands in Cent.
+     */
+    public void buchenCent(int kontoId, long deltaCent) {
+        ELEMENT.getAndAdd(shard(kontoId), kontoId & SHARD_MASKE, deltaCent);
+    }
+
+    /**
+     * Gibt eine leichtgewichtige Ansicht auf ein Konto zurück.
+     * Die Ansicht hält nur den Speicher und die Kontonummer, der Kontostand bleibt im Speicher.
+     *
+     * @param kontoId Die Kontonummer.
+     * @return Die Ansicht auf das Konto.
+     */
+    public BankKontoAnsicht konto(int kontoId) {
+        shard(kontoId); // Prüft, ob das Konto existiert
+        return new BankKontoAnsicht(this, kontoId);
+    }
+
+    private long[] shard(int kontoId) {
+        if (kontoId < 0 || kontoId >= anzahlKonten.get()) {
+            throw new IllegalArgumentException("Unbekannte Kontonummer: " + kontoId);
+        }
+        return shards[kontoId >>> SHARD_BITS];
+    }
+
+    private long[] shardFuer(int kontoId) {
+        int shardIndex = kontoId >>> SHARD_BITS;
+        long[][] aktuell = shards;
+        if (shardIndex < aktuell.length) {
+            return aktuell[shardIndex];
+        }
+        synchronized (wachstumsSperre) {
+            aktuell = shards;
+            if (shardIndex >= aktuell.length) {
+                long[][] neu = Arrays.copyOf(aktuell, shardIndex + 1);
+                for (int i = aktuell.length; i < neu.length; i++) {
+                    neu[i] = new long[SHARD_GROESSE];
+                }
+                shards = neu;
+                aktuell = neu;
+            }
+            return aktuell[shardIndex];
+        }
+    }
+
+    /**
+     * Misst den Heap-Verbrauch pro Konto: ein {@link BankKonto} pro Konto in einer
+     * {@code HashMap<Long, BankKonto>}, nur {@link BankKonto}-Objekte in einem Array und der {@link KontoSpeicher}.
+     * Optionales Argument: Anzahl der Konten (Standard 1.000.000).
+     */
+    public static void main(String[] args) {
+        int anzahl = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        System.out.println("Heap-Verbrauch für " + anzahl + " Konten:");
+
+        long vorher = belegterHeap();
+        Map<Long, BankKonto> kontenMap = new HashMap<>();
+        for (int i = 0; i < anzahl; i++) {
+            kontenMap.put((long) i, new BankKonto(i % 1000));
+        }
+        berichten("HashMap<Long, BankKonto>", belegterHeap() - vorher, anzahl);
+        Reference.reachabilityFence(kontenMap); // Die Map muss während der Messung erreichbar bleiben
+        kontenMap = null;
+
+        vorher = belegterHeap();
+        BankKonto[] kontenArray = new BankKonto[anzahl];
+        for (int i = 0; i < anzahl; i++) {
+            kontenArray[i] = new BankKonto(i % 1000);
+        }
+        berichten("BankKonto[]", belegterHeap() - vorher, anzahl);
+        Reference.reachabilityFence(kontenArray);
+        kontenArray = null;
+
+        vorher = belegterHeap();
+        KontoSpeicher speicher = new KontoSpeicher();
+        for (int i = 0; i < anzahl; i++) {
+            speicher.anlegen(i % 1000);
+        }
+        berichten("KontoSpeicher", belegterHeap() - vorher, anzahl);
+        Reference.reachabilityFence(speicher);
+        System.out.println("Konten im Speicher: " + speicher.anzahlKonten());
+    }
+
+    private static void berichten(String modell, long bytes, int anzahl) {
+        System.out.printf("  %-26s %,14d Bytes  (%.1f Bytes pro Konto)%n", modell, bytes, (double) bytes / anzahl);
+    }
+
+    private static long belegterHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -1,5 +1,7 @@
 package org.example.zerotohero.oop.vererbung;
 
+import org.example.zerotohero.ereignis.Ereignisse;
+
 /**
  * ererbung ermöglicht es, eine neue Klasse (Subklasse oder abgeleitete Klasse) auf Basis
  * einer bestehenden Klasse (Superklasse oder Basisklasse) zu erstellen. Die Subklasse erbt
@@ -41,14 +43,14 @@ public class Fahrzeug {
      * Diese Methode kann von Subklassen überschrieben werden.
      */
     public void starten() {
-        System.out.println("Das Fahrzeug startet.");
+        Ereignisse.info("Das Fahrzeug startet.");
     }
 
     /**
      * Stoppt das Fahrzeug.
      */
     public void stoppen() {
-        System.out.println("Das Fahrzeug stoppt.");
+        Ereignisse.info("Das Fahrzeug stoppt.");
     }
 }
 
@@ -84,14 +86,14 @@ class Auto extends Fahrzeug {
      */
     @Override // Annotation zeigt an, dass diese Methode eine Superklassen-Methode überschreibt
     public void starten() {
-        System.out.println("Das Auto der Marke " + super.getMarke() + " startet den Motor.");
+        Ereignisse.info("Das Auto der Marke {} startet den Motor.", super.getMarke());
     }
 
     /**
      * Spezifische Methode für die Klasse Auto.
      */
     public void kofferraumOeffnen() {
-        System.out.println("Der Kofferraum des Autos wird geöffnet.");
+        Ereignisse.info("Der Kofferraum des Autos wird geöffnet.");
     }
 
     public static void main(String[] args) {
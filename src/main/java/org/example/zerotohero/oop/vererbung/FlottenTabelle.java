@@ -0,0 +1,360 @@
+package org.example.zerotohero.oop.vererbung;
+
+import org.example.zerotohero.exceptions.throwsx.VorzeichenloserBereich;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Die Spalten einer {@link FlottenTabelle}. Fahrzeuge ohne Türen (keine {@link Auto}s) haben 0 Türen.
+ */
+enum FlottenSpalte {
+    MARKE, BAUJAHR, TUEREN
+}
+
+/**
+ * Eine Zeile im Ergebnis von {@link FlottenTabelle.Abfrage#ausfuehren()}.
+ *
+ * @param schluessel Die Werte der Gruppierungsspalten, die Marke als {@code String}, sonst {@code Integer}.
+ * @param anzahl Die Anzahl der Fahrzeuge in der Gruppe.
+ * @param summe Die Summe der summierten Spalte, 0 ohne {@link FlottenTabelle.Abfrage#summieren}.
+ */
+record FlottenGruppe(List<Object> schluessel, long anzahl, long summe) {
+}
+
+/**
+ * Fahrzeuge als Spalten statt als Objekte: die Marke über ein {@link Verzeichnis} als Nummer kodiert,
+ * Baujahr und Türen als {@code int}-Spalten. Eine Abfrage filtert, gruppiert und zählt, ohne ein
+ * einziges Fahrzeugobjekt anzufassen.
+ *
+ * Die Filter werden wie im {@code MassenValidator} mit {@link VorzeichenloserBereich} ohne Verzweigung für
+ * je 64 Zeilen zu einem Bitwort ausgewertet, danach werden nur die gesetzten Bits gruppiert. Der
+ * Gruppenschlüssel ist ein dichter Index aus den Wertebereichen der Gruppierungsspalten; gezählt wird in
+ * {@code long}-Arrays statt in einer Map.
+ * Große Tabellen werden in Abschnitten parallel auf einem {@link ForkJoinPool} ausgewertet. Jeder beteiligte
+ * Thread zählt alle seine Abschnitte in dieselben Arrays, am Ende werden nur diese einmal addiert.
+ *
+ * {@link #hinzufuegen} ist nicht threadsicher; Abfragen dürfen parallel laufen, solange nichts hinzukommt.
+ */
+final class FlottenTabelle {
+    /** Zeilen pro paralleler Teilaufgabe mindestens. */
+    static final int MIN_ABSCHNITT = 1 << 16;
+    /** Die größte Anzahl möglicher Gruppen einer Abfrage. */
+    static final int MAX_GRUPPEN = 1 << 20;
+
+    private final Verzeichnis<String> marken = new Verzeichnis<>(Integer.MAX_VALUE);
+    private int[] marke = new int[16];
+    private int[] baujahr = new int[16];
+    private int[] tueren = new int[16];
+    private int anzahl;
+
+    // Wertebereiche pro Spalte für die dichten Gruppenschlüssel
+    private final int[] minimum = new int[FlottenSpalte.values().length];
+    private final int[] maximum = new int[FlottenSpalte.values().length];
+
+    FlottenTabelle() {
+        Arrays.fill(minimum, Integer.MAX_VALUE);
+        Arrays.fill(maximum, Integer.MIN_VALUE);
+    }
+
+    static FlottenTabelle aus(Iterable<? extends Fahrzeug> fahrzeuge) {
+        FlottenTabelle tabelle = new FlottenTabelle();
+        for (Fahrzeug fahrzeug : fahrzeuge) {
+            tabelle.hinzufuegen(fahrzeug);
+        }
+        return tabelle;
+    }
+
+    void hinzufuegen(Fahrzeug fahrzeug) {
+        if (anzahl == marke.length) {
+            marke = Arrays.copyOf(marke, anzahl * 2);
+            baujahr = Arrays.copyOf(baujahr, anzahl * 2);
+            tueren = Arrays.copyOf(tueren, anzahl * 2);
+        }
+        setzen(FlottenSpalte.MARKE, marke, marken.nummer(fahrzeug.getMarke()));
+        setzen(FlottenSpalte.BAUJAHR, baujahr, fahrzeug.getBaujahr());
+        setzen(FlottenSpalte.TUEREN, tueren, fahrzeug instanceof Auto auto ? auto.getAnzahlTueren() : 0);
+        anzahl++;
+    }
+
+    private void setzen(FlottenSpalte spalte, int[] werte, int wert) {
+        werte[anzahl] = wert;
+        minimum[spalte.ordinal()] = Math.min(minimum[spalte.ordinal()], wert);
+        maximum[spalte.ordinal()] = Math.max(maximum[spalte.ordinal()], wert);
+    }
+
+    int anzahl() {
+        return anzahl;
+    }
+
+    Abfrage abfrage() {
+        return new Abfrage();
+    }
+
+    private int[] werte(FlottenSpalte spalte) {
+        return switch (spalte) {
+            case MARKE -> marke;
+            case BAUJAHR -> baujahr;
+            case TUEREN -> tueren;
+        };
+    }
+
+    /**
+     * Eine Abfrage über die Tabelle: alle Filter müssen zutreffen; gruppiert wird nach
+     * beliebigen Spalten, solange höchstens {@value #MAX_GRUPPEN} Gruppen möglich sind.
+     */
+    final class Abfrage {
+        private final List<FlottenSpalte> filterSpalten = new ArrayList<>();
+        private final List<int[]> filterBereiche = new ArrayList<>();
+        private FlottenSpalte[] gruppen = new FlottenSpalte[0];
+        private FlottenSpalte summiert;
+
+        private Abfrage() {
+        }
+
+        /**
+         * Nur Zeilen mit {@code min <= wert <= max}.
+         */
+        Abfrage wo(FlottenSpalte spalte, int min, int max) {
+            filterSpalten.add(spalte);
+            filterBereiche.add(new int[]{min, max});
+            return this;
+        }
+
+        Abfrage woMindestens(FlottenSpalte spalte, int min) {
+            return wo(spalte, min, Integer.MAX_VALUE);
+        }
+
+        /**
+         * Nur Zeilen der Marke; eine unbekannte Marke trifft nichts.
+         */
+        Abfrage woMarke(String name) {
+            Integer nummer = marken.vorhanden(name);
+            return nummer == null ? wo(FlottenSpalte.MARKE, 1, 0) : wo(FlottenSpalte.MARKE, nummer, nummer);
+        }
+
+        Abfrage gruppieren(FlottenSpalte... spalten) {
+            this.gruppen = spalten.clone();
+            return this;
+        }
+
+        Abfrage summieren(FlottenSpalte spalte) {
+            this.summiert = spalte;
+            return this;
+        }
+
+        /**
+         * Führt die Abfrage im aufrufenden Thread aus.
+         */
+        List<FlottenGruppe> ausfuehren() {
+            return ausfuehren(null);
+        }
+
+        /**
+         * Führt die Abfrage in Abschnitten auf dem Pool aus; {@code null} für den aufrufenden Thread.
+         *
+         * @return Die nichtleeren Gruppen in aufsteigender Reihenfolge ihrer Schlüssel.
+         */
+        List<FlottenGruppe> ausfuehren(ForkJoinPool pool) {
+            Plan plan = new Plan(this);
+            Zaehler zaehler = null;
+            if (pool == null || anzahl < 2 * MIN_ABSCHNITT) {
+                zaehler = new Zaehler(plan.gruppenAnzahl, plan.summenWerte != null);
+                plan.auswerten(0, anzahl, zaehler);
+            } else {
+                int abschnitt = Math.max(MIN_ABSCHNITT, anzahl / (4 * pool.getParallelism()));
+                ConcurrentHashMap<Thread, Zaehler> proThread = new ConcurrentHashMap<>();
+                pool.invoke(new AbschnittsAufgabe(plan, 0, anzahl, abschnitt, proThread));
+                for (Zaehler teil : proThread.values()) {
+                    if (zaehler == null) {
+                        zaehler = teil;
+                    } else {
+                        zaehler.addieren(teil);
+                    }
+                }
+            }
+            return plan.ergebnis(zaehler);
+        }
+    }
+
+    /**
+     * Eine Abfrage, übersetzt in Arrays: die Filterspalten mit ihren Bereichen und pro Gruppierungsspalte
+     * Minimum und Schrittweite des dichten Schlüssels.
+     */
+    private final class Plan {
+        final int[][] filterWerte;
+        final int[] filterMin;
+        final long[] filterSpanne;
+        final int[][] gruppenWerte;
+        final int[] gruppenMin;
+        final int[] gruppenSchritt;
+        final int gruppenAnzahl;
+        final int[] summenWerte;
+        final FlottenSpalte[] gruppen;
+        final boolean leer;
+
+        Plan(Abfrage abfrage) {
+            int filter = abfrage.filterSpalten.size();
+            filterWerte = new int[filter][];
+            filterMin = new int[filter];
+            filterSpanne = new long[filter];
+            boolean nieErfuellbar = false;
+            for (int f = 0; f < filter; f++) {
+                int[] bereich = abfrage.filterBereiche.get(f);
+                filterWerte[f] = werte(abfrage.filterSpalten.get(f));
+                filterMin[f] = bereich[0];
+                filterSpanne[f] = (long) bereich[1] - bereich[0];
+                nieErfuellbar |= bereich[0] > bereich[1];
+            }
+
+            gruppen = abfrage.gruppen;
+            gruppenWerte = new int[gruppen.length][];
+            gruppenMin = new int[gruppen.length];
+            gruppenSchritt = new int[gruppen.length];
+            long gruppenAnzahl = 1;
+            for (int g = gruppen.length - 1; g >= 0; g--) {
+                int spalte = gruppen[g].ordinal();
+                gruppenWerte[g] = werte(gruppen[g]);
+                gruppenMin[g] = anzahl == 0 ? 0 : minimum[spalte];
+                gruppenSchritt[g] = (int) gruppenAnzahl;
+                gruppenAnzahl *= anzahl == 0 ? 1 : (long) maximum[spalte] - minimum[spalte] + 1;
+                if (gruppenAnzahl > MAX_GRUPPEN) {
+                    throw new IllegalArgumentException("Zu viele mögliche Gruppen für " + Arrays.toString(gruppen)
+                            + ", höchstens " + MAX_GRUPPEN);
+                }
+            }
+            this.gruppenAnzahl = (int) gruppenAnzahl;
+            summenWerte = abfrage.summiert == null ? null : werte(abfrage.summiert);
+            leer = nieErfuellbar;
+        }
+
+        void auswerten(int von, int bis, Zaehler zaehler) {
+            if (leer) {
+                return;
+            }
+            for (int block = von; block < bis; block += 64) {
+                int laenge = Math.min(64, bis - block);
+                long treffer = laenge == 64 ? -1L : (1L << laenge) - 1;
+                for (int f = 0; f < filterWerte.length && treffer != 0; f++) {
+                    treffer &= ~VorzeichenloserBereich.blockAusserhalb(filterWerte[f], block, laenge, filterMin[f], filterSpanne[f]);
+                }
+                while (treffer != 0) {
+                    int zeile = block + Long.numberOfTrailingZeros(treffer);
+                    treffer &= treffer - 1;
+                    int schluessel = 0;
+                    for (int g = 0; g < gruppenWerte.length; g++) {
+                        schluessel += (gruppenWerte[g][zeile] - gruppenMin[g]) * gruppenSchritt[g];
+                    }
+                    zaehler.anzahl[schluessel]++;
+                    if (summenWerte != null) {
+                        zaehler.summe[schluessel] += summenWerte[zeile];
+                    }
+                }
+            }
+        }
+
+        List<FlottenGruppe> ergebnis(Zaehler zaehler) {
+            List<FlottenGruppe> ergebnis = new ArrayList<>();
+            for (int schluessel = 0; schluessel < gruppenAnzahl; schluessel++) {
+                long treffer = zaehler.anzahl[schluessel];
+                if (treffer == 0) {
+                    continue;
+                }
+                List<Object> werte = new ArrayList<>(gruppen.length);
+                for (int g = 0; g < gruppen.length; g++) {
+                    int wert = gruppenMin[g] + (schluessel / gruppenSchritt[g]) % spanne(g);
+                    werte.add(gruppen[g] == FlottenSpalte.MARKE ? marken.wert(wert) : (Object) wert);
+                }
+                ergebnis.add(new FlottenGruppe(List.copyOf(werte), treffer, zaehler.summe == null ? 0 : zaehler.summe[schluessel]));
+            }
+            return ergebnis;
+        }
+
+        private int spanne(int g) {
+            return maximum[gruppen[g].ordinal()] - gruppenMin[g] + 1;
+        }
+    }
+
+    private static final class Zaehler {
+        final long[] anzahl;
+        final long[] summe;
+
+        Zaehler(int gruppen, boolean mitSumme) {
+            anzahl = new long[gruppen];
+            summe = mitSumme ? new long[gruppen] : null;
+        }
+
+        void addieren(Zaehler andere) {
+            for (int i = 0; i < anzahl.length; i++) {
+                anzahl[i] += andere.anzahl[i];
+            }
+            if (summe != null) {
+                for (int i = 0; i < summe.length; i++) {
+                    summe[i] += andere.summe[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * Zählt einen Abschnitt in den {@link Zaehler} des ausführenden Threads. Ein Abschnitt läuft ohne
+     * {@code join} durch, ein Thread arbeitet also nie an zwei Abschnitten zugleich.
+     */
+    private static final class AbschnittsAufgabe extends RecursiveAction {
+        private final Plan plan;
+        private final int von;
+        private final int bis;
+        private final int abschnitt;
+        private final ConcurrentHashMap<Thread, Zaehler> proThread;
+
+        AbschnittsAufgabe(Plan plan, int von, int bis, int abschnitt, ConcurrentHashMap<Thread, Zaehler> proThread) {
+            this.plan = plan;
+            this.von = von;
+            this.bis = bis;
+            this.abschnitt = abschnitt;
+            this.proThread = proThread;
+        }
+
+        @Override
+        protected void compute() {
+            if (bis - von <= abschnitt) {
+                Zaehler zaehler = proThread.computeIfAbsent(Thread.currentThread(),
+                        thread -> new Zaehler(plan.gruppenAnzahl, plan.summenWerte != null));
+                plan.auswerten(von, bis, zaehler);
+                return;
+            }
+            int mitte = (von + (bis - von) / 2) & ~63; // Blockgrenzen auf 64 Zeilen halten
+            invokeAll(new AbschnittsAufgabe(plan, von, mitte, abschnitt, proThread),
+                    new AbschnittsAufgabe(plan, mitte, bis, abschnitt, proThread));
+        }
+    }
+
+    public static void main(String[] args) {
+        String[] marken = {"BMW", "Audi", "VW", "Mercedes", "Opel", "Ford", "Toyota", "Skoda"};
+        Random zufall = new Random(42);
+        int anzahl = 10_000_000;
+        FlottenTabelle tabelle = new FlottenTabelle();
+        for (int i = 0; i < anzahl; i++) {
+            String marke = marken[zufall.nextInt(marken.length)];
+            int baujahr = 2000 + zufall.nextInt(25);
+            tabelle.hinzufuegen(zufall.nextInt(4) == 0 ? new Fahrzeug(marke, baujahr) : new Auto(marke, baujahr, 2 + zufall.nextInt(4)));
+        }
+
+        Abfrage abfrage = tabelle.abfrage()
+                .woMindestens(FlottenSpalte.TUEREN, 4)
+                .gruppieren(FlottenSpalte.MARKE, FlottenSpalte.BAUJAHR);
+        List<FlottenGruppe> ergebnis = null;
+        for (int durchlauf = 1; durchlauf <= 5; durchlauf++) {
+            long start = System.nanoTime();
+            ergebnis = abfrage.ausfuehren(ForkJoinPool.commonPool());
+            long dauer = System.nanoTime() - start;
+            System.out.printf("Durchlauf %d: %d Zeilen in %.1f ms, %d Gruppen%n", durchlauf, anzahl, dauer / 1e6, ergebnis.size());
+        }
+        ergebnis.stream().limit(3).forEach(System.out::println);
+    }
+}
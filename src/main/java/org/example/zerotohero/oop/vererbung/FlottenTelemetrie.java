@@ -0,0 +1,469 @@
+package org.example.zerotohero.oop.vererbung;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Vergibt für jeden Wert eine kleine, fortlaufende Nummer, z. B. für Marken oder Fahrzeugklassen.
+ */
+final class Verzeichnis<T> {
+    private final ConcurrentHashMap<T, Integer> nummern = new ConcurrentHashMap<>();
+    private final List<T> werte = new ArrayList<>();
+    private final int maximum;
+
+    /**
+     * @param maximum Die Anzahl der Nummern, die höchstens vergeben werden.
+     */
+    Verzeichnis(int maximum) {
+        this.maximum = maximum;
+    }
+
+    /**
+     * @return Die Nummer des Werts; beim ersten Auftreten wird eine neue vergeben.
+     * @throws IllegalStateException Wenn bereits {@code maximum} Nummern vergeben sind.
+     */
+    int nummer(T wert) {
+        Integer nummer = nummern.get(wert);
+        return nummer != null ? nummer : neueNummer(wert);
+    }
+
+    /**
+     * @return Die Nummer des Werts oder {@code null}, wenn er noch keine hat.
+     */
+    Integer vorhanden(T wert) {
+        return nummern.get(wert);
+    }
+
+    private synchronized int neueNummer(T wert) {
+        Integer nummer = nummern.get(wert);
+        if (nummer == null) {
+            if (werte.size() == maximum) {
+                throw new IllegalStateException("Mehr als " + maximum + " verschiedene Werte: " + wert);
+            }
+            nummer = werte.size();
+            werte.add(wert);
+            nummern.put(wert, nummer);
+        }
+        return nummer;
+    }
+
+    synchronized T wert(int nummer) {
+        return werte.get(nummer);
+    }
+}
+
+/**
+ * Der Zustand eines Fahrzeugs in der {@link FlottenTelemetrie}, gespeichert als {@code byte}.
+ */
+enum FahrzeugZustand {
+    ABGESTELLT, LAEUFT
+}
+
+/**
+ * Ereignisse, die ein Fahrzeug an die {@link FlottenTelemetrie} meldet.
+ */
+enum FahrzeugEreignis {
+    STARTEN, STOPPEN;
+
+    /** Der Code im Ringpuffer; nie 0, da 0 einen freien Platz markiert. */
+    byte code() {
+        return (byte) (ordinal() + 1);
+    }
+}
+
+/**
+ * Nimmt Start- und Stoppereignisse von sehr vielen {@link Fahrzeug}en entgegen und führt deren Zustand.
+ *
+ * Fahrzeuge werden nicht als Objekte gehalten, sondern als Zeile einer primitiven Tabelle. Die Marke ist
+ * eine Nummer aus einem {@link Verzeichnis}, das Baujahr ein {@code short}, der Zustand ein {@code byte}.
+ * Das sind {@value #BYTES_PRO_FAHRZEUG} Bytes pro Fahrzeug inklusive Klasse und Wechselzähler.
+ *
+ * Die Fahrzeuge sind in Blöcken von {@value #FAHRZEUGE_PRO_BLOCK} aufeinanderfolgenden Nummern reihum auf
+ * Shards verteilt. Benachbarte Zeilen gehören so fast immer demselben Shard, und zwei Verbraucher schreiben
+ * nur an den Blockgrenzen in dieselbe Cache-Line von {@code zustand} und {@code wechsel}. Jeder Shard hat einen eigenen Ringpuffer aus
+ * {@code long}s für beliebig viele Erzeuger und genau einen Verbraucher-Thread. Nur dieser Thread schreibt
+ * die Zeilen seines Shards, die Tabelle braucht deshalb keine Sperre. Ein Ereignis ist
+ * {@code nummer << 8 | code}. Ein Erzeuger reserviert seinen Platz per CAS und veröffentlicht ihn mit
+ * einem Release-Schreibzugriff. Der Verbraucher gibt Plätze blockweise frei, indem er den Kopf weitersetzt.
+ * Ist ein Ring voll, lehnt {@link #melden} das Ereignis ab, statt zu blockieren.
+ */
+final class FlottenTelemetrie implements AutoCloseable {
+    static final int BYTES_PRO_FAHRZEUG = 2 + 2 + 1 + 1 + 4;
+    static final int FAHRZEUGE_PRO_BLOCK = 256; // 256 Bytes Zustand, 1 KiB Wechselzähler
+    private static final int BLOCK_BITS = Integer.numberOfTrailingZeros(FAHRZEUGE_PRO_BLOCK);
+    private static final int MAX_STAPEL = 4096;
+    private static final VarHandle PLATZ = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final Verzeichnis<String> marken = new Verzeichnis<>(Short.MAX_VALUE + 1);
+    private final Verzeichnis<Class<? extends Fahrzeug>> klassen = new Verzeichnis<>(Byte.MAX_VALUE + 1);
+
+    private final short[] marke;
+    private final short[] baujahr;
+    private final byte[] klasse;
+    private final byte[] zustand;
+    private final int[] wechsel;
+    private final AtomicInteger reserviert = new AtomicInteger();
+    private final AtomicInteger registriert = new AtomicInteger();
+
+    private final Shard[] shards;
+    private final int shardMaske;
+    private final LongAdder abgewiesen = new LongAdder();
+    private final LongAdder ungueltig = new LongAdder();
+    private final List<Thread> verbraucher = new ArrayList<>();
+    private volatile boolean geschlossen;
+
+    /**
+     * @param maxFahrzeuge Die feste Größe der Tabelle.
+     * @param shards Die Anzahl der Shards, wird auf eine Zweierpotenz aufgerundet.
+     * @param kapazitaet Die Plätze pro Ring, wird auf eine Zweierpotenz aufgerundet.
+     */
+    FlottenTelemetrie(int maxFahrzeuge, int shards, int kapazitaet) {
+        this.marke = new short[maxFahrzeuge];
+        this.baujahr = new short[maxFahrzeuge];
+        this.klasse = new byte[maxFahrzeuge];
+        this.zustand = new byte[maxFahrzeuge];
+        this.wechsel = new int[maxFahrzeuge];
+        int anzahl = zweierpotenz(shards);
+        this.shards = new Shard[anzahl];
+        for (int i = 0; i < anzahl; i++) {
+            this.shards[i] = new Shard(zweierpotenz(kapazitaet));
+        }
+        this.shardMaske = anzahl - 1;
+    }
+
+    private static int zweierpotenz(int wert) {
+        return wert <= 1 ? 1 : Integer.highestOneBit(wert - 1) << 1;
+    }
+
+    /**
+     * Legt eine Zeile für das Fahrzeug an. Das Objekt selbst wird nicht gehalten.
+     *
+     * Die Nummer wird per CAS reserviert, aber erst gezählt, wenn ihre Spalten geschrieben und alle
+     * kleineren Nummern veröffentlicht sind. {@link #melden} nimmt daher nur Fahrzeuge mit fertiger Zeile an.
+     *
+     * @return Die Nummer, unter der das Fahrzeug Ereignisse meldet.
+     * @throws IllegalStateException Wenn die Tabelle voll ist.
+     */
+    int registrieren(Fahrzeug fahrzeug) {
+        if (fahrzeug.getMarke() == null) {
+            throw new IllegalArgumentException("Fahrzeug ohne Marke.");
+        }
+        int jahr = fahrzeug.getBaujahr();
+        if (jahr < Short.MIN_VALUE || jahr > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Baujahr passt nicht in einen short: " + jahr);
+        }
+        // Vor dem Reservieren, damit eine volle Markenliste keine Nummer belegt, die nie veröffentlicht wird
+        short markenNummer = (short) marken.nummer(fahrzeug.getMarke());
+        byte klassenNummer = (byte) klassen.nummer(fahrzeug.getClass());
+        int nummer;
+        do {
+            nummer = reserviert.get();
+            if (nummer >= zustand.length) {
+                throw new IllegalStateException("Tabelle voll: " + zustand.length + " Fahrzeuge.");
+            }
+        } while (!reserviert.compareAndSet(nummer, nummer + 1));
+        marke[nummer] = markenNummer;
+        baujahr[nummer] = (short) jahr;
+        klasse[nummer] = klassenNummer;
+        zustand[nummer] = (byte) FahrzeugZustand.ABGESTELLT.ordinal();
+        veroeffentlichen(nummer);
+        return nummer;
+    }
+
+    /**
+     * Hebt {@code registriert} auf {@code nummer + 1}, sobald alle kleineren Nummern veröffentlicht sind.
+     * Der volatile Schreibzugriff veröffentlicht auch die Spalten der Zeile.
+     */
+    private void veroeffentlichen(int nummer) {
+        int runden = 0;
+        while (registriert.get() != nummer) {
+            if (++runden < 100) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+        registriert.set(nummer + 1);
+    }
+
+    /**
+     * Startet einen Verbraucher-Thread pro Shard. Ohne Aufruf verarbeitet {@link #leeren()} im aufrufenden Thread.
+     */
+    synchronized FlottenTelemetrie starten() {
+        if (geschlossen) {
+            throw new IllegalStateException("Telemetrie ist geschlossen.");
+        }
+        if (verbraucher.isEmpty()) {
+            for (int i = 0; i < shards.length; i++) {
+                Shard shard = shards[i];
+                Thread thread = Thread.ofPlatform().name("flotten-shard-" + i).daemon(true).unstarted(() -> abarbeiten(shard));
+                verbraucher.add(thread);
+                thread.start();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Legt ein Ereignis in den Ring des Shards, zu dem das Fahrzeug gehört.
+     *
+     * @return {@code false}, wenn der Ring voll war; das Ereignis wird dann gezählt und nicht verarbeitet.
+     * @throws IllegalStateException Nach {@link #close()}.
+     */
+    boolean melden(int fahrzeug, FahrzeugEreignis ereignis) {
+        if (fahrzeug < 0 || fahrzeug >= registriert.get()) {
+            throw new IllegalArgumentException("Unbekanntes Fahrzeug: " + fahrzeug);
+        }
+        if (geschlossen) {
+            throw new IllegalStateException("Telemetrie ist geschlossen.");
+        }
+        if (shards[shard(fahrzeug)].anbieten((long) fahrzeug << 8 | ereignis.code())) {
+            return true;
+        }
+        abgewiesen.increment();
+        return false;
+    }
+
+    /**
+     * Wartet, bis alle bis jetzt gemeldeten Ereignisse verarbeitet sind. Laufen keine Verbraucher-Threads,
+     * werden die Ringe im aufrufenden Thread abgearbeitet; das darf dann nur ein Thread gleichzeitig tun.
+     */
+    void leeren() {
+        boolean threads;
+        synchronized (this) {
+            threads = !verbraucher.isEmpty();
+        }
+        for (Shard shard : shards) {
+            long ziel = shard.naechste.get();
+            while (shard.gelesen.get() < ziel) {
+                if (threads) {
+                    Thread.onSpinWait();
+                } else {
+                    verarbeiten(shard);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Der Shard, dessen Verbraucher die Zeile des Fahrzeugs schreibt.
+     */
+    int shard(int fahrzeug) {
+        return (fahrzeug >>> BLOCK_BITS) & shardMaske;
+    }
+
+    FahrzeugZustand zustand(int fahrzeug) {
+        return FahrzeugZustand.values()[zustand[fahrzeug]];
+    }
+
+    String marke(int fahrzeug) {
+        return marken.wert(marke[fahrzeug]);
+    }
+
+    int baujahr(int fahrzeug) {
+        return baujahr[fahrzeug];
+    }
+
+    Class<? extends Fahrzeug> klasse(int fahrzeug) {
+        return klassen.wert(klasse[fahrzeug]);
+    }
+
+    /**
+     * @return Die Anzahl der gültigen Zustandswechsel des Fahrzeugs.
+     */
+    int anzahlWechsel(int fahrzeug) {
+        return wechsel[fahrzeug];
+    }
+
+    /**
+     * @return Die Anzahl der Fahrzeuge im Zustand, gezählt über die Zustandsspalte.
+     */
+    int anzahl(FahrzeugZustand gesucht) {
+        byte code = (byte) gesucht.ordinal();
+        int anzahl = 0;
+        for (int i = 0, n = registriert.get(); i < n; i++) {
+            anzahl += zustand[i] == code ? 1 : 0;
+        }
+        return anzahl;
+    }
+
+    int getRegistriert() {
+        return registriert.get();
+    }
+
+    long getVerarbeitet() {
+        long summe = 0;
+        for (Shard shard : shards) {
+            summe += shard.gelesen.get();
+        }
+        return summe;
+    }
+
+    long getAbgewiesen() {
+        return abgewiesen.sum();
+    }
+
+    /**
+     * @return Ereignisse, die zum Zustand nicht passten, etwa Starten eines laufenden Fahrzeugs.
+     */
+    long getUngueltig() {
+        return ungueltig.sum();
+    }
+
+    /**
+     * Beendet die Verbraucher-Threads und verarbeitet, was noch in den Ringen liegt.
+     */
+    @Override
+    public void close() {
+        List<Thread> threads;
+        synchronized (this) {
+            geschlossen = true;
+            threads = new ArrayList<>(verbraucher);
+            verbraucher.clear();
+        }
+        for (Thread thread : threads) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        leeren();
+    }
+
+    private void abarbeiten(Shard shard) {
+        int leerlauf = 0;
+        while (!geschlossen) {
+            if (verarbeiten(shard) > 0) {
+                leerlauf = 0;
+            } else if (++leerlauf < 100) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(50_000);
+            }
+        }
+    }
+
+    /**
+     * Wendet bis zu {@value #MAX_STAPEL} veröffentlichte Ereignisse eines Shards auf die Tabelle an.
+     * Darf pro Shard nur von einem Thread gleichzeitig aufgerufen werden.
+     */
+    private int verarbeiten(Shard shard) {
+        long[] ring = shard.ring;
+        long kopf = shard.gelesen.get();
+        int anzahl = 0;
+        int fehler = 0;
+        while (anzahl < MAX_STAPEL) {
+            int index = (int) (kopf & shard.maske);
+            long ereignis = (long) PLATZ.getAcquire(ring, index);
+            if (ereignis == 0) {
+                break; // noch nicht veröffentlicht
+            }
+            ring[index] = 0;
+            int fahrzeug = (int) (ereignis >>> 8);
+            byte alt = zustand[fahrzeug];
+            byte neu = (byte) ((ereignis & 0xFF) == FahrzeugEreignis.STARTEN.code()
+                    ? FahrzeugZustand.LAEUFT.ordinal()
+                    : FahrzeugZustand.ABGESTELLT.ordinal());
+            if (alt == neu) {
+                fehler++;
+            } else {
+                zustand[fahrzeug] = neu;
+                wechsel[fahrzeug]++;
+            }
+            kopf++;
+            anzahl++;
+        }
+        if (anzahl > 0) {
+            shard.gelesen.set(kopf); // gibt die Plätze frei und veröffentlicht die Tabellenänderungen
+            if (fehler > 0) {
+                ungueltig.add(fehler);
+            }
+        }
+        return anzahl;
+    }
+
+    private static final class Shard {
+        final long[] ring;
+        final int maske;
+        final AtomicLong naechste = new AtomicLong();
+        final AtomicLong gelesen = new AtomicLong();
+
+        Shard(int groesse) {
+            this.ring = new long[groesse];
+            this.maske = groesse - 1;
+        }
+
+        boolean anbieten(long ereignis) {
+            long sequenz;
+            do {
+                sequenz = naechste.get();
+                if (sequenz - gelesen.get() >= ring.length) {
+                    return false;
+                }
+            } while (!naechste.compareAndSet(sequenz, sequenz + 1));
+            PLATZ.setRelease(ring, (int) (sequenz & maske), ereignis);
+            return true;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int fahrzeuge = 500_000;
+        String[] marken = {"BMW", "Audi", "VW", "Mercedes", "Opel", "Ford", "Toyota", "Skoda"};
+        Runtime laufzeit = Runtime.getRuntime();
+
+        System.gc();
+        long vorher = laufzeit.totalMemory() - laufzeit.freeMemory();
+        FlottenTelemetrie telemetrie = new FlottenTelemetrie(fahrzeuge, 4, 1 << 16);
+        for (int i = 0; i < fahrzeuge; i++) {
+            String marke = marken[i % marken.length];
+            telemetrie.registrieren(i % 3 == 0 ? new Auto(marke, 1990 + i % 35, 4) : new Fahrzeug(marke, 1990 + i % 35));
+        }
+        System.gc();
+        long nachher = laufzeit.totalMemory() - laufzeit.freeMemory();
+        System.out.printf("%d Fahrzeuge, etwa %.1f Bytes Heap pro Fahrzeug (Spalten: %d Bytes)%n", fahrzeuge,
+                (double) (nachher - vorher) / fahrzeuge, BYTES_PRO_FAHRZEUG);
+
+        telemetrie.starten();
+        int erzeuger = 2;
+        int proErzeuger = 10_000_000;
+        List<Thread> threads = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int e = 0; e < erzeuger; e++) {
+            int versatz = e;
+            Thread thread = new Thread(() -> {
+                // Jeder Erzeuger startet und stoppt abwechselnd seine eigenen Fahrzeuge
+                for (int i = 0; i < proErzeuger; i++) {
+                    int fahrzeug = (i * erzeuger + versatz) % fahrzeuge;
+                    FahrzeugEreignis ereignis = (i * erzeuger / fahrzeuge) % 2 == 0 ? FahrzeugEreignis.STARTEN : FahrzeugEreignis.STOPPEN;
+                    while (!telemetrie.melden(fahrzeug, ereignis)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        telemetrie.leeren();
+        long dauer = System.nanoTime() - start;
+        System.out.printf("%d Ereignisse in %.0f ms: %.1f Mio. Ereignisse/s, %d abgewiesene Versuche, %d ungültig%n",
+                telemetrie.getVerarbeitet(), dauer / 1e6, telemetrie.getVerarbeitet() * 1e3 / dauer,
+                telemetrie.getAbgewiesen(), telemetrie.getUngueltig());
+        System.out.println("Laufend: " + telemetrie.anzahl(FahrzeugZustand.LAEUFT) + ", Fahrzeug 3: "
+                + telemetrie.marke(3) + " " + telemetrie.baujahr(3) + " " + telemetrie.klasse(3).getSimpleName()
+                + " " + telemetrie.zustand(3));
+        telemetrie.close();
+    }
+}
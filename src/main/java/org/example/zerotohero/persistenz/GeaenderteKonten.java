@@ -0,0 +1,82 @@
+package org.example.zerotohero.persistenz;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Thread-sichere Bitmenge der Kontonummern, die seit dem letzten Schreiben geändert wurden.
+ *
+ * Ein Bit pro Konto in lazily angelegten {@code long[]}-Blöcken. Das Markieren ist ein einziges
+ * atomares ODER und erzeugt keine Objekte, das Abholen liefert die Kontonummern aufsteigend.
+ */
+class GeaenderteKonten {
+
+    private static final int BLOCK_BITS = 20; // 1.048.576 Konten pro Block
+    private static final int WOERTER_PRO_BLOCK = (1 << BLOCK_BITS) / Long.SIZE;
+    private static final VarHandle WORT = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private volatile long[][] bloecke = new long[0][];
+
+    /**
+     * Markiert ein Konto als geändert.
+     *
+     * @param kontoId Die Kontonummer.
+     * @return {@code true}, wenn das Konto vorher nicht markiert war.
+     */
+    boolean markieren(int kontoId) {
+        long[] block = block(kontoId >>> BLOCK_BITS);
+        int wort = (kontoId & ((1 << BLOCK_BITS) - 1)) >>> 6;
+        long bit = 1L << kontoId; // Verschiebung nutzt nur die unteren 6 Bits
+        long vorher = (long) WORT.getAndBitwiseOr(block, wort, bit);
+        return (vorher & bit) == 0;
+    }
+
+    /**
+     * Entfernt alle Markierungen und übergibt die markierten Kontonummern aufsteigend.
+     * Markierungen, die währenddessen entstehen, werden entweder übergeben oder bleiben erhalten.
+     *
+     * @param verbraucher Empfängt die Kontonummern.
+     * @return Die Anzahl der übergebenen Konten.
+     */
+    int abholen(IntConsumer verbraucher) {
+        long[][] aktuell = bloecke;
+        int anzahl = 0;
+        for (int b = 0; b < aktuell.length; b++) {
+            long[] block = aktuell[b];
+            for (int w = 0; w < WOERTER_PRO_BLOCK; w++) {
+                if ((long) WORT.getOpaque(block, w) == 0) {
+                    continue;
+                }
+                long bits = (long) WORT.getAndSet(block, w, 0L);
+                int basis = (b << BLOCK_BITS) + (w << 6);
+                while (bits != 0) {
+                    verbraucher.accept(basis + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                    anzahl++;
+                }
+            }
+        }
+        return anzahl;
+    }
+
+    private long[] block(int index) {
+        long[][] aktuell = bloecke;
+        if (index < aktuell.length) {
+            return aktuell[index];
+        }
+        synchronized (this) {
+            aktuell = bloecke;
+            if (index >= aktuell.length) {
+                long[][] neu = Arrays.copyOf(aktuell, index + 1);
+                for (int i = aktuell.length; i < neu.length; i++) {
+                    neu[i] = new long[WOERTER_PRO_BLOCK];
+                }
+                bloecke = neu;
+                aktuell = neu;
+            }
+            return aktuell[index];
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package org.example.zerotohero.persistenz;
+
+import org.example.zerotohero.ereignis.Ereignisse;
+import org.example.zerotohero.oop.kapselung.KonkurrentesBankKonto;
+import org.example.zerotohero.oop.kapselung.KontoSpeicher;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link KontoSpeicher}, dessen Buchungen in einem {@link KontoJournal} gesichert werden.
+ *
+ * Keine Buchung ist für andere Threads ausgebbar, bevor sie im Journal gesichert ist:
+ * <ul>
+ *     <li>Eine Abhebung reserviert den Betrag zuerst per CAS im Speicher (dort fällt die Deckungsprüfung),
+ *     sichert dann den Journal-Eintrag und gibt den Betrag nur zurück, wenn das Sichern fehlschlägt.
+ *     Reserviertes Geld kann kein anderer Thread mehr abheben.</li>
+ *     <li>Eine Einzahlung und der Anfangsstand eines neuen Kontos werden erst gesichert und danach
+ *     gutgeschrieben. Ein Thread kann also nur Geld abheben, dessen Eintrag schon dauerhaft ist und damit
+ *     im Journal vor seiner Abhebung steht. Würde die Gutschrift den Kontostand überlaufen lassen, wird
+ *     statt ihrer eine Gegenbuchung gesichert.</li>
+ * </ul>
+ * Dadurch wird auch beim Nachspielen jedes dauerhaften Journal-Anfangs kein Konto negativ. Nach einem
+ * Schreibfehler nimmt das {@link KontoJournal} nichts mehr an; die fehlgeschlagene Methode wirft die
+ * {@link IOException}. Beim Öffnen wird der neueste {@link KontoSnapshot} geladen und nur der Rest des
+ * Journals nachgespielt.
+ *
+ * Checkpoints ({@link #checkpoint()}, im Hintergrund über {@link #checkpointsStarten(Duration)})
+ * halten die Schreiber nicht an: Das Journal schließt sein aktuelles Segment ab, danach werden nur
+ * noch abgeschlossene, unveränderliche Segmente in einen eigenen Schattenspeicher nachgespielt und
+ * dieser als Snapshot geschrieben. Der Schattenspeicher bleibt zwischen Checkpoints erhalten, jeder
+ * Checkpoint verarbeitet also nur die seit dem letzten Mal hinzugekommenen Segmente. Anschließend
+ * werden die im Snapshot enthaltenen Segmente und ältere Snapshots gelöscht.
+ */
+public class JournalisierterKontoSpeicher implements AutoCloseable {
+
+    private final Path verzeichnis;
+    private final KontoSpeicher speicher;
+    private final KontoJournal journal;
+
+    private final Object checkpointSperre = new Object();
+    private KontoSpeicher schattenSpeicher; // Stand bis einschließlich schattenSegment, nur für Checkpoints
+    private long schattenSegment;
+    private ScheduledExecutorService checkpointPlaner;
+
+    private JournalisierterKontoSpeicher(Path verzeichnis, KontoSpeicher speicher, KontoJournal journal) {
+        this.verzeichnis = verzeichnis;
+        this.speicher = speicher;
+        this.journal = journal;
+    }
+
+    /**
+     * Öffnet den Speicher und stellt alle gesicherten Kontostände aus Snapshot und Journal wieder her.
+     * Ist der neueste Snapshot beschädigt, schlägt das Öffnen fehl: Ältere Snapshots und die Journal-Segmente
+     * bis zum neuesten Snapshot hat der Checkpoint schon gelöscht, ein Ausweichen ergäbe falsche Kontostände.
+     *
+     * @param verzeichnis Das Journal-Verzeichnis.
+     * @param modus Wie Buchungen gesichert werden.
+     * @return Der wiederhergestellte Speicher.
+     * @throws IOException wenn Journal oder neuester Snapshot nicht gelesen werden können.
+     */
+    public static JournalisierterKontoSpeicher oeffnen(Path verzeichnis, KontoJournal.Modus modus) throws IOException {
+        KontoSpeicher speicher = new KontoSpeicher();
+        long bisSegment = 0;
+        List<Path> snapshots = KontoSnapshot.snapshots(verzeichnis);
+        if (!snapshots.isEmpty()) {
+            try {
+                bisSegment = KontoSnapshot.laden(snapshots.get(0), speicher);
+            } catch (IOException e) {
+                throw new IOException("Neuester Snapshot ist beschädigt, die Kontostände lassen sich nicht "
+                        + "wiederherstellen: " + snapshots.get(0), e);
+            }
+        }
+        KontoSpeicher geladen = speicher;
+        KontoJournal journal = KontoJournal.oeffnen(verzeichnis, modus, KontoJournal.STANDARD_SEGMENT_GROESSE, bisSegment,
+                (kontoId, deltaCent) -> nachspielen(geladen, kontoId, deltaCent));
+        KontoJournal.segmenteLoeschenBis(verzeichnis, bisSegment); // Reste eines unterbrochenen Checkpoints
+        return new JournalisierterKontoSpeicher(verzeichnis, speicher, journal);
+    }
+
+    /**
+     * Spielt einen Journal-Eintrag nach. Einzahlungen werden ohne Überlaufprüfung gebucht: Ein negativer
+     * Stand kann nur von einer übergelaufenen Einzahlung stammen, deren Gegenbuchung noch folgt. Bis dahin
+     * wird auf ihm modular weitergerechnet, sodass der Stand nach der Gegenbuchung wieder exakt stimmt.
+     *
+     * @throws IllegalStateException wenn der Eintrag ein Konto überziehen würde; das kann nur ein
+     * beschädigtes oder fremdes Journal.
+     */
+    static void nachspielen(KontoSpeicher speicher, int kontoId, long deltaCent) {
+        if (kontoId >= speicher.anzahlKonten()) {
+            speicher.setzenCent(kontoId, deltaCent); // Eintrag vom Anlegen des Kontos
+        } else if (deltaCent >= 0 || speicher.abhebenCent(kontoId, -deltaCent)) {
+            if (deltaCent > 0) {
+                speicher.buchenCent(kontoId, deltaCent);
+            }
+        } else if (speicher.getKontostandCent(kontoId) < 0) {
+            speicher.buchenCent(kontoId, deltaCent);
+        } else {
+            throw new IllegalStateException("Journal überzieht Konto " + kontoId + ": Stand "
+                    + speicher.getKontostandCent(kontoId) + " Cent, Buchung " + deltaCent + " Cent.");
+        }
+    }
+
+    /**
+     * Legt ein neues Konto an und sichert es im Journal. Das Konto entsteht mit Stand 0, der Anfangsstand
+     * wird erst nach dem Sichern gutgeschrieben. Schlägt das Sichern fehl, bleibt die Kontonummer bis zum
+     * nächsten Öffnen mit Stand 0 belegt. Ob es das Konto danach noch gibt, ist offen: Der Eintrag kann trotz
+     * Fehler dauerhaft sein, und ein gleichzeitig angelegtes Konto mit höherer Nummer legt beim Nachspielen
+     * auch alle niedrigeren Nummern an, dann mit Stand 0.
+     *
+     * @param initialerKontostand Der anfängliche Kontostand in EUR.
+     * @return Die Kontonummer.
+     * @throws IOException wenn das Journal nicht geschrieben werden kann.
+     */
+    public int anlegen(double initialerKontostand) throws IOException {
+        long cent = Math.max(KonkurrentesBankKonto.inCent(initialerKontostand), 0);
+        int kontoId = speicher.anlegen(0);
+        journal.anhaengen(kontoId, cent);
+        speicher.buchenCent(kontoId, cent);
+        return kontoId;
+    }
+
+    /**
+     * Zahlt einen Betrag ein und sichert die Buchung. Ob der Kontostand überlaufen würde, entscheidet erst
+     * die atomare Gutschrift nach dem Sichern; schlägt sie fehl, wird eine Gegenbuchung gesichert.
+     *
+     * @param kontoId Die Kontonummer.
+     * @param betrag Der Betrag in EUR. Muss positiv sein.
+     * @return {@code true}, wenn die Einzahlung verbucht wurde.
+     * @throws IOException wenn das Journal nicht geschrieben werden kann.
+     */
+    public boolean einzahlen(int kontoId, double betrag) throws IOException {
+        long cent = KonkurrentesBankKonto.inCent(betrag);
+        if (cent <= 0) {
+            return false;
+        }
+        journal.anhaengen(kontoId, cent);
+        if (!speicher.einzahlenCent(kontoId, cent)) { // Erst jetzt für andere Threads ausgebbar
+            journal.anhaengen(kontoId, -cent);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Hebt einen Betrag ab, falls ausreichend Deckung vorhanden ist, und sichert die Buchung.
+     *
+     * @param kontoId Die Kontonummer.
+     * @param betrag Der Betrag in EUR. Muss positiv sein.
+     * @return {@code true}, wenn die Abhebung verbucht wurde.
+     * @throws IOException wenn das Journal nicht geschrieben werden kann.
+     */
+    public boolean abheben(int kontoId, double betrag) throws IOException {
+        long cent = KonkurrentesBankKonto.inCent(betrag);
+        if (!speicher.abhebenCent(kontoId, cent)) { // Reserviert den Betrag
+            return false;
+        }
+        try {
+            journal.anhaengen(kontoId, -cent);
+        } catch (IOException e) {
+            speicher.buchenCent(kontoId, cent); // Nicht gesicherte Reservierung zurückgeben
+            throw e;
+        }
+        return true;
+    }
+
+    public double getKontostand(int kontoId) {
+        return speicher.getKontostand(kontoId);
+    }
+
+    public KontoSpeicher getSpeicher() {
+        return speicher;
+    }
+
+    KontoJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Schreibt einen Snapshot aller bis jetzt gesicherten Buchungen, ohne laufende Buchungen anzuhalten.
+     *
+     * @return Der Pfad des neuen Snapshots.
+     * @throws IOException wenn Journal oder Snapshot nicht gelesen bzw. geschrieben werden können.
+     */
+    public Path checkpoint() throws IOException {
+        synchronized (checkpointSperre) {
+            long bisSegment = journal.abschliessen();
+            if (schattenSpeicher == null) {
+                schattenLaden();
+            }
+            for (Path segment : KontoJournal.segmente(verzeichnis)) {
+                long nummer = KontoJournal.segmentNummer(segment);
+                if (nummer > schattenSegment && nummer <= bisSegment) {
+                    KontoJournal.lesen(segment, (kontoId, deltaCent) -> nachspielen(schattenSpeicher, kontoId, deltaCent));
+                }
+            }
+            schattenSegment = bisSegment;
+
+            Path snapshot = KontoSnapshot.schreiben(verzeichnis, schattenSpeicher, bisSegment); // Inklusive fsync des Verzeichnisses
+            KontoJournal.segmenteLoeschenBis(verzeichnis, bisSegment);
+            for (Path aelter : KontoSnapshot.snapshots(verzeichnis)) {
+                if (KontoSnapshot.segmentNummer(aelter) < bisSegment) {
+                    Files.deleteIfExists(aelter);
+                }
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Startet regelmäßige Checkpoints in einem Hintergrund-Thread.
+     *
+     * @param intervall Der Abstand zwischen zwei Checkpoints.
+     */
+    public void checkpointsStarten(Duration intervall) {
+        synchronized (checkpointSperre) {
+            if (checkpointPlaner != null) {
+                return;
+            }
+            checkpointPlaner = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "konto-checkpoint");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        long millis = intervall.toMillis();
+        checkpointPlaner.scheduleWithFixedDelay(() -> {
+            try {
+                checkpoint();
+            } catch (IOException e) {
+                Ereignisse.warnung("Checkpoint fehlgeschlagen: {}", e);
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    private void schattenLaden() throws IOException {
+        schattenSpeicher = new KontoSpeicher();
+        schattenSegment = 0;
+        List<Path> snapshots = KontoSnapshot.snapshots(verzeichnis);
+        if (!snapshots.isEmpty()) {
+            schattenSegment = KontoSnapshot.laden(snapshots.get(0), schattenSpeicher);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        ScheduledExecutorService planer;
+        synchronized (checkpointSperre) {
+            planer = checkpointPlaner;
+        }
+        if (planer != null) {
+            // Ein laufender Checkpoint darf seinen Snapshot zu Ende schreiben
+            planer.shutdown();
+            try {
+                planer.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (checkpointSperre) {
+            journal.close();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path verzeichnis = Files.createTempDirectory("konto-journal");
+
+        try (JournalisierterKontoSpeicher konten = oeffnen(verzeichnis, KontoJournal.Modus.GRUPPEN_COMMIT)) {
+            int konto = konten.anlegen(100.0);
+            konten.einzahlen(konto, 50.0);
+            konten.abheben(konto, 30.0);
+            konten.checkpoint();
+            konten.einzahlen(konto, 5.0); // Landet nur im Journal-Rest nach dem Snapshot
+            System.out.println("Kontostand vor dem Neustart: " + konten.getKontostand(konto) + " EUR");
+        }
+
+        try (JournalisierterKontoSpeicher konten = oeffnen(verzeichnis, KontoJournal.Modus.GRUPPEN_COMMIT)) {
+            System.out.println("Kontostand nach dem Neustart: " + konten.getKontostand(0) + " EUR");
+        }
+    }
+}
@@ -0,0 +1,436 @@
+package org.example.zerotohero.persistenz;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Write-Ahead-Journal für Kontobuchungen.
+ *
+ * Jede Buchung wird als Eintrag fester Länge ({@value #EINTRAG_GROESSE} Bytes: Kontonummer,
+ * Betrag in Cent, CRC32) an eine Segmentdatei angehängt. Wird ein Segment zu groß, beginnt ein neues
+ * ({@code journal-<nummer>.seg}). {@link #anhaengen(int, long)} kehrt erst zurück, wenn der Eintrag
+ * per {@code fsync} gesichert ist.
+ *
+ * Im Modus {@link Modus#GRUPPEN_COMMIT} sammeln sich Einträge, die eintreffen, während gerade
+ * geschrieben wird, in einem zweiten Puffer. Der nächste Aufrufer schreibt sie dann alle gemeinsam
+ * und sichert sie mit einem einzigen {@code fsync} (Gruppen-Commit). Im Modus
+ * {@link Modus#FSYNC_PRO_OPERATION} wird jeder Eintrag einzeln geschrieben und gesichert.
+ *
+ * Beim Öffnen wird das vorhandene Journal nachgespielt. Ein unvollständiger oder beschädigter Eintrag
+ * am Ende des letzten Segments (Absturz während des Schreibens) wird abgeschnitten.
+ */
+public class KontoJournal implements AutoCloseable {
+
+    /**
+     * Wie Einträge gesichert werden.
+     */
+    public enum Modus {
+        GRUPPEN_COMMIT,
+        FSYNC_PRO_OPERATION
+    }
+
+    /**
+     * Empfängt beim Nachspielen jede gesicherte Buchung in Journal-Reihenfolge.
+     */
+    @FunctionalInterface
+    public interface BuchungsVerbraucher {
+        void buchung(int kontoId, long deltaCent);
+    }
+
+    static final int EINTRAG_GROESSE = 16;
+    static final long STANDARD_SEGMENT_GROESSE = 64L * 1024 * 1024;
+    private static final int PUFFER_GROESSE = 64 * 1024; // 4096 Einträge pro Gruppen-Commit
+    private static final String PRAEFIX = "journal-";
+    private static final String SUFFIX = ".seg";
+
+    private final Path verzeichnis;
+    private final Modus modus;
+    private final long segmentGroesse;
+
+    private final ReentrantLock sperre = new ReentrantLock();
+    private final Condition gesichert = sperre.newCondition();
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer sammelPuffer = ByteBuffer.allocateDirect(PUFFER_GROESSE);
+    private ByteBuffer schreibPuffer = ByteBuffer.allocateDirect(PUFFER_GROESSE);
+    private long angehaengt;     // Sequenz des zuletzt angehängten Eintrags
+    private long dauerhaft;      // Alle Einträge bis zu dieser Sequenz sind gesichert
+    private boolean schreibtGerade;
+    private IOException fehler;  // Nach einem Schreibfehler nimmt das Journal nichts mehr an
+    private volatile IOException naechsterSchreibfehler; // Nur für Tests
+    private boolean geschlossen;
+
+    private FileChannel segment;
+    private long segmentNummer;
+    private long segmentBytes;
+
+    private KontoJournal(Path verzeichnis, Modus modus, long segmentGroesse) {
+        this.verzeichnis = verzeichnis;
+        this.modus = modus;
+        this.segmentGroesse = Math.max(segmentGroesse, PUFFER_GROESSE);
+    }
+
+    /**
+     * Öffnet das Journal in einem Verzeichnis, spielt alle gesicherten Buchungen nach
+     * und bereitet das Anhängen neuer Einträge vor.
+     *
+     * @param verzeichnis Das Verzeichnis der Segmentdateien (wird bei Bedarf angelegt).
+     * @param modus Wie neue Einträge gesichert werden.
+     * @param wiederherstellung Empfängt die nachgespielten Buchungen.
+     * @return Das geöffnete Journal.
+     * @throws IOException wenn das Journal nicht gelesen werden kann oder ein älteres Segment beschädigt ist.
+     */
+    public static KontoJournal oeffnen(Path verzeichnis, Modus modus, BuchungsVerbraucher wiederherstellung)
+            throws IOException {
+        return oeffnen(verzeichnis, modus, STANDARD_SEGMENT_GROESSE, wiederherstellung);
+    }
+
+    /**
+     * Wie {@link #oeffnen(Path, Modus, BuchungsVerbraucher)}, mit eigener maximaler Segmentgröße in Bytes.
+     */
+    public static KontoJournal oeffnen(Path verzeichnis, Modus modus, long segmentGroesse,
+                                       BuchungsVerbraucher wiederherstellung) throws IOException {
+        return oeffnen(verzeichnis, modus, segmentGroesse, 0, wiederherstellung);
+    }
+
+    /**
+     * Öffnet das Journal und spielt nur die Segmente nach {@code nachSegment} nach, z. B. weil
+     * die älteren bereits in einem Snapshot enthalten sind. Neue Segmente erhalten in jedem Fall
+     * höhere Nummern als {@code nachSegment}.
+     *
+     * @param verzeichnis Das Verzeichnis der Segmentdateien (wird bei Bedarf angelegt).
+     * @param modus Wie neue Einträge gesichert werden.
+     * @param segmentGroesse Die maximale Segmentgröße in Bytes.
+     * @param nachSegment Die Nummer des letzten bereits berücksichtigten Segments (0 = keines).
+     * @param wiederherstellung Empfängt die nachgespielten Buchungen.
+     * @return Das geöffnete Journal.
+     * @throws IOException wenn das Journal nicht gelesen werden kann oder ein älteres Segment beschädigt ist.
+     */
+    public static KontoJournal oeffnen(Path verzeichnis, Modus modus, long segmentGroesse, long nachSegment,
+                                       BuchungsVerbraucher wiederherstellung) throws IOException {
+        Files.createDirectories(verzeichnis);
+        KontoJournal journal = new KontoJournal(verzeichnis, modus, segmentGroesse);
+        journal.segmentNummer = nachSegment;
+        List<Path> segmente = segmente(verzeichnis);
+        segmente.removeIf(pfad -> segmentNummer(pfad) <= nachSegment);
+        journal.nachspielen(segmente, wiederherstellung);
+        return journal;
+    }
+
+    /**
+     * Schließt das aktuelle Segment ab. Die nächste Buchung beginnt ein neues Segment, alle Segmente
+     * bis einschließlich der zurückgegebenen Nummer werden danach nicht mehr verändert und können
+     * z. B. für einen Snapshot gelesen werden. Wartet höchstens auf einen laufenden Schreibvorgang.
+     *
+     * @return Die Nummer des letzten abgeschlossenen Segments (0, wenn es noch keines gibt).
+     * @throws IOException wenn das Journal geschlossen oder fehlerhaft ist.
+     */
+    public long abschliessen() throws IOException {
+        sperre.lock();
+        try {
+            while (schreibtGerade) {
+                gesichert.awaitUninterruptibly();
+            }
+            pruefeZustand();
+            if (segment != null) {
+                segment.close();
+                segment = null; // Der nächste Schreibvorgang legt ein neues Segment an
+            }
+            return segmentNummer;
+        } finally {
+            sperre.unlock();
+        }
+    }
+
+    /**
+     * Hängt eine Buchung an und wartet, bis sie gesichert ist.
+     *
+     * @param kontoId Die Kontonummer.
+     * @param deltaCent Die Änderung des Kontostands in Cent.
+     * @throws IOException wenn das Schreiben fehlschlägt (auch für alle folgenden Aufrufe).
+     */
+    public void anhaengen(int kontoId, long deltaCent) throws IOException {
+        sperre.lock();
+        try {
+            pruefeZustand();
+            if (modus == Modus.FSYNC_PRO_OPERATION) {
+                kodieren(sammelPuffer, kontoId, deltaCent);
+                sammelPuffer.flip();
+                try {
+                    schreibenUndSichern(sammelPuffer);
+                } catch (IOException e) {
+                    fehler = e;
+                    throw e;
+                } finally {
+                    sammelPuffer.clear();
+                }
+                dauerhaft = ++angehaengt;
+                return;
+            }
+
+            while (sammelPuffer.remaining() < EINTRAG_GROESSE) {
+                warteOderSchreibe();
+                pruefeZustand();
+            }
+            kodieren(sammelPuffer, kontoId, deltaCent);
+            long sequenz = ++angehaengt;
+            while (dauerhaft < sequenz) {
+                if (fehler != null) {
+                    throw new IOException("Journal konnte nicht geschrieben werden.", fehler);
+                }
+                warteOderSchreibe();
+            }
+        } finally {
+            sperre.unlock();
+        }
+    }
+
+    /**
+     * Sichert alle noch offenen Einträge und schließt das Journal.
+     */
+    @Override
+    public void close() throws IOException {
+        sperre.lock();
+        try {
+            if (geschlossen) {
+                return;
+            }
+            while (fehler == null && (schreibtGerade || dauerhaft < angehaengt)) {
+                warteOderSchreibe();
+            }
+            geschlossen = true;
+            if (segment != null) {
+                segment.close();
+            }
+        } finally {
+            sperre.unlock();
+        }
+    }
+
+    /**
+     * Entweder schreibt gerade ein anderer Thread – dann wird gewartet – oder dieser Thread
+     * übernimmt den gesammelten Puffer und sichert ihn. Wird mit gehaltener Sperre aufgerufen.
+     */
+    private void warteOderSchreibe() {
+        if (schreibtGerade) {
+            gesichert.awaitUninterruptibly();
+            return;
+        }
+        schreibtGerade = true;
+        ByteBuffer stapel = sammelPuffer;
+        sammelPuffer = schreibPuffer; // Neue Einträge landen während des Schreibens im anderen Puffer
+        schreibPuffer = stapel;
+        long bis = angehaengt;
+
+        IOException schreibFehler = null;
+        sperre.unlock();
+        try {
+            stapel.flip();
+            schreibenUndSichern(stapel);
+        } catch (IOException e) {
+            schreibFehler = e;
+        } finally {
+            stapel.clear();
+            sperre.lock();
+        }
+        schreibtGerade = false;
+        if (schreibFehler != null) {
+            fehler = schreibFehler;
+        } else {
+            dauerhaft = bis;
+        }
+        gesichert.signalAll();
+    }
+
+    private void pruefeZustand() throws IOException {
+        if (geschlossen) {
+            throw new IOException("Journal ist geschlossen.");
+        }
+        if (fehler != null) {
+            throw new IOException("Journal konnte nicht geschrieben werden.", fehler);
+        }
+    }
+
+    /**
+     * Lässt den nächsten Schreibvorgang mit der Exception fehlschlagen, bevor etwas geschrieben wird.
+     * Für Tests, die einen Schreibfehler mitten im laufenden Betrieb brauchen.
+     */
+    void schreibfehlerAusloesen(IOException e) {
+        naechsterSchreibfehler = e;
+    }
+
+    private void schreibenUndSichern(ByteBuffer daten) throws IOException {
+        IOException ausgeloest = naechsterSchreibfehler;
+        if (ausgeloest != null) {
+            naechsterSchreibfehler = null;
+            throw ausgeloest;
+        }
+        if (segment == null || (segmentBytes > 0 && segmentBytes + daten.remaining() > segmentGroesse)) {
+            neuesSegment();
+        }
+        while (daten.hasRemaining()) {
+            segmentBytes += segment.write(daten);
+        }
+        segment.force(false);
+    }
+
+    private void neuesSegment() throws IOException {
+        if (segment != null) {
+            segment.close();
+        }
+        segmentNummer++;
+        segment = FileChannel.open(segmentPfad(verzeichnis, segmentNummer),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        segmentBytes = 0;
+        verzeichnisSichern(verzeichnis);
+    }
+
+    private void kodieren(ByteBuffer ziel, int kontoId, long deltaCent) {
+        int start = ziel.position();
+        ziel.putInt(kontoId).putLong(deltaCent);
+        ziel.putInt(pruefsumme(ziel, start));
+    }
+
+    private int pruefsumme(ByteBuffer puffer, int start) {
+        return pruefsumme(crc, puffer, start);
+    }
+
+    private static int pruefsumme(CRC32 crc, ByteBuffer puffer, int start) {
+        crc.reset();
+        crc.update(puffer.slice(start, EINTRAG_GROESSE - Integer.BYTES));
+        return (int) crc.getValue();
+    }
+
+    private void nachspielen(List<Path> segmente, BuchungsVerbraucher verbraucher) throws IOException {
+        ByteBuffer puffer = ByteBuffer.allocateDirect(PUFFER_GROESSE);
+        for (int i = 0; i < segmente.size(); i++) {
+            Path pfad = segmente.get(i);
+            boolean letztes = i == segmente.size() - 1;
+            try (FileChannel kanal = FileChannel.open(pfad, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long gueltig = leseSegment(kanal, puffer, crc, verbraucher);
+                if (gueltig < kanal.size()) {
+                    if (!letztes) {
+                        throw new IOException("Journal-Segment beschädigt: " + pfad + " ab Byte " + gueltig);
+                    }
+                    kanal.truncate(gueltig); // Unvollständiger Eintrag vom letzten Absturz
+                    kanal.force(true);
+                }
+            }
+            segmentNummer = segmentNummer(pfad);
+        }
+        if (!segmente.isEmpty()) {
+            Path letztes = segmente.get(segmente.size() - 1);
+            segment = FileChannel.open(letztes, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            segmentBytes = segment.size();
+        }
+    }
+
+    /**
+     * Liest alle gültigen Einträge eines Segments.
+     * @return Die Länge des gültigen Anfangs des Segments in Bytes.
+     */
+    private static long leseSegment(FileChannel kanal, ByteBuffer puffer, CRC32 crc, BuchungsVerbraucher verbraucher)
+            throws IOException {
+        long gueltig = 0;
+        puffer.clear();
+        while (kanal.read(puffer) > 0 || puffer.position() > 0) {
+            puffer.flip();
+            if (puffer.remaining() < EINTRAG_GROESSE) {
+                break; // Rest ist ein abgeschnittener Eintrag
+            }
+            while (puffer.remaining() >= EINTRAG_GROESSE) {
+                int start = puffer.position();
+                int kontoId = puffer.getInt();
+                long deltaCent = puffer.getLong();
+                int gespeichert = puffer.getInt();
+                if (gespeichert != pruefsumme(crc, puffer, start)) {
+                    return gueltig;
+                }
+                verbraucher.buchung(kontoId, deltaCent);
+                gueltig += EINTRAG_GROESSE;
+            }
+            puffer.compact();
+        }
+        return gueltig;
+    }
+
+    /**
+     * Macht neue, umbenannte oder gelöschte Verzeichniseinträge dauerhaft.
+     */
+    static void verzeichnisSichern(Path verzeichnis) {
+        try (FileChannel kanal = FileChannel.open(verzeichnis, StandardOpenOption.READ)) {
+            kanal.force(true);
+        } catch (IOException e) {
+            // Nicht jedes Betriebssystem erlaubt das Öffnen von Verzeichnissen – dann bleibt es beim fsync der Datei
+        }
+    }
+
+    /**
+     * Liest ein abgeschlossenes Segment vollständig.
+     *
+     * @param segment Der Pfad der Segmentdatei.
+     * @param verbraucher Empfängt die Buchungen.
+     * @throws IOException wenn das Segment nicht gelesen werden kann oder beschädigt ist.
+     */
+    static void lesen(Path segment, BuchungsVerbraucher verbraucher) throws IOException {
+        try (FileChannel kanal = FileChannel.open(segment, StandardOpenOption.READ)) {
+            long gueltig = leseSegment(kanal, ByteBuffer.allocateDirect(PUFFER_GROESSE), new CRC32(), verbraucher);
+            if (gueltig < kanal.size()) {
+                throw new IOException("Journal-Segment beschädigt: " + segment + " ab Byte " + gueltig);
+            }
+        }
+    }
+
+    /**
+     * Löscht alle Segmente bis einschließlich der angegebenen Nummer.
+     *
+     * @param verzeichnis Das Journal-Verzeichnis.
+     * @param bisSegment Die Nummer des letzten zu löschenden Segments.
+     * @throws IOException wenn ein Segment nicht gelöscht werden kann.
+     */
+    static void segmenteLoeschenBis(Path verzeichnis, long bisSegment) throws IOException {
+        for (Path pfad : segmente(verzeichnis)) {
+            if (segmentNummer(pfad) <= bisSegment) {
+                Files.deleteIfExists(pfad);
+            }
+        }
+    }
+
+    /**
+     * Gibt alle Segmentdateien eines Verzeichnisses in aufsteigender Reihenfolge zurück.
+     */
+    static List<Path> segmente(Path verzeichnis) throws IOException {
+        List<Path> segmente = new ArrayList<>();
+        if (!Files.isDirectory(verzeichnis)) {
+            return segmente;
+        }
+        try (Stream<Path> dateien = Files.list(verzeichnis)) {
+            dateien.filter(KontoJournal::istSegment).forEach(segmente::add);
+        }
+        segmente.sort((a, b) -> Long.compare(segmentNummer(a), segmentNummer(b)));
+        return segmente;
+    }
+
+    static boolean istSegment(Path pfad) {
+        String name = pfad.getFileName().toString();
+        return name.startsWith(PRAEFIX) && name.endsWith(SUFFIX);
+    }
+
+    static long segmentNummer(Path pfad) {
+        String name = pfad.getFileName().toString();
+        return Long.parseLong(name.substring(PRAEFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    static Path segmentPfad(Path verzeichnis, long nummer) {
+        return verzeichnis.resolve(String.format("%s%016d%s", PRAEFIX, nummer, SUFFIX));
+    }
+}
@@ -0,0 +1,338 @@
+package org.example.zerotohero.persistenz;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.zerotohero.ereignis.Ereignisse;
+import org.example.zerotohero.oop.kapselung.KonkurrentesBankKonto;
+import org.example.zerotohero.metriken.KontoMetriken;
+import org.example.zerotohero.metriken.KontoMetriken.Ergebnis;
+import org.example.zerotohero.metriken.KontoMetriken.Operation;
+import org.example.zerotohero.oop.kapselung.KontoSpeicher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Kontostände in PostgreSQL mit Write-Behind-Cache.
+ *
+ * Beim Start werden alle Konten aus der Tabelle {@code konto} in einen {@link KontoSpeicher}
+ * geladen. Lesen und Buchen laufen danach nur im Speicher. Geänderte Konten werden in
+ * {@link GeaenderteKonten} markiert und in JDBC-Batches geschrieben: regelmäßig nach
+ * {@code zerotohero.konten.flush-intervall-ms} und sofort im Hintergrund, sobald
+ * {@code zerotohero.konten.flush-schwelle} Konten geändert wurden. Geschrieben wird immer der
+ * aktuelle Kontostand, mehrere Buchungen auf dasselbe Konto ergeben also nur eine Zeile im Batch.
+ *
+ * Ein {@code UPDATE}, das keine Zeile trifft, wird als {@code INSERT} wiederholt. So geht auch ein Konto
+ * nicht verloren, das erst nach einem höher nummerierten Konto markiert und geschrieben wird. Scheitert ein
+ * Flush, werden seine Konten beim nächsten Versuch alle über diesen Weg geschrieben, denn ein Teil der
+ * Batches ist dann womöglich schon festgeschrieben. Der Hintergrund-Flush wiederholt es mit wachsender
+ * Wartezeit, solange die Datenbank nicht erreichbar ist.
+ */
+@Repository
+public class KontoRepository {
+
+    private static final String TABELLE_ANLEGEN =
+            "CREATE TABLE IF NOT EXISTS konto (konto_id INTEGER PRIMARY KEY, kontostand_cent BIGINT NOT NULL)";
+    private static final String ALLE_LADEN = "SELECT konto_id, kontostand_cent FROM konto";
+    private static final String EINFUEGEN = "INSERT INTO konto (konto_id, kontostand_cent) VALUES (?, ?)";
+    private static final String AKTUALISIEREN = "UPDATE konto SET kontostand_cent = ? WHERE konto_id = ?";
+    private static final KontoMetriken METRIKEN = KontoMetriken.standard();
+    private static final long ERSTE_WARTEZEIT_MS = 100;
+    private static final long LAENGSTE_WARTEZEIT_MS = 30_000;
+
+    private final JdbcTemplate jdbc;
+    private final int flushSchwelle;
+    private final int batchGroesse;
+
+    private final KontoSpeicher speicher = new KontoSpeicher();
+    private final GeaenderteKonten geaendert = new GeaenderteKonten();
+    private final AtomicInteger anzahlGeaendert = new AtomicInteger();
+    private final ReentrantLock flushSperre = new ReentrantLock();
+    private final AtomicBoolean flushAngefordert = new AtomicBoolean();
+    private final ScheduledExecutorService flushAusfuehrer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "konto-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile long wartezeitMs = ERSTE_WARTEZEIT_MS; // Bis zum nächsten Versuch nach einem Fehler
+    private int gespeicherteKonten; // Konten ab dieser Nummer gibt es sicher noch nicht in der Tabelle
+
+    public KontoRepository(JdbcTemplate jdbc,
+                           @Value("${zerotohero.konten.flush-schwelle:10000}") int flushSchwelle,
+                           @Value("${zerotohero.konten.batch-groesse:1000}") int batchGroesse) {
+        this.jdbc = jdbc;
+        this.flushSchwelle = flushSchwelle;
+        this.batchGroesse = batchGroesse;
+    }
+
+    /**
+     * Legt die Tabelle bei Bedarf an und lädt alle Kontostände in den Speicher.
+     */
+    @PostConstruct
+    void laden() {
+        jdbc.execute(TABELLE_ANLEGEN);
+        BitSet vorhanden = new BitSet();
+        jdbc.query(ALLE_LADEN, zeile -> {
+            int kontoId = zeile.getInt(1);
+            speicher.setzenCent(kontoId, zeile.getLong(2));
+            vorhanden.set(kontoId);
+        });
+        // Lücken (angelegt, aber vor dem Absturz nicht geschrieben) existieren im Speicher mit 0 EUR
+        // und bekommen jetzt ihre Zeile, damit spätere Buchungen per UPDATE geschrieben werden können
+        int anzahl = speicher.anzahlKonten();
+        int[] luecken = new int[anzahl - vorhanden.cardinality()];
+        for (int kontoId = vorhanden.nextClearBit(0), i = 0; kontoId < anzahl; kontoId = vorhanden.nextClearBit(kontoId + 1)) {
+            luecken[i++] = kontoId;
+        }
+        batchweise(EINFUEGEN, luecken, 0, luecken.length, false);
+        gespeicherteKonten = anzahl;
+    }
+
+    /**
+     * Legt ein neues Konto an. Es wird mit dem nächsten Flush in die Tabelle geschrieben.
+     *
+     * @param initialerKontostand Der anfängliche Kontostand in EUR.
+     * @return Die Kontonummer.
+     */
+    public int anlegen(double initialerKontostand) {
+        int kontoId = speicher.anlegen(initialerKontostand);
+        markieren(kontoId);
+        return kontoId;
+    }
+
+    /**
+     * Prüft, ob ein Konto existiert.
+     *
+     * @param kontoId Die Kontonummer.
+     * @return {@code true}, wenn es das Konto gibt.
+     */
+    public boolean existiert(int kontoId) {
+        return kontoId >= 0 && kontoId < speicher.anzahlKonten();
+    }
+
+    public double getKontostand(int kontoId) {
+        return speicher.getKontostand(kontoId);
+    }
+
+    public long getKontostandCent(int kontoId) {
+        return speicher.getKontostandCent(kontoId);
+    }
+
+    /**
+     * Zahlt einen Betrag ein.
+     *
+     * @param kontoId Die Kontonummer.
+     * @param betrag Der Betrag in EUR. Muss positiv sein.
+     * @return {@code true}, wenn die Einzahlung verbucht wurde.
+     */
+    public boolean einzahlen(int kontoId, double betrag) {
+        long start = KontoMetriken.start();
+        if (!speicher.einzahlen(kontoId, betrag)) {
+            METRIKEN.erfassen(Operation.EINZAHLUNG, Ergebnis.UNGUELTIGER_BETRAG, start);
+            return false;
+        }
+        markieren(kontoId);
+        METRIKEN.erfassen(Operation.EINZAHLUNG, Ergebnis.ERFOLG, start);
+        return true;
+    }
+
+    /**
+     * Hebt einen Betrag ab, falls ausreichend Deckung vorhanden ist.
+     *
+     * @param kontoId Die Kontonummer.
+     * @param betrag Der Betrag in EUR. Muss positiv sein.
+     * @return {@code true}, wenn die Abhebung verbucht wurde.
+     */
+    public boolean abheben(int kontoId, double betrag) {
+        long start = KontoMetriken.start();
+        if (!speicher.abheben(kontoId, betrag)) {
+            METRIKEN.erfassen(Operation.ABHEBUNG, ablehnungsGrund(betrag), start);
+            return false;
+        }
+        markieren(kontoId);
+        METRIKEN.erfassen(Operation.ABHEBUNG, Ergebnis.ERFOLG, start);
+        return true;
+    }
+
+    /**
+     * Überweist einen Betrag. Zuerst wird per CAS abgebucht, erst danach gutgeschrieben,
+     * es kann also kein Geld entstehen, und ohne Deckung findet keine Buchung statt. Scheitert die
+     * Gutschrift, weil das Zielkonto überlaufen würde, wird die Abbuchung zurückgebucht.
+     *
+     * @param vonKontoId Das belastete Konto.
+     * @param nachKontoId Das begünstigte Konto.
+     * @param betrag Der Betrag in EUR. Muss positiv sein.
+     * @return {@code true}, wenn die Überweisung verbucht wurde.
+     */
+    public boolean ueberweisen(int vonKontoId, int nachKontoId, double betrag) {
+        long start = KontoMetriken.start();
+        long cent = KonkurrentesBankKonto.inCent(betrag);
+        speicher.getKontostandCent(nachKontoId); // Prüft das Zielkonto vor dem Abbuchen
+        if (!speicher.abhebenCent(vonKontoId, cent)) {
+            METRIKEN.erfassen(Operation.UEBERWEISUNG, ablehnungsGrund(betrag), start);
+            return false;
+        }
+        if (!speicher.einzahlenCent(nachKontoId, cent)) {
+            speicher.einzahlenCent(vonKontoId, cent); // Zurückbuchen; der Betrag war eben noch auf dem Konto
+            METRIKEN.erfassen(Operation.UEBERWEISUNG, Ergebnis.UNGUELTIGER_BETRAG, start);
+            return false;
+        }
+        markieren(vonKontoId);
+        markieren(nachKontoId);
+        METRIKEN.erfassen(Operation.UEBERWEISUNG, Ergebnis.ERFOLG, start);
+        return true;
+    }
+
+    private static Ergebnis ablehnungsGrund(double betrag) {
+        return KonkurrentesBankKonto.inCent(betrag) <= 0 ? Ergebnis.UNGUELTIGER_BETRAG : Ergebnis.UNGENUEGENDE_DECKUNG;
+    }
+
+    /**
+     * Schreibt alle geänderten Konten in die Datenbank.
+     *
+     * @return Die Anzahl der geschriebenen Konten.
+     */
+    @Scheduled(fixedDelayString = "${zerotohero.konten.flush-intervall-ms:1000}")
+    public int flush() {
+        flushSperre.lock();
+        try {
+            flushAngefordert.set(false);
+            int anzahl = anzahlGeaendert.getAndSet(0);
+            if (anzahl == 0) {
+                return 0;
+            }
+            int[][] kontoIds = {new int[Math.max(anzahl, 16)]};
+            int[] gesammelt = {0};
+            geaendert.abholen(kontoId -> {
+                if (gesammelt[0] == kontoIds[0].length) {
+                    kontoIds[0] = Arrays.copyOf(kontoIds[0], gesammelt[0] * 2);
+                }
+                kontoIds[0][gesammelt[0]++] = kontoId;
+            });
+            try {
+                schreiben(kontoIds[0], gesammelt[0]);
+            } catch (RuntimeException e) {
+                for (int i = 0; i < gesammelt[0]; i++) {
+                    // Beim nächsten Flush erneut versuchen, aber ohne sofort einen auszulösen
+                    if (geaendert.markieren(kontoIds[0][i])) {
+                        anzahlGeaendert.incrementAndGet();
+                    }
+                }
+                throw e;
+            }
+            return gesammelt[0];
+        } finally {
+            flushSperre.unlock();
+        }
+    }
+
+    private void schreiben(int[] kontoIds, int anzahl) {
+        int neuAb = anzahl;
+        for (int i = 0; i < anzahl; i++) { // Die Nummern sind aufsteigend sortiert
+            if (kontoIds[i] >= gespeicherteKonten) {
+                neuAb = i;
+                break;
+            }
+        }
+        try {
+            int[] fehlend = batchweise(AKTUALISIEREN, kontoIds, 0, neuAb, true);
+            batchweise(EINFUEGEN, fehlend, 0, fehlend.length, false);
+            batchweise(EINFUEGEN, kontoIds, neuAb, anzahl, false);
+        } finally {
+            // Auch nach einem Fehler: Frühere Batches können schon festgeschrieben sein. Ein erneutes INSERT
+            // verletzte den Primärschlüssel, der nächste Versuch geht daher über UPDATE und INSERT der Lücken.
+            if (neuAb < anzahl) {
+                gespeicherteKonten = kontoIds[anzahl - 1] + 1;
+            }
+        }
+    }
+
+    /**
+     * @return Die Kontonummern, für die die Anweisung keine Zeile getroffen hat.
+     */
+    private int[] batchweise(String sql, int[] kontoIds, int von, int bis, boolean kontostandZuerst) {
+        int[] ohneZeile = new int[0];
+        for (int start = von; start < bis; start += batchGroesse) {
+            int ende = Math.min(start + batchGroesse, bis);
+            int basis = start;
+            int[] zeilen = jdbc.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement anweisung, int i) throws SQLException {
+                    int kontoId = kontoIds[basis + i];
+                    long cent = speicher.getKontostandCent(kontoId); // Aktueller Stand, nach dem Abholen gelesen
+                    anweisung.setLong(kontostandZuerst ? 1 : 2, cent);
+                    anweisung.setInt(kontostandZuerst ? 2 : 1, kontoId);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return ende - basis;
+                }
+            });
+            for (int i = 0; i < zeilen.length; i++) {
+                if (zeilen[i] == 0) { // SUCCESS_NO_INFO (-2) zählt als getroffen
+                    ohneZeile = Arrays.copyOf(ohneZeile, ohneZeile.length + 1);
+                    ohneZeile[ohneZeile.length - 1] = kontoIds[basis + i];
+                }
+            }
+        }
+        return ohneZeile;
+    }
+
+    private void markieren(int kontoId) {
+        if (geaendert.markieren(kontoId)
+                && anzahlGeaendert.incrementAndGet() >= flushSchwelle
+                && flushAngefordert.compareAndSet(false, true)) {
+            try {
+                flushAusfuehrer.execute(this::flushMitWarnung);
+            } catch (RejectedExecutionException e) {
+                flushMitWarnung(); // Nach beenden() gibt es keinen Hintergrund-Flush mehr, also selbst schreiben
+            }
+        }
+    }
+
+    /**
+     * Flusht und plant nach einem Fehler den nächsten Versuch mit doppelter Wartezeit, höchstens
+     * {@value #LAENGSTE_WARTEZEIT_MS} ms. Bis dahin löst {@link #markieren} keinen weiteren Flush aus.
+     */
+    private void flushMitWarnung() {
+        try {
+            flush();
+            wartezeitMs = ERSTE_WARTEZEIT_MS;
+        } catch (RuntimeException e) {
+            // Die Konten sind wieder markiert und werden beim nächsten Flush erneut geschrieben
+            long wartezeit = wartezeitMs;
+            wartezeitMs = Math.min(wartezeit * 2, LAENGSTE_WARTEZEIT_MS);
+            Ereignisse.warnung("Flush der Kontostände fehlgeschlagen, nächster Versuch in " + wartezeit + " ms: {}", e);
+            flushAngefordert.set(true);
+            try {
+                flushAusfuehrer.schedule(this::flushMitWarnung, wartezeit, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException beendet) {
+                flushAngefordert.set(false); // Kein Hintergrund-Flush mehr; der nächste Aufruf von flush() schreibt
+            }
+        }
+    }
+
+    /**
+     * Schreibt beim Herunterfahren alle noch offenen Änderungen.
+     */
+    @PreDestroy
+    void beenden() {
+        flushAusfuehrer.shutdown();
+        flush();
+    }
+}
@@ -0,0 +1,237 @@
+package org.example.zerotohero.persistenz;
+
+import org.example.zerotohero.oop.kapselung.KontoSpeicher;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Binärer Snapshot aller Kontostände eines {@link KontoSpeicher}.
+ *
+ * Aufbau einer Datei {@code snapshot-<segment>.bin} (Little Endian):
+ * Kennung, Version, Nummer des letzten im Snapshot enthaltenen Journal-Segments,
+ * Anzahl der Konten, danach alle Kontostände in Cent als {@code long} in Kontonummer-Reihenfolge
+ * und zum Schluss eine CRC32C-Prüfsumme über alles davor.
+ *
+ * Snapshots werden zuerst in eine temporäre Datei geschrieben, gesichert und dann atomar
+ * umbenannt – eine halb geschriebene Datei wird also nie als Snapshot gefunden. Danach wird das
+ * Verzeichnis gesichert, damit die Umbenennung dauerhaft ist, bevor Journal-Segmente gelöscht werden.
+ */
+public final class KontoSnapshot {
+
+    private static final int KENNUNG = 0x4B534E50; // "KSNP"
+    private static final int VERSION = 1;
+    private static final int KOPF_GROESSE = 24;
+    private static final int BLOCK_KONTEN = 128 * 1024; // 1 MiB pro Lese-/Schreibblock
+    private static final String PRAEFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+
+    private KontoSnapshot() {
+    }
+
+    /**
+     * Schreibt einen Snapshot. Der Speicher darf währenddessen nicht verändert werden. Kehrt erst zurück,
+     * wenn Datei und Verzeichniseintrag gesichert sind.
+     *
+     * @param verzeichnis Das Zielverzeichnis.
+     * @param speicher Der zu sichernde Speicher.
+     * @param bisSegment Die Nummer des letzten Journal-Segments, das im Speicher enthalten ist.
+     * @return Der Pfad des Snapshots.
+     * @throws IOException wenn nicht geschrieben werden kann.
+     */
+    public static Path schreiben(Path verzeichnis, KontoSpeicher speicher, long bisSegment) throws IOException {
+        Path ziel = snapshotPfad(verzeichnis, bisSegment);
+        Path temporaer = verzeichnis.resolve(ziel.getFileName() + ".tmp");
+        int anzahl = speicher.anzahlKonten();
+        CRC32C crc = new CRC32C();
+        ByteBuffer puffer = ByteBuffer.allocateDirect(BLOCK_KONTEN * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+        try (FileChannel kanal = FileChannel.open(temporaer,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            puffer.putInt(KENNUNG).putInt(VERSION).putLong(bisSegment).putInt(anzahl).putInt(0).flip();
+            schreibenMitPruefsumme(kanal, puffer, crc);
+
+            for (int kontoId = 0; kontoId < anzahl; kontoId += BLOCK_KONTEN) {
+                int laenge = Math.min(BLOCK_KONTEN, anzahl - kontoId);
+                puffer.clear();
+                LongBuffer werte = puffer.asLongBuffer();
+                werte.limit(laenge);
+                speicher.kopierenCent(kontoId, werte);
+                puffer.limit(laenge * Long.BYTES);
+                schreibenMitPruefsumme(kanal, puffer, crc);
+            }
+
+            puffer.clear();
+            puffer.putLong(crc.getValue()).flip();
+            while (puffer.hasRemaining()) {
+                kanal.write(puffer);
+            }
+            kanal.force(true);
+        }
+        Files.move(temporaer, ziel, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        KontoJournal.verzeichnisSichern(verzeichnis);
+        return ziel;
+    }
+
+    /**
+     * Lädt einen Snapshot in einen leeren Speicher.
+     *
+     * @param datei Die Snapshot-Datei.
+     * @param speicher Der leere Zielspeicher.
+     * @return Die Nummer des letzten im Snapshot enthaltenen Journal-Segments.
+     * @throws IOException wenn die Datei nicht gelesen werden kann oder beschädigt ist.
+     */
+    public static long laden(Path datei, KontoSpeicher speicher) throws IOException {
+        CRC32C crc = new CRC32C();
+        ByteBuffer puffer = ByteBuffer.allocateDirect(BLOCK_KONTEN * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+        try (FileChannel kanal = FileChannel.open(datei, StandardOpenOption.READ)) {
+            puffer.limit(KOPF_GROESSE);
+            lesenMitPruefsumme(kanal, puffer, crc);
+            if (puffer.getInt() != KENNUNG || puffer.getInt() != VERSION) {
+                throw new IOException("Keine Snapshot-Datei: " + datei);
+            }
+            long bisSegment = puffer.getLong();
+            int anzahl = puffer.getInt();
+            if (kanal.size() != KOPF_GROESSE + (long) anzahl * Long.BYTES + Long.BYTES) {
+                throw new IOException("Snapshot hat eine falsche Länge: " + datei);
+            }
+
+            for (int kontoId = 0; kontoId < anzahl; kontoId += BLOCK_KONTEN) {
+                int laenge = Math.min(BLOCK_KONTEN, anzahl - kontoId);
+                puffer.clear().limit(laenge * Long.BYTES);
+                lesenMitPruefsumme(kanal, puffer, crc);
+                speicher.ladenCent(kontoId, puffer.asLongBuffer());
+            }
+
+            long erwartet = crc.getValue();
+            puffer.clear().limit(Long.BYTES);
+            lesenMitPruefsumme(kanal, puffer, new CRC32C());
+            if (puffer.getLong() != erwartet) {
+                throw new IOException("Prüfsumme des Snapshots stimmt nicht: " + datei);
+            }
+            return bisSegment;
+        }
+    }
+
+    /**
+     * Gibt alle Snapshots eines Verzeichnisses zurück, den neuesten zuerst.
+     */
+    static List<Path> snapshots(Path verzeichnis) throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        if (!Files.isDirectory(verzeichnis)) {
+            return snapshots;
+        }
+        try (Stream<Path> dateien = Files.list(verzeichnis)) {
+            dateien.filter(pfad -> {
+                String name = pfad.getFileName().toString();
+                return name.startsWith(PRAEFIX) && name.endsWith(SUFFIX);
+            }).forEach(snapshots::add);
+        }
+        snapshots.sort((a, b) -> Long.compare(segmentNummer(b), segmentNummer(a)));
+        return snapshots;
+    }
+
+    static long segmentNummer(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(PRAEFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    static Path snapshotPfad(Path verzeichnis, long bisSegment) {
+        return verzeichnis.resolve(String.format("%s%016d%s", PRAEFIX, bisSegment, SUFFIX));
+    }
+
+    @FunctionalInterface
+    private interface Buchung {
+        void ausfuehren(int nummer, ThreadLocalRandom zufall) throws IOException;
+    }
+
+    /**
+     * Hängt Buchungen aus vielen virtuellen Threads an, damit der Gruppen-Commit große Stapel bildet.
+     */
+    private static void parallelAnhaengen(int anzahl, Buchung buchung) {
+        int threads = 4096;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < threads; t++) {
+                int erste = t;
+                executor.submit(() -> {
+                    for (int nummer = erste; nummer < anzahl; nummer += threads) {
+                        buchung.ausfuehren(nummer, ThreadLocalRandom.current());
+                    }
+                    return null;
+                });
+            }
+        }
+    }
+
+    private static void schreibenMitPruefsumme(FileChannel kanal, ByteBuffer puffer, CRC32C crc) throws IOException {
+        crc.update(puffer.duplicate());
+        while (puffer.hasRemaining()) {
+            kanal.write(puffer);
+        }
+    }
+
+    private static void lesenMitPruefsumme(FileChannel kanal, ByteBuffer puffer, CRC32C crc) throws IOException {
+        while (puffer.hasRemaining()) {
+            if (kanal.read(puffer) < 0) {
+                throw new IOException("Snapshot ist unvollständig.");
+            }
+        }
+        puffer.flip();
+        crc.update(puffer.duplicate());
+    }
+
+    /**
+     * Misst die Startzeit für viele Konten: Laden aus Snapshot plus Journal-Rest gegenüber dem
+     * Nachspielen des vollständigen Journals. Optionales Argument: Anzahl der Konten (Standard 10.000.000).
+     */
+    public static void main(String[] args) throws Exception {
+        int anzahl = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int rest = 100_000;
+        Path verzeichnis = Files.createTempDirectory("konto-snapshot");
+        try {
+            try (KontoJournal journal = KontoJournal.oeffnen(verzeichnis, KontoJournal.Modus.GRUPPEN_COMMIT, (k, d) -> { })) {
+                // Vollständiges Journal: ein Eintrag pro Konto
+                parallelAnhaengen(anzahl, (kontoId, zufall) -> journal.anhaengen(kontoId, kontoId % 10_000));
+                long abgeschlossen = journal.abschliessen();
+
+                long start = System.nanoTime();
+                KontoSpeicher vollstaendig = new KontoSpeicher();
+                for (Path segment : KontoJournal.segmente(verzeichnis)) {
+                    KontoJournal.lesen(segment, (kontoId, delta) -> JournalisierterKontoSpeicher.nachspielen(vollstaendig, kontoId, delta));
+                }
+                System.out.printf("Vollständiges Journal nachgespielt: %,d Konten in %,d ms%n",
+                        vollstaendig.anzahlKonten(), (System.nanoTime() - start) / 1_000_000);
+
+                schreiben(verzeichnis, vollstaendig, abgeschlossen);
+                KontoJournal.segmenteLoeschenBis(verzeichnis, abgeschlossen);
+                parallelAnhaengen(rest, (i, zufall) -> journal.anhaengen(zufall.nextInt(anzahl), 1));
+            }
+
+            long start = System.nanoTime();
+            try (JournalisierterKontoSpeicher konten = JournalisierterKontoSpeicher.oeffnen(verzeichnis, KontoJournal.Modus.GRUPPEN_COMMIT)) {
+                System.out.printf("Snapshot + %,d Buchungen Journal-Rest: %,d Konten in %,d ms%n",
+                        rest, konten.getSpeicher().anzahlKonten(), (System.nanoTime() - start) / 1_000_000);
+            }
+        } finally {
+            try (Stream<Path> dateien = Files.walk(verzeichnis)) {
+                dateien.sorted(Comparator.reverseOrder()).forEach(pfad -> pfad.toFile().delete());
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.zerotohero.web;
+
+import org.example.zerotohero.oop.kapselung.KonkurrentesBankKonto;
+import org.example.zerotohero.persistenz.KontoRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * HTTP-Schnittstelle für Kontobuchungen auf Basis des {@link KontoRepository}.
+ *
+ * Die Anfragen laufen auf virtuellen Threads ({@code spring.threads.virtual.enabled}), blockierende
+ * Datenbankzugriffe belegen also keinen Plattform-Thread. Fachliche Fehler werden nicht als Exception
+ * ausgelöst, sondern als vorab erzeugte {@link ResponseEntity} zurückgegeben – dieselben Fälle, für die
+ * {@code UngueltigerBetragRuntimeException} und {@code UngenuegendeDeckungException} stehen.
+ */
+@RestController
+public class KontoController {
+
+    static final ResponseEntity<Object> UNGUELTIGER_BETRAG = fehler(HttpStatus.BAD_REQUEST,
+            "UNGUELTIGER_BETRAG", "Der Betrag muss positiv sein.");
+    static final ResponseEntity<Object> UNGENUEGENDE_DECKUNG = fehler(HttpStatus.CONFLICT,
+            "UNGENUEGENDE_DECKUNG", "Nicht genügend Guthaben vorhanden.");
+    static final ResponseEntity<Object> KONTO_NICHT_GEFUNDEN = fehler(HttpStatus.NOT_FOUND,
+            "KONTO_NICHT_GEFUNDEN", "Das Konto existiert nicht.");
+
+    /**
+     * Antwort mit dem Kontostand eines Kontos.
+     */
+    record KontoAntwort(int kontoId, double kontostand) {
+    }
+
+    /**
+     * Antwort bei einem fachlichen Fehler.
+     */
+    record Fehler(String code, String nachricht) {
+    }
+
+    private final KontoRepository repository;
+
+    public KontoController(KontoRepository repository) {
+        this.repository = repository;
+    }
+
+    @PostMapping("/konten")
+    public ResponseEntity<Object> anlegen(@RequestParam(defaultValue = "0") double betrag) {
+        if (betrag < 0 || !Double.isFinite(betrag)) {
+            return UNGUELTIGER_BETRAG;
+        }
+        int kontoId = repository.anlegen(betrag);
+        return ResponseEntity.status(HttpStatus.CREATED).body(antwort(kontoId));
+    }
+
+    @GetMapping("/konten/{kontoId}")
+    public ResponseEntity<Object> kontostand(@PathVariable int kontoId) {
+        if (!repository.existiert(kontoId)) {
+            return KONTO_NICHT_GEFUNDEN;
+        }
+        return ResponseEntity.ok(antwort(kontoId));
+    }
+
+    @PostMapping("/konten/{kontoId}/einzahlung")
+    public ResponseEntity<Object> einzahlen(@PathVariable int kontoId, @RequestParam double betrag) {
+        if (!repository.existiert(kontoId)) {
+            return KONTO_NICHT_GEFUNDEN;
+        }
+        if (!repository.einzahlen(kontoId, betrag)) {
+            return UNGUELTIGER_BETRAG;
+        }
+        return ResponseEntity.ok(antwort(kontoId));
+    }
+
+    @PostMapping("/konten/{kontoId}/abhebung")
+    public ResponseEntity<Object> abheben(@PathVariable int kontoId, @RequestParam double betrag) {
+        if (!repository.existiert(kontoId)) {
+            return KONTO_NICHT_GEFUNDEN;
+        }
+        if (!istGueltig(betrag)) {
+            return UNGUELTIGER_BETRAG;
+        }
+        if (!repository.abheben(kontoId, betrag)) {
+            return UNGENUEGENDE_DECKUNG;
+        }
+        return ResponseEntity.ok(antwort(kontoId));
+    }
+
+    @PostMapping("/ueberweisungen")
+    public ResponseEntity<Object> ueberweisen(@RequestParam int von, @RequestParam int nach, @RequestParam double betrag) {
+        if (!repository.existiert(von) || !repository.existiert(nach)) {
+            return KONTO_NICHT_GEFUNDEN;
+        }
+        if (!istGueltig(betrag)) {
+            return UNGUELTIGER_BETRAG;
+        }
+        if (!repository.ueberweisen(von, nach, betrag)) {
+            return UNGENUEGENDE_DECKUNG;
+        }
+        return ResponseEntity.ok(antwort(von));
+    }
+
+    private KontoAntwort antwort(int kontoId) {
+        return new KontoAntwort(kontoId, repository.getKontostand(kontoId));
+    }
+
+    private static boolean istGueltig(double betrag) {
+        return KonkurrentesBankKonto.inCent(betrag) > 0;
+    }
+
+    private static ResponseEntity<Object> fehler(HttpStatus status, String code, String nachricht) {
+        return ResponseEntity.status(status).body(new Fehler(code, nachricht));
+    }
+}
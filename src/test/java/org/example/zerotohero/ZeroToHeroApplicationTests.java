@@ -1,9 +1,11 @@
 package org.example.zerotohero;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 
 @SpringBootTest
+@AutoConfigureTestDatabase
 class ZeroToHeroApplicationTests {
 
     @Test
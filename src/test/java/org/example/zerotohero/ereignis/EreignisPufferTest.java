@@ -0,0 +1,160 @@
+package org.example.zerotohero.ereignis;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EreignisPufferTest {
+
+    /** Merkt sich die Zeilen; wird nur vom Hintergrund-Thread aufgerufen. */
+    private static final class SammelSenke implements EreignisSenke {
+        final List<String> zeilen = new ArrayList<>();
+        int stapel;
+
+        @Override
+        public void schreiben(EreignisStufe stufe, CharSequence zeile) {
+            zeilen.add(stufe + " " + zeile);
+        }
+
+        @Override
+        public void leeren() {
+            stapel++;
+        }
+    }
+
+    @Test
+    void formatiertPlatzhalterWieStringVerkettung() {
+        StringBuilder zeile = new StringBuilder();
+        Ereignisse.formatieren(zeile, "{} EUR eingezahlt. Neuer Kontostand: {} EUR", EreignisPuffer.ZWEI_KOMMAZAHLEN, null, 0, 50.0, 150.0);
+        assertThat(zeile.toString()).isEqualTo(50.0 + " EUR eingezahlt. Neuer Kontostand: " + 150.0 + " EUR");
+
+        zeile.setLength(0);
+        Ereignisse.formatieren(zeile, "Alter {} ist gültig, {} bleibt.", EreignisPuffer.GANZZAHL, null, 25, 0, 0);
+        assertThat(zeile.toString()).isEqualTo("Alter 25 ist gültig, {} bleibt.");
+
+        zeile.setLength(0);
+        Ereignisse.formatieren(zeile, "{} schläft.", EreignisPuffer.OBJEKT, "Bello", 0, 0, 0);
+        assertThat(zeile.toString()).isEqualTo("Bello schläft.");
+    }
+
+    @Test
+    void liefertAlleEreignisseJeErzeugerInReihenfolge() throws InterruptedException {
+        SammelSenke senke = new SammelSenke();
+        int erzeuger = 4;
+        int proErzeuger = 20_000;
+        try (EreignisPuffer puffer = new EreignisPuffer(1 << 10, senke)) {
+            ExecutorService executor = Executors.newFixedThreadPool(erzeuger);
+            CountDownLatch fertig = new CountDownLatch(erzeuger);
+            for (int e = 0; e < erzeuger; e++) {
+                String name = "E" + e;
+                executor.execute(() -> {
+                    for (int i = 0; i < proErzeuger; i++) {
+                        // Bei vollem Puffer erneut versuchen, damit nichts verloren geht
+                        while (!puffer.veroeffentlichen(EreignisStufe.INFO, "{} {}", EreignisPuffer.ZWEI_KOMMAZAHLEN, null, 0, name.charAt(1) - '0', i)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    fertig.countDown();
+                });
+            }
+            fertig.await();
+            executor.shutdown();
+            puffer.leeren();
+        }
+
+        assertThat(senke.zeilen).hasSize(erzeuger * proErzeuger);
+        assertThat(senke.stapel).isPositive();
+        Map<String, Double> letzte = new HashMap<>();
+        for (String zeile : senke.zeilen) {
+            String[] teile = zeile.split(" ");
+            double nummer = Double.parseDouble(teile[2]);
+            Double vorher = letzte.put(teile[1], nummer);
+            assertThat(nummer).isEqualTo(vorher == null ? 0.0 : vorher + 1);
+        }
+    }
+
+    @Test
+    void verwirftBeiVollemPufferStattZuBlockieren() {
+        CountDownLatch blockiert = new CountDownLatch(1);
+        EreignisSenke langsam = (stufe, zeile) -> {
+            try {
+                blockiert.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        try (EreignisPuffer puffer = new EreignisPuffer(8, langsam)) {
+            int angenommen = 0;
+            for (int i = 0; i < 100; i++) {
+                if (puffer.veroeffentlichen(EreignisStufe.INFO, "x", EreignisPuffer.KEIN_ARGUMENT, null, 0, 0, 0)) {
+                    angenommen++;
+                }
+            }
+            assertThat(angenommen).isLessThanOrEqualTo(9);
+            assertThat(puffer.getVerworfen()).isEqualTo(100 - angenommen);
+            blockiert.countDown();
+        }
+    }
+
+    @Test
+    void objektArgumenteWerdenBeimMeldenFestgehalten() {
+        CountDownLatch weiter = new CountDownLatch(1);
+        List<String> zeilen = new ArrayList<>();
+        EreignisSenke wartend = (stufe, zeile) -> {
+            try {
+                weiter.await(); // Hält den Hintergrund-Thread beim ersten Ereignis auf
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            zeilen.add(zeile.toString());
+        };
+        StringBuilder veraenderlich = new StringBuilder("vorher");
+        try (EreignisPuffer puffer = new EreignisPuffer(8, wartend)) {
+            puffer.veroeffentlichen(EreignisStufe.INFO, "erstes", EreignisPuffer.KEIN_ARGUMENT, null, 0, 0, 0);
+            puffer.veroeffentlichen(EreignisStufe.INFO, "Stand: {}", EreignisPuffer.OBJEKT, veraenderlich, 0, 0, 0);
+            veraenderlich.setLength(0);
+            veraenderlich.append("nachher");
+            weiter.countDown();
+            puffer.leeren();
+        }
+        assertThat(zeilen).containsExactly("erstes", "Stand: vorher");
+    }
+
+    @Test
+    void konsoleSchreibtDieZeilenImZeichensatzVonSystemOut() {
+        PrintStream original = System.out;
+        String zeile = "Nicht genügend Guthaben: 5,00 € \uD83D\uDCB6";
+        try {
+            for (Charset zeichensatz : new Charset[]{StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1, StandardCharsets.UTF_16}) {
+                ByteArrayOutputStream ausgabe = new ByteArrayOutputStream();
+                System.setOut(new PrintStream(ausgabe, true, zeichensatz));
+                EreignisSenke konsole = EreignisSenke.konsole();
+                konsole.schreiben(EreignisStufe.INFO, new StringBuilder(zeile));
+                konsole.schreiben(EreignisStufe.INFO, "zweite");
+                konsole.leeren();
+                System.out.println("direkt");
+
+                ByteArrayOutputStream erwartet = new ByteArrayOutputStream();
+                PrintStream vergleich = new PrintStream(erwartet, true, zeichensatz);
+                vergleich.println(zeile);
+                vergleich.println("zweite");
+                vergleich.println("direkt");
+                assertThat(ausgabe.toByteArray()).as(zeichensatz.name()).isEqualTo(erwartet.toByteArray());
+            }
+        } finally {
+            System.setOut(original);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.zerotohero.exceptions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MassenDivisionTest {
+
+    @Test
+    void stimmtMitDerEinzelnenDivisionUeberein() {
+        Random zufall = new Random(5);
+        int[] zaehler = new int[10_007];
+        int[] nenner = new int[zaehler.length];
+        for (int i = 0; i < zaehler.length; i++) {
+            zaehler[i] = i % 97 == 0 ? Integer.MIN_VALUE : zufall.nextInt();
+            nenner[i] = switch (i % 4) {
+                case 0 -> 0;
+                case 1 -> -1;
+                default -> zufall.nextInt();
+            };
+        }
+        int[] geprueft = new int[zaehler.length];
+        int[] einzeln = new int[zaehler.length];
+
+        DivisionsErgebnis ergebnis = MassenDivision.dividieren(zaehler, nenner, geprueft);
+        DivisionsErgebnis vergleich = MassenDivision.dividierenEinzeln(zaehler, nenner, einzeln);
+
+        assertThat(geprueft).isEqualTo(einzeln);
+        assertThat(ergebnis.fehler()).isEqualTo(vergleich.fehler());
+        int fehler = 0;
+        for (int i = 0; i < zaehler.length; i++) {
+            assertThat(ergebnis.istFehlgeschlagen(i)).as("Index %d", i).isEqualTo(nenner[i] == 0);
+            if (nenner[i] != 0) {
+                assertThat(geprueft[i]).isEqualTo(zaehler[i] / nenner[i]);
+            } else {
+                fehler++;
+            }
+        }
+        assertThat(ergebnis.anzahlFehler()).isEqualTo(fehler);
+        assertThat(ergebnis.naechsterFehler(1)).isEqualTo(4);
+        assertThat(ergebnis.naechsterFehler(10_005)).isEqualTo(-1);
+    }
+
+    @Test
+    void brichtAbOhneZuSchreiben() {
+        int[] zaehler = {10, 5, 9, 7};
+        int[] ergebnis = new int[4];
+
+        assertThatThrownBy(() -> MassenDivision.dividierenOderAbbrechen(zaehler, new int[]{2, 1, 0, 0}, ergebnis))
+                .isInstanceOf(ArithmeticException.class)
+                .hasMessageContaining("Index 2").hasMessageContaining("2 von 4");
+        assertThat(ergebnis).containsOnly(0);
+
+        MassenDivision.dividierenOderAbbrechen(zaehler, new int[]{2, 1, 3, -7}, ergebnis);
+        assertThat(ergebnis).containsExactly(5, 5, 3, -1);
+    }
+
+    @Test
+    void profilerZaehltProAufrufUndWurfstelle() {
+        AusnahmeProfiler profiler = new AusnahmeProfiler(true);
+        AusnahmeProfiler.Aufrufstelle stelle = profiler.stelle("test");
+        assertThat(profiler.stelle("test")).isSameAs(stelle);
+
+        for (int i = 0; i < 3; i++) {
+            long start = profiler.start();
+            try {
+                throw new IllegalStateException("Wurf " + i);
+            } catch (IllegalStateException e) {
+                stelle.gefangen(e, start);
+            }
+        }
+        ArithmeticException ohneStacktrace = new ArithmeticException();
+        ohneStacktrace.setStackTrace(new StackTraceElement[0]);
+        stelle.gefangen(ohneStacktrace, 0);
+        profiler.stelle("ungenutzt");
+
+        assertThat(profiler.bericht()).singleElement().satisfies(eintrag -> {
+            assertThat(eintrag.stelle()).isEqualTo("test");
+            assertThat(eintrag.gefangen()).isEqualTo(4);
+            assertThat(eintrag.nanos()).isPositive();
+        });
+        assertThat(profiler.wurfstellen()).hasSize(2)
+                .containsEntry("ArithmeticException bei " + AusnahmeProfiler.OHNE_STACKTRACE, 1L)
+                .anySatisfy((wurfstelle, anzahl) -> {
+                    assertThat(wurfstelle).startsWith("IllegalStateException bei " + getClass().getName()
+                            + ".profilerZaehltProAufrufUndWurfstelle(");
+                    assertThat(anzahl).isEqualTo(3);
+                });
+
+        profiler.zuruecksetzen();
+        assertThat(profiler.bericht()).isEmpty();
+        assertThat(profiler.wurfstellen()).isEmpty();
+    }
+
+    @Test
+    void ausgeschaltetZaehltNichts() {
+        AusnahmeProfiler profiler = new AusnahmeProfiler(false);
+        assertThat(profiler.start()).isZero();
+        profiler.stelle("test").gefangen(new ArithmeticException(), 0);
+        assertThat(profiler.bericht()).isEmpty();
+        assertThat(profiler.wurfstellen()).isEmpty();
+    }
+}
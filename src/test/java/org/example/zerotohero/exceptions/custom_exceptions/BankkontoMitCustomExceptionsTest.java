@@ -0,0 +1,66 @@
+package org.example.zerotohero.exceptions.custom_exceptions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class BankkontoMitCustomExceptionsTest {
+
+    @Test
+    void ergebnisModusLiefertJedenStatus() {
+        BankkontoMitCustomExceptions konto = new BankkontoMitCustomExceptions("A", 10.0);
+        AbhebungsErgebnis ergebnis = new AbhebungsErgebnis();
+
+        assertThat(konto.abheben(4.0, ergebnis)).isEqualTo(AbhebungsStatus.ABGEHOBEN);
+        assertThat(ergebnis.istErfolgreich()).isTrue();
+        assertThat(ergebnis.getFehlenderBetrag()).isZero();
+
+        assertThat(konto.abheben(7.5, ergebnis)).isEqualTo(AbhebungsStatus.UNGENUEGENDE_DECKUNG);
+        assertThat(ergebnis.getStatus()).isEqualTo(AbhebungsStatus.UNGENUEGENDE_DECKUNG);
+        assertThat(ergebnis.istErfolgreich()).isFalse();
+        assertThat(ergebnis.getFehlenderBetrag()).isEqualTo(1.5);
+
+        assertThat(konto.abheben(-1.0, ergebnis)).isEqualTo(AbhebungsStatus.UNGUELTIGER_BETRAG);
+        assertThat(ergebnis.getFehlenderBetrag()).isZero();
+        assertThat(konto.getKontostand()).isEqualTo(6.0);
+    }
+
+    @Test
+    void ungueltigeBetraegeAendernDenKontostandNicht() {
+        BankkontoMitCustomExceptions konto = new BankkontoMitCustomExceptions("A", 10.0);
+
+        for (double betrag : new double[]{0.0, -1.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY}) {
+            assertThat(konto.abheben(betrag, new AbhebungsErgebnis())).as("Betrag %s", betrag)
+                    .isEqualTo(AbhebungsStatus.UNGUELTIGER_BETRAG);
+            assertThatThrownBy(() -> konto.abheben(betrag)).isInstanceOf(UngueltigerBetragRuntimeException.class);
+            assertThatThrownBy(() -> konto.abhebenOhneStackTrace(betrag)).isInstanceOf(UngueltigerBetragRuntimeException.class);
+            assertThatThrownBy(() -> konto.einzahlen(betrag)).isInstanceOf(UngueltigerBetragRuntimeException.class);
+        }
+        assertThat(konto.getKontostand()).isEqualTo(10.0);
+    }
+
+    @Test
+    void leichteExceptionHatKeinenStackTraceUndBautDieNachrichtEinmal() throws Exception {
+        BankkontoMitCustomExceptions konto = new BankkontoMitCustomExceptions("A", 10.0);
+
+        UngenuegendeDeckungException leicht = catchThrowableOfType(UngenuegendeDeckungException.class,
+                () -> konto.abhebenOhneStackTrace(12.5));
+        UngenuegendeDeckungException normal = catchThrowableOfType(UngenuegendeDeckungException.class,
+                () -> konto.abheben(12.5));
+
+        assertThat(leicht.getStackTrace()).isEmpty();
+        assertThat(normal.getStackTrace()).isNotEmpty();
+        assertThat(leicht.getFehlenderBetrag()).isEqualTo(2.5);
+        assertThat(leicht.getMessage()).isEqualTo(normal.getMessage())
+                .isEqualTo("Nicht genügend Guthaben für Abhebung von 12.5 EUR. Es fehlen 2.5 EUR.");
+        assertThat(leicht.getMessage()).isSameAs(leicht.getMessage());
+        leicht.addSuppressed(new IllegalStateException());
+        assertThat(leicht.getSuppressed()).isEmpty();
+        assertThat(konto.getKontostand()).isEqualTo(10.0);
+
+        konto.abhebenOhneStackTrace(10.0);
+        assertThat(konto.getKontostand()).isZero();
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.zerotohero.exceptions.custom_exceptions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UeberweisungsStapelTest {
+
+    @Test
+    void liefertStatusProUeberweisungStattExceptions() {
+        BankkontoMitCustomExceptions a = new BankkontoMitCustomExceptions("A", 10.0);
+        BankkontoMitCustomExceptions b = new BankkontoMitCustomExceptions("B", 0.0);
+
+        UeberweisungsStatus[] status = new UeberweisungsStapel().ausfuehren(List.of(
+                new Ueberweisung(a, b, 4.0),
+                new Ueberweisung(b, a, 5.0),
+                new Ueberweisung(a, b, 0.0),
+                new Ueberweisung(a, a, 1.0),
+                new Ueberweisung(a, b, 6.0)
+        ));
+
+        assertThat(status).containsExactly(
+                UeberweisungsStatus.AUSGEFUEHRT,
+                UeberweisungsStatus.UNGENUEGENDE_DECKUNG,
+                UeberweisungsStatus.UNGUELTIGER_BETRAG,
+                UeberweisungsStatus.GLEICHES_KONTO,
+                UeberweisungsStatus.AUSGEFUEHRT);
+        assertThat(a.getKontostand()).isZero();
+        assertThat(b.getKontostand()).isEqualTo(10.0);
+    }
+
+    @Test
+    void parallelLaufendeStapelSindDeadlockfreiUndErhaltenDieSumme() throws Exception {
+        List<BankkontoMitCustomExceptions> konten = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            konten.add(new BankkontoMitCustomExceptions("K" + i, 100.0));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(pool.submit(() -> {
+                    ThreadLocalRandom zufall = ThreadLocalRandom.current();
+                    UeberweisungsStapel stapel = new UeberweisungsStapel();
+                    for (int runde = 0; runde < 200; runde++) {
+                        List<Ueberweisung> ueberweisungen = new ArrayList<>();
+                        for (int i = 0; i < 50; i++) {
+                            ueberweisungen.add(new Ueberweisung(
+                                    konten.get(zufall.nextInt(konten.size())),
+                                    konten.get(zufall.nextInt(konten.size())),
+                                    zufall.nextInt(1, 40)));
+                        }
+                        stapel.ausfuehren(ueberweisungen);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        double summe = konten.stream().mapToDouble(BankkontoMitCustomExceptions::getKontostand).sum();
+        assertThat(summe).isEqualTo(1600.0);
+        assertThat(konten).allSatisfy(konto -> assertThat(konto.getKontostand()).isNotNegative());
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.zerotohero.exceptions.throwsx;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DateiKopfSondeTest {
+
+    @TempDir
+    Path verzeichnis;
+
+    @Test
+    void liestDenKopfUndErneuertIhnNachAenderung() throws IOException {
+        DateiKopfSonde sonde = new DateiKopfSonde(4, 10);
+        Path datei = verzeichnis.resolve("a.txt");
+        Files.writeString(datei, "Hallo Welt", StandardCharsets.US_ASCII);
+
+        DateiKopfSonde.DateiKopf erster = sonde.proben(datei);
+        assertThat(erster.kopf()).isEqualTo("Hall".getBytes(StandardCharsets.US_ASCII));
+        assertThat(erster.erstesByte()).isEqualTo('H');
+        assertThat(sonde.proben(datei)).isSameAs(erster);
+
+        Files.writeString(datei, "Servus", StandardCharsets.US_ASCII);
+        Files.setLastModifiedTime(datei, FileTime.fromMillis(erster.geaendert() + 2_000));
+        assertThat(sonde.proben(datei).kopf()).isEqualTo("Serv".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void kopfWirdNachAussenNurAlsKopieGegeben() throws IOException {
+        DateiKopfSonde sonde = new DateiKopfSonde(4, 10);
+        Path datei = verzeichnis.resolve("b.txt");
+        Files.writeString(datei, "%PDF-1.7", StandardCharsets.US_ASCII);
+
+        sonde.proben(datei).kopf()[0] = 'X';
+        byte[] eigene = "Text".getBytes(StandardCharsets.US_ASCII);
+        DateiKopfSonde.DateiKopf selbstGebaut = new DateiKopfSonde.DateiKopf(datei, 0, 4, eigene);
+        eigene[0] = 'N';
+
+        assertThat(sonde.proben(datei).beginntMit("%PDF".getBytes(StandardCharsets.US_ASCII))).isTrue();
+        assertThat(selbstGebaut.erstesByte()).isEqualTo('T');
+    }
+
+    @Test
+    void zuletztBenutzteEintraegeUeberlebenDasVerdraengen() throws IOException {
+        DateiKopfSonde sonde = new DateiKopfSonde(4, 8);
+        Path oft = verzeichnis.resolve("oft");
+        Files.writeString(oft, "oft!");
+        DateiKopfSonde.DateiKopf erster = sonde.proben(oft);
+        for (int i = 0; i < 50; i++) {
+            Path datei = verzeichnis.resolve("d" + i);
+            Files.writeString(datei, "d" + i);
+            sonde.proben(datei);
+            assertThat(sonde.proben(oft)).isSameAs(erster);
+            assertThat(sonde.getCacheGroesse()).isLessThanOrEqualTo(8);
+        }
+    }
+
+    @Test
+    void leereUndFehlendeDateien() throws IOException {
+        DateiKopfSonde sonde = new DateiKopfSonde(4, 10);
+        Path leer = Files.createFile(verzeichnis.resolve("leer"));
+
+        assertThat(sonde.proben(leer).erstesByte()).isEqualTo(-1);
+        assertThatThrownBy(() -> sonde.proben(verzeichnis.resolve("nichtda"))).isInstanceOf(NoSuchFileException.class);
+    }
+
+    @Test
+    void probtDenBaumUndBegrenztDenCache() throws IOException {
+        for (int i = 0; i < 1_200; i++) {
+            Path ordner = Files.createDirectories(verzeichnis.resolve("o" + (i % 7)));
+            Files.writeString(ordner.resolve("d" + i), i % 2 == 0 ? "%PDF-1.7" : "text");
+        }
+        DateiKopfSonde sonde = new DateiKopfSonde(8, 1_000);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            DateiKopfSonde.BaumErgebnis ergebnis = sonde.baumProben(verzeichnis, executor).join();
+
+            assertThat(ergebnis.fehlgeschlagen()).isEmpty();
+            assertThat(ergebnis.koepfe()).hasSize(1_200);
+            assertThat(ergebnis.koepfe().stream()
+                    .filter(kopf -> kopf.beginntMit("%PDF".getBytes(StandardCharsets.US_ASCII)))).hasSize(600);
+            // Beim Überlauf wird ein Achtel auf einmal verdrängt
+            assertThat(sonde.getCacheGroesse()).isBetween(1_000 - 1_000 / 8, 1_000);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
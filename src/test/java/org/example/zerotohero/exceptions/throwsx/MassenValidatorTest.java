@@ -0,0 +1,66 @@
+package org.example.zerotohero.exceptions.throwsx;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MassenValidatorTest {
+
+    @Test
+    void stimmtMitDerEinzelpruefungUeberein() {
+        MassenValidator validator = MassenValidator.mit(
+                Bereichsregel.mindestens("negativ", 0, Schwere.FEHLER),
+                Bereichsregel.hoechstens("hoch", 120, Schwere.WARNUNG),
+                new Bereichsregel("extrem", -1_000, 1_000, Schwere.FEHLER));
+        Random zufall = new Random(3);
+        int[] werte = new int[10_007];
+        for (int i = 0; i < werte.length; i++) {
+            werte[i] = switch (i % 5) {
+                case 0 -> zufall.nextInt();
+                case 1 -> zufall.nextInt(5) - 2 + (zufall.nextBoolean() ? 0 : 120);
+                case 2 -> i % 3 == 0 ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+                default -> zufall.nextInt(2_200) - 1_100;
+            };
+        }
+
+        ValidierungsErgebnis ergebnis = validator.validieren(werte);
+
+        int fehler = 0;
+        for (int i = 0; i < werte.length; i++) {
+            boolean erwarteterFehler = false;
+            for (int r = 0; r < validator.getRegeln().size(); r++) {
+                Bereichsregel regel = validator.getRegeln().get(r);
+                assertThat(ergebnis.verletzt(i, r)).as("Wert %d, Regel %s", werte[i], regel.name()).isEqualTo(regel.verletzt(werte[i]));
+                erwarteterFehler |= regel.schwere() == Schwere.FEHLER && regel.verletzt(werte[i]);
+            }
+            assertThat(ergebnis.istGueltig(i)).isEqualTo(!erwarteterFehler);
+            fehler += erwarteterFehler ? 1 : 0;
+        }
+        assertThat(ergebnis.anzahlFehler()).isEqualTo(fehler);
+        assertThat(ergebnis.naechsterFehler(ergebnis.anzahlWerte())).isEqualTo(-1);
+    }
+
+    @Test
+    void direkterPufferUndArrayLiefernDasselbe() {
+        int[] alter = new int[9_000];
+        for (int i = 0; i < alter.length; i++) {
+            alter[i] = (i * 37) % 150 - 10;
+        }
+        IntBuffer direkt = ByteBuffer.allocateDirect(alter.length * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+        direkt.put(alter).flip();
+
+        ValidierungsErgebnis ausArray = new Validator().validiereAlter(alter);
+        ValidierungsErgebnis ausPuffer = Validator.ALTERS_VALIDATOR.validieren(direkt);
+
+        assertThat(ausPuffer.fehler()).isEqualTo(ausArray.fehler());
+        assertThat(ausPuffer.warnungen()).isEqualTo(ausArray.warnungen());
+        assertThat(direkt.position()).isZero();
+        assertThat(ausArray.anzahlFehler()).isEqualTo(600);
+        assertThat(alter[ausArray.naechsterFehler(0)]).isNegative();
+    }
+}
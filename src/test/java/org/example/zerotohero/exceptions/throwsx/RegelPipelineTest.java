@@ -0,0 +1,75 @@
+package org.example.zerotohero.exceptions.throwsx;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RegelPipelineTest {
+
+    @Test
+    void kompilierteFormStimmtMitDenEinzelregelnUeberein() {
+        RegelPipeline pipeline = RegelPipeline.fuer("alter", "eintrittsalter", "status", "plz")
+                .bereich("Alter negativ", "alter", 0, Integer.MAX_VALUE, Schwere.FEHLER)
+                .bereich("Alter sehr hoch", "alter", Integer.MIN_VALUE, 120, Schwere.WARNUNG)
+                .menge("Status", "status", Schwere.FEHLER, 9, 1, 3, 2, 3)
+                .menge("PLZ", "plz", Schwere.WARNUNG, 10115, 20095, 80331, 1_000_000)
+                .vergleich("Eintritt", "eintrittsalter", Vergleich.KLEINER_GLEICH, "alter", Schwere.FEHLER)
+                .vergleich("Ungleich", "status", Vergleich.UNGLEICH, "alter", Schwere.WARNUNG)
+                .vergleich("Extrem", "alter", Vergleich.GROESSER, "plz", Schwere.WARNUNG);
+        KompilierterValidator validator = pipeline.kompilieren();
+        Predicate<int[]> kette = pipeline.alsPraedikatKette();
+        List<RegelPipeline.Regel> regeln = pipeline.getRegeln();
+
+        int anzahl = 3_001;
+        int[][] spalten = new int[4][anzahl];
+        Random zufall = new Random(11);
+        int[] plz = {10115, 20095, 80331, 1_000_000, 12345, Integer.MIN_VALUE};
+        for (int i = 0; i < anzahl; i++) {
+            spalten[0][i] = i % 50 == 0 ? Integer.MIN_VALUE + i : zufall.nextInt(140) - 5;
+            spalten[1][i] = i % 70 == 0 ? Integer.MAX_VALUE : zufall.nextInt(100);
+            spalten[2][i] = zufall.nextInt(12) - 1;
+            spalten[3][i] = plz[zufall.nextInt(plz.length)];
+        }
+
+        ValidierungsErgebnis ergebnis = validator.validieren(spalten, anzahl);
+
+        for (int i = 0; i < anzahl; i++) {
+            int[] datensatz = {spalten[0][i], spalten[1][i], spalten[2][i], spalten[3][i]};
+            boolean gueltig = true;
+            for (int r = 0; r < regeln.size(); r++) {
+                boolean verletzt = regeln.get(r).verletzt(datensatz);
+                assertThat(ergebnis.verletzt(i, r)).as("Datensatz %d, Regel %s", i, regeln.get(r).name()).isEqualTo(verletzt);
+                gueltig &= !(verletzt && regeln.get(r).schwere() == Schwere.FEHLER);
+            }
+            assertThat(ergebnis.istGueltig(i)).isEqualTo(gueltig);
+            assertThat(validator.istGueltig(datensatz)).isEqualTo(gueltig);
+            assertThat(kette.test(datensatz)).isEqualTo(gueltig);
+        }
+    }
+
+    @Test
+    void vergleichsoperatorenDeckenAlleFaelleAb() {
+        for (Vergleich vergleich : Vergleich.values()) {
+            KompilierterValidator validator = RegelPipeline.fuer("a", "b")
+                    .vergleich("v", "a", vergleich, "b", Schwere.FEHLER)
+                    .kompilieren();
+            int[][] paare = {{1, 2}, {2, 2}, {3, 2}, {Integer.MIN_VALUE, Integer.MAX_VALUE}, {Integer.MAX_VALUE, Integer.MIN_VALUE}};
+            for (int[] paar : paare) {
+                assertThat(validator.istGueltig(paar)).as("%s %d %d", vergleich, paar[0], paar[1])
+                        .isEqualTo(vergleich.gilt(paar[0], paar[1]));
+            }
+        }
+    }
+
+    @Test
+    void unbekanntesFeldWirdAbgelehnt() {
+        assertThatThrownBy(() -> RegelPipeline.fuer("alter").bereich("x", "groesse", 0, 1, Schwere.FEHLER))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("groesse");
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.zerotohero.exceptions.try_with_resources;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParallelerDateiVerarbeiterTest {
+
+    @TempDir
+    Path verzeichnis;
+
+    @Test
+    void liefertDasselbeErgebnisWieDerSequenzielleWeg() throws IOException {
+        Random zufall = new Random(7);
+        StringBuilder inhalt = new StringBuilder("kontoId;betrag;text\n");
+        for (int i = 0; i < 20_000; i++) {
+            inhalt.append(zufall.nextInt(300)).append(';')
+                    .append(zufall.nextInt(10_000)).append('.').append(zufall.nextInt(100))
+                    .append(";Buchung ").append(i).append(i % 5 == 0 ? "\r\n" : "\n");
+        }
+        Path datei = verzeichnis.resolve("einzahlungen.csv");
+        Files.writeString(datei, inhalt, StandardCharsets.UTF_8);
+
+        ParallelerDateiVerarbeiter.EinzahlungsSummen erwartet = ParallelerDateiVerarbeiter.sequenziell(datei,
+                ParallelerDateiVerarbeiter.EinzahlungsSummen::new, ParallelerDateiVerarbeiter.EinzahlungsSummen::zeile);
+
+        for (int threads : new int[]{1, 4}) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                // Kleine Blöcke erzwingen viele Bereichsgrenzen mitten in Zeilen
+                ParallelerDateiVerarbeiter verarbeiter = new ParallelerDateiVerarbeiter(pool, 4_099);
+                ParallelerDateiVerarbeiter.EinzahlungsSummen parallel = verarbeiter.verarbeiten(datei,
+                        ParallelerDateiVerarbeiter.EinzahlungsSummen::new,
+                        ParallelerDateiVerarbeiter.EinzahlungsSummen::zeile,
+                        ParallelerDateiVerarbeiter.EinzahlungsSummen::zusammenfuehren);
+
+                assertThat(parallel.getZeilen()).isEqualTo(20_000);
+                assertThat(parallel.alsArray()).isEqualTo(erwartet.alsArray());
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void behaeltDieZeilenreihenfolgeBeimZusammenfuehren() throws IOException {
+        List<String> zeilen = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            zeilen.add("Zeile " + i);
+        }
+        Path datei = verzeichnis.resolve("zeilen.txt");
+        Files.write(datei, zeilen, StandardCharsets.UTF_8);
+
+        ParallelerDateiVerarbeiter verarbeiter = new ParallelerDateiVerarbeiter(ForkJoinPool.commonPool(), 1_000);
+        List<String> gelesen = verarbeiter.verarbeiten(datei, ArrayList::new,
+                (liste, zeile) -> liste.add(zeile.toString()),
+                (links, rechts) -> {
+                    links.addAll(rechts);
+                    return links;
+                });
+
+        assertThat(gelesen).isEqualTo(zeilen);
+    }
+
+    @Test
+    void lehntUngueltigeBlockgroessenUndKontonummernAb() {
+        assertThatThrownBy(() -> new ParallelerDateiVerarbeiter(ForkJoinPool.commonPool(), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        ParallelerDateiVerarbeiter.EinzahlungsSummen summen = new ParallelerDateiVerarbeiter.EinzahlungsSummen();
+        summen.zeile(ParallelerDateiVerarbeiter.EinzahlungsSummen.MAX_KONTO_ID + ";1.50");
+        assertThat(summen.getCent(ParallelerDateiVerarbeiter.EinzahlungsSummen.MAX_KONTO_ID)).isEqualTo(150);
+        for (String zeile : new String[]{"2147483647;1", "99999999999999999999;1", "18446744073709551617;1"}) {
+            assertThatThrownBy(() -> summen.zeile(zeile)).isInstanceOf(NumberFormatException.class);
+        }
+        assertThat(summen.getZeilen()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.zerotohero.exceptions.try_with_resources;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StromDateiLeserTest {
+
+    @TempDir
+    Path verzeichnis;
+
+    @Test
+    void liefertDieselbenZeilenWieBufferedReader() throws IOException {
+        Random zufall = new Random(42);
+        StringBuilder inhalt = new StringBuilder();
+        for (int i = 0; i < 2_000; i++) {
+            int laenge = zufall.nextInt(i % 100 == 0 ? 300 : 40);
+            for (int j = 0; j < laenge; j++) {
+                inhalt.append(zufall.nextInt(20) == 0 ? "äß€" : String.valueOf((char) ('a' + zufall.nextInt(26))));
+            }
+            inhalt.append(i % 7 == 0 ? "\r\n" : "\n");
+        }
+        inhalt.append("letzte Zeile ohne Umbruch");
+        Path datei = verzeichnis.resolve("zeilen.txt");
+        Files.writeString(datei, inhalt, StandardCharsets.UTF_8);
+
+        List<String> erwartet;
+        try (BufferedReader reader = Files.newBufferedReader(datei, StandardCharsets.UTF_8)) {
+            erwartet = reader.lines().toList();
+        }
+
+        for (int fenster : new int[]{64, 1000, StromDateiLeser.STANDARD_FENSTER}) {
+            List<String> gelesen = new ArrayList<>();
+            long anzahl = new StromDateiLeser(fenster).leseDatei(datei, zeile -> gelesen.add(zeile.toString()));
+            assertThat(gelesen).as("Fenster %d", fenster).isEqualTo(erwartet);
+            assertThat(anzahl).isEqualTo(erwartet.size());
+        }
+    }
+
+    @Test
+    void leereDateiHatKeineZeilen() throws IOException {
+        Path datei = Files.createFile(verzeichnis.resolve("leer.txt"));
+        assertThat(new StromDateiLeser().leseDatei(datei, zeile -> { })).isZero();
+    }
+}
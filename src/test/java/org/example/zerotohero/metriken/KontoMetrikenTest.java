@@ -0,0 +1,111 @@
+package org.example.zerotohero.metriken;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class KontoMetrikenTest {
+
+    @Test
+    void bucketsDeckenDenWertebereichLueckenlosAb() {
+        long vorher = -1;
+        for (int b = 0; b < LatenzHistogramm.BUCKETS; b++) {
+            long grenze = LatenzHistogramm.obereGrenze(b);
+            assertThat(LatenzHistogramm.bucket(grenze)).isEqualTo(b);
+            assertThat(LatenzHistogramm.bucket(vorher + 1)).isEqualTo(b);
+            assertThat(grenze).isGreaterThan(vorher);
+            vorher = grenze;
+        }
+    }
+
+    @Test
+    void perzentileLiegenInnerhalbDerBucketgenauigkeit() throws InterruptedException {
+        LatenzHistogramm histogramm = new LatenzHistogramm(4);
+        List<Long> werte = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Random zufall = new Random(t);
+            long[] eigene = new long[50_000];
+            for (int i = 0; i < eigene.length; i++) {
+                eigene[i] = (long) Math.exp(zufall.nextDouble() * 18); // 1 ns bis etwa 65 ms
+                werte.add(eigene[i]);
+            }
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (long wert : eigene) {
+                    histogramm.aufzeichnen(wert);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        werte.sort(null);
+
+        LatenzHistogramm.Momentaufnahme aufnahme = histogramm.momentaufnahme();
+        assertThat(aufnahme.getAnzahl()).isEqualTo(werte.size());
+        assertThat(aufnahme.getMaxNanos()).isEqualTo(werte.get(werte.size() - 1));
+        assertThat(aufnahme.getSummeNanos()).isEqualTo(werte.stream().mapToLong(Long::longValue).sum());
+        for (double quantil : new double[]{0.5, 0.9, 0.99, 0.999}) {
+            long exakt = werte.get((int) Math.ceil(quantil * werte.size()) - 1);
+            assertThat((double) aufnahme.perzentilNanos(quantil))
+                    .isGreaterThanOrEqualTo(exakt)
+                    .isLessThanOrEqualTo(exakt * (1 + 1.0 / LatenzHistogramm.UNTER_BUCKETS));
+        }
+    }
+
+    @Test
+    void binderMeldetZaehlerUndLatenzenBeiMicrometer() {
+        KontoMetriken metriken = new KontoMetriken();
+        // Zählen ohne Zeitmessung (start = 0), die Dauern direkt und damit exakt aufzeichnen
+        for (int i = 0; i < 3; i++) {
+            metriken.erfassen(KontoMetriken.Operation.ABHEBUNG, KontoMetriken.Ergebnis.ERFOLG, 0);
+            metriken.latenz(KontoMetriken.Operation.ABHEBUNG).aufzeichnen(1_000);
+        }
+        metriken.erfassen(KontoMetriken.Operation.ABHEBUNG, KontoMetriken.Ergebnis.UNGENUEGENDE_DECKUNG, 0);
+        metriken.latenz(KontoMetriken.Operation.ABHEBUNG).aufzeichnen(0);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        new KontoMetrikenBinder(metriken).bindTo(registry);
+
+        FunctionCounter abgelehnt = registry.get("zerotohero.konto.operationen")
+                .tag("operation", "abhebung").tag("ergebnis", "ungenuegende_deckung").functionCounter();
+        assertThat(abgelehnt.count()).isEqualTo(1);
+        FunctionTimer latenz = registry.get("zerotohero.konto.latenz").tag("operation", "abhebung").functionTimer();
+        assertThat(latenz.count()).isEqualTo(4);
+        assertThat(latenz.totalTime(TimeUnit.NANOSECONDS)).isEqualTo(3_000);
+        Gauge median = registry.get("zerotohero.konto.latenz.perzentil").tag("operation", "abhebung").tag("quantil", "0.5").gauge();
+        // 1000 ns liegt im Bucket [992, 1023]; die obere Grenze wird auf das Maximum 1000 ns begrenzt
+        assertThat(median.value()).isCloseTo(1e-6, within(1e-12));
+        assertThat(registry.get("zerotohero.konto.operationen").tag("operation", "einzahlung")
+                .tag("ergebnis", "erfolg").functionCounter().count()).isZero();
+    }
+
+    @Test
+    void timerRechnetDieStichprobeAufDieExaktenZaehlerHoch() {
+        KontoMetriken metriken = new KontoMetriken();
+        for (int i = 0; i < 64; i++) {
+            metriken.erfassen(KontoMetriken.Operation.EINZAHLUNG, KontoMetriken.Ergebnis.ERFOLG, 0);
+        }
+        // Nur zwei der 64 Einzahlungen gehören zur Stichprobe, im Mittel 2000 ns
+        metriken.latenz(KontoMetriken.Operation.EINZAHLUNG).aufzeichnen(1_000);
+        metriken.latenz(KontoMetriken.Operation.EINZAHLUNG).aufzeichnen(3_000);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        new KontoMetrikenBinder(metriken).bindTo(registry);
+
+        FunctionTimer latenz = registry.get("zerotohero.konto.latenz").tag("operation", "einzahlung").functionTimer();
+        assertThat(latenz.count()).isEqualTo(64);
+        assertThat(latenz.totalTime(TimeUnit.NANOSECONDS)).isEqualTo(64 * 2_000);
+        assertThat(latenz.mean(TimeUnit.NANOSECONDS)).isEqualTo(2_000);
+    }
+}
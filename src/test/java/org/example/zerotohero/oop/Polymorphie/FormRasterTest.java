@@ -0,0 +1,118 @@
+package org.example.zerotohero.oop.Polymorphie;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FormRasterTest {
+
+    @Test
+    void abfragenEntsprechenEinemLinearenDurchlauf() {
+        Random zufall = new Random(3);
+        List<GeometrischeForm> formen = zufaelligeFormen(zufall, 20_000);
+        FormRaster raster = FormRaster.aufbauen(formen);
+
+        for (int i = 0; i < 500; i++) {
+            Begrenzung bereich = zufaelligerBereich(zufall);
+            List<GeometrischeForm> treffer = raster.suchen(bereich);
+            assertThat(identitaeten(treffer)).hasSize(treffer.size()); // keine Dubletten
+            assertThat(identitaeten(treffer)).isEqualTo(identitaeten(linear(formen, bereich)));
+        }
+    }
+
+    @Test
+    void einfuegenUndEntfernenHaltenDenIndexKonsistent() {
+        Random zufall = new Random(5);
+        List<GeometrischeForm> formen = zufaelligeFormen(zufall, 5_000);
+        FormRaster raster = new FormRaster(new Begrenzung(0, 0, 1000, 1000), 32, 32);
+        formen.forEach(raster::einfuegen);
+
+        List<GeometrischeForm> entfernt = new ArrayList<>(formen.subList(0, 2_000));
+        for (GeometrischeForm form : entfernt) {
+            assertThat(raster.entfernen(form)).isTrue();
+        }
+        assertThat(raster.entfernen(entfernt.get(0))).isFalse();
+        List<GeometrischeForm> verbleibend = new ArrayList<>(formen.subList(2_000, formen.size()));
+        List<GeometrischeForm> neu = zufaelligeFormen(zufall, 1_000);
+        neu.forEach(raster::einfuegen);
+        verbleibend.addAll(neu);
+
+        assertThat(raster.anzahl()).isEqualTo(verbleibend.size());
+        for (int i = 0; i < 200; i++) {
+            Begrenzung bereich = zufaelligerBereich(zufall);
+            assertThat(identitaeten(raster.suchen(bereich))).isEqualTo(identitaeten(linear(verbleibend, bereich)));
+        }
+    }
+
+    @Test
+    void leserSehenWaehrendDesSchreibensNurKonsistenteZustaende() throws InterruptedException {
+        Random zufall = new Random(9);
+        List<GeometrischeForm> fest = zufaelligeFormen(zufall, 2_000);
+        FormRaster raster = FormRaster.aufbauen(fest);
+        Begrenzung alles = new Begrenzung(-100, -100, 1100, 1100);
+        AtomicBoolean fertig = new AtomicBoolean();
+        AtomicReference<Throwable> fehler = new AtomicReference<>();
+
+        List<Thread> leser = new ArrayList<>();
+        for (int t = 0; t < 3; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    while (!fertig.get()) {
+                        // Der Schreiber fügt nur hinzu und entfernt danach wieder, die festen Formen bleiben
+                        assertThat(raster.zaehlen(alles)).isGreaterThanOrEqualTo(fest.size());
+                    }
+                } catch (Throwable e) {
+                    fehler.set(e);
+                }
+            });
+            thread.start();
+            leser.add(thread);
+        }
+        for (int runde = 0; runde < 50; runde++) {
+            List<GeometrischeForm> temporaer = zufaelligeFormen(zufall, 200);
+            temporaer.forEach(raster::einfuegen);
+            temporaer.forEach(raster::entfernen);
+        }
+        fertig.set(true);
+        for (Thread thread : leser) {
+            thread.join();
+        }
+        assertThat(fehler.get()).isNull();
+        assertThat(raster.zaehlen(alles)).isEqualTo(fest.size());
+    }
+
+    private static List<GeometrischeForm> zufaelligeFormen(Random zufall, int anzahl) {
+        List<GeometrischeForm> formen = new ArrayList<>(anzahl);
+        for (int i = 0; i < anzahl; i++) {
+            formen.add(zufall.nextBoolean()
+                    ? new Kreis("Blau", zufall.nextDouble() * 1000, zufall.nextDouble() * 1000, zufall.nextDouble() * 30)
+                    : new Rechteck(zufall.nextInt(81) - 40, zufall.nextInt(81) - 40, zufall.nextDouble() * 1000, zufall.nextDouble() * 1000));
+        }
+        return formen;
+    }
+
+    private static Begrenzung zufaelligerBereich(Random zufall) {
+        double x = zufall.nextDouble() * 1100 - 50;
+        double y = zufall.nextDouble() * 1100 - 50;
+        return new Begrenzung(x, y, x + zufall.nextDouble() * 200, y + zufall.nextDouble() * 200);
+    }
+
+    private static List<GeometrischeForm> linear(List<GeometrischeForm> formen, Begrenzung bereich) {
+        return formen.stream().filter(form -> form.begrenzung().schneidet(bereich)).toList();
+    }
+
+    private static Set<GeometrischeForm> identitaeten(List<GeometrischeForm> formen) {
+        Set<GeometrischeForm> menge = Collections.newSetFromMap(new IdentityHashMap<>());
+        menge.addAll(formen);
+        return menge;
+    }
+}
@@ -0,0 +1,148 @@
+package org.example.zerotohero.oop.Polymorphie;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class FormSpeicherTest {
+
+    @Test
+    void zeichnenErzeugtDieselbenZeilenWieDieEinzelnenFormen() {
+        String[] farben = {"Rot", "Blau", "Grün"};
+        int[] zahlen = {0, 7, -3, 42, 1_000, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        List<Form> kreise = new ArrayList<>();
+        List<Form> rechtecke = new ArrayList<>();
+        List<Form> gemischt = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Form form = i % 3 == 0
+                    ? new Kreis(farben[(i / 3) % farben.length])
+                    : new Rechteck(zahlen[i % zahlen.length], zahlen[(i / 2) % zahlen.length]);
+            (form instanceof Kreis ? kreise : rechtecke).add(form);
+            gemischt.add(form);
+        }
+
+        FormSpeicher speicher = FormSpeicher.aus(gemischt.toArray(new Form[0]));
+        BytePuffer puffer = new BytePuffer(16);
+        speicher.zeichnen(puffer);
+
+        List<Form> typweise = new ArrayList<>(kreise);
+        typweise.addAll(rechtecke);
+        assertThat(puffer.toString()).isEqualTo(einzelnGezeichnet(typweise));
+        assertThat(speicher.anzahlKreise()).isEqualTo(kreise.size());
+        assertThat(speicher.getPalette().anzahl()).isEqualTo(farben.length);
+    }
+
+    @Test
+    void neueFarbenNachDemErstenZeichnenWerdenErgaenzt() {
+        FormSpeicher speicher = new FormSpeicher();
+        BytePuffer puffer = new BytePuffer(64);
+        speicher.kreisHinzufuegen("Rot");
+        speicher.zeichnen(puffer);
+
+        puffer.zuruecksetzen();
+        speicher.kreisHinzufuegen("Weiß");
+        speicher.zeichnen(puffer);
+
+        assertThat(puffer.toString()).isEqualTo(einzelnGezeichnet(List.of(new Kreis("Rot"), new Kreis("Weiß"))));
+    }
+
+    @Test
+    void unbekannteFormenWerdenAbgelehnt() {
+        Form dreieck = () -> System.out.println("Zeichne ein Dreieck.");
+        assertThatThrownBy(() -> FormSpeicher.aus(new Form[]{dreieck}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void auswertungStimmtMitDenEinzelnenFormenUeberein() {
+        Random zufall = new Random(7);
+        List<GeometrischeForm> formen = new ArrayList<>();
+        for (int i = 0; i < 3 * FormSpeicher.AUSWERTUNGS_BLOCK + 123; i++) {
+            formen.add(zufall.nextInt(3) == 0
+                    ? new Kreis("Rot", zufall.nextGaussian() * 100, zufall.nextGaussian() * 100, zufall.nextDouble() * 4)
+                    : new Rechteck(zufall.nextInt(21) - 10, zufall.nextInt(21) - 10, zufall.nextGaussian() * 100, zufall.nextGaussian() * 100));
+        }
+        FormSpeicher speicher = FormSpeicher.aus(formen.toArray(new Form[0]));
+
+        long kreise = 0;
+        double kreisFlaeche = 0;
+        double rechteckFlaeche = 0;
+        double rechteckUmfang = 0;
+        Begrenzung begrenzung = Begrenzung.LEER;
+        for (GeometrischeForm form : formen) {
+            if (form instanceof Kreis) {
+                kreise++;
+                kreisFlaeche += form.flaeche();
+            } else {
+                rechteckFlaeche += form.flaeche();
+                rechteckUmfang += form.umfang();
+            }
+            begrenzung = begrenzung.vereinigen(form.begrenzung());
+        }
+
+        GeometrieAuswertung sequenziell = speicher.auswerten();
+        assertThat(sequenziell.getAnzahl(FormTyp.KREIS)).isEqualTo(kreise);
+        assertThat(sequenziell.histogramm()).containsEntry(FormTyp.RECHTECK, formen.size() - kreise);
+        assertThat(sequenziell.getFlaeche(FormTyp.KREIS)).isCloseTo(kreisFlaeche, within(1e-6 * kreisFlaeche));
+        assertThat(sequenziell.getFlaeche(FormTyp.RECHTECK)).isEqualTo(rechteckFlaeche);
+        assertThat(sequenziell.getUmfang(FormTyp.RECHTECK)).isEqualTo(rechteckUmfang);
+        assertThat(sequenziell.getBegrenzung()).isEqualTo(begrenzung);
+
+        GeometrieAuswertung parallel = speicher.auswerten(new ForkJoinPool(4));
+        assertThat(parallel.getFlaeche(FormTyp.KREIS)).isEqualTo(sequenziell.getFlaeche(FormTyp.KREIS));
+        assertThat(parallel.getUmfang(FormTyp.KREIS)).isEqualTo(sequenziell.getUmfang(FormTyp.KREIS));
+        assertThat(parallel.getBegrenzung()).isEqualTo(sequenziell.getBegrenzung());
+    }
+
+    @Test
+    void riesigeRechteckeLassenDieFlaecheNichtUeberlaufen() {
+        FormSpeicher speicher = new FormSpeicher();
+        int anzahl = FormSpeicher.AUSWERTUNGS_BLOCK + 5;
+        for (int i = 0; i < anzahl; i++) {
+            speicher.rechteckHinzufuegen(Integer.MAX_VALUE, Integer.MIN_VALUE, 0, 0);
+        }
+        double erwartet = anzahl * ((double) Integer.MAX_VALUE * -(double) Integer.MIN_VALUE);
+
+        GeometrieAuswertung sequenziell = speicher.auswerten();
+        assertThat(sequenziell.getFlaeche(FormTyp.RECHTECK)).isCloseTo(erwartet, within(1e-12 * erwartet));
+        assertThat(sequenziell.getUmfang(FormTyp.RECHTECK)).isEqualTo(2.0 * anzahl * (1L << 32) - 2.0 * anzahl);
+        assertThat(speicher.auswerten(new ForkJoinPool(4)).getFlaeche(FormTyp.RECHTECK))
+                .isEqualTo(sequenziell.getFlaeche(FormTyp.RECHTECK));
+
+        // Mehrere Blöcke, die einzeln exakt sind, zusammen aber einen long überlaufen lassen
+        FormSpeicher bloecke = new FormSpeicher();
+        for (int i = 0; i < 3 * FormSpeicher.AUSWERTUNGS_BLOCK; i++) {
+            bloecke.rechteckHinzufuegen(1 << 30, 1 << 16, 0, 0);
+        }
+        assertThat(bloecke.auswerten().getFlaeche(FormTyp.RECHTECK)).isEqualTo(3.0 * (1L << 62));
+    }
+
+    @Test
+    void leererSpeicherHatLeereBegrenzung() {
+        GeometrieAuswertung auswertung = new FormSpeicher().auswerten(ForkJoinPool.commonPool());
+        assertThat(auswertung.getBegrenzung().istLeer()).isTrue();
+        assertThat(auswertung.getGesamtFlaeche()).isZero();
+    }
+
+    private static String einzelnGezeichnet(List<Form> formen) {
+        PrintStream original = System.out;
+        ByteArrayOutputStream ausgabe = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(ausgabe, true, StandardCharsets.UTF_8));
+        try {
+            formen.forEach(Form::zeichnen);
+        } finally {
+            System.setOut(original);
+        }
+        return ausgabe.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.zerotohero.oop.Polymorphie;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RechenKernTest {
+
+    private static final int LAENGE = 5 * RechenKern.BLOCK + 17;
+    private final RechenKern parallel = new RechenKern(new ForkJoinPool(4), RechenKern.BLOCK);
+    private final RechenKern sequenziell = RechenKern.sequenziell();
+
+    @Test
+    void arrayOperationenEntsprechenDerSkalarenRechnung() {
+        Random zufall = new Random(1);
+        int[] a = zufall.ints(LAENGE).toArray();
+        int[] b = zufall.ints(LAENGE).toArray();
+        double[] x = zufall.doubles(LAENGE).toArray();
+        double[] y = zufall.doubles(LAENGE).toArray();
+        double[] z = zufall.doubles(LAENGE).toArray();
+
+        for (RechenKern kern : new RechenKern[]{sequenziell, parallel}) {
+            int[] summen = new int[LAENGE];
+            kern.addiere(a, b, summen);
+            long[] praefix = new long[LAENGE];
+            kern.praefixSummen(a, praefix);
+            double[] fma = new double[LAENGE];
+            kern.fma(x, y, z, fma);
+
+            long laufend = 0;
+            for (int i = 0; i < LAENGE; i++) {
+                assertThat(summen[i]).isEqualTo(a[i] + b[i]);
+                laufend += a[i];
+                assertThat(praefix[i]).isEqualTo(laufend);
+                assertThat(fma[i]).isEqualTo(Math.fma(x[i], y[i], z[i]));
+            }
+            assertThat(kern.summe(a)).isEqualTo(laufend);
+        }
+        assertThat(parallel.summe(x)).isEqualTo(sequenziell.summe(x));
+    }
+
+    @Test
+    void exakteAdditionMeldetDenErstenUeberlauf() {
+        int[] a = new int[LAENGE];
+        int[] b = new int[LAENGE];
+        a[3 * RechenKern.BLOCK + 5] = Integer.MAX_VALUE;
+        b[3 * RechenKern.BLOCK + 5] = 1;
+        a[7] = Integer.MIN_VALUE;
+        b[7] = -1;
+
+        a[5 * RechenKern.BLOCK] = Integer.MAX_VALUE;
+        b[5 * RechenKern.BLOCK] = Integer.MAX_VALUE;
+
+        // Parallel laufen alle drei Blöcke mit Überlauf gleichzeitig; gemeldet wird trotzdem immer der erste
+        for (int runde = 0; runde < 50; runde++) {
+            for (RechenKern kern : new RechenKern[]{sequenziell, parallel}) {
+                assertThatThrownBy(() -> kern.addiereExakt(a, b, new int[LAENGE]))
+                        .isInstanceOf(ArithmeticException.class)
+                        .hasMessage("Überlauf bei Index 7: " + Integer.MIN_VALUE + " + -1");
+            }
+        }
+        b[7] = 0;
+        b[5 * RechenKern.BLOCK] = 0;
+        assertThatThrownBy(() -> parallel.addiereExakt(a, b, new int[LAENGE]))
+                .isInstanceOf(ArithmeticException.class)
+                .hasMessageContaining("Index " + (3 * RechenKern.BLOCK + 5));
+
+        b[3 * RechenKern.BLOCK + 5] = -1;
+        int[] summen = new int[LAENGE];
+        parallel.addiereExakt(a, b, summen);
+        assertThat(summen[3 * RechenKern.BLOCK + 5]).isEqualTo(Integer.MAX_VALUE - 1);
+    }
+
+    @Test
+    void unterschiedlicheLaengenWerdenAbgelehnt() {
+        assertThatThrownBy(() -> new Rechner(sequenziell).addiere(new int[2], new int[3], new int[2]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
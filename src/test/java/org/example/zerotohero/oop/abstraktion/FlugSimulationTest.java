@@ -0,0 +1,78 @@
+package org.example.zerotohero.oop.abstraktion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlugSimulationTest {
+
+    private static final int ANZAHL = 5 * FlugSimulation.BLOCK + 321;
+
+    @Test
+    void ergebnisIstUnabhaengigVonDerAnzahlDerThreads() {
+        FlugSimulation einThread = simulation();
+        FlugSimulation vierThreads = simulation();
+        FlugSimulation dreiThreads = simulation();
+        ForkJoinPool vier = new ForkJoinPool(4);
+        ForkJoinPool drei = new ForkJoinPool(3);
+        try {
+            for (int t = 0; t < 400; t++) {
+                if (t == 250) {
+                    for (FlugSimulation simulation : new FlugSimulation[]{einThread, vierThreads, dreiThreads}) {
+                        for (int i = 0; i < ANZAHL; i += 3) {
+                            simulation.landeVorgangStarten(i, 40);
+                        }
+                    }
+                }
+                einThread.tick();
+                vierThreads.tick(vier);
+                dreiThreads.tick(drei);
+            }
+        } finally {
+            vier.shutdown();
+            drei.shutdown();
+        }
+
+        assertThat(vierThreads.pruefsumme()).isEqualTo(einThread.pruefsumme());
+        assertThat(dreiThreads.pruefsumme()).isEqualTo(einThread.pruefsumme());
+        assertThat(vierThreads.statistik().mittlereHoehe()).isEqualTo(einThread.statistik().mittlereHoehe());
+        assertThat(einThread.statistik().anzahl(FlugPhase.GELANDET)).isPositive();
+        assertThat(einThread.statistik().anzahl(FlugPhase.REISEFLUG)).isPositive();
+    }
+
+    @Test
+    void hoeheBleibtZwischenBodenUndMaximalerFlughoehe() {
+        FlugSimulation simulation = new FlugSimulation(3, 1.0, 500, 7);
+        int steiger = simulation.hinzufuegen(0, 0, 100, 0, 4000);
+        int lander = simulation.hinzufuegen(0, 0, 100, 0, 3000);
+        int langsam = simulation.hinzufuegen(0, 0, 0, 0, 1);
+
+        for (int t = 0; t < 10; t++) {
+            simulation.tick();
+            for (int i = 0; i < simulation.anzahl(); i++) {
+                assertThat(simulation.getHoehe(i)).isBetween(0.0, (double) Fliegfaehig.getMaxFlughoehe());
+            }
+        }
+        assertThat(simulation.getPhase(steiger)).isEqualTo(FlugPhase.REISEFLUG);
+        assertThat(simulation.getX(steiger)).isEqualTo(1000.0);
+
+        simulation.landeVorgangStarten(lander, 20_000);
+        simulation.tick();
+        assertThat(simulation.getPhase(lander)).isEqualTo(FlugPhase.GELANDET);
+        assertThat(simulation.getHoehe(lander)).isZero();
+        double x = simulation.getX(lander);
+        simulation.tick();
+        assertThat(simulation.getX(lander)).isEqualTo(x);
+        assertThat(simulation.getHoehe(langsam)).isEqualTo(12.0);
+    }
+
+    private static FlugSimulation simulation() {
+        FlugSimulation simulation = new FlugSimulation(ANZAHL, 0.5, 3.0, 99);
+        for (int i = 0; i < ANZAHL; i++) {
+            simulation.hinzufuegen(i % 97, i % 89, 150 + i % 40, i % 7 - 3, 20 + i % 50);
+        }
+        return simulation;
+    }
+}
@@ -0,0 +1,158 @@
+package org.example.zerotohero.oop.abstraktion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TierAktorSystemTest {
+
+    @Test
+    void jederAktorVerarbeitetSeineNachrichtenVollstaendigUndInReihenfolge() throws InterruptedException {
+        Map<Tier, List<Befehl>> empfangen = new ConcurrentHashMap<>();
+        Verhalten protokollieren = (tier, befehl) -> empfangen.computeIfAbsent(tier, t -> new ArrayList<>()).add(befehl);
+
+        for (boolean virtuell : new boolean[]{false, true}) {
+            empfangen.clear();
+            try (TierAktorSystem system = virtuell
+                    ? TierAktorSystem.mitVirtuellenThreads(protokollieren)
+                    : TierAktorSystem.mitForkJoinPool(protokollieren)) {
+                List<TierAktorSystem.Aktor> aktoren = new ArrayList<>();
+                for (int i = 0; i < 50; i++) {
+                    aktoren.add(system.erzeugen(i % 2 == 0 ? new Hund("Hund" + i) : new Vogel("Vogel" + i)));
+                }
+                // Der erste Sender schickt jedem Aktor eine eigene Zufallsfolge aus LAUT_GEBEN und SCHLAFEN, der
+                // zweite gleichzeitig nur FLIEGEN. Ohne FLIEGEN muss beim Aktor genau die Folge des ersten ankommen.
+                List<List<Befehl>> folgen = new ArrayList<>();
+                Random zufall = new Random(1);
+                for (int i = 0; i < aktoren.size(); i++) {
+                    List<Befehl> folge = new ArrayList<>();
+                    for (int runde = 0; runde < 400; runde++) {
+                        folge.add(zufall.nextBoolean() ? Befehl.LAUT_GEBEN : Befehl.SCHLAFEN);
+                    }
+                    folgen.add(folge);
+                }
+                Thread folgenSender = new Thread(() -> {
+                    for (int runde = 0; runde < 400; runde++) {
+                        for (int i = 0; i < aktoren.size(); i++) {
+                            aktoren.get(i).sendenMitGegendruck(folgen.get(i).get(runde));
+                        }
+                    }
+                });
+                Thread flugSender = new Thread(() -> {
+                    for (int runde = 0; runde < 200; runde++) {
+                        for (TierAktorSystem.Aktor aktor : aktoren) {
+                            aktor.sendenMitGegendruck(Befehl.FLIEGEN);
+                        }
+                    }
+                });
+                folgenSender.start();
+                flugSender.start();
+                folgenSender.join();
+                flugSender.join();
+                system.leeren();
+
+                assertThat(system.getVerarbeitet()).isEqualTo(50L * 600);
+                for (int i = 0; i < aktoren.size(); i++) {
+                    List<Befehl> befehle = empfangen.get(aktoren.get(i).getTier());
+                    assertThat(befehle).hasSize(600);
+                    assertThat(befehle.stream().filter(b -> b != Befehl.FLIEGEN).toList()).isEqualTo(folgen.get(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    void vollesPostfachWeistAbBisDerAktorPlatzSchafft() throws InterruptedException {
+        CountDownLatch freigabe = new CountDownLatch(1);
+        ExecutorService ausfuehrer = Executors.newSingleThreadExecutor();
+        Verhalten warten = (tier, befehl) -> {
+            try {
+                freigabe.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        try (TierAktorSystem system = new TierAktorSystem(ausfuehrer, warten, 4, 2)) {
+            TierAktorSystem.Aktor aktor = system.erzeugen(new Katze("Minzi"));
+            for (int i = 0; i < 4; i++) {
+                assertThat(aktor.senden(Befehl.SCHLAFEN)).isTrue();
+            }
+            assertThat(aktor.senden(Befehl.SCHLAFEN)).isFalse();
+            assertThat(system.getAbgewiesen()).isEqualTo(1);
+
+            freigabe.countDown();
+            aktor.sendenMitGegendruck(Befehl.LAUT_GEBEN);
+            system.leeren();
+            assertThat(system.getVerarbeitet()).isEqualTo(5);
+        }
+    }
+
+    @Test
+    void ausnahmenImVerhaltenHaltenDenAktorNichtAn() {
+        Verhalten scheitern = (tier, befehl) -> {
+            if (befehl == Befehl.FLIEGEN) {
+                throw new IllegalStateException(tier.getName() + " kann nicht fliegen");
+            }
+        };
+        try (TierAktorSystem system = TierAktorSystem.mitForkJoinPool(scheitern)) {
+            TierAktorSystem.Aktor aktor = system.erzeugen(new Hund("Bello"));
+            aktor.sendenMitGegendruck(Befehl.FLIEGEN);
+            aktor.sendenMitGegendruck(Befehl.LAUT_GEBEN);
+            system.leeren();
+            assertThat(system.getFehler()).isEqualTo(1);
+            assertThat(system.getVerarbeitet()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void einErrorImVerhaltenLaesstDenAktorWeiterlaufen() {
+        Verhalten scheitern = (tier, befehl) -> {
+            if (befehl == Befehl.FLIEGEN) {
+                throw new AssertionError(tier.getName() + " kann nicht fliegen");
+            }
+        };
+        // Der Error beendet den Arbeitsthread; der Ausführer ersetzt ihn, der Bericht auf System.err entfällt
+        ExecutorService ausfuehrer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r);
+            thread.setUncaughtExceptionHandler((t, e) -> { });
+            return thread;
+        });
+        try (TierAktorSystem system = new TierAktorSystem(ausfuehrer, scheitern, 4, 2)) {
+            TierAktorSystem.Aktor aktor = system.erzeugen(new Hund("Bello"));
+            aktor.sendenMitGegendruck(Befehl.FLIEGEN);
+            system.leeren();
+            for (int i = 0; i < 10; i++) {
+                aktor.sendenMitGegendruck(Befehl.LAUT_GEBEN);
+            }
+            system.leeren();
+            assertThat(system.getFehler()).isEqualTo(1);
+            assertThat(system.getVerarbeitet()).isEqualTo(11);
+        }
+    }
+
+    @Test
+    void nachDemBeendenDesAusfuehrersGehtKeineNachrichtVerloren() {
+        ExecutorService ausfuehrer = Executors.newSingleThreadExecutor();
+        TierAktorSystem system = new TierAktorSystem(ausfuehrer, Verhalten.STANDARD, 4, 2);
+        TierAktorSystem.Aktor aktor = system.erzeugen(new Katze("Minzi"));
+        ausfuehrer.shutdown();
+
+        // Wie ein Sender, der close() knapp verpasst: der Ausführer lehnt ab, der Aktor läuft im Sender
+        assertThat(aktor.senden(Befehl.SCHLAFEN)).isTrue();
+        system.leeren();
+        assertThat(system.getVerarbeitet()).isEqualTo(1);
+
+        system.close();
+        assertThatThrownBy(() -> aktor.senden(Befehl.SCHLAFEN)).isInstanceOf(IllegalStateException.class);
+    }
+}
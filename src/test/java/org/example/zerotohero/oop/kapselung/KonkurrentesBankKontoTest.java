@@ -0,0 +1,108 @@
+package org.example.zerotohero.oop.kapselung;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KonkurrentesBankKontoTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    void abhebenUeberziehtNieUnterKonkurrenz() throws Exception {
+        KonkurrentesBankKonto konto = new KonkurrentesBankKonto(100.0); // 10_000 Cent
+        AtomicBoolean negativGesehen = new AtomicBoolean();
+
+        List<Integer> erfolge = parallel(() -> {
+            int erfolgreich = 0;
+            for (int i = 0; i < 5_000; i++) {
+                if (konto.abheben(0.01)) {
+                    erfolgreich++;
+                }
+                if (konto.getKontostandCent() < 0) {
+                    negativGesehen.set(true);
+                }
+            }
+            return erfolgreich;
+        });
+
+        assertThat(negativGesehen).isFalse();
+        assertThat(erfolge.stream().mapToInt(Integer::intValue).sum()).isEqualTo(10_000);
+        assertThat(konto.getKontostandCent()).isZero();
+    }
+
+    @Test
+    void gemischteBuchungenErhaltenDieBilanz() throws Exception {
+        KonkurrentesBankKonto konto = new KonkurrentesBankKonto(10.0);
+
+        // Jeder Thread liefert seinen Nettobeitrag in Cent: Einzahlungen minus erfolgreiche Abhebungen
+        List<Long> beitraege = parallel(() -> {
+            long netto = 0;
+            for (int i = 0; i < 20_000; i++) {
+                if (i % 2 == 0) {
+                    konto.einzahlen(0.03);
+                    netto += 3;
+                } else if (konto.abheben(0.05)) {
+                    netto -= 5;
+                }
+            }
+            return netto;
+        });
+
+        long erwartet = 1_000 + beitraege.stream().mapToLong(Long::longValue).sum();
+        assertThat(konto.getKontostandCent()).isEqualTo(erwartet).isNotNegative();
+    }
+
+    @Test
+    void ungueltigeBetraegeWerdenAbgelehnt() {
+        KonkurrentesBankKonto konto = new KonkurrentesBankKonto(-5.0);
+
+        assertThat(konto.getKontostandCent()).isZero();
+        assertThat(konto.einzahlen(0)).isFalse();
+        assertThat(konto.einzahlen(Double.NaN)).isFalse();
+        assertThat(konto.abheben(-1)).isFalse();
+        assertThat(konto.abheben(0.01)).isFalse();
+    }
+
+    @Test
+    void einzahlungLaeuftNichtUeber() {
+        KonkurrentesBankKonto konto = new KonkurrentesBankKonto(1.0);
+
+        assertThat(konto.einzahlen(1e300)).isFalse(); // inCent sättigt auf Long.MAX_VALUE
+        assertThat(konto.getKontostandCent()).isEqualTo(100);
+        assertThat(konto.einzahlen((Long.MAX_VALUE - 100) / 100.0 / 2)).isTrue();
+        assertThat(konto.einzahlen((Long.MAX_VALUE - 100) / 100.0 / 2 + 1e15)).isFalse();
+        assertThat(konto.getKontostandCent()).isPositive();
+    }
+
+    private static <T> List<T> parallel(java.util.concurrent.Callable<T> arbeit) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return arbeit.call();
+                }));
+            }
+            start.countDown();
+            List<T> ergebnisse = new ArrayList<>();
+            for (Future<T> future : futures) {
+                ergebnisse.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return ergebnisse;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
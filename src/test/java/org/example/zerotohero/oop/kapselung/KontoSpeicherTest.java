@@ -0,0 +1,110 @@
+package org.example.zerotohero.oop.kapselung;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KontoSpeicherTest {
+
+    private static final int SCHREIBER = 4;
+    private static final int LESER = 2;
+
+    @Test
+    void anlegenUndBuchenUeberDieShardGrenzeHinweg() throws Exception {
+        KontoSpeicher speicher = new KontoSpeicher();
+        int proSchreiber = (KontoSpeicher.SHARD_GROESSE + 4_096) / SCHREIBER;
+        AtomicBoolean fertig = new AtomicBoolean();
+        ExecutorService pool = Executors.newFixedThreadPool(SCHREIBER + LESER);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> schreiber = new ArrayList<>();
+            for (int t = 0; t < SCHREIBER; t++) {
+                schreiber.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < proSchreiber; i++) {
+                        int kontoId = speicher.anlegen(1.0);
+                        assertThat(speicher.einzahlen(kontoId, 0.5)).isTrue();
+                        assertThat(speicher.abheben(kontoId, 0.25)).isTrue();
+                        assertThat(speicher.abheben(kontoId, 2.0)).isFalse();
+                    }
+                    return null;
+                }));
+            }
+            // Jedes sichtbare Konto muss seinen Anfangsstand schon haben: 100, 150 oder 125 Cent
+            List<Future<Long>> leser = new ArrayList<>();
+            for (int t = 0; t < LESER; t++) {
+                leser.add(pool.submit(() -> {
+                    start.await();
+                    long geprueft = 0;
+                    LongBuffer kopie = LongBuffer.allocate(256);
+                    while (!fertig.get()) {
+                        int anzahl = speicher.anzahlKonten();
+                        for (int kontoId = Math.max(0, anzahl - 256); kontoId < anzahl; kontoId++) {
+                            assertThat(speicher.getKontostandCent(kontoId)).as("Konto %d", kontoId).isIn(100L, 150L, 125L);
+                            geprueft++;
+                        }
+                        if (anzahl >= kopie.capacity()) {
+                            kopie.clear();
+                            speicher.kopierenCent(anzahl - kopie.capacity(), kopie);
+                            for (int i = 0; i < kopie.capacity(); i++) {
+                                assertThat(kopie.get(i)).isIn(100L, 150L, 125L);
+                            }
+                        }
+                    }
+                    return geprueft;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : schreiber) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+            fertig.set(true);
+            for (Future<Long> future : leser) {
+                assertThat(future.get(1, TimeUnit.MINUTES)).isPositive();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int anzahl = SCHREIBER * proSchreiber;
+        assertThat(anzahl).isGreaterThan(KontoSpeicher.SHARD_GROESSE);
+        assertThat(speicher.anzahlKonten()).isEqualTo(anzahl);
+        LongBuffer alle = LongBuffer.allocate(anzahl);
+        speicher.kopierenCent(0, alle);
+        for (int i = 0; i < anzahl; i++) {
+            assertThat(alle.get(i)).as("Konto %d", i).isEqualTo(125L);
+        }
+    }
+
+    @Test
+    void einzahlungLaeuftNichtUeber() {
+        KontoSpeicher speicher = new KontoSpeicher();
+        int kontoId = speicher.anlegen(0);
+        speicher.setzenCent(kontoId, Long.MAX_VALUE - 10);
+
+        assertThat(speicher.einzahlenCent(kontoId, 11)).isFalse();
+        assertThat(speicher.einzahlenCent(kontoId, 10)).isTrue();
+        assertThat(speicher.getKontostandCent(kontoId)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void kopierenAmEndeDesNummernbereichsWirdAbgelehnt() {
+        KontoSpeicher speicher = new KontoSpeicher();
+        speicher.anlegen(1.0);
+
+        // Integer.MAX_VALUE - 1 + 4 liefe als int über und bestünde die Bereichsprüfung
+        assertThatThrownBy(() -> speicher.kopierenCent(Integer.MAX_VALUE - 1, LongBuffer.allocate(4)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
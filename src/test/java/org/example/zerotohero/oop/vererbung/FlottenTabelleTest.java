@@ -0,0 +1,84 @@
+package org.example.zerotohero.oop.vererbung;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlottenTabelleTest {
+
+    private static final String[] MARKEN = {"BMW", "Audi", "VW", "Opel"};
+
+    @Test
+    void gruppierteZaehlungEntsprichtDemDurchlaufUeberObjekte() {
+        List<Fahrzeug> flotte = flotte(new Random(11), 3 * FlottenTabelle.MIN_ABSCHNITT + 77);
+        FlottenTabelle tabelle = FlottenTabelle.aus(flotte);
+
+        Map<String, Long> erwartet = new TreeMap<>();
+        for (Fahrzeug fahrzeug : flotte) {
+            if (fahrzeug instanceof Auto auto && auto.getAnzahlTueren() >= 4) {
+                erwartet.merge(fahrzeug.getMarke() + "/" + fahrzeug.getBaujahr(), 1L, Long::sum);
+            }
+        }
+
+        FlottenTabelle.Abfrage abfrage = tabelle.abfrage()
+                .woMindestens(FlottenSpalte.TUEREN, 4)
+                .gruppieren(FlottenSpalte.MARKE, FlottenSpalte.BAUJAHR);
+        List<FlottenGruppe> sequenziell = abfrage.ausfuehren();
+        Map<String, Long> tatsaechlich = new TreeMap<>();
+        for (FlottenGruppe gruppe : sequenziell) {
+            tatsaechlich.put(gruppe.schluessel().get(0) + "/" + gruppe.schluessel().get(1), gruppe.anzahl());
+        }
+        assertThat(tatsaechlich).isEqualTo(erwartet);
+        assertThat(abfrage.ausfuehren(new ForkJoinPool(4))).isEqualTo(sequenziell);
+    }
+
+    @Test
+    void filterAufMarkeUndBaujahrMitSumme() {
+        List<Fahrzeug> flotte = flotte(new Random(12), 5_000);
+        FlottenTabelle tabelle = FlottenTabelle.aus(flotte);
+
+        long anzahl = 0;
+        long tueren = 0;
+        for (Fahrzeug fahrzeug : flotte) {
+            if (fahrzeug.getMarke().equals("VW") && fahrzeug.getBaujahr() >= 2005 && fahrzeug.getBaujahr() <= 2010) {
+                anzahl++;
+                tueren += fahrzeug instanceof Auto auto ? auto.getAnzahlTueren() : 0;
+            }
+        }
+
+        List<FlottenGruppe> ergebnis = tabelle.abfrage()
+                .woMarke("VW")
+                .wo(FlottenSpalte.BAUJAHR, 2005, 2010)
+                .summieren(FlottenSpalte.TUEREN)
+                .ausfuehren();
+        assertThat(ergebnis).containsExactly(new FlottenGruppe(List.of(), anzahl, tueren));
+        assertThat(tabelle.abfrage().woMarke("Trabant").ausfuehren()).isEmpty();
+    }
+
+    @Test
+    void zuVieleMoeglicheGruppenWerdenAbgelehnt() {
+        FlottenTabelle tabelle = new FlottenTabelle();
+        tabelle.hinzufuegen(new Fahrzeug("A", 0));
+        tabelle.hinzufuegen(new Auto("B", 2_000_000, 4));
+        assertThatThrownBy(() -> tabelle.abfrage().gruppieren(FlottenSpalte.BAUJAHR).ausfuehren())
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<Fahrzeug> flotte(Random zufall, int anzahl) {
+        List<Fahrzeug> flotte = new ArrayList<>(anzahl);
+        for (int i = 0; i < anzahl; i++) {
+            String marke = MARKEN[zufall.nextInt(MARKEN.length)];
+            int baujahr = 2000 + zufall.nextInt(20);
+            flotte.add(zufall.nextInt(3) == 0 ? new Fahrzeug(marke, baujahr) : new Auto(marke, baujahr, 2 + zufall.nextInt(4)));
+        }
+        return flotte;
+    }
+}
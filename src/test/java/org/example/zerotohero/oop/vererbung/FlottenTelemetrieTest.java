@@ -0,0 +1,149 @@
+package org.example.zerotohero.oop.vererbung;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlottenTelemetrieTest {
+
+    @Test
+    void tabelleHaeltStammdatenKompakt() {
+        FlottenTelemetrie telemetrie = new FlottenTelemetrie(4, 2, 16);
+        int bmw = telemetrie.registrieren(new Auto("BMW", 2023, 4));
+        int fahrzeug = telemetrie.registrieren(new Fahrzeug("Unbekannt", 1999));
+        int nochEinBmw = telemetrie.registrieren(new Fahrzeug("BMW", 2001));
+
+        assertThat(telemetrie.marke(bmw)).isEqualTo("BMW");
+        assertThat(telemetrie.baujahr(bmw)).isEqualTo(2023);
+        assertThat(telemetrie.klasse(bmw)).isEqualTo(Auto.class);
+        assertThat(telemetrie.klasse(fahrzeug)).isEqualTo(Fahrzeug.class);
+        assertThat(telemetrie.marke(nochEinBmw)).isEqualTo("BMW");
+        assertThat(telemetrie.zustand(fahrzeug)).isEqualTo(FahrzeugZustand.ABGESTELLT);
+
+        telemetrie.registrieren(new Fahrzeug("VW", 2010));
+        assertThatThrownBy(() -> telemetrie.registrieren(new Fahrzeug("VW", 2011)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> telemetrie.melden(7, FahrzeugEreignis.STARTEN))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new FlottenTelemetrie(4, 2, 16).registrieren(new Fahrzeug(null, 2000)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void benachbarteFahrzeugeTeilenSichEinenShard() {
+        FlottenTelemetrie telemetrie = new FlottenTelemetrie(4 * FlottenTelemetrie.FAHRZEUGE_PRO_BLOCK, 4, 16);
+        for (int fahrzeug = 0; fahrzeug < FlottenTelemetrie.FAHRZEUGE_PRO_BLOCK; fahrzeug++) {
+            assertThat(telemetrie.shard(fahrzeug)).isZero();
+        }
+        assertThat(telemetrie.shard(FlottenTelemetrie.FAHRZEUGE_PRO_BLOCK)).isEqualTo(1);
+        assertThat(telemetrie.shard(4 * FlottenTelemetrie.FAHRZEUGE_PRO_BLOCK)).isZero();
+    }
+
+    @Test
+    void nachDemSchliessenWirdNichtsMehrAngenommen() {
+        FlottenTelemetrie telemetrie = new FlottenTelemetrie(1, 1, 4).starten();
+        int fahrzeug = telemetrie.registrieren(new Fahrzeug("VW", 2010));
+        telemetrie.close();
+
+        assertThatThrownBy(() -> telemetrie.melden(fahrzeug, FahrzeugEreignis.STARTEN))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(telemetrie.getVerarbeitet()).isZero();
+    }
+
+    @Test
+    void gleichzeitigesRegistrierenVeroeffentlichtNurFertigeZeilen() throws InterruptedException {
+        int fahrzeuge = 2_000;
+        for (int runde = 0; runde < 20; runde++) {
+            FlottenTelemetrie telemetrie = new FlottenTelemetrie(fahrzeuge, 1, 16);
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                // Zusammen mehr Versuche als Plätze, damit auch die volle Tabelle umkämpft ist
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < fahrzeuge; i++) {
+                        try {
+                            telemetrie.registrieren(new Fahrzeug("VW", 2010));
+                        } catch (IllegalStateException voll) {
+                            return;
+                        }
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            int gesehen;
+            do {
+                gesehen = telemetrie.getRegistriert();
+                assertThat(gesehen).isLessThanOrEqualTo(fahrzeuge);
+                if (gesehen > 0) {
+                    assertThat(telemetrie.baujahr(gesehen - 1)).isEqualTo(2010);
+                }
+                assertThatThrownBy(() -> telemetrie.melden(fahrzeuge, FahrzeugEreignis.STARTEN))
+                        .isInstanceOf(IllegalArgumentException.class);
+            } while (gesehen < fahrzeuge);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertThat(telemetrie.getRegistriert()).isEqualTo(fahrzeuge);
+            assertThat(telemetrie.anzahl(FahrzeugZustand.ABGESTELLT)).isEqualTo(fahrzeuge);
+        }
+    }
+
+    @Test
+    void ereignisseMehrererErzeugerWerdenVollstaendigAngewendet() throws InterruptedException {
+        int fahrzeuge = 10_000;
+        int erzeuger = 4;
+        int runden = 51; // ungerade: am Ende läuft jedes Fahrzeug
+        try (FlottenTelemetrie telemetrie = new FlottenTelemetrie(fahrzeuge, 4, 256)) {
+            for (int i = 0; i < fahrzeuge; i++) {
+                telemetrie.registrieren(new Fahrzeug("Marke" + i % 10, 2000 + i % 20));
+            }
+            telemetrie.starten();
+
+            List<Thread> threads = new ArrayList<>();
+            for (int e = 0; e < erzeuger; e++) {
+                int versatz = e;
+                Thread thread = new Thread(() -> {
+                    for (int runde = 0; runde < runden; runde++) {
+                        FahrzeugEreignis ereignis = runde % 2 == 0 ? FahrzeugEreignis.STARTEN : FahrzeugEreignis.STOPPEN;
+                        for (int fahrzeug = versatz; fahrzeug < fahrzeuge; fahrzeug += erzeuger) {
+                            while (!telemetrie.melden(fahrzeug, ereignis)) {
+                                Thread.onSpinWait();
+                            }
+                        }
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            telemetrie.leeren();
+
+            assertThat(telemetrie.getVerarbeitet()).isEqualTo((long) fahrzeuge * runden);
+            assertThat(telemetrie.getUngueltig()).isZero();
+            assertThat(telemetrie.anzahl(FahrzeugZustand.LAEUFT)).isEqualTo(fahrzeuge);
+            assertThat(telemetrie.anzahlWechsel(1234)).isEqualTo(runden);
+        }
+    }
+
+    @Test
+    void vollerRingWeistAbUndUngueltigeWechselWerdenGezaehlt() {
+        FlottenTelemetrie telemetrie = new FlottenTelemetrie(1, 1, 4);
+        int fahrzeug = telemetrie.registrieren(new Fahrzeug("VW", 2010));
+        for (int i = 0; i < 4; i++) {
+            assertThat(telemetrie.melden(fahrzeug, FahrzeugEreignis.STARTEN)).isTrue();
+        }
+        assertThat(telemetrie.melden(fahrzeug, FahrzeugEreignis.STOPPEN)).isFalse();
+        assertThat(telemetrie.getAbgewiesen()).isEqualTo(1);
+
+        telemetrie.leeren();
+        assertThat(telemetrie.zustand(fahrzeug)).isEqualTo(FahrzeugZustand.LAEUFT);
+        assertThat(telemetrie.getUngueltig()).isEqualTo(3);
+        assertThat(telemetrie.melden(fahrzeug, FahrzeugEreignis.STOPPEN)).isTrue();
+    }
+}
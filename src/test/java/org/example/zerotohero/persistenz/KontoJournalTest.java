@@ -0,0 +1,273 @@
+package org.example.zerotohero.persistenz;
+
+import org.example.zerotohero.oop.kapselung.KontoSpeicher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KontoJournalTest {
+
+    @TempDir
+    Path verzeichnis;
+
+    @Test
+    void kontostaendeUeberlebenDenNeustart() throws IOException {
+        try (JournalisierterKontoSpeicher konten = JournalisierterKontoSpeicher.oeffnen(verzeichnis, KontoJournal.Modus.FSYNC_PRO_OPERATION)) {
+            int a = konten.anlegen(100.0);
+            int b = konten.anlegen(0.0);
+            konten.einzahlen(b, 12.5);
+            konten.abheben(a, 30.0);
+            assertThat(konten.abheben(b, 99.0)).isFalse();
+        }
+
+        try (JournalisierterKontoSpeicher konten = JournalisierterKontoSpeicher.oeffnen(verzeichnis, KontoJournal.Modus.GRUPPEN_COMMIT)) {
+            assertThat(konten.getSpeicher().anzahlKonten()).isEqualTo(2);
+            assertThat(konten.getKontostand(0)).isEqualTo(70.0);
+            assertThat(konten.getKontostand(1)).isEqualTo(12.5);
+        }
+    }
+
+    @Test
+    void gruppenCommitUnterKonkurrenzUndSegmentwechsel() throws Exception {
+        int threads = 8;
+        int buchungenProThread = 2_000;
+        try (KontoJournal journal = KontoJournal.oeffnen(verzeichnis, KontoJournal.Modus.GRUPPEN_COMMIT, 64 * 1024, (k, d) -> { })) {
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    int kontoId = t;
+                    futures.add(pool.submit(() -> {
+                        for (int i = 0; i < buchungenProThread; i++) {
+                            journal.anhaengen(kontoId, 1);
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get(60, TimeUnit.SECONDS);
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        assertThat(KontoJournal.segmente(verzeichnis)).hasSizeGreaterThan(1);
+        long[] summen = new long[threads];
+        try (KontoJournal journal = KontoJournal.oeffnen(verzeichnis, KontoJournal.Modus.GRUPPEN_COMMIT, (k, d) -> summen[k] += d)) {
+            assertThat(summen).containsOnly(buchungenProThread);
+        }
+    }
+
+    @Test
+    void abgerissenerLetzterEintragWirdAbgeschnitten() throws IOException {
+        try (KontoJournal journal = KontoJournal.oeffnen(verzeichnis, KontoJournal.Modus.GRUPPEN_COMMIT, (k, d) -> { })) {
+            journal.anhaengen(3, 500);
+            journal.anhaengen(3, -200);
+        }
+        Path segment = KontoJournal.segmente(verzeichnis).get(0);
+        try (FileChannel kanal = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            kanal.write(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6, 7})); // Halber Eintrag wie nach einem Absturz
+        }
+
+        List<Long> buchungen = new ArrayList<>();
+        try (KontoJournal journal = KontoJournal.oeffnen(verzeichnis, KontoJournal.Modus.GRUPPEN_COMMIT, (k, d) -> buchungen.add(d))) {
+            journal.anhaengen(3, 1);
+        }
+        assertThat(buchungen).containsExactly(500L, -200L);
+        assertThat(Files.size(segment)).isEqualTo(3L * KontoJournal.EINTRAG_GROESSE);
+    }
+
+    @Test
+    void startAusSnapshotUndJournalRest() throws IOException {
+        try (JournalisierterKontoSpeicher konten = JournalisierterKontoSpeicher.oeffnen(verzeichnis, KontoJournal.Modus.GRUPPEN_COMMIT)) {
+            for (int i = 0; i < 1_000; i++) {
+                konten.anlegen(i);
+            }
+            konten.checkpoint();
+            konten.einzahlen(7, 3.0);
+            konten.checkpoint(); // Inkrementell: nur das neue Segment wird nachgespielt
+            konten.abheben(999, 99.0);
+        }
+
+        assertThat(KontoSnapshot.snapshots(verzeichnis)).hasSize(1);
+        assertThat(KontoJournal.segmente(verzeichnis)).hasSize(1);
+
+        try (JournalisierterKontoSpeicher konten = JournalisierterKontoSpeicher.oeffnen(verzeichnis, KontoJournal.Modus.GRUPPEN_COMMIT)) {
+            assertThat(konten.getSpeicher().anzahlKonten()).isEqualTo(1_000);
+            assertThat(konten.getKontostand(7)).isEqualTo(10.0);
+            assertThat(konten.getKontostand(999)).isEqualTo(900.0);
+            assertThat(konten.getKontostand(500)).isEqualTo(500.0);
+        }
+    }
+
+    @Test
+    void schreibfehlerWaehrendKonkurrierenderBuchungen() throws Exception {
+        int konten = 4;
+        int threads = 8;
+        // Bestätigte Buchungen pro Konto in Cent; nur sie dürfen im Speicher und nach dem Neustart stehen
+        AtomicLongArray bestaetigt = new AtomicLongArray(konten);
+        try (JournalisierterKontoSpeicher speicher = JournalisierterKontoSpeicher.oeffnen(verzeichnis, KontoJournal.Modus.GRUPPEN_COMMIT)) {
+            for (int k = 0; k < konten; k++) {
+                speicher.anlegen(0);
+            }
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<Integer>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    boolean einzahler = t % 2 == 0;
+                    futures.add(pool.submit(() -> {
+                        int gebucht = 0;
+                        try {
+                            for (int i = 0; ; i++) {
+                                int kontoId = i % konten;
+                                if (einzahler) {
+                                    speicher.einzahlen(kontoId, 0.01);
+                                    bestaetigt.addAndGet(kontoId, 1);
+                                    gebucht++;
+                                } else if (speicher.abheben(kontoId, 0.01)) {
+                                    bestaetigt.addAndGet(kontoId, -1);
+                                    gebucht++;
+                                }
+                                for (int k = 0; k < konten; k++) {
+                                    assertThat(speicher.getSpeicher().getKontostandCent(k)).isNotNegative();
+                                }
+                            }
+                        } catch (IOException e) {
+                            return gebucht; // Ab dem Schreibfehler scheitert jede Buchung
+                        }
+                    }));
+                }
+                Thread.sleep(200);
+                speicher.getJournal().schreibfehlerAusloesen(new IOException("Platte voll"));
+                int gebucht = 0;
+                for (Future<Integer> future : futures) {
+                    gebucht += future.get(60, TimeUnit.SECONDS);
+                }
+                assertThat(gebucht).isPositive();
+            } finally {
+                pool.shutdownNow();
+            }
+
+            assertThatThrownBy(() -> speicher.anlegen(5.0)).isInstanceOf(IOException.class);
+            assertThat(speicher.getSpeicher().getKontostandCent(konten)).isZero();
+            for (int k = 0; k < konten; k++) {
+                assertThat(speicher.getSpeicher().getKontostandCent(k)).isEqualTo(bestaetigt.get(k)).isNotNegative();
+            }
+        }
+
+        try (JournalisierterKontoSpeicher speicher = JournalisierterKontoSpeicher.oeffnen(verzeichnis, KontoJournal.Modus.GRUPPEN_COMMIT)) {
+            assertThat(speicher.getSpeicher().anzahlKonten()).isEqualTo(konten);
+            for (int k = 0; k < konten; k++) {
+                assertThat(speicher.getSpeicher().getKontostandCent(k)).isEqualTo(bestaetigt.get(k));
+            }
+        }
+    }
+
+    @Test
+    void ueberzogenesJournalWirdAbgelehnt() throws IOException {
+        try (KontoJournal journal = KontoJournal.oeffnen(verzeichnis, KontoJournal.Modus.GRUPPEN_COMMIT, (k, d) -> { })) {
+            journal.anhaengen(0, 100);
+            journal.anhaengen(0, -150);
+        }
+
+        assertThatThrownBy(() -> JournalisierterKontoSpeicher.oeffnen(verzeichnis, KontoJournal.Modus.GRUPPEN_COMMIT))
+                .isInstanceOf(IllegalStateException.class).hasMessageContaining("überzieht Konto 0");
+    }
+
+    @Test
+    void ueberlaufendeEinzahlungWirdGegengebucht() throws IOException {
+        long stand;
+        try (JournalisierterKontoSpeicher konten = JournalisierterKontoSpeicher.oeffnen(verzeichnis, KontoJournal.Modus.GRUPPEN_COMMIT)) {
+            int konto = konten.anlegen(9.0e16);
+            assertThat(konten.einzahlen(konto, 3.0e15)).isFalse();
+            assertThat(konten.abheben(konto, 1.0)).isTrue();
+            stand = konten.getSpeicher().getKontostandCent(konto);
+            assertThat(stand).isEqualTo(9_000_000_000_000_000_000L - 100);
+        }
+        try (JournalisierterKontoSpeicher konten = JournalisierterKontoSpeicher.oeffnen(verzeichnis, KontoJournal.Modus.GRUPPEN_COMMIT)) {
+            assertThat(konten.getSpeicher().getKontostandCent(0)).isEqualTo(stand);
+        }
+    }
+
+    @Test
+    void gegenbuchungNachFremderEinzahlungStelltDenStandWiederHer() throws IOException {
+        // Zwei gleichzeitige Einzahlungen: die später gesicherte wurde gutgeschrieben, die frühere gegengebucht
+        try (KontoJournal journal = KontoJournal.oeffnen(verzeichnis, KontoJournal.Modus.GRUPPEN_COMMIT, (k, d) -> { })) {
+            journal.anhaengen(0, Long.MAX_VALUE - 10);
+            journal.anhaengen(0, 8);
+            journal.anhaengen(0, 5);
+            journal.anhaengen(0, -3);
+            journal.anhaengen(0, -8);
+        }
+
+        try (JournalisierterKontoSpeicher konten = JournalisierterKontoSpeicher.oeffnen(verzeichnis, KontoJournal.Modus.GRUPPEN_COMMIT)) {
+            assertThat(konten.getSpeicher().getKontostandCent(0)).isEqualTo(Long.MAX_VALUE - 8);
+        }
+    }
+
+    @Test
+    void beschaedigterSnapshotBrichtDasOeffnenAb() throws IOException {
+        try (JournalisierterKontoSpeicher konten = JournalisierterKontoSpeicher.oeffnen(verzeichnis, KontoJournal.Modus.GRUPPEN_COMMIT)) {
+            konten.anlegen(10.0);
+            konten.checkpoint();
+            konten.einzahlen(0, 1.0);
+        }
+        Path snapshot = KontoSnapshot.snapshots(verzeichnis).get(0);
+        try (FileChannel kanal = FileChannel.open(snapshot, StandardOpenOption.WRITE)) {
+            kanal.write(ByteBuffer.wrap(new byte[]{42}), 30); // Ein Byte im ersten Kontostand
+        }
+        List<Path> segmente = KontoJournal.segmente(verzeichnis);
+
+        assertThatThrownBy(() -> JournalisierterKontoSpeicher.oeffnen(verzeichnis, KontoJournal.Modus.GRUPPEN_COMMIT))
+                .isInstanceOf(IOException.class).hasMessageContaining("Snapshot ist beschädigt");
+        assertThat(KontoJournal.segmente(verzeichnis)).isEqualTo(segmente); // Nichts gelöscht
+    }
+
+    @Test
+    void absturzZwischenUmbenennenUndLoeschen() throws IOException {
+        try (JournalisierterKontoSpeicher konten = JournalisierterKontoSpeicher.oeffnen(verzeichnis, KontoJournal.Modus.GRUPPEN_COMMIT)) {
+            konten.anlegen(10.0);
+            konten.checkpoint();
+            konten.einzahlen(0, 2.0);
+            konten.anlegen(4.0);
+        }
+        // Ein Checkpoint, der nach dem Umbenennen des Snapshots abstürzt: Segmente und alter Snapshot bleiben liegen
+        KontoSpeicher stand = new KontoSpeicher();
+        KontoSnapshot.laden(KontoSnapshot.snapshots(verzeichnis).get(0), stand);
+        long bisSegment = 0;
+        for (Path segment : KontoJournal.segmente(verzeichnis)) {
+            KontoJournal.lesen(segment, (kontoId, delta) -> JournalisierterKontoSpeicher.nachspielen(stand, kontoId, delta));
+            bisSegment = KontoJournal.segmentNummer(segment);
+        }
+        KontoSnapshot.schreiben(verzeichnis, stand, bisSegment);
+        assertThat(KontoSnapshot.snapshots(verzeichnis)).hasSize(2);
+
+        try (JournalisierterKontoSpeicher konten = JournalisierterKontoSpeicher.oeffnen(verzeichnis, KontoJournal.Modus.GRUPPEN_COMMIT)) {
+            assertThat(KontoJournal.segmente(verzeichnis)).isEmpty(); // Reste beim Öffnen aufgeräumt
+            assertThat(konten.getSpeicher().anzahlKonten()).isEqualTo(2);
+            assertThat(konten.getKontostand(0)).isEqualTo(12.0); // Nicht doppelt nachgespielt
+            assertThat(konten.getKontostand(1)).isEqualTo(4.0);
+            konten.einzahlen(1, 1.0);
+        }
+        try (JournalisierterKontoSpeicher konten = JournalisierterKontoSpeicher.oeffnen(verzeichnis, KontoJournal.Modus.GRUPPEN_COMMIT)) {
+            assertThat(konten.getKontostand(1)).isEqualTo(5.0);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package org.example.zerotohero.persistenz;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Läuft gegen eine eingebettete H2-Datenbank als Ersatz für PostgreSQL.
+ */
+@JdbcTest
+@Import(KontoRepository.class)
+@TestPropertySource(properties = {"zerotohero.konten.flush-schwelle=1000000", "zerotohero.konten.batch-groesse=7"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class KontoRepositoryTest {
+
+    @Autowired
+    KontoRepository repository;
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @Test
+    void schreibtNurGeaenderteKontenUndLaedtSieWieder() {
+        jdbc.update("DELETE FROM konto");
+        KontoRepository frisch = new KontoRepository(jdbc, 1_000_000, 7);
+        frisch.laden();
+
+        int a = frisch.anlegen(100.0);
+        int b = frisch.anlegen(0.0);
+        for (int i = 0; i < 20; i++) {
+            frisch.anlegen(i);
+        }
+        assertThat(frisch.flush()).isEqualTo(22);
+        assertThat(frisch.flush()).isZero();
+
+        frisch.einzahlen(b, 12.5);
+        frisch.ueberweisen(a, b, 30.0);
+        assertThat(frisch.abheben(b, 1_000.0)).isFalse();
+        assertThat(zeilenstand(b)).isZero(); // Noch nicht geschrieben: Lesen kommt aus dem Speicher
+        assertThat(frisch.getKontostand(b)).isEqualTo(42.5);
+
+        assertThat(frisch.flush()).isEqualTo(2);
+        assertThat(zeilenstand(a)).isEqualTo(7_000);
+        assertThat(zeilenstand(b)).isEqualTo(4_250);
+
+        KontoRepository nachNeustart = new KontoRepository(jdbc, 1_000_000, 7);
+        nachNeustart.laden();
+        assertThat(nachNeustart.getKontostand(a)).isEqualTo(70.0);
+        assertThat(nachNeustart.getKontostand(b)).isEqualTo(42.5);
+        assertThat(nachNeustart.getKontostand(21)).isEqualTo(19.0);
+        assertThat(nachNeustart.anlegen(1.0)).isEqualTo(22);
+    }
+
+    @Test
+    void springBeanIstEinsatzbereit() {
+        jdbc.update("DELETE FROM konto");
+        int kontoId = repository.anlegen(5.0);
+        repository.flush();
+        assertThat(zeilenstand(kontoId)).isEqualTo(500);
+    }
+
+    @Test
+    void lueckenUndVerschwundeneZeilenWerdenEingefuegt() {
+        jdbc.update("DELETE FROM konto");
+        jdbc.update("INSERT INTO konto (konto_id, kontostand_cent) VALUES (0, 100), (3, 300)");
+        KontoRepository frisch = new KontoRepository(jdbc, 1_000_000, 7);
+        frisch.laden();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM konto", Integer.class)).isEqualTo(4);
+
+        frisch.einzahlen(1, 5.0); // Lücke: angelegt, aber vor dem Neustart nie geschrieben
+        jdbc.update("DELETE FROM konto WHERE konto_id = 3"); // Wie ein Konto, das erst nach einem höheren eingefügt wird
+        frisch.abheben(3, 1.0);
+        assertThat(frisch.flush()).isEqualTo(2);
+
+        assertThat(zeilenstand(1)).isEqualTo(500);
+        assertThat(zeilenstand(3)).isEqualTo(200);
+    }
+
+    @Test
+    void buchungNachDemBeendenWirdNochGeschrieben() {
+        jdbc.update("DELETE FROM konto");
+        KontoRepository frisch = new KontoRepository(jdbc, 1, 7);
+        frisch.laden();
+        int kontoId = frisch.anlegen(1.0);
+        frisch.beenden();
+
+        assertThat(frisch.einzahlen(kontoId, 2.0)).isTrue();
+        assertThat(zeilenstand(kontoId)).isEqualTo(300);
+    }
+
+    @Test
+    void ueberweisungAufEinVollesKontoWirdZurueckgebucht() {
+        jdbc.update("DELETE FROM konto");
+        KontoRepository frisch = new KontoRepository(jdbc, 1_000_000, 7);
+        frisch.laden();
+        int von = frisch.anlegen(100.0);
+        int nach = frisch.anlegen(0.0);
+        frisch.einzahlen(nach, Long.MAX_VALUE / 100 - 10);
+        long vorher = frisch.getKontostandCent(nach);
+
+        assertThat(frisch.ueberweisen(von, nach, 50.0)).isFalse();
+        assertThat(frisch.getKontostandCent(von)).isEqualTo(10_000);
+        assertThat(frisch.getKontostandCent(nach)).isEqualTo(vorher);
+    }
+
+    @Test
+    void nachEinemTeilweiseGeschriebenenFlushKlapptDerNaechste() {
+        jdbc.update("DELETE FROM konto");
+        KontoRepository frisch = new KontoRepository(jdbc, 1_000_000, 7);
+        frisch.laden();
+        for (int i = 0; i < 22; i++) {
+            frisch.anlegen(i);
+        }
+        // Der zweite Batch (Konten 7 bis 13) scheitert am Primärschlüssel, der erste ist dann schon geschrieben
+        jdbc.update("INSERT INTO konto (konto_id, kontostand_cent) VALUES (10, 0)");
+        assertThatThrownBy(frisch::flush).isInstanceOf(DataAccessException.class);
+        assertThat(zeilenstand(3)).isEqualTo(300);
+
+        assertThat(frisch.flush()).isEqualTo(22);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM konto", Integer.class)).isEqualTo(22);
+        assertThat(zeilenstand(10)).isEqualTo(1_000);
+        assertThat(zeilenstand(21)).isEqualTo(2_100);
+    }
+
+    @Test
+    void fehlgeschlageneHintergrundFlushesWartenImmerLaenger() throws InterruptedException {
+        jdbc.update("DELETE FROM konto");
+        AtomicBoolean datenbankWeg = new AtomicBoolean();
+        AtomicInteger versuche = new AtomicInteger();
+        JdbcTemplate unzuverlaessig = new JdbcTemplate(jdbc.getDataSource()) {
+            @Override
+            public int[] batchUpdate(String sql, BatchPreparedStatementSetter setter) {
+                versuche.incrementAndGet();
+                if (datenbankWeg.get()) {
+                    throw new DataAccessResourceFailureException("Datenbank nicht erreichbar");
+                }
+                return super.batchUpdate(sql, setter);
+            }
+        };
+        KontoRepository frisch = new KontoRepository(unzuverlaessig, 1, 7);
+        frisch.laden();
+        versuche.set(0);
+        datenbankWeg.set(true);
+
+        int kontoId = frisch.anlegen(1.0); // Schwelle 1: löst sofort einen Hintergrund-Flush aus
+        Thread.sleep(500);
+        // Versuche nach 0, 100 und 300 ms; ohne Wartezeit wären es Tausende
+        assertThat(versuche.get()).isBetween(1, 5);
+
+        datenbankWeg.set(false);
+        long ende = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (zeilenstand(kontoId) != 100 && System.nanoTime() < ende) {
+            Thread.sleep(20);
+        }
+        assertThat(zeilenstand(kontoId)).isEqualTo(100);
+        frisch.beenden();
+    }
+
+    private long zeilenstand(int kontoId) {
+        return jdbc.queryForList("SELECT kontostand_cent FROM konto WHERE konto_id = ?", Long.class, kontoId)
+                .stream().findFirst().orElse(0L);
+    }
+}
@@ -0,0 +1,141 @@
+package org.example.zerotohero.web;
+
+import org.example.zerotohero.persistenz.KontoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(KontoController.class)
+class KontoControllerTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @MockitoBean
+    KontoRepository repository;
+
+    @Test
+    void abhebungMitDeckung() throws Exception {
+        given(repository.existiert(1)).willReturn(true);
+        given(repository.abheben(1, 20.0)).willReturn(true);
+        given(repository.getKontostand(1)).willReturn(80.0);
+
+        mvc.perform(post("/konten/1/abhebung").param("betrag", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.kontoId").value(1))
+                .andExpect(jsonPath("$.kontostand").value(80.0));
+    }
+
+    @Test
+    void anlegenGibtDasNeueKontoZurueck() throws Exception {
+        given(repository.anlegen(100.0)).willReturn(7);
+        given(repository.getKontostand(7)).willReturn(100.0);
+
+        mvc.perform(post("/konten").param("betrag", "100"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.kontoId").value(7))
+                .andExpect(jsonPath("$.kontostand").value(100.0));
+    }
+
+    @Test
+    void anlegenLehntUngueltigeAnfangsstaendeAb() throws Exception {
+        for (String betrag : new String[]{"-1", "NaN", "Infinity"}) {
+            mvc.perform(post("/konten").param("betrag", betrag))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("UNGUELTIGER_BETRAG"));
+        }
+        mvc.perform(post("/konten").param("betrag", "viel"))
+                .andExpect(status().isBadRequest());
+        then(repository).should(never()).anlegen(anyDouble());
+    }
+
+    @Test
+    void einzahlung() throws Exception {
+        given(repository.existiert(1)).willReturn(true);
+        given(repository.einzahlen(1, 12.5)).willReturn(true);
+        given(repository.getKontostand(1)).willReturn(112.5);
+
+        mvc.perform(post("/konten/1/einzahlung").param("betrag", "12.5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.kontoId").value(1))
+                .andExpect(jsonPath("$.kontostand").value(112.5));
+    }
+
+    @Test
+    void einzahlungAbgelehnt() throws Exception {
+        given(repository.existiert(1)).willReturn(true);
+        given(repository.einzahlen(anyInt(), anyDouble())).willReturn(false);
+
+        mvc.perform(post("/konten/1/einzahlung").param("betrag", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("UNGUELTIGER_BETRAG"));
+        mvc.perform(post("/konten/2/einzahlung").param("betrag", "5"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("KONTO_NICHT_GEFUNDEN"));
+        mvc.perform(post("/konten/1/einzahlung"))
+                .andExpect(status().isBadRequest());
+        then(repository).should(never()).einzahlen(2, 5.0);
+    }
+
+    @Test
+    void ueberweisung() throws Exception {
+        given(repository.existiert(1)).willReturn(true);
+        given(repository.existiert(2)).willReturn(true);
+        given(repository.ueberweisen(1, 2, 30.0)).willReturn(true);
+        given(repository.getKontostand(1)).willReturn(70.0);
+
+        mvc.perform(post("/ueberweisungen").param("von", "1").param("nach", "2").param("betrag", "30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.kontoId").value(1))
+                .andExpect(jsonPath("$.kontostand").value(70.0));
+    }
+
+    @Test
+    void ueberweisungAbgelehnt() throws Exception {
+        given(repository.existiert(1)).willReturn(true);
+        given(repository.existiert(2)).willReturn(true);
+        given(repository.ueberweisen(anyInt(), anyInt(), anyDouble())).willReturn(false);
+
+        mvc.perform(post("/ueberweisungen").param("von", "1").param("nach", "2").param("betrag", "500"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("UNGENUEGENDE_DECKUNG"));
+        mvc.perform(post("/ueberweisungen").param("von", "1").param("nach", "2").param("betrag", "0.001"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("UNGUELTIGER_BETRAG"));
+        mvc.perform(post("/ueberweisungen").param("von", "1").param("nach", "99").param("betrag", "5"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("KONTO_NICHT_GEFUNDEN"));
+        mvc.perform(post("/ueberweisungen").param("von", "1").param("betrag", "5"))
+                .andExpect(status().isBadRequest());
+        then(repository).should(never()).ueberweisen(1, 2, 0.001);
+        then(repository).should(never()).ueberweisen(1, 99, 5.0);
+    }
+
+    @Test
+    void fachlicheFehlerWerdenAufVorbereiteteAntwortenAbgebildet() throws Exception {
+        given(repository.existiert(1)).willReturn(true);
+        given(repository.abheben(anyInt(), anyDouble())).willReturn(false);
+
+        mvc.perform(post("/konten/1/abhebung").param("betrag", "500"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("UNGENUEGENDE_DECKUNG"));
+        mvc.perform(post("/konten/1/abhebung").param("betrag", "-3"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("UNGUELTIGER_BETRAG"));
+        mvc.perform(get("/konten/99"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("KONTO_NICHT_GEFUNDEN"));
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.zerotohero.web;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Lastgenerator für die Konto-Schnittstelle. Misst Anfragen pro Sekunde sowie p50/p99 der Latenz
+ * für eine Mischung aus Kontostand (40 %), Einzahlung (25 %), Abhebung (25 %) und Überweisung (10 %).
+ *
+ * Vergleich virtuelle Threads gegen den Tomcat-Thread-Pool: die Anwendung einmal normal und einmal mit
+ * {@code --spring.threads.virtual.enabled=false} starten und jeweils diesen Generator laufen lassen.
+ *
+ * Argumente: [Basis-URL] [gleichzeitige Clients] [Dauer in Sekunden] [Anzahl Konten]
+ * (Standard: http://localhost:8080 400 30 1000).
+ */
+public class KontoLastgenerator {
+
+    public static void main(String[] args) throws Exception {
+        String basis = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 400;
+        int sekunden = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int konten = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+
+        HttpClient http = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        int[] kontoIds = new int[konten];
+        for (int i = 0; i < konten; i++) {
+            String antwort = senden(http, HttpRequest.newBuilder(URI.create(basis + "/konten?betrag=1000"))
+                    .POST(HttpRequest.BodyPublishers.noBody())).body();
+            kontoIds[i] = Integer.parseInt(antwort.replaceAll(".*\"kontoId\":(\\d+).*", "$1"));
+        }
+
+        long ende = System.nanoTime() + Duration.ofSeconds(sekunden).toNanos();
+        List<Future<long[]>> ergebnisse = new ArrayList<>();
+        int[] fehler = new int[1];
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                ergebnisse.add(executor.submit(() -> {
+                    long[] latenzen = new long[1024];
+                    int anzahl = 0;
+                    ThreadLocalRandom zufall = ThreadLocalRandom.current();
+                    while (System.nanoTime() < ende) {
+                        HttpRequest.Builder anfrage = zufaelligeAnfrage(basis, kontoIds, zufall);
+                        long start = System.nanoTime();
+                        HttpResponse<String> antwort = senden(http, anfrage);
+                        long dauer = System.nanoTime() - start;
+                        if (antwort.statusCode() >= 500) {
+                            synchronized (fehler) {
+                                fehler[0]++;
+                            }
+                        }
+                        if (anzahl == latenzen.length) {
+                            latenzen = Arrays.copyOf(latenzen, anzahl * 2);
+                        }
+                        latenzen[anzahl++] = dauer;
+                    }
+                    return Arrays.copyOf(latenzen, anzahl);
+                }));
+            }
+        }
+
+        long[] alle = ergebnisse.stream().map(KontoLastgenerator::holen).flatMapToLong(Arrays::stream).toArray();
+        Arrays.sort(alle);
+        System.out.printf("Clients: %d, Dauer: %d s, Anfragen: %,d, Serverfehler: %d%n", clients, sekunden, alle.length, fehler[0]);
+        System.out.printf("Durchsatz: %,.0f Anfragen/s%n", alle.length / (double) sekunden);
+        System.out.printf("Latenz p50: %.2f ms, p99: %.2f ms, max: %.2f ms%n",
+                perzentil(alle, 0.50) / 1e6, perzentil(alle, 0.99) / 1e6, alle[alle.length - 1] / 1e6);
+    }
+
+    private static HttpRequest.Builder zufaelligeAnfrage(String basis, int[] kontoIds, ThreadLocalRandom zufall) {
+        int konto = kontoIds[zufall.nextInt(kontoIds.length)];
+        int art = zufall.nextInt(100);
+        String betrag = String.valueOf(zufall.nextInt(1, 50));
+        if (art < 40) {
+            return HttpRequest.newBuilder(URI.create(basis + "/konten/" + konto)).GET();
+        }
+        String pfad;
+        if (art < 65) {
+            pfad = "/konten/" + konto + "/einzahlung?betrag=" + betrag;
+        } else if (art < 90) {
+            pfad = "/konten/" + konto + "/abhebung?betrag=" + betrag;
+        } else {
+            int nach = kontoIds[zufall.nextInt(kontoIds.length)];
+            pfad = "/ueberweisungen?von=" + konto + "&nach=" + nach + "&betrag=" + betrag;
+        }
+        return HttpRequest.newBuilder(URI.create(basis + pfad)).POST(HttpRequest.BodyPublishers.noBody());
+    }
+
+    private static HttpResponse<String> senden(HttpClient http, HttpRequest.Builder anfrage) throws Exception {
+        return http.send(anfrage.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static long[] holen(Future<long[]> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw new IllegalStateException("Client ist fehlgeschlagen.", e);
+        }
+    }
+
+    private static long perzentil(long[] sortiert, double anteil) {
+        return sortiert[Math.min(sortiert.length - 1, (int) Math.ceil(anteil * sortiert.length) - 1)];
+    }
+}